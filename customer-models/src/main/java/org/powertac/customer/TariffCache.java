@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2026 by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.powertac.customer;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.powertac.common.Tariff;
+
+/**
+ * Per-tariff cache for the profiles and plans that customer models compute
+ * while evaluating tariffs. Entries are created on demand, and are dropped
+ * by evictInactive() once their tariffs are revoked or expired. Models call
+ * that at the start of each tariff evaluation, which the TariffMarket runs
+ * at each publication, right after it has processed revocations. Keeps
+ * counts of hits, misses, and evictions.
+ *
+ * @author agent
+ */
+public class TariffCache<V>
+{
+  static private Logger log =
+      LogManager.getLogger(TariffCache.class.getName());
+
+  private String name;
+  private Map<Tariff, V> entries = new HashMap<>();
+
+  private long hits = 0L;
+  private long misses = 0L;
+  private long evictions = 0L;
+
+  /**
+   * Creates an empty cache. The name identifies it in the log.
+   */
+  public TariffCache (String name)
+  {
+    super();
+    this.name = name;
+  }
+
+  /**
+   * Returns the entry for the given tariff, calling the factory to create
+   * it if it is not in the cache.
+   */
+  public V get (Tariff tariff, Function<Tariff, V> factory)
+  {
+    V result = entries.get(tariff);
+    if (null != result) {
+      hits += 1;
+      return result;
+    }
+    misses += 1;
+    result = factory.apply(tariff);
+    entries.put(tariff, result);
+    return result;
+  }
+
+  /**
+   * Returns the entry for the given tariff, or null if there is none.
+   * Does not count as a hit or a miss.
+   */
+  public V peek (Tariff tariff)
+  {
+    return entries.get(tariff);
+  }
+
+  /**
+   * Removes the entries for tariffs that have been revoked or have expired,
+   * and returns the number removed.
+   */
+  public int evictInactive ()
+  {
+    int count = 0;
+    Iterator<Tariff> tariffs = entries.keySet().iterator();
+    while (tariffs.hasNext()) {
+      Tariff tariff = tariffs.next();
+      if (tariff.isRevoked() || tariff.isExpired()) {
+        tariffs.remove();
+        count += 1;
+      }
+    }
+    evictions += count;
+    if (log.isDebugEnabled()) {
+      log.debug("{} evicted {}", this, count);
+    }
+    return count;
+  }
+
+  /**
+   * Removes all entries.
+   */
+  public void clear ()
+  {
+    evictions += entries.size();
+    entries.clear();
+  }
+
+  public int size ()
+  {
+    return entries.size();
+  }
+
+  public long getHits ()
+  {
+    return hits;
+  }
+
+  public long getMisses ()
+  {
+    return misses;
+  }
+
+  public long getEvictions ()
+  {
+    return evictions;
+  }
+
+  @Override
+  public String toString ()
+  {
+    return name + ": size " + entries.size() + ", hits " + hits
+        + ", misses " + misses + ", evictions " + evictions;
+  }
+}
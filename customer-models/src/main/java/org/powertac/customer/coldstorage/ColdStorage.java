@@ -16,9 +16,7 @@
 package org.powertac.customer.coldstorage;
 
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.apache.commons.math3.distribution.NormalDistribution;
 import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
@@ -43,6 +41,7 @@ import org.powertac.common.repo.RandomSeedRepo;
 import org.powertac.common.state.Domain;
 import org.powertac.common.state.StateChange;
 import org.powertac.customer.AbstractCustomer;
+import org.powertac.customer.TariffCache;
 
 /**
  * *** Description is incorrect ***
@@ -93,6 +92,7 @@ implements CustomerModelAccessor
   private double ncMeanReversion = 0.06;
   private double unitSize = 40.0; // tons
   private double hysteresis = 0.04; // control range
+  private boolean batchMode = false; // step instances together
 
   // model state
   private PowerType powerType;
@@ -197,7 +197,7 @@ implements CustomerModelAccessor
     double regulation = getSubscription().getRegulation();
     if (regulation != 0.0) {
       // positive value is up-regulation, which means we lost that much
-      double tempChange = regulation * cop / currentStock / CP_ICE;
+      double tempChange = regulationRise(regulation, cop, currentStock);
       log.info(getName() + ": regulation = " + regulation
                + ", tempChange = " + tempChange);
       setCurrentTemp(currentTemp + tempChange);
@@ -245,6 +245,37 @@ implements CustomerModelAccessor
     getSubscription().usePower(totalEnergyUsed);
   }
 
+  /**
+   * Steps instances together in a Batch when batchMode is set. Off by
+   * default: a batch writes each instance's temperature back once per step,
+   * so the state log records fewer setCurrentTemp() changes than step() does,
+   * although the resulting state is the same.
+   */
+  @Override
+  public boolean isBatchStepped ()
+  {
+    return batchMode;
+  }
+
+  // The batch is kept by the instance it was last handed to, and rebuilt
+  // when the set of instances changes
+  private Batch batch = null;
+
+  /**
+   * Steps a set of ColdStorage instances together. They share the
+   * weather report of this instance's service.
+   */
+  @Override
+  public void stepBatch (List<? extends AbstractCustomer> models)
+  {
+    if (null == batch || !batch.covers(models)) {
+      batch = new Batch(models);
+    }
+    WeatherReport weather =
+        service.getWeatherReportRepo().currentWeatherReport();
+    batch.step(weather.getTemperature());
+  }
+
   // digs out the current subscription for this thing. Since the population is
   // always one, there should only ever be one of them
   private TariffSubscription getSubscription ()
@@ -273,20 +304,9 @@ implements CustomerModelAccessor
     EnergyInfo result = new EnergyInfo();
     double coolingLoss = computeCoolingLoss(outsideTemp);
     // at this point, coolingLoss is the energy needed to maintain current temp
-    double adjustmentCooling = 0.0;
-    if (currentTemp < (targetTemp - hysteresis / 2.0)) {
-      // go to nominal as quickly as possible
-      double maxWarming = coolingLoss;
-      double neededWarming =
-          currentStock * CP_ICE * (targetTemp - currentTemp);
-      adjustmentCooling = -Math.min(maxWarming, neededWarming);
-    }
-    else if (currentTemp > (targetTemp + hysteresis / 2.0)) {
-      double maxCooling = getMaxCooling() - coolingLoss;
-      double neededCooling =
-          currentStock * CP_ICE * (currentTemp - targetTemp);
-      adjustmentCooling = Math.min(neededCooling, maxCooling);
-    }
+    double adjustmentCooling =
+        adjustmentCooling(coolingLoss, currentTemp, targetTemp, hysteresis,
+                          currentStock, getMaxCooling());
     result.setDeltaTemp(-adjustmentCooling / (currentStock * CP_ICE));
     result.setEnergy(coolingLoss + adjustmentCooling);
     log.info(getName() + ": temp = " + currentTemp
@@ -303,15 +323,12 @@ implements CustomerModelAccessor
     double turnoverMean = turnoverRatio * stockCapacity / 24.0;
     double sd = turnoverSd * stockCapacity / 24.0;
     // draw turnover quantity this hour from normal distribution
-    double outgoing =
-        Math.max(0.0, (normal01.sample() * sd + turnoverMean));
-    double incoming =
-        Math.max(0.0, (normal01.sample() * sd + turnoverMean));
+    double outgoing = turnover(normal01.sample(), sd, turnoverMean);
+    double incoming = turnover(normal01.sample(), sd, turnoverMean);
     currentStock -=  outgoing;
     double newStock = incoming; // daily-hourly
     double newTemp =
-      ((currentStock * currentTemp + newStock * newStockTemp)
-          / (currentStock + newStock));
+      mixedTemp(currentStock, currentTemp, newStock, newStockTemp);
     log.info(getName() + ": remove " + outgoing + "T, add " + incoming
              + "T raises temp " + (newTemp - currentTemp) + "K");
     currentStock += incoming;
@@ -322,11 +339,9 @@ implements CustomerModelAccessor
   {
     if (ncUsageVariability == 0)
       return;
-    currentNcUsage = currentNcUsage
-        + (nonCoolingUsage
-            * (ncUsageVariability * (opSeed.nextDouble() * 2.0 - 1.0)))
-            + ncMeanReversion * (nonCoolingUsage - currentNcUsage);
-    currentNcUsage = Math.max(0.0, currentNcUsage);
+    currentNcUsage =
+        nextNcUsage(currentNcUsage, nonCoolingUsage, ncUsageVariability,
+                    ncMeanReversion, opSeed.nextDouble());
     log.info(getName() + ": Non-cooling usage = " + currentNcUsage);
   }
 
@@ -334,13 +349,81 @@ implements CustomerModelAccessor
   double computeCoolingLoss (double outsideTemp)
   {
     double upperLoss = getCoolingLossPerK() * (outsideTemp - currentTemp);
-    double floorLoss =
-      (R_CONVERSION / getFloorRValue() * getRoofArea())
-          * (GROUND_TEMP - currentTemp);
+    double floorLoss = getFloorLossPerK() * (GROUND_TEMP - currentTemp);
     log.info(getName() + ": heat loss walls & roof: " + upperLoss
              + ", floor: " + floorLoss
              + ", heat load: " + currentNcUsage);
-    return upperLoss + floorLoss + currentNcUsage;
+    return coolingLoss(getCoolingLossPerK(), getFloorLossPerK(), outsideTemp,
+                       currentTemp, currentNcUsage);
+  }
+
+  // floor loss rate kW per K
+  double getFloorLossPerK ()
+  {
+    return R_CONVERSION / getFloorRValue() * getRoofArea();
+  }
+
+  // ------------- Thermal model -----------------
+  // The arithmetic of the model, shared by step(), by the batch and by
+  // tariff evaluation, so that they cannot drift apart.
+
+  // temperature rise due to exercised regulation
+  static double regulationRise (double regulation, double cop, double stock)
+  {
+    return regulation * cop / stock / CP_ICE;
+  }
+
+  // tonnes of stock moved in an hour, given a standard normal sample
+  static double turnover (double sample, double sd, double mean)
+  {
+    return Math.max(0.0, (sample * sd + mean));
+  }
+
+  // temperature after incoming stock at newStockTemp mixes with stock at temp
+  static double mixedTemp (double stock, double temp,
+                           double incoming, double newStockTemp)
+  {
+    return ((stock * temp + incoming * newStockTemp) / (stock + incoming));
+  }
+
+  // non-cooling usage is a mean-reverting random walk, given a uniform draw
+  static double nextNcUsage (double ncUsage, double nonCoolingUsage,
+                             double variability, double meanReversion,
+                             double draw)
+  {
+    double result = ncUsage
+        + (nonCoolingUsage * (variability * (draw * 2.0 - 1.0)))
+        + meanReversion * (nonCoolingUsage - ncUsage);
+    return Math.max(0.0, result);
+  }
+
+  // kWh cooling energy needed to maintain the inside temp
+  static double coolingLoss (double coolingLossPerK, double floorLossPerK,
+                             double outsideTemp, double temp, double ncUsage)
+  {
+    return coolingLossPerK * (outsideTemp - temp)
+        + floorLossPerK * (GROUND_TEMP - temp)
+        + ncUsage;
+  }
+
+  // kWh cooling energy beyond the loss, spent moving toward the target temp;
+  // negative when the stock is to be warmed
+  static double adjustmentCooling (double coolingLoss, double temp,
+                                   double targetTemp, double hysteresis,
+                                   double stock, double maxCooling)
+  {
+    double adjustmentCooling = 0.0;
+    if (temp < (targetTemp - hysteresis / 2.0)) {
+      // go to nominal as quickly as possible
+      double maxWarming = coolingLoss;
+      double neededWarming = stock * CP_ICE * (targetTemp - temp);
+      adjustmentCooling = -Math.min(maxWarming, neededWarming);
+    }
+    else if (temp > (targetTemp + hysteresis / 2.0)) {
+      double neededCooling = stock * CP_ICE * (temp - targetTemp);
+      adjustmentCooling = Math.min(neededCooling, maxCooling - coolingLoss);
+    }
+    return adjustmentCooling;
   }
 
   // Lazy evaluation for walls + roof + infiltration loss rate kW per K
@@ -363,26 +446,30 @@ implements CustomerModelAccessor
   public void evaluateTariffs (List<Tariff> tariffs)
   {
     log.info(getName() + ": evaluate tariffs");
+    if (null != tariffProfiles) {
+      tariffProfiles.evictInactive();
+    }
     tariffEvaluator.evaluateTariffs();
   }
 
   // ------------- CustomerModelAccessor methods -----------------
-  private Map<Tariff, TariffInfo> tariffProfiles = null;
+  private TariffCache<TariffInfo> tariffProfiles = null;
   double nominalHourlyConsumption = 0.0;
   @Override
   public CapacityProfile getCapacityProfile (Tariff tariff)
   {
     // lazy creation of capacityProfile table
     if (null == tariffProfiles) {
-      tariffProfiles = new HashMap<Tariff, TariffInfo>();
+      tariffProfiles = new TariffCache<TariffInfo>(getName() + " profiles");
     }
-    // return existing capacityProfile if it exists
-    TariffInfo info = tariffProfiles.get(tariff);
-    if (null != info) {
-      return info.getCapacityProfile();
-    }
-    // otherwise, create a new capacityProfile
-    info = makeTariffInfo(tariff);
+    return tariffProfiles.get(tariff, this::makeTariffProfile)
+        .getCapacityProfile();
+  }
+
+  // creates the TariffInfo and its capacityProfile for a new tariff
+  private TariffInfo makeTariffProfile (Tariff tariff)
+  {
+    TariffInfo info = makeTariffInfo(tariff);
     if (tariff.isTimeOfUse()) {
       heuristicTouProfile(info);
     }
@@ -393,8 +480,7 @@ implements CustomerModelAccessor
       info.setCapacityProfile(new CapacityProfile(pr, lastSunday()));
     }
     log.debug(getName() + " capacityProfile " + Arrays.toString(info.getCapacityProfile().getProfile()));
-    tariffProfiles.put(tariff, info);
-    return info.getCapacityProfile();
+    return info;
   }
 
   // Should be non-null for any tariff other than the default tariff
@@ -810,6 +896,206 @@ implements CustomerModelAccessor
     return this;
   }
 
+  public boolean isBatchMode ()
+  {
+    return batchMode;
+  }
+
+  @ConfigurableValue(valueType = "Boolean", dump = false,
+      description = "If true, step instances together in one pass")
+  @StateChange
+  public ColdStorage withBatchMode (boolean value)
+  {
+    batchMode = value;
+    return this;
+  }
+
+  /**
+   * Runs the thermal model of a set of ColdStorage instances in one pass
+   * over primitive arrays. Parameters are copied once, when the batch is
+   * built; state is gathered from the instances at the start of each step
+   * and written back at the end. Random draws still come from each
+   * instance's own seeds, in the order step() has always used, so stepping
+   * a batch gives the same results as stepping its members one at a time.
+   */
+  static class Batch
+  {
+    private final ColdStorage[] models;
+
+    // parameters
+    private final double[] cop;
+    private final double[] coolingLossPerK;
+    private final double[] floorLossPerK;
+    private final double[] maxCooling;
+    private final double[] nominalTemp;
+    private final double[] hysteresis;
+    private final double[] minTemp;
+    private final double[] maxTemp;
+    private final double[] turnoverMean;
+    private final double[] turnoverSd;
+    private final double[] newStockTemp;
+    private final double[] nonCoolingUsage;
+    private final double[] ncUsageVariability;
+    private final double[] ncMeanReversion;
+
+    // state
+    private final double[] temp;
+    private final double[] stock;
+    private final double[] ncUsage;
+
+    // inputs and results of a step
+    private final TariffSubscription[] subscriptions;
+    private final double[] regulation;
+    private final double[] outgoing;
+    private final double[] incoming;
+    private final double[] ncDraw;
+    private final double[] energy;
+
+    Batch (List<? extends AbstractCustomer> members)
+    {
+      super();
+      int n = members.size();
+      models = new ColdStorage[n];
+      cop = new double[n];
+      coolingLossPerK = new double[n];
+      floorLossPerK = new double[n];
+      maxCooling = new double[n];
+      nominalTemp = new double[n];
+      hysteresis = new double[n];
+      minTemp = new double[n];
+      maxTemp = new double[n];
+      turnoverMean = new double[n];
+      turnoverSd = new double[n];
+      newStockTemp = new double[n];
+      nonCoolingUsage = new double[n];
+      ncUsageVariability = new double[n];
+      ncMeanReversion = new double[n];
+      temp = new double[n];
+      stock = new double[n];
+      ncUsage = new double[n];
+      subscriptions = new TariffSubscription[n];
+      regulation = new double[n];
+      outgoing = new double[n];
+      incoming = new double[n];
+      ncDraw = new double[n];
+      energy = new double[n];
+      for (int i = 0; i < n; i++) {
+        ColdStorage model = (ColdStorage) members.get(i);
+        models[i] = model;
+        cop[i] = model.cop;
+        coolingLossPerK[i] = model.getCoolingLossPerK();
+        floorLossPerK[i] = model.getFloorLossPerK();
+        maxCooling[i] = model.getMaxCooling();
+        nominalTemp[i] = model.getNominalTemp();
+        hysteresis[i] = model.hysteresis;
+        minTemp[i] = model.minTemp;
+        maxTemp[i] = model.maxTemp;
+        turnoverMean[i] = model.turnoverRatio * model.stockCapacity / 24.0;
+        turnoverSd[i] = model.turnoverSd * model.stockCapacity / 24.0;
+        newStockTemp[i] = model.newStockTemp;
+        nonCoolingUsage[i] = model.nonCoolingUsage;
+        ncUsageVariability[i] = model.ncUsageVariability;
+        ncMeanReversion[i] = model.ncMeanReversion;
+      }
+    }
+
+    // True just in case this batch holds exactly the given instances
+    boolean covers (List<? extends AbstractCustomer> members)
+    {
+      if (members.size() != models.length)
+        return false;
+      for (int i = 0; i < models.length; i++) {
+        if (members.get(i) != models[i])
+          return false;
+      }
+      return true;
+    }
+
+    void step (double outsideTemp)
+    {
+      int n = models.length;
+
+      // Gather state and take this step's random draws
+      for (int i = 0; i < n; i++) {
+        ColdStorage model = models[i];
+        subscriptions[i] = model.getSubscription();
+        regulation[i] = subscriptions[i].getRegulation();
+        temp[i] = model.currentTemp;
+        stock[i] = model.currentStock;
+        ncUsage[i] = model.currentNcUsage;
+        outgoing[i] = model.normal01.sample();
+        incoming[i] = model.normal01.sample();
+        if (ncUsageVariability[i] != 0.0)
+          ncDraw[i] = model.opSeed.nextDouble();
+      }
+
+      // Account for regulation exercised in the last timeslot. Positive
+      // regulation is up-regulation, which means we lost that much cooling.
+      for (int i = 0; i < n; i++) {
+        if (regulation[i] != 0.0)
+          temp[i] = temp[i] + regulationRise(regulation[i], cop[i], stock[i]);
+      }
+
+      // Stock turnover: outgoing stock leaves at the inside temperature,
+      // incoming stock arrives at newStockTemp
+      for (int i = 0; i < n; i++) {
+        double out = turnover(outgoing[i], turnoverSd[i], turnoverMean[i]);
+        double in = turnover(incoming[i], turnoverSd[i], turnoverMean[i]);
+        stock[i] -= out;
+        double newTemp = mixedTemp(stock[i], temp[i], in, newStockTemp[i]);
+        stock[i] += in;
+        temp[i] = temp[i] + (newTemp - temp[i]);
+      }
+
+      // Non-cooling usage is a mean-reverting random walk
+      for (int i = 0; i < n; i++) {
+        if (ncUsageVariability[i] == 0.0)
+          continue;
+        ncUsage[i] =
+            nextNcUsage(ncUsage[i], nonCoolingUsage[i], ncUsageVariability[i],
+                        ncMeanReversion[i], ncDraw[i]);
+      }
+
+      // Cooling energy to cover losses and move toward the nominal temp
+      for (int i = 0; i < n; i++) {
+        double coolingLoss =
+            coolingLoss(coolingLossPerK[i], floorLossPerK[i], outsideTemp,
+                        temp[i], ncUsage[i]);
+        double adjustmentCooling =
+            adjustmentCooling(coolingLoss, temp[i], nominalTemp[i],
+                              hysteresis[i], stock[i], maxCooling[i]);
+        energy[i] = coolingLoss + adjustmentCooling;
+        temp[i] = temp[i] + (-adjustmentCooling / (stock[i] * CP_ICE));
+      }
+
+      // Write back state, then post regulation capacity and usage. Only
+      // the cooling portion is available for regulation, within the
+      // min-max temp range.
+      for (int i = 0; i < n; i++) {
+        ColdStorage model = models[i];
+        model.setCurrentTemp(temp[i]);
+        model.currentStock = stock[i];
+        model.currentNcUsage = ncUsage[i];
+        double availableUp = energy[i] / cop[i];
+        if (temp[i] >= maxTemp[i])
+          availableUp = 0.0;
+        double availableDown = -(maxCooling[i] - energy[i]) / cop[i];
+        if (temp[i] <= minTemp[i])
+          availableDown = 0.0;
+        TariffSubscription sub = subscriptions[i];
+        sub.setRegulationCapacity(new RegulationCapacity(sub, availableUp,
+                                                         availableDown));
+        model.totalEnergyUsed = ncUsage[i] + energy[i] / cop[i];
+        sub.usePower(model.totalEnergyUsed);
+        if (log.isDebugEnabled()) {
+          log.debug("{}: temp {}, regulation capacity ({}, {}), energy {}",
+                    model.getName(), temp[i], availableUp, availableDown,
+                    model.totalEnergyUsed);
+        }
+      }
+    }
+  }
+
   /**
    * Data structure to hold energy and temperature-change info
    * @author jcollins
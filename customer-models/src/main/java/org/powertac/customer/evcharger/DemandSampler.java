@@ -17,18 +17,15 @@ package org.powertac.customer.evcharger;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.TreeMap;
-import java.util.stream.Collectors;
+import java.util.SplittableRandom;
 
 import org.apache.commons.configuration2.XMLConfiguration;
 import org.apache.commons.configuration2.ex.ConfigurationException;
 import org.apache.commons.math3.distribution.MixtureMultivariateNormalDistribution;
 import org.apache.commons.math3.distribution.MultivariateNormalDistribution;
-import org.apache.commons.math3.distribution.NormalDistribution;
 import org.apache.commons.math3.linear.Array2DRowRealMatrix;
 import org.apache.commons.math3.random.RandomDataGenerator;
 import org.apache.commons.math3.util.Pair;
@@ -41,13 +38,21 @@ import org.powertac.common.config.Configurator;
  * Sampler class which holds the logic of sampling new EV charger demand from
  * the statistical model.
  *
+ * The model is read into commons-math distributions, but samples are drawn
+ * from tables computed from them at initialization: the plug-in density for
+ * each hour of day, and a MixtureSampler for each hour's (horizon, energy)
+ * mixture. Random values come from SplittableRandom streams derived from the
+ * current seed.
+ *
  * @author Philipp Page <github@philipp-page.de>
  */
 class DemandSampler
 {
   private static final Logger log = LogManager.getLogger(DemandSampler.class.getSimpleName());
   private MixtureMultivariateNormalDistribution pluginProbability;
-  private HashMap<String, MixtureMultivariateNormalDistribution> condHorizonDemandProbabilities = new HashMap<>();
+  private double[] pluginDensity = new double[24];
+  private HashMap<String, MixtureSampler> condHorizonDemandSamplers = new HashMap<>();
+  private SplittableRandom unseededRandom = new SplittableRandom();
   private Long currentSeed;
   private RandomDataGenerator randomSeedGenerator;
   private XMLConfiguration config;
@@ -56,6 +61,13 @@ class DemandSampler
   void initialize (String model, RandomSeed randomSeed)
   {
     this.initialize(model);
+    setRandomSeed(randomSeed);
+  }
+
+  // Seeds the generator for per-timeslot seed values. Separate from
+  // loading the model, which does not need the seed.
+  void setRandomSeed (RandomSeed randomSeed)
+  {
     randomSeedGenerator = new RandomDataGenerator();
     randomSeedGenerator.reSeed(randomSeed.getValue());
   }
@@ -109,10 +121,13 @@ class DemandSampler
                                                                           new double[][] { covariances.getRow(i) })));
     }
     pluginProbability = new MixtureMultivariateNormalDistribution(null, mvns);
+    for (int hod = 0; hod < pluginDensity.length; hod++) {
+      pluginDensity[hod] = pluginProbability.density(new double[] { hod });
+    }
   }
 
   // This will parse the XML config into a
-  // HashMap<hour of day, MixtureMultivariateNormalDistribtion>.
+  // HashMap<hour of day, MixtureSampler>.
   // The demandHorizonProbabilities represent the conditional Gaussian Mixture
   // Model conditional on the hour of day.
   private void setupDemandHorizonProbabilities ()
@@ -123,28 +138,45 @@ class DemandSampler
     String[] instances = config.getStringArray("instances");
 
     for (String instance: instances) {
-      final double[] flatMeans = config.get(double[].class, String.format("%s.means.mean", instance));
-      final double[] flatCovs = config.get(double[].class, String.format("%s.covs.cov", instance));
-      final double[] weights = config.get(double[].class, String.format("%s.weights", instance));
+      condHorizonDemandSamplers.put(instance,
+              new MixtureSampler(readDemandHorizonProbability(instance)));
+    }
+  }
 
-      // We have a bivariate distribution, therefore the mean vectors have
-      // length 2.
-      final double[][] meanVectors = new double[weights.length][2];
-      for (int i = 0; i < flatMeans.length / 2; i++) {
-        meanVectors[i] = Arrays.copyOfRange(flatMeans, 2 * i, 2 * i + 2);
-      }
+  // Reads the mixture for one instance from the config. The samplers are
+  // built from it; package visibility for comparing them in tests.
+  MixtureMultivariateNormalDistribution readDemandHorizonProbability (String instance)
+  {
+    final double[] flatMeans = config.get(double[].class, String.format("%s.means.mean", instance));
+    final double[] flatCovs = config.get(double[].class, String.format("%s.covs.cov", instance));
+    final double[] weights = config.get(double[].class, String.format("%s.weights", instance));
 
-      // The bivariate covariance matrices have dimension 2x2.
-      final double[][][] covarianceMatrices = new double[weights.length][2][2];
-      for (int i = 0; i < flatCovs.length / 2 / 2; i++) {
-        double[] row1 = Arrays.copyOfRange(flatCovs, 4 * i, 4 * i + 2);
-        double[] row2 = Arrays.copyOfRange(flatCovs, 4 * i + 2, 4 * i + 4);
-        covarianceMatrices[i] = new double[][] { row1, row2 };
-      }
+    // We have a bivariate distribution, therefore the mean vectors have
+    // length 2.
+    final double[][] meanVectors = new double[weights.length][2];
+    for (int i = 0; i < flatMeans.length / 2; i++) {
+      meanVectors[i] = Arrays.copyOfRange(flatMeans, 2 * i, 2 * i + 2);
+    }
 
-      condHorizonDemandProbabilities
-              .put(instance, new MixtureMultivariateNormalDistribution(weights, meanVectors, covarianceMatrices));
+    // The bivariate covariance matrices have dimension 2x2.
+    final double[][][] covarianceMatrices = new double[weights.length][2][2];
+    for (int i = 0; i < flatCovs.length / 2 / 2; i++) {
+      double[] row1 = Arrays.copyOfRange(flatCovs, 4 * i, 4 * i + 2);
+      double[] row2 = Arrays.copyOfRange(flatCovs, 4 * i + 2, 4 * i + 4);
+      covarianceMatrices[i] = new double[][] { row1, row2 };
     }
+
+    return new MixtureMultivariateNormalDistribution(weights, meanVectors, covarianceMatrices);
+  }
+
+  // Returns the random stream for one use of the current seed, so that
+  // the plug-in noise and the demand tuples are drawn independently.
+  private SplittableRandom getRandom (int stream)
+  {
+    if (currentSeed == null) {
+      return unseededRandom;
+    }
+    return new SplittableRandom(currentSeed + stream);
   }
 
   /**
@@ -182,15 +214,8 @@ class DemandSampler
     // Sample N (horizon, energy) tuples.
     double[][] horizonEnergyTuples = sampleHorizonEnergyTuples(nVehicles, hod);
 
-    // Tracks the charger hour histogram for each cohort. The charger hour
-    // histogram is a TreeMap where the key is the integer number of charger
-    // hours needed and the value the number of vehicles in that group.
-    HashMap<Integer, TreeMap<Integer, Integer>> cohortChargerHoursHistogram = new HashMap<>();
-    // Tracks the number of vehicles in each cohort.
-    HashMap<Integer, Integer> cohortVehicleSum = new HashMap<>();
-
     // We need to initialize all cohorts until maxHorizon and
-    // maxChargerHours respectively to avoid gaps in the HashMap indices.
+    // maxChargerHours respectively to avoid gaps in the indices.
     // There will be maxHorizon + 1 and maxChargerHours + 1 elements to
     // accommodate for those who need energy immediately.
     int maxHorizon =
@@ -198,36 +223,30 @@ class DemandSampler
     double maxEnergy =
       Arrays.stream(horizonEnergyTuples).mapToDouble(horizonEnergyTuple -> horizonEnergyTuple[1]).max().getAsDouble();
     int maxChargerHours = (int) (maxEnergy / chargerCapacity);
-    for (int i = 0; i <= maxHorizon; i++) {
-      // The histogram should be ordered naturally meaning that 0 implies the
-      // vehicle needs at least 0 charging hours, 1 means the vehicle needs 1
-      // charger hour, ...
-      cohortChargerHoursHistogram.put(i, new TreeMap<>(Comparator.naturalOrder()));
-      for (int j = 0; j <= maxChargerHours; j++) {
-        cohortChargerHoursHistogram.get(i).put(j, 0);
-      }
-      cohortVehicleSum.put(i, 0);
-    }
 
-    // Now, we fill in the the values for the charger hour histograms, vehicle
-    // sum and energy sum of each cohort.
+    // Tracks the charger hour histogram for each cohort, indexed by the
+    // integer number of charger hours needed: 0 implies the vehicle needs at
+    // least 0 charging hours, 1 means the vehicle needs 1 charger hour, ...
+    double[][] cohortChargerHoursHistogram = new double[maxHorizon + 1][maxChargerHours + 1];
+    // Tracks the number of vehicles in each cohort.
+    int[] cohortVehicleSum = new int[maxHorizon + 1];
+
+    // Now, we fill in the the values for the charger hour histograms and
+    // vehicle sum of each cohort.
     for (double[] horizonEnergyTuple: horizonEnergyTuples) {
       int horizon = (int) horizonEnergyTuple[0];
       double energy = horizonEnergyTuple[1];
       int chargerHours = (int) (energy / chargerCapacity);
-      TreeMap<Integer, Integer> histogram = cohortChargerHoursHistogram.get(horizon);
-      histogram.merge(Math.min(chargerHours, horizon), 1, Integer::sum);
-      cohortChargerHoursHistogram.put(horizon, histogram);
-
-      cohortVehicleSum.merge(horizon, 1, Integer::sum);
+      cohortChargerHoursHistogram[horizon][Math.min(chargerHours, horizon)] += 1.0;
+      cohortVehicleSum[horizon] += 1;
     }
 
-    return cohortVehicleSum.keySet().stream()
-            .map(horizon -> 
-            new DemandElement(horizon, cohortVehicleSum.get(horizon),
-                              cohortChargerHoursHistogram.get(horizon)
-                              .values().stream().mapToDouble(Integer::doubleValue).toArray()))
-            .collect(Collectors.toList());
+    List<DemandElement> result = new ArrayList<>(maxHorizon + 1);
+    for (int horizon = 0; horizon <= maxHorizon; horizon++) {
+      result.add(new DemandElement(horizon, cohortVehicleSum[horizon],
+                                   cohortChargerHoursHistogram[horizon]));
+    }
+    return result;
   }
 
   /**
@@ -245,12 +264,11 @@ class DemandSampler
     if (!isEnabled()) {
       return 0.0;
     }
-    double result = pluginProbability.density(new double[] { hod }) * popSize;
-    final NormalDistribution gaussianNoise = new NormalDistribution(0, result * 0.1);
-    if (currentSeed != null) {
-      gaussianNoise.reseedRandomGenerator(currentSeed);
-    }
-    result += gaussianNoise.sample();
+    double density = (hod >= 0 && hod < pluginDensity.length) ? pluginDensity[hod]
+            : pluginProbability.density(new double[] { hod });
+    double result = density * popSize;
+    // Gaussian noise with a standard deviation of 10% of the expected value
+    result += result * 0.1 * getRandom(0).nextGaussian();
     return Math.max(0, result);
   }
 
@@ -273,19 +291,16 @@ class DemandSampler
     if (!isEnabled()) {
       return new double[][] {};
     }
-    MixtureMultivariateNormalDistribution condDist =
-            condHorizonDemandProbabilities.get("hod" + hod);
+    MixtureSampler condDist =
+            condHorizonDemandSamplers.get("hod" + hod);
     if (condDist == null) {
       throw new IllegalArgumentException(String.format("Cannot find distribution for provided hour of day %d.", hod));
     }
-    if (currentSeed != null) {
-      condDist.reseedRandomGenerator(currentSeed);
-    }
     // [[d_1, e_1],
     // [d_2, e_2],
     // ...
     // [d_n, e_n]]
-    double[][] horizonEnergyTuples = condDist.sample(n);
+    double[][] horizonEnergyTuples = condDist.sample(n, getRandom(1));
 
     // Make sure to replace negative values by zero (in rare cases the model
     // might return negative values due to the symmetry of the
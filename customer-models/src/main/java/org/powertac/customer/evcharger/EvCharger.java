@@ -18,7 +18,9 @@ package org.powertac.customer.evcharger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.time.ZonedDateTime;
 
@@ -39,6 +41,7 @@ import org.powertac.common.interfaces.CustomerModelAccessor;
 import org.powertac.common.repo.RandomSeedRepo;
 import org.powertac.common.state.Domain;
 import org.powertac.customer.AbstractCustomer;
+import org.powertac.customer.TariffCache;
 
 /**
  * This is a population model of Electric Vehicle chargers. 
@@ -125,6 +128,10 @@ public class EvCharger extends AbstractCustomer implements CustomerModelAccessor
   @ConfigurableValue (valueType = "Integer", publish = false, bootstrapState = true,
           description = "periodicity of the customer data model")
   private int defaultProfileSize = 24;
+
+  @ConfigurableValue (valueType = "Boolean", publish = false, dump = true,
+          description = "If true, step identically configured instances together as fleets")
+  private boolean fleetMode = false;
   
   private ArrayList<ArrayList<DemandElement>> demandInfoMean;
   private int[] demandInfoMeanCounter;
@@ -139,9 +146,12 @@ public class EvCharger extends AbstractCustomer implements CustomerModelAccessor
   private RandomSeed evalSeed;
   private RandomSeed demandSeed;
   private HashMap<TariffSubscription, StorageState> subState;
-  private HashMap<Tariff, TariffInfo> tariffInfo;
+  private TariffCache<TariffInfo> tariffInfo;
   private TariffEvaluator tariffEvaluator;
   private DemandSampler demandSampler;
+  private EvFleet fleet;
+  private Set<AbstractCustomer> fleetBatch;
+  private List<EvFleet> fleets;
   private double epsilon = 1e-9; // small number for numeric accuracy testing
 
   /**
@@ -160,6 +170,16 @@ public class EvCharger extends AbstractCustomer implements CustomerModelAccessor
     super(name);
   }
 
+  // Loads the demand model, which is the expensive part of initialization
+  @Override
+  public void prepare ()
+  {
+    if (null == demandSampler) {
+      demandSampler = new DemandSampler();
+      demandSampler.initialize(model);
+    }
+  }
+
   @Override
   public void initialize ()
   {
@@ -184,7 +204,7 @@ public class EvCharger extends AbstractCustomer implements CustomerModelAccessor
     }
 
     // set up the tariff information map
-    tariffInfo = new HashMap<>();
+    tariffInfo = new TariffCache<>(getName() + " tariffInfo");
 
     // set up the tariff evaluator. We are wide-open to variable pricing.
     tariffEvaluator = createTariffEvaluator(this);
@@ -196,8 +216,8 @@ public class EvCharger extends AbstractCustomer implements CustomerModelAccessor
     // no problem with tou or interruptible rates, not ready for variable rates
     tariffEvaluator.initializeInconvenienceFactors(0.0, 0.4, 0.0);
     tariffEvaluator.initializeRegulationFactors(evalUpreg, 0.0, evalDownreg);
-    demandSampler = new DemandSampler();
-    demandSampler.initialize(model, getDemandSeed());
+    prepare();
+    demandSampler.setRandomSeed(getDemandSeed());
   }
 
   // Initialize the demandInfoMean structure -- package visibility for testing
@@ -299,12 +319,7 @@ public class EvCharger extends AbstractCustomer implements CustomerModelAccessor
   // Returns the TariffInfo for this tariff, creating it if necessary
   TariffInfo getTariffInfo (Tariff tariff)
   {
-    TariffInfo result = tariffInfo.get(tariff);
-    if (null == result) {
-      result = new TariffInfo (this, tariff);
-      tariffInfo.put(tariff, result);
-    }
-    return result;
+    return tariffInfo.get(tariff, t -> new TariffInfo(this, t));
   }
 
   /**
@@ -365,6 +380,10 @@ public class EvCharger extends AbstractCustomer implements CustomerModelAccessor
 
     // Now we do the transfer
     int timeslotIndex = service.getTimeslotRepo().currentSerialNumber();
+    if (null != fleet) {
+      fleet.moveSubscribers(timeslotIndex, oldsub, newsub, count);
+      return;
+    }
     StorageState oldss = getStorageState(oldsub);
     // Should not be null
     if (null == oldss) {
@@ -508,8 +527,67 @@ public class EvCharger extends AbstractCustomer implements CustomerModelAccessor
     }
   }
 
+  /**
+   * Steps instances in fleets when fleetMode is set. Called with all the
+   * EvCharger instances; those with the same configuration are simulated
+   * together as one EvFleet.
+   */
+  @Override
+  public boolean isBatchStepped ()
+  {
+    return fleetMode;
+  }
+
+  @Override
+  public void stepBatch (List<? extends AbstractCustomer> batch)
+  {
+    if (null == fleets) {
+      fleetBatch = new HashSet<>(batch);
+      fleets = EvFleet.assemble(batch);
+    }
+    else if (!fleetBatch.equals(new HashSet<>(batch))) {
+      // The fleets hold the storage state of their members, which would
+      // be lost by regrouping them. The set of models does not change
+      // during a game.
+      log.error("EvCharger batch changed from {} to {} instances",
+                fleetBatch.size(), batch.size());
+      throw new IllegalStateException("EvCharger fleets cannot be regrouped");
+    }
+    ZonedDateTime currentTime = service.getTimeService().getCurrentDateTime();
+    int timeslotIndex = service.getTimeslotRepo().currentSerialNumber();
+    for (EvFleet group : fleets) {
+      group.step(currentTime, timeslotIndex);
+    }
+  }
+
+  // Called by EvFleet when this instance joins a fleet. From then on the
+  // fleet keeps the storage state, and the demand statistics are shared
+  // with the first member, which does the sampling.
+  void joinFleet (EvFleet fleet)
+  {
+    this.fleet = fleet;
+    EvCharger leader = fleet.getMembers().get(0);
+    demandInfoMean = leader.demandInfoMean;
+    demandInfoMeanCounter = leader.demandInfoMeanCounter;
+  }
+
+  EvFleet getFleet ()
+  {
+    return fleet;
+  }
+
+  // Instances with equal keys simulate identically given the same
+  // subscriptions, so they can be stepped together
+  List<Object> getFleetKey ()
+  {
+    return Arrays.asList(model, population, chargerCapacity,
+                         dischargeCapacity, v2gAcceptance, nominalDemandBias,
+                         maxDemandHorizon, defaultProfileSize,
+                         defaultCapacityData);
+  }
+
   // Computes nominal demand for the current timeslot based on tariff terms
-  private double computeNominalDemand (ZonedDateTime time,
+  double computeNominalDemand (ZonedDateTime time,
                                        TariffSubscription sub,
                                        double[] minMax)
   {
@@ -570,6 +648,7 @@ public class EvCharger extends AbstractCustomer implements CustomerModelAccessor
   public void evaluateTariffs (List<Tariff> tariffs)
   {
     log.info(getName() + ": evaluate tariffs");
+    tariffInfo.evictInactive();
     tariffEvaluator.evaluateTariffs();
   }
 
@@ -598,7 +677,8 @@ public class EvCharger extends AbstractCustomer implements CustomerModelAccessor
       log.warn("{} subscriptions, should be just one", subs.size());
     }
     TariffSubscription sub = subs.get(0);
-    StorageState finalState = getStorageState(sub);
+    StorageState finalState =
+        (null == fleet) ? getStorageState(sub) : fleet.getShare(timeslot, sub);
     if (null == finalState) {
       log.error("saveBootstrapState() null finalState");
     }
@@ -778,6 +858,11 @@ public class EvCharger extends AbstractCustomer implements CustomerModelAccessor
     return this;
   }
 
+  String getStorageRecord ()
+  {
+    return storageRecord;
+  }
+
   TariffEvaluator getTariffEvaluator ()
   {
     return tariffEvaluator;
@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2026 by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.powertac.customer.evcharger;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.powertac.common.RegulationCapacity;
+import org.powertac.common.Tariff;
+import org.powertac.common.TariffSubscription;
+import org.powertac.customer.AbstractCustomer;
+
+/**
+ * Simulates a group of identically configured EvCharger instances as a
+ * single population. Identical configurations draw the same demand seed,
+ * so the members would all sample the same demand. The fleet samples it
+ * once, through its first member, and keeps one StorageState for each
+ * tariff that covers the subscribers of all members on that tariff.
+ * Usage and regulation capacity are apportioned to the member
+ * subscriptions by their share of the subscribers.
+ *
+ * The result is the same as stepping the members independently as long as
+ * each member's state on a tariff is its subscriber share of the fleet
+ * state, which holds across subscription changes because all members
+ * apply the same nominal demand bias. Regulation exercised on one member's
+ * subscription is spread over the fleet's subscribers on that tariff,
+ * which is where the two can differ.
+ *
+ * @author agent
+ */
+class EvFleet
+{
+  static private Logger log = LogManager.getLogger(EvFleet.class.getName());
+
+  private List<EvCharger> members;
+  private EvCharger leader;
+
+  // Fleet state and subscriber count for each tariff held by any member
+  private Map<Tariff, StorageState> states = new LinkedHashMap<>();
+  private Map<Tariff, Integer> population = new HashMap<>();
+  private boolean started = false;
+  private double epsilon = 1e-9;
+
+  EvFleet (List<EvCharger> members)
+  {
+    super();
+    this.members = members;
+    leader = members.get(0);
+  }
+
+  /**
+   * Groups a batch of EvCharger instances by configuration. Each group
+   * of two or more becomes a fleet; a group of one keeps stepping on its
+   * own.
+   */
+  static List<EvFleet> assemble (List<? extends AbstractCustomer> batch)
+  {
+    Map<List<Object>, List<EvCharger>> groups = new LinkedHashMap<>();
+    for (AbstractCustomer model : batch) {
+      EvCharger charger = (EvCharger) model;
+      groups.computeIfAbsent(charger.getFleetKey(),
+                             k -> new ArrayList<EvCharger>())
+          .add(charger);
+    }
+    List<EvFleet> result = new ArrayList<>();
+    for (List<EvCharger> group : groups.values()) {
+      EvFleet fleet = new EvFleet(group);
+      if (group.size() > 1) {
+        for (EvCharger member : group) {
+          member.joinFleet(fleet);
+        }
+      }
+      result.add(fleet);
+    }
+    log.info("{} chargers in {} fleets", batch.size(), result.size());
+    return result;
+  }
+
+  List<EvCharger> getMembers ()
+  {
+    return members;
+  }
+
+  /**
+   * Runs the fleet forward one timeslot. This follows EvCharger.step(),
+   * with the subscriptions to a tariff taken together.
+   */
+  void step (ZonedDateTime currentTime, int timeslotIndex)
+  {
+    if (1 == members.size()) {
+      leader.step();
+      return;
+    }
+    log.info("Step fleet of {} at ts {}", members.size(), timeslotIndex);
+
+    // Subscription changes have been applied since the last step
+    Map<Tariff, List<TariffSubscription>> subs = gatherSubscriptions();
+    population.clear();
+    for (Map.Entry<Tariff, List<TariffSubscription>> entry : subs.entrySet()) {
+      population.put(entry.getKey(), committed(entry.getValue()));
+    }
+    if (!started) {
+      start(timeslotIndex);
+    }
+
+    if (timeslotIndex > 0) {
+      for (Map.Entry<Tariff, List<TariffSubscription>> entry : subs.entrySet()) {
+        StorageState ss = getState(entry.getKey(), timeslotIndex);
+        if (null == ss) {
+          continue;
+        }
+        double regulation = 0.0;
+        for (TariffSubscription sub : entry.getValue()) {
+          regulation += sub.getRegulation();
+        }
+        double residue =
+            ss.distributeRegulation(timeslotIndex, regulation,
+                                    leader.getV2gAcceptance());
+        if (Math.abs(residue) > epsilon) {
+          log.error("Attempt to distribute regulation {} in ts {} left residue of {}",
+                    regulation, timeslotIndex, residue);
+        }
+        ss.collapseElements(timeslotIndex);
+        ss.rebalance(timeslotIndex);
+      }
+    }
+
+    List<DemandElement> newDemand = leader.getDemandInfo(currentTime);
+    for (Map.Entry<Tariff, List<TariffSubscription>> entry : subs.entrySet()) {
+      StorageState ss = getState(entry.getKey(), timeslotIndex);
+      if (null == ss) {
+        continue;
+      }
+      List<TariffSubscription> tariffSubs = entry.getValue();
+      int committed = population.get(entry.getKey());
+      if (0 == committed) {
+        continue;
+      }
+      ss.distributeDemand(timeslotIndex, newDemand,
+                          committed / leader.getPopulation());
+      double[] limits = ss.getMinMax(timeslotIndex);
+      double nominalDemand =
+          leader.computeNominalDemand(currentTime, tariffSubs.get(0), limits);
+      ss.distributeUsage(timeslotIndex, nominalDemand);
+      double v2gCapacity =
+          ss.computeV2gCapacity(timeslotIndex, leader.getV2gAcceptance());
+      log.info("Tariff {}: {} subscribers use power min={}, max={}, nominal={}",
+               entry.getKey().getId(), committed,
+               limits[0], limits[1], nominalDemand);
+
+      // per-member regulation capacity is the same on every subscription
+      double up = (nominalDemand - limits[0] - v2gCapacity) / committed;
+      double down = (nominalDemand - limits[1]) / committed;
+      for (TariffSubscription sub : tariffSubs) {
+        if (0 == sub.getCustomersCommitted()) {
+          continue;
+        }
+        sub.usePower(nominalDemand * sub.getCustomersCommitted() / committed);
+        sub.setRegulationCapacity(new RegulationCapacity(sub, up, down));
+      }
+    }
+  }
+
+  // Sets up the fleet state from the initial subscriptions of the members,
+  // restoring and merging their storage records in a sim session.
+  private void start (int timeslotIndex)
+  {
+    for (EvCharger member : members) {
+      List<TariffSubscription> subs = member.getCurrentSubscriptions();
+      if (0 == subs.size()) {
+        log.error("No subscriptions for {} at step {}",
+                  member.getName(), timeslotIndex);
+        continue;
+      }
+      TariffSubscription sub = subs.get(0);
+      member.getTariffInfo(sub.getTariff())
+          .setCapacityProfile(member.getDefaultCapacityProfile());
+      StorageState ss = ensureState(sub.getTariff());
+      if (null != member.getStorageRecord()) {
+        StorageState restored =
+            StorageState.restoreState(member.getChargerCapacity(), sub,
+                                      member.getMaxDemandHorizon(),
+                                      member.getStorageRecord());
+        if (null != restored) {
+          ss.addScaled(timeslotIndex, restored, 1.0);
+        }
+      }
+    }
+    if (0 == leader.getDemandInfoMean().size()) {
+      log.info("Initializing demandInfoMean");
+      leader.initDemandInfoMean();
+    }
+    started = true;
+  }
+
+  /**
+   * Moves count subscribers from oldsub to newsub. As in
+   * EvCharger.notifyCustomer(), the subscriptions have not yet been
+   * updated, so the fleet keeps its own counts until the next step.
+   */
+  void moveSubscribers (int timeslotIndex, TariffSubscription oldsub,
+                        TariffSubscription newsub, int count)
+  {
+    Tariff from = oldsub.getTariff();
+    Tariff to = newsub.getTariff();
+    StorageState oldss = states.get(from);
+    if (null == oldss) {
+      log.error("Null fleet StorageState for tariff {}", from.getId());
+      return;
+    }
+    if (from == to) {
+      return;
+    }
+    ensureState(to).moveSubscribers(timeslotIndex, count, oldss);
+    population.put(from, getPopulation(from) - count);
+    population.put(to, getPopulation(to) + count);
+  }
+
+  /**
+   * Returns the portion of the fleet state that belongs to the given
+   * member subscription, for the member's bootstrap record.
+   */
+  StorageState getShare (int timeslotIndex, TariffSubscription sub)
+  {
+    StorageState ss = states.get(sub.getTariff());
+    int total = getPopulation(sub.getTariff());
+    if (null == ss || 0 == total) {
+      return null;
+    }
+    return ss.share(sub, timeslotIndex,
+                    (double) sub.getCustomersCommitted() / total);
+  }
+
+  // Returns the fleet state for a tariff, test support
+  StorageState getState (Tariff tariff)
+  {
+    return states.get(tariff);
+  }
+
+  int getPopulation (Tariff tariff)
+  {
+    return population.getOrDefault(tariff, 0);
+  }
+
+  // Returns the state for a tariff that has subscribers, logging its absence
+  private StorageState getState (Tariff tariff, int timeslotIndex)
+  {
+    StorageState result = states.get(tariff);
+    if (null == result) {
+      log.error("Null fleet StorageState for tariff {} at ts {}",
+                tariff.getId(), timeslotIndex);
+    }
+    return result;
+  }
+
+  private StorageState ensureState (Tariff tariff)
+  {
+    return states.computeIfAbsent(tariff,
+        t -> new StorageState(leader.getChargerCapacity(),
+                              leader.getMaxDemandHorizon(),
+                              () -> getPopulation(t)));
+  }
+
+  // Active subscriptions of all members, by tariff in member order
+  private Map<Tariff, List<TariffSubscription>> gatherSubscriptions ()
+  {
+    Map<Tariff, List<TariffSubscription>> result = new LinkedHashMap<>();
+    for (EvCharger member : members) {
+      for (TariffSubscription sub : member.getCurrentSubscriptions()) {
+        result.computeIfAbsent(sub.getTariff(),
+                               k -> new ArrayList<TariffSubscription>())
+            .add(sub);
+      }
+    }
+    return result;
+  }
+
+  private int committed (List<TariffSubscription> subs)
+  {
+    int result = 0;
+    for (TariffSubscription sub : subs) {
+      result += sub.getCustomersCommitted();
+    }
+    return result;
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2026 by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.powertac.customer.evcharger;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import org.apache.commons.math3.distribution.MixtureMultivariateNormalDistribution;
+import org.apache.commons.math3.distribution.MultivariateNormalDistribution;
+import org.apache.commons.math3.util.Pair;
+
+/**
+ * Draws samples from a Gaussian mixture using tables computed once from the
+ * commons-math distribution. The component is chosen from an alias table in
+ * constant time, and the sample is the component mean plus the Cholesky
+ * factor of its covariance times a vector of standard normal values. This
+ * gives the same distribution as sampling the commons-math mixture, without
+ * its per-sample overhead, and the caller supplies the random stream.
+ *
+ * @author agent
+ */
+class MixtureSampler // package visibility
+{
+  private final int dimension;
+
+  // alias table over the mixture components
+  private final double[] probability;
+  private final int[] alias;
+
+  // mean and lower-triangular Cholesky factor of each component
+  private final double[][] means;
+  private final double[][][] factors;
+
+  MixtureSampler (MixtureMultivariateNormalDistribution mixture)
+  {
+    super();
+    List<Pair<Double, MultivariateNormalDistribution>> components =
+        mixture.getComponents();
+    int count = components.size();
+    dimension = mixture.getDimension();
+    means = new double[count][];
+    factors = new double[count][][];
+    double[] weights = new double[count];
+    for (int c = 0; c < count; c++) {
+      weights[c] = components.get(c).getFirst();
+      MultivariateNormalDistribution component = components.get(c).getSecond();
+      means[c] = component.getMeans();
+      factors[c] = cholesky(component.getCovariances().getData());
+    }
+    probability = new double[count];
+    alias = new int[count];
+    buildAliasTable(weights);
+  }
+
+  int getDimension ()
+  {
+    return dimension;
+  }
+
+  /**
+   * Returns n samples, one per row.
+   */
+  double[][] sample (int n, SplittableRandom random)
+  {
+    double[][] result = new double[n][dimension];
+    for (int i = 0; i < n; i++) {
+      sample(random, result[i]);
+    }
+    return result;
+  }
+
+  /**
+   * Fills in one sample.
+   */
+  void sample (SplittableRandom random, double[] result)
+  {
+    int column = random.nextInt(probability.length);
+    int c = (random.nextDouble() < probability[column]) ? column : alias[column];
+    double[] mean = means[c];
+    double[][] factor = factors[c];
+    for (int i = 0; i < dimension; i++) {
+      result[i] = random.nextGaussian();
+    }
+    // the factor is lower-triangular, so working from the last row up
+    // leaves the normal values needed by the remaining rows in place
+    for (int i = dimension - 1; i >= 0; i--) {
+      double value = mean[i];
+      for (int j = 0; j <= i; j++) {
+        value += factor[i][j] * result[j];
+      }
+      result[i] = value;
+    }
+  }
+
+  // Vose's alias method; weights need not be normalized
+  private void buildAliasTable (double[] weights)
+  {
+    int count = weights.length;
+    double total = 0.0;
+    for (double weight : weights) {
+      total += weight;
+    }
+    double[] scaled = new double[count];
+    int[] small = new int[count];
+    int[] large = new int[count];
+    int nSmall = 0;
+    int nLarge = 0;
+    for (int c = 0; c < count; c++) {
+      scaled[c] = weights[c] * count / total;
+      if (scaled[c] < 1.0) {
+        small[nSmall++] = c;
+      }
+      else {
+        large[nLarge++] = c;
+      }
+    }
+    while (nSmall > 0 && nLarge > 0) {
+      int less = small[--nSmall];
+      int more = large[--nLarge];
+      probability[less] = scaled[less];
+      alias[less] = more;
+      scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+      if (scaled[more] < 1.0) {
+        small[nSmall++] = more;
+      }
+      else {
+        large[nLarge++] = more;
+      }
+    }
+    // whatever is left over is full, up to rounding
+    while (nLarge > 0) {
+      int c = large[--nLarge];
+      probability[c] = 1.0;
+      alias[c] = c;
+    }
+    while (nSmall > 0) {
+      int c = small[--nSmall];
+      probability[c] = 1.0;
+      alias[c] = c;
+    }
+  }
+
+  // Lower-triangular L with L * L' = covariance. Directions with no
+  // variance left get a zero column.
+  private static double[][] cholesky (double[][] covariance)
+  {
+    int n = covariance.length;
+    double[][] result = new double[n][n];
+    for (int i = 0; i < n; i++) {
+      for (int j = 0; j <= i; j++) {
+        double sum = covariance[i][j];
+        for (int k = 0; k < j; k++) {
+          sum -= result[i][k] * result[j][k];
+        }
+        if (i == j) {
+          result[i][i] = Math.sqrt(Math.max(sum, 0.0));
+        }
+        else if (result[j][j] > 0.0) {
+          result[i][j] = sum / result[j][j];
+        }
+      }
+    }
+    return result;
+  }
+}
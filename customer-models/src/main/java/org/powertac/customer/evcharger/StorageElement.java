@@ -10,6 +10,8 @@ import org.apache.logging.log4j.Logger;
 /** ---------------------------------------------------------------------------------------
    * Mutable element of the StorageState forward capacity vector for the EV Charger model.
    * Each contains a capacity histogram of length n + 1 for a timeslot n slots in the future.
+   * StorageState keeps the histograms in a ring of its own; an element shares the arrays
+   * of its row in the ring.
    * 
    * Max demand is simply the sum of individual capacities of the chargers, constrained by to
    * remaining unfilled capacity in the batteries of attached vehicles.
@@ -35,8 +37,6 @@ import org.apache.logging.log4j.Logger;
     // Population allocated to energy requirement breakdown
     private double[] population = {0.0};
 
-    private double epsilon = 1e-8;
-
     // default constructor
     StorageElement (int arrayLength)
     {
@@ -96,72 +96,12 @@ import org.apache.logging.log4j.Logger;
       return se;
     }
 
-    // Shrinks energy and population arrays, dropping the final element
-    // which is no longer needed
-    void collapseArrays ()
-    {
-      int len = population.length;
-      if (len < 2) {
-        // nothing to do here
-        return;
-      }
-      population = Arrays.copyOf(population, len - 1);
-      energy = Arrays.copyOf(energy, len - 1);
-    }
-
-    // Moves energy and population to smaller indices as needed to preserve
-    // hourly constraints
-    void rebalance (double chargerCapacity)
+    // Follows the row of the StorageState when it replaces its arrays,
+    // as it does when collapsing
+    void setArrays (double[] energy, double[] population)
     {
-      // This only works if there are multiple groups
-      if (1 == population.length)
-        return;
-      // Each group i should have energy ratio <= (len - i - 1) + 0.5
-      for (int i = energy.length - 1; i > 0; i--) {
-        //note that we are not moving energy and population above index 0
-        //first, find the surplus in this timeslot
-        double xRatio = (energy.length - 1 - i) + 0.5; // current cell
-        if (population[i] < epsilon) {
-          // clear this one out
-          population[i] = 0.0;
-          energy[i] = 0.0;
-          continue;
-        }
-        double chunk = population[i] * chargerCapacity;
-        double currentRatio = 0.0;
-        currentRatio = energy[i] / chunk;
-        if (currentRatio <= xRatio) {
-          continue;
-        }
-        else {
-          double move = (currentRatio - xRatio);
-          if (move < 0.0 - epsilon) {
-            log.error("Move ratio = {} out of range", move);
-          }
-
-          // Move by 2 in case of V2G
-          if (move > 1.0 & i > 1) { // Group 0 and 1 cannot be moved above index 0 and are not eligible for V2G
-            double v2gMove = move - 1.0;
-            double v2gMoveP = population[i] * v2gMove;
-            population[i] -= v2gMoveP;
-            population[i - 2] += v2gMoveP;
-
-            double v2gMoveE = energy[i] - population[i] * chargerCapacity * xRatio;
-            energy[i] -= v2gMoveE;
-            energy[i - 2] += v2gMoveE;
-          }
-
-          move = Math.min(1.0, move);
-
-          double moveP = population[i] * move;
-          population[i] -= moveP;
-          population[i - 1] += moveP;
-          double moveE = energy[i] - population[i] * chargerCapacity * xRatio;
-          energy[i] -= moveE;
-          energy[i - 1] += moveE;
-
-        }
-      }
+      this.energy = energy;
+      this.population = population;
     }
 
     double[] getRemainingCommitment ()
@@ -179,64 +119,6 @@ import org.apache.logging.log4j.Logger;
       return energy;
     }
 
-    // Adjusts commitment, either as a result of exercised regulation, or as
-    // a result of new demand
-    void addCommitments (double[] population, double[] energy) {
-      // We assume our arrays have already been re-sized
-      if (population.length > this.population.length)
-        StorageState.log.error("array size mismatch {} into {}", population.length, this.population.length);
-      for (int i = 0; i < population.length; i++) {
-        this.population[i] += population[i];
-        this.energy[i] += energy[i];
-      }
-    }
-
-    // returns a new StorageElement with the same contents as an old one
-    StorageElement copy ()
-    {
-      return new StorageElement(//getActiveChargers(),
-                                Arrays.copyOf(energy, energy.length),
-                                Arrays.copyOf(population, population.length));
-    }
-
-    // returns a new StorageElement containing a portion of an old element
-    StorageElement copyScaled (double scale)
-    {
-      double[] scaledPop = new double[population.length];
-      double[] scaledEnergy = new double[energy.length];
-      for (int i = 0; i < population.length; i++) {
-        scaledPop[i] = population[i] * scale;
-        scaledEnergy[i] = energy[i] * scale;
-      }
-      return new StorageElement(//getActiveChargers() * scale,
-                                scaledEnergy, scaledPop);
-    }
-
-    // adds a portion of an existing element to the contents of this one
-    void addScaled (StorageElement element, double scale)
-    {
-      if (element.getPopulation().length != population.length) {
-        // should not happen
-        StorageState.log.error("Attempt to add element of length {} to element of length {}",
-                  population.length, element.getPopulation().length);
-      }
-      //activeChargers += element.getActiveChargers() * scale;
-      for (int i = 0; i < population.length; i++) {
-        population[i] += element.getPopulation()[i] * scale;
-        energy[i] += element.getEnergy()[i] * scale;
-      }
-    }
-
-    // Scale this element by a constant fraction
-    // This should not change the population/energy relationship
-    void scale (double fraction)
-    {
-      for (int i = 0; i < population.length; i++) {
-        population[i] *= fraction;
-        energy[i] *= fraction;
-      }
-    }
-
     // Returns the charger-hours needed for each cohort
     double[] getRatios (double chargerCapacity)
     {
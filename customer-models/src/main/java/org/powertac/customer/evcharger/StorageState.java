@@ -15,17 +15,16 @@
  */
 package org.powertac.customer.evcharger;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.function.IntSupplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.powertac.common.TariffSubscription;
-import org.powertac.util.RingArray;
-
-import cern.colt.Arrays;
 
 /**
  * Records the current state of a population of EV chargers subscribed to a
@@ -43,6 +42,19 @@ import cern.colt.Arrays;
  * needed) are given by the ratio of energy to the number of active chargers at any
  * given time.
  * 
+ * The population and energy histograms of the timeslots in the ring are kept in
+ * rows sized to the cohorts of their timeslot. A timeslot t holds at most
+ * t - now + 1 cohorts, so a state only holds the part of the horizon it uses.
+ * Rebalancing and regulation work on the rows in place. Collapsing shortens each
+ * row by one cohort; the arrays it gives up are kept as spares for the next row
+ * that needs their length, so that from one timeslot to the next the same arrays
+ * are handed down rather than allocated again.
+ * <code>getElement()</code> returns a StorageElement that shares the arrays of its
+ * row: changes made through it are seen by the state, and it follows the state
+ * through rebalancing and collapsing until its timeslot leaves the ring.
+ * Arrays obtained from it before a collapse are not updated by the
+ * collapse, and may later be reused by the state.
+ * 
  * @author John Collins
  */
 public class StorageState
@@ -53,15 +65,35 @@ public class StorageState
   // The TariffSubscription associated with this instance
   private TariffSubscription mySub;
 
+  // Population source for a state that is not attached to a single
+  // subscription, such as the combined state of a fleet
+  private IntSupplier populationSource;
+
   // Capacity vector covers four days
   // This is a hard limit for the capacity lookahead
   private int ringArraySize = 96;
   private int startIndex = 0;
-  private RingArray<StorageElement> capacityVector;
+
+  // Ring rows: the timeslot held in each row (EMPTY if none), and the
+  // population and energy of each cohort, one array entry per cohort. The
+  // population and energy of a row are null until the row is first used.
+  // Elements handed out by getElement() are kept with their rows.
+  private static final int EMPTY = Integer.MIN_VALUE;
+  private int[] timeslots;
+  private double[][] population;
+  private double[][] energy;
+  private StorageElement[] elements;
+  private int maxIndex = -1;
+
+  // Arrays no longer used by any row, at most one pair for each length
+  private double[][] sparePopulation;
+  private double[][] spareEnergy;
 
   // Capacity in kW of individual population units
   private double unitCapacity = 0.0;
   private double epsilon = 1e-9;
+  // population below this is dropped in rebalancing
+  private double populationEpsilon = 1e-8;
 
   // Cached values for current timeslot
   private double currentMin = 0.0;
@@ -91,7 +123,24 @@ public class StorageState
     this(unitCapacity);
     mySub = sub;
     ringArraySize = maxHorizon;
-    capacityVector = new RingArray<>(ringArraySize);
+    timeslots = new int[ringArraySize];
+    population = new double[ringArraySize][];
+    energy = new double[ringArraySize][];
+    elements = new StorageElement[ringArraySize];
+    sparePopulation = new double[ringArraySize + 1][];
+    spareEnergy = new double[ringArraySize + 1][];
+    clear();
+  }
+
+  /**
+   * Constructor for a state that covers the subscribers of several
+   * subscriptions, as in an EvFleet. The population is given by the
+   * populationSource rather than by a subscription.
+   */
+  StorageState (double unitCapacity, int maxHorizon, IntSupplier populationSource)
+  {
+    this(null, unitCapacity, maxHorizon);
+    this.populationSource = populationSource;
   }
 
   /**
@@ -99,14 +148,12 @@ public class StorageState
    */
   private StorageState (StorageState original)
   {
-    this(original.unitCapacity);
-    this.mySub = original.mySub;
-    this.ringArraySize = original.ringArraySize;
-    this.capacityVector = new RingArray<>(this.ringArraySize);
+    this(original.mySub, original.unitCapacity, original.ringArraySize);
+    this.populationSource = original.populationSource;
     this.startIndex = original.startIndex;
     for (int i = startIndex; i < startIndex
-            + original.capacityVector.getActiveLength(startIndex); i++) {
-      this.capacityVector.set(i, original.capacityVector.get(i).copy());
+            + original.getHorizon(startIndex); i++) {
+      putScaled(i, original, 1.0);
     }
   }
 
@@ -118,6 +165,17 @@ public class StorageState
     return new StorageState(this);
   }
 
+  /**
+   * Returns the portion of this state given by fraction, from the given
+   * timeslot on, attached to the given subscription.
+   */
+  StorageState share (TariffSubscription sub, int timeslot, double fraction)
+  {
+    StorageState result = new StorageState(sub, unitCapacity, ringArraySize);
+    result.copyScaled(timeslot, this, fraction);
+    return result;
+  }
+
   /**
    * Restores the current state at the start of a sim session.
    * The record is a list of Strings representing StorageElement instances.
@@ -163,7 +221,7 @@ public class StorageState
 
   /**
    * Transfers subscribers from another subscription having the specified StorageState.
-   * Updates the capacityVector accordingly.
+   * Updates the capacity ring accordingly.
    * 
    * NOTE that when this is called, the subscriptions themselves have not yet been updated.
    * In other words, it needs to be called in the <code>notifyCustomer()</code> method,
@@ -186,7 +244,7 @@ public class StorageState
     // if there were no existing subscribers, then we bring over a portion of the oldState
     // equal to the count being moved over.
     if (0 == getPopulation()) {
-      capacityVector.clear();
+      clear();
       copyScaled(timeslotIndex, oldState, fraction);
     }
 
@@ -204,17 +262,56 @@ public class StorageState
   // Since we assume the current state is empty, we start by clearing it.
   private void copyScaled (int timeslot, StorageState from, double fraction)
   {
-    capacityVector.clear();
+    clear();
     for (int i = timeslot; i < timeslot + from.getHorizon(timeslot); i++) {
-      capacityVector.set(i, from.getElement(i).copyScaled(fraction));
+      putScaled(i, from, fraction);
     }
   }
 
-  // Add a portion of the state from another subscription to this state.
-  private void addScaled (int timeslot, StorageState from, double fraction)
+  // Adds a portion of the state from another subscription to this state.
+  // Rows this state does not yet hold are copied, others are added cohort
+  // by cohort. Package visibility for merging the states of a fleet.
+  void addScaled (int timeslot, StorageState from, double fraction)
   {
     for (int i = timeslot; i < timeslot + from.getHorizon(timeslot); i++) {
-      capacityVector.set(i, from.getElement(i).copyScaled(fraction));
+      int length = from.getLength(i);
+      int current = getLength(i);
+      if (0 == length) {
+        continue;
+      }
+      if (0 == current) {
+        putScaled(i, from, fraction);
+        continue;
+      }
+      int row = row(i);
+      if (length > current) {
+        // Should not happen, rows for the same timeslot collapse together
+        log.warn("ts {}: adding {} cohorts to {}", i, length, current);
+        resize(row, length);
+      }
+      double[] fromPopulation = from.population[from.row(i)];
+      double[] fromEnergy = from.energy[from.row(i)];
+      for (int j = 0; j < length; j++) {
+        population[row][j] += fromPopulation[j] * fraction;
+        energy[row][j] += fromEnergy[j] * fraction;
+      }
+    }
+  }
+
+  // Replaces the row for a timeslot with a scaled copy of the row in another state
+  private void putScaled (int timeslot, StorageState from, double fraction)
+  {
+    int length = from.getLength(timeslot);
+    if (0 == length) {
+      return;
+    }
+    double[] fromPopulation = from.population[from.row(timeslot)];
+    double[] fromEnergy = from.energy[from.row(timeslot)];
+    int row = allocate(timeslot, length);
+    length = population[row].length;
+    for (int i = 0; i < length; i++) {
+      population[row][i] = fromPopulation[i] * fraction;
+      energy[row][i] = fromEnergy[i] * fraction;
     }
   }
 
@@ -232,8 +329,13 @@ public class StorageState
     }
 
     // walk through the active array and scale it
-    for (StorageElement element : old.getElementList(timeslot)) {
-      element.scale(fraction);
+    for (int ts = timeslot; ts < timeslot + old.getHorizon(timeslot); ts++) {
+      double[] oldPopulation = old.population[old.row(ts)];
+      double[] oldEnergy = old.energy[old.row(ts)];
+      for (int i = 0; i < old.getLength(ts); i++) {
+        oldPopulation[i] *= fraction;
+        oldEnergy[i] *= fraction;
+      }
     }
   }
 
@@ -251,9 +353,8 @@ public class StorageState
       return;
     }
 
-    // We first must clear out the portion of the ring beyond the current max index
-    // that we might want to use.
-    capacityVector.clean(timeslot);
+    // Rows still holding earlier timeslots count as empty, so there's no need
+    // to clear out the portion of the ring beyond the current max index.
     setStartIndex(timeslot);
 
     // All the vehicles in newDemand start charging now, so we first have to find
@@ -274,11 +375,9 @@ public class StorageState
     // add up to 1.0.
     for (int i = timeslot; i <= maxTimeslot && null != nextDe; i++) {
       int arrayLength = i - timeslot + 1;
-      StorageElement se = getElement(i);
-      if (null == se) {
+      if (0 == getLength(i)) {
         // empty spot
-        se = new StorageElement(i - timeslot + 1);
-        putElement(i, se);
+        allocate(i, arrayLength);
       }
 
       // add remaining activations regardless of whether there's demand for this ts
@@ -287,10 +386,21 @@ public class StorageState
         activations -= nextDe.getNVehicles() * ratio;
         // distribute nextDe population and energy according to distribution
         double[] allocations = nextDe.getdistribution();
-        double[] pop = new double [arrayLength];
-        double[] energy = new double [arrayLength];
+        double[] rowPopulation = population[row(i)];
+        double[] rowEnergy = energy[row(i)];
+        int length = getLength(i);
+        if (allocations.length > length) {
+          // Should never happen
+          log.error("ts {} h {}, se array length {} should be {}",
+                    timeslot, i - timeslot,
+                    length, allocations.length);
+        }
+        if (arrayLength > length) {
+          log.error("array size mismatch {} into {}", arrayLength, length);
+        }
 
-        int nValues = (int) Math.round(Math.min(arrayLength, allocations.length));
+        int nValues = (int) Math.round(Math.min(length,
+                                                Math.min(arrayLength, allocations.length)));
         for (int ix = 0; ix < nValues; ix++) {
           if (Double.isNaN(allocations[ix])) {
             log.error("NaN demand ts {}, h {}, i {}",
@@ -300,16 +410,10 @@ public class StorageState
           else if (allocations[ix] < epsilon) {
             continue;
           }
-          pop[ix] = nextDe.getNVehicles() * allocations[ix] * ratio;
-          energy[ix] = getUnitCapacity() * pop[ix] * (arrayLength - ix - 0.5);
+          double pop = nextDe.getNVehicles() * allocations[ix] * ratio;
+          rowPopulation[ix] += pop;
+          rowEnergy[ix] += getUnitCapacity() * pop * (arrayLength - ix - 0.5);
         }
-        if (allocations.length > se.getEnergy().length) {
-          // Should never happen
-          log.error("ts {} h {}, se array length {} should be {}",
-                    timeslot, i - timeslot,
-                    se.getEnergy().length, allocations.length);
-        }
-        se.addCommitments(pop, energy);
         if (elements.hasNext()) {
           // go again if we haven't finished the list
           nextDe = elements.next();
@@ -354,40 +458,43 @@ public class StorageState
   {
     // set up cached values to handle regulation
     currentUsage = capacity;
-    double[] minMax = getMinMax(timeslot);
-    currentMin = minMax[0];
+    currentMin = getMinDemand(timeslot);
 
     double remainingCapacity = capacity;
     // Start by finishing off the current timeslot
-    StorageElement target = getElement(timeslot);
-    if (null == target) {
+    int length = getLength(timeslot);
+    if (0 == length) {
       // can't do much here
       log.warn("No StorageElement at ts {}", timeslot);
       return;
     }
     // this one should have only one bundle
-    double[] energy = target.getEnergy();
-    if (energy.length > 1) {
+    double[] rowPopulation = population[row(timeslot)];
+    double[] rowEnergy = energy[row(timeslot)];
+    if (length > 1) {
       // big problem
-      log.error("Unsatisfiable demand {} in current timeslot{}", energy.toString(), timeslot);
-      for (int i = 0; i < energy.length - 1; i++) {
-        remainingCapacity -= unitCapacity * target.getPopulation()[i];
+      log.error("Unsatisfiable demand {} in current timeslot{}",
+                getElement(timeslot), timeslot);
+      for (int i = 0; i < length - 1; i++) {
+        remainingCapacity -= unitCapacity * rowPopulation[i];
       }
     }
     else {
       remainingCapacity -=
-              energy[0];
-      energy[0] = 0.0;
+              rowEnergy[0];
+      rowEnergy[0] = 0.0;
     }
 
     // Next, we have to run the critical chargers in the remaining timeslots
     for (int ts = timeslot + 1;
-            ts < timeslot + capacityVector.getActiveLength(timeslot); ts++) {
-      target = getElement(ts);
-      double[] pop = target.getPopulation();
-      energy = target.getEnergy();
-      double usage = Math.min(unitCapacity * pop[0], energy[0]);
-      target.energy[0] -= usage;
+            ts < timeslot + getHorizon(timeslot); ts++) {
+      if (0 == getLength(ts)) {
+        continue;
+      }
+      rowPopulation = population[row(ts)];
+      rowEnergy = energy[row(ts)];
+      double usage = Math.min(unitCapacity * rowPopulation[0], rowEnergy[0]);
+      rowEnergy[0] -= usage;
       remainingCapacity -= usage;
     }
 
@@ -396,11 +503,12 @@ public class StorageState
     // Also, the last cohort in each timeslot is typically half-power.
     double remainingDemand = 0;
     for (int ts = timeslot + 1;
-            ts < timeslot + capacityVector.getActiveLength(timeslot); ts++) {
-      target = getElement(ts);
-      for (int p = 1; p < target.getPopulation().length; p++) {
-        double hrEnergy = Math.min(target.getPopulation()[p] * getUnitCapacity(),
-                                   target.getEnergy()[p]);
+            ts < timeslot + getHorizon(timeslot); ts++) {
+      rowPopulation = population[row(ts)];
+      rowEnergy = energy[row(ts)];
+      for (int p = 1; p < getLength(ts); p++) {
+        double hrEnergy = Math.min(rowPopulation[p] * getUnitCapacity(),
+                                   rowEnergy[p]);
         remainingDemand += hrEnergy;
       }
     }
@@ -417,13 +525,14 @@ public class StorageState
     else {
       double capacityRatio = remainingCapacity / remainingDemand;
       for (int ts = timeslot + 1;
-              ts < timeslot + capacityVector.getActiveLength(timeslot); ts++) {
-        target = getElement(ts);
-        for (int e = 1; e < target.getEnergy().length; e++) {
-          double hrEnergy = Math.min(target.getPopulation()[e] * getUnitCapacity(),
-                                     target.getEnergy()[e]);
+              ts < timeslot + getHorizon(timeslot); ts++) {
+        rowPopulation = population[row(ts)];
+        rowEnergy = energy[row(ts)];
+        for (int e = 1; e < getLength(ts); e++) {
+          double hrEnergy = Math.min(rowPopulation[e] * getUnitCapacity(),
+                                     rowEnergy[e]);
           // here's where we allocate energy
-          target.getEnergy()[e] -= hrEnergy * capacityRatio;
+          rowEnergy[e] -= hrEnergy * capacityRatio;
         }
       }
     }
@@ -495,23 +604,24 @@ public class StorageState
 
     // Usage has already been reported, but collapse/rebalance has not happened
     for (int ts = timeslot;
-            ts < timeslot + capacityVector.getActiveLength(timeslot);
+            ts < timeslot + getHorizon(timeslot);
             ts++) {
-      StorageElement target = getElement(ts);
       // we need to increase or decrease discretionary usage by ratio
       // note that usage in the first group is not discretionary
-      double[] pop = target.getPopulation();
-      double[] energy = target.getEnergy();
-      for (int i = 1; i < pop.length; i++) {
-        double minMultiplier = Math.max(pop.length -i - 0.5, 0.0);
-        double minE = minMultiplier * pop[i] * getUnitCapacity(); // min remaining demand after curtailment
-        double du = energy[i] - minE; // discretionary usage
+      double[] rowPopulation = population[row(ts)];
+      double[] rowEnergy = energy[row(ts)];
+      int length = getLength(ts);
+      for (int i = 1; i < length; i++) {
+        double pop = rowPopulation[i];
+        double minMultiplier = Math.max(length -i - 0.5, 0.0);
+        double minE = minMultiplier * pop * getUnitCapacity(); // min remaining demand after curtailment
+        double du = rowEnergy[i] - minE; // discretionary usage
         double dr = du * ratio;       // regulated usage
         double v2gUsage = 0;
         if (i >= 2) {
-          v2gUsage = v2gAcceptance * pop[i] * (-getUnitCapacity()) * v2gRatio; // (negative) V2G usage as ratio of V2G capacity
+          v2gUsage = v2gAcceptance * pop * (-getUnitCapacity()) * v2gRatio; // (negative) V2G usage as ratio of V2G capacity
         }
-        energy[i] = minE + dr - v2gUsage;
+        rowEnergy[i] = minE + dr - v2gUsage;
 
         result += (du - dr + v2gUsage); // negative for up-reg, positive for down-reg since du > dr with ratio < 1 and du = negative due to energy[i] < minE
       }
@@ -528,25 +638,32 @@ public class StorageState
   public void collapseElements (int timeslot)
   {
     for (int ts = timeslot;
-            ts < timeslot + capacityVector.getActiveLength(timeslot); ts++) {
-      StorageElement target = getElement(ts);
-      if (null == target)
+            ts < timeslot + getHorizon(timeslot); ts++) {
+      int length = getLength(ts);
+      if (0 == length) {
         log.error("Null StorageElement in timeslot {} for ts {}", timeslot, ts);
+        continue;
+      }
       // last index, if not already complete, must be folded into the previous index
-      int lastIndex = target.getEnergy().length - 1;
-      if (target.getEnergy()[lastIndex] < -epsilon) {
+      double[] rowPopulation = population[row(ts)];
+      double[] rowEnergy = energy[row(ts)];
+      int lastIndex = length - 1;
+      if (rowEnergy[lastIndex] < -epsilon) {
         // very strange
-        log.error("negative demand {} timeslot {}", target.getEnergy()[lastIndex], ts);
-        target.getEnergy()[lastIndex] = 0.0;
-        target.getPopulation()[lastIndex] = 0.0;
+        log.error("negative demand {} timeslot {}", rowEnergy[lastIndex], ts);
+        rowEnergy[lastIndex] = 0.0;
+        rowPopulation[lastIndex] = 0.0;
       }
-      else if (target.getEnergy()[lastIndex] > epsilon) {
+      else if (rowEnergy[lastIndex] > epsilon && length > 1) {
         // Move remaining demand and population in the last index
         // up to the previous index
-        target.getEnergy()[lastIndex - 1] += target.getEnergy()[lastIndex];
-        target.getPopulation()[lastIndex - 1] += target.getPopulation()[lastIndex];
+        rowEnergy[lastIndex - 1] += rowEnergy[lastIndex];
+        rowPopulation[lastIndex - 1] += rowPopulation[lastIndex];
+      }
+      // drop the final cohort, which is no longer needed
+      if (length > 1) {
+        resize(row(ts), length - 1);
       }
-      target.collapseArrays();
     }
   }
 
@@ -562,10 +679,59 @@ public class StorageState
     // of each of the remaining cohorts up to the next higher-demand (lower index)
     // population.
     for (int ts = timeslot + 1;
-            ts < timeslot + capacityVector.getActiveLength(timeslot); ts++) {
+            ts < timeslot + getHorizon(timeslot); ts++) {
       // we skip the first StorageElement, which should be fully satisfied
-      StorageElement target = getElement(ts);
-      target.rebalance(unitCapacity);
+      rebalance(population[row(ts)], energy[row(ts)], getLength(ts));
+    }
+  }
+
+  // Moves energy and population in one row to smaller indices as needed
+  // to preserve hourly constraints
+  private void rebalance (double[] population, double[] energy, int length)
+  {
+    // This only works if there are multiple groups
+    if (length < 2)
+      return;
+    double chargerCapacity = unitCapacity;
+    // Each group i should have energy ratio <= (len - i - 1) + 0.5
+    for (int i = length - 1; i > 0; i--) {
+      //note that we are not moving energy and population above index 0
+      //first, find the surplus in this timeslot
+      int cell = i;
+      double xRatio = (length - 1 - i) + 0.5; // current cell
+      if (population[cell] < populationEpsilon) {
+        // clear this one out
+        population[cell] = 0.0;
+        energy[cell] = 0.0;
+        continue;
+      }
+      double chunk = population[cell] * chargerCapacity;
+      double currentRatio = energy[cell] / chunk;
+      if (currentRatio <= xRatio) {
+        continue;
+      }
+      double move = (currentRatio - xRatio);
+
+      // Move by 2 in case of V2G
+      if (move > 1.0 && i > 1) { // Group 0 and 1 cannot be moved above index 0 and are not eligible for V2G
+        double v2gMove = move - 1.0;
+        double v2gMoveP = population[cell] * v2gMove;
+        population[cell] -= v2gMoveP;
+        population[cell - 2] += v2gMoveP;
+
+        double v2gMoveE = energy[cell] - population[cell] * chargerCapacity * xRatio;
+        energy[cell] -= v2gMoveE;
+        energy[cell - 2] += v2gMoveE;
+      }
+
+      move = Math.min(1.0, move);
+
+      double moveP = population[cell] * move;
+      population[cell] -= moveP;
+      population[cell - 1] += moveP;
+      double moveE = energy[cell] - population[cell] * chargerCapacity * xRatio;
+      energy[cell] -= moveE;
+      energy[cell - 1] += moveE;
     }
   }
 
@@ -576,27 +742,20 @@ public class StorageState
    */
   double[] getMinMax (int timeslot)
   {
-    // Minimum demand includes enough for the current timeslot plus the
-    // amounts needed for the full-power cohorts in all future timeslots
-    double minDemand = 0.0;
-    double maxDemand = 0.0;
-    StorageElement target = getElement(timeslot);
-    if (null == target || 0 == target.getEnergy().length) {
+    double minDemand = getMinDemand(timeslot);
+    if (0 == getLength(timeslot)) {
       // nothing to work with here
       return new double[] {0.0, 0.0, 0.0};
     }
-    // The first one has only one cohort that must be completely satisfied
-    minDemand += target.getEnergy()[0];
+    // Add a full chunk from each future timeslot to maxDemand
+    double maxDemand = 0.0;
     for (int ts = timeslot + 1;
             ts < timeslot + getHorizon(timeslot); ts++) {
-      target = getElement(ts);
-      double[] pop = target.getPopulation();
-      // Add must-run chargers from future timeslots to minDemand
-      minDemand += Math.min(target.getEnergy()[0], pop[0] * getUnitCapacity());
-      // Add a full chunk from each future timeslot to maxDemand
-      for (int i = 1; i < pop.length; i++) {
-        maxDemand += Math.min(target.getEnergy()[i],
-                              pop[i] * getUnitCapacity());
+      double[] rowPopulation = population[row(ts)];
+      double[] rowEnergy = energy[row(ts)];
+      for (int i = 1; i < getLength(ts); i++) {
+        maxDemand += Math.min(rowEnergy[i],
+                              rowPopulation[i] * getUnitCapacity());
       }
     }
     maxDemand += minDemand;
@@ -604,6 +763,27 @@ public class StorageState
                          minDemand + (maxDemand - minDemand) / 2.0};
   }
 
+  // Minimum demand includes enough for the current timeslot plus the
+  // amounts needed for the full-power cohorts in all future timeslots
+  private double getMinDemand (int timeslot)
+  {
+    if (0 == getLength(timeslot)) {
+      return 0.0;
+    }
+    // The first one has only one cohort that must be completely satisfied
+    double minDemand = energy[row(timeslot)][0];
+    for (int ts = timeslot + 1;
+            ts < timeslot + getHorizon(timeslot); ts++) {
+      if (0 == getLength(ts)) {
+        continue;
+      }
+      // Add must-run chargers from future timeslots to minDemand
+      int row = row(ts);
+      minDemand += Math.min(energy[row][0], population[row][0] * getUnitCapacity());
+    }
+    return minDemand;
+  }
+
   /**
    * Computes V2G regulation capacity for the specified
    * timeslot. Returns the V2G regulation capacity.
@@ -613,11 +793,10 @@ public class StorageState
     double v2gCapacity = 0.0;
     for (int ts = timeslot + 2;
          ts < timeslot + getHorizon(timeslot); ts++) {
-      StorageElement target = getElement(ts);
-      double[] pop = target.getPopulation();
+      double[] rowPopulation = population[row(ts)];
       // Add a full chunk of fraction of chargers allowing V2G from each future timeslot to v2gCapacity
-      for (int i = 2; i < pop.length; i++) {
-        v2gCapacity += v2gAcceptance * pop[i] * (-getUnitCapacity());
+      for (int i = 2; i < getLength(ts); i++) {
+        v2gCapacity += v2gAcceptance * rowPopulation[i] * (-getUnitCapacity());
       }
     }
     this.v2gCapacity = v2gCapacity;
@@ -634,6 +813,10 @@ public class StorageState
     log.debug("gatherState({}), horizon={}", timeslot, getHorizon(timeslot));
     for (int i = timeslot; i < timeslot + getHorizon(timeslot); i++) {
       StorageElement se = getElement(i);
+      if (null == se) {
+        log.error("Null StorageElement at {} in gatherState", i);
+        continue;
+      }
       result = result.concat(String.format("SE %d %s %s, ", i,
                                            Arrays.toString(se.getPopulation()),
                                            Arrays.toString(se.getEnergy())));
@@ -653,6 +836,9 @@ public class StorageState
    */
   int getPopulation ()
   {
+    if (null != populationSource) {
+      return populationSource.getAsInt();
+    }
     return mySub.getCustomersCommitted();
   }
 
@@ -682,25 +868,128 @@ public class StorageState
    */
   int getHorizon (int timeslot)
   {
-    return capacityVector.getActiveLength(timeslot);
+    return Math.max(0, maxIndex - timeslot + 1);
   }
 
-  // Retrieves a specific StorageElement
+  // Retrieves a specific StorageElement, or null if there is none
   StorageElement getElement (int index)
   {
-    return capacityVector.get(index);
+    if (0 == getLength(index)) {
+      return null;
+    }
+    int row = row(index);
+    if (null == elements[row]) {
+      elements[row] = new StorageElement(energy[row], population[row]);
+    }
+    return elements[row];
   }
 
-  // Returns the capacityVector as a list
-  List<StorageElement> getElementList (int start)
+  // Stores an element at the specified location
+  private void putElement (int index, StorageElement se)
   {
-    return capacityVector.asList(start);
+    int row = row(index);
+    release(row);
+    population[row] = se.getPopulation();
+    energy[row] = se.getEnergy();
+    elements[row] = se;
+    timeslots[row] = index;
+    maxIndex = Math.max(maxIndex, index);
   }
 
-  // Stores an element at the specified location
-  private void putElement (int index, StorageElement se)
+  // Empties the ring
+  private void clear ()
+  {
+    Arrays.fill(timeslots, EMPTY);
+    maxIndex = -1;
+  }
+
+  // Ring row for a timeslot
+  private int row (int timeslot)
+  {
+    return Math.floorMod(timeslot, ringArraySize);
+  }
+
+  // Number of cohorts held for a timeslot, zero if the ring has none
+  private int getLength (int timeslot)
+  {
+    if (timeslot > maxIndex || timeslot <= maxIndex - ringArraySize
+        || timeslots[row(timeslot)] != timeslot) {
+      return 0;
+    }
+    return population[row(timeslot)].length;
+  }
+
+  // Claims the row for a timeslot, with the given number of empty cohorts.
+  // The arrays of the row are kept if they have the right length. Returns
+  // the row.
+  private int allocate (int timeslot, int length)
+  {
+    if (length > ringArraySize) {
+      log.error("ts {}: {} cohorts exceed ring size {}",
+                timeslot, length, ringArraySize);
+      length = ringArraySize;
+    }
+    int row = row(timeslot);
+    // an element of the timeslot that held the row before stays with it
+    elements[row] = null;
+    if (null == population[row] || population[row].length != length) {
+      release(row);
+      population[row] = spare(sparePopulation, length);
+      energy[row] = spare(spareEnergy, length);
+    }
+    Arrays.fill(population[row], 0.0);
+    Arrays.fill(energy[row], 0.0);
+    timeslots[row] = timeslot;
+    maxIndex = Math.max(maxIndex, timeslot);
+    return row;
+  }
+
+  // Gives a row arrays of a new length, keeping the cohorts that fit
+  // and filling the others with zeros
+  private void resize (int row, int length)
+  {
+    double[] oldPopulation = population[row];
+    double[] oldEnergy = energy[row];
+    int kept = Math.min(length, oldPopulation.length);
+    population[row] = spare(sparePopulation, length);
+    energy[row] = spare(spareEnergy, length);
+    System.arraycopy(oldPopulation, 0, population[row], 0, kept);
+    System.arraycopy(oldEnergy, 0, energy[row], 0, kept);
+    Arrays.fill(population[row], kept, length, 0.0);
+    Arrays.fill(energy[row], kept, length, 0.0);
+    release(oldPopulation, oldEnergy);
+    if (null != elements[row]) {
+      elements[row].setArrays(energy[row], population[row]);
+    }
+  }
+
+  // Keeps the arrays of a row as spares
+  private void release (int row)
+  {
+    if (null != population[row]) {
+      release(population[row], energy[row]);
+    }
+  }
+
+  private void release (double[] rowPopulation, double[] rowEnergy)
   {
-    capacityVector.set(index, se);
+    int length = rowPopulation.length;
+    if (length < sparePopulation.length && length == rowEnergy.length) {
+      sparePopulation[length] = rowPopulation;
+      spareEnergy[length] = rowEnergy;
+    }
+  }
+
+  // Returns a spare array of the given length, or a new one if there is none.
+  // The contents of a spare are not cleared.
+  private double[] spare (double[][] spares, int length)
+  {
+    double[] result = spares[length];
+    if (null == result) {
+      return new double[length];
+    }
+    spares[length] = null;
+    return result;
   }
 
   // returns the current start index for the capacity array
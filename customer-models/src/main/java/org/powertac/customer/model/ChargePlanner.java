@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2026 by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.powertac.customer.model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Solves the charging problem of the lift-truck model directly. Energy is
+ * bought in blocks, each with a cost per kWh and a maximum amount, and the
+ * blocks are grouped into consecutive shifts. At the end of each shift the
+ * total energy bought so far must lie between a lower and an upper bound.
+ * The planner finds the cheapest amounts for the blocks, which is the
+ * solution of the linear program
+ * <pre>
+ *   min sum(cost[j] * x[j])
+ *   s.t. 0 &lt;= x[j] &lt;= cap[j]
+ *        low[i] &lt;= sum(x[j], j &lt; shiftEnd[i]) &lt;= high[i]
+ * </pre>
+ * <p>
+ * The cheapest cost of the first i shifts, as a function of the energy
+ * bought by the end of shift i, is convex and piecewise linear; its pieces
+ * are the blocks, sorted by cost. Each shift merges its own blocks into that
+ * list, commits the cheapest pieces needed to reach the lower bound, and
+ * drops the dearest pieces that would exceed the upper bound. Once all
+ * shifts are processed, the remaining pieces with negative cost are bought.
+ * This takes time proportional to the number of shifts times the number of
+ * blocks.</p>
+ * <p>
+ * When the bounds cannot be met, the planner gets as close as the block
+ * capacities allow and logs a warning.</p>
+ *
+ * @author agent
+ */
+class ChargePlanner
+{
+  static private Logger log =
+      LogManager.getLogger(ChargePlanner.class.getName());
+
+  // amounts below this are treated as zero
+  static final double EPSILON = 1e-9;
+
+  private ChargePlanner ()
+  {
+    super();
+  }
+
+  /**
+   * Returns the cheapest amount of energy for each block. Blocks
+   * shiftEnd[i-1] up to shiftEnd[i] belong to shift i, and low[i] and
+   * high[i] bound the energy bought by the end of shift i.
+   */
+  static double[] plan (double[] cost, double[] cap, int[] shiftEnd,
+                        double[] low, double[] high)
+  {
+    double[] result = new double[cost.length];
+    // pieces of the cost function not yet committed, cheapest first
+    List<Piece> pieces = new ArrayList<Piece>();
+    double committed = 0.0;
+    int begin = 0;
+    for (int i = 0; i < shiftEnd.length; i++) {
+      List<Piece> own = new ArrayList<Piece>();
+      for (int j = begin; j < shiftEnd[i]; j++) {
+        if (cap[j] > EPSILON)
+          own.add(new Piece(j, cost[j], cap[j]));
+      }
+      // stable, so equal costs keep their time order
+      own.sort(Comparator.comparingDouble(Piece::getCost));
+      pieces = merge(pieces, own);
+      begin = shiftEnd[i];
+
+      // commit the cheapest pieces up to the lower bound
+      int first = 0;
+      while (committed < low[i] - EPSILON && first < pieces.size()) {
+        Piece piece = pieces.get(first);
+        double amount = Math.min(piece.amount, low[i] - committed);
+        result[piece.block] += amount;
+        committed += amount;
+        piece.amount -= amount;
+        if (piece.amount <= EPSILON)
+          first += 1;
+      }
+      pieces = new ArrayList<Piece>(pieces.subList(first, pieces.size()));
+      if (committed < low[i] - EPSILON) {
+        log.warn("Shift {} needs {} but only {} can be bought",
+                 i, low[i], committed);
+      }
+
+      // drop the dearest pieces beyond the upper bound
+      double excess = committed - high[i];
+      for (Piece piece : pieces)
+        excess += piece.amount;
+      while (excess > EPSILON && !pieces.isEmpty()) {
+        Piece piece = pieces.get(pieces.size() - 1);
+        double amount = Math.min(piece.amount, excess);
+        piece.amount -= amount;
+        excess -= amount;
+        if (piece.amount <= EPSILON)
+          pieces.remove(pieces.size() - 1);
+      }
+      if (excess > EPSILON) {
+        log.warn("Shift {} is limited to {} but {} is already needed",
+                 i, high[i], committed);
+      }
+    }
+
+    // buy whatever still lowers the cost
+    for (Piece piece : pieces) {
+      if (piece.cost >= 0.0)
+        break;
+      result[piece.block] += piece.amount;
+    }
+    return result;
+  }
+
+  // merges two lists sorted by cost, taking from the first on ties
+  private static List<Piece> merge (List<Piece> earlier, List<Piece> later)
+  {
+    List<Piece> result = new ArrayList<Piece>(earlier.size() + later.size());
+    int i = 0;
+    int j = 0;
+    while (i < earlier.size() && j < later.size()) {
+      if (later.get(j).cost < earlier.get(i).cost)
+        result.add(later.get(j++));
+      else
+        result.add(earlier.get(i++));
+    }
+    result.addAll(earlier.subList(i, earlier.size()));
+    result.addAll(later.subList(j, later.size()));
+    return result;
+  }
+
+  // The uncommitted part of one block
+  private static class Piece
+  {
+    final int block;
+    final double cost;
+    double amount;
+
+    Piece (int block, double cost, double amount)
+    {
+      this.block = block;
+      this.cost = cost;
+      this.amount = amount;
+    }
+
+    double getCost ()
+    {
+      return cost;
+    }
+  }
+}
@@ -48,10 +48,7 @@ import org.powertac.common.repo.RandomSeedRepo;
 import org.powertac.common.state.Domain;
 import org.powertac.common.state.StateChange;
 import org.powertac.customer.AbstractCustomer;
-
-import com.joptimizer.optimizers.LPOptimizationRequest;
-import com.joptimizer.optimizers.LPPrimalDualMethod;
-import com.joptimizer.optimizers.OptimizationResponse;
+import org.powertac.customer.TariffCache;
 
 /**
  * Models the complement of lift trucks in a warehouse. There may be
@@ -142,6 +139,10 @@ implements CustomerModelAccessor
   private PowerType powerType;
   //private ShiftEnergy[] futureEnergyNeeds = null;
   private CapacityPlan plan;
+  // tariff-independent parts of the most recent plans, most recently used
+  // first. Tariff evaluation and the operating plan start from different
+  // times and charges, so one of each is kept.
+  private PlanSkeleton[] planSkeletons = new PlanSkeleton[2];
 
   // random seeds
   private RandomSeed opSeed = null;
@@ -195,7 +196,7 @@ implements CustomerModelAccessor
     ensureSeeds();
 
     // use default values when not configured
-    ensureShifts();
+    prepare();
 
     // make sure we have enough batteries and availableChargers
     validateBatteries();
@@ -215,6 +216,15 @@ implements CustomerModelAccessor
                                                 nChargers * maxChargeKW * 0.04);
   }
 
+  // Completes the configured shift schedule. Safe to repeat. Batteries and
+  // chargers are validated in initialize(), after the CustomerInfo is sized
+  // from the configured complement.
+  @Override
+  public void prepare ()
+  {
+    ensureShifts();
+  }
+
   // Gets a new random-number opSeed just in case we don't already have one.
   // Useful for mock-based testing.
   private void ensureSeeds ()
@@ -562,6 +572,31 @@ implements CustomerModelAccessor
     return result;
   }
 
+  // Returns the skeleton for plans with the given start, size, and initial
+  // charge, reusing a recent one if it matches exactly. Otherwise a new one
+  // replaces the least recently used.
+  PlanSkeleton getPlanSkeleton (Instant start, int size,
+                                double initialCharging)
+  {
+    int index = 0;
+    while (index < planSkeletons.length
+           && (null == planSkeletons[index]
+               || !planSkeletons[index].matches(start, size,
+                                                initialCharging)))
+      index += 1;
+    PlanSkeleton result;
+    if (index < planSkeletons.length) {
+      result = planSkeletons[index];
+    }
+    else {
+      result = new PlanSkeleton(start, size, initialCharging);
+      index = planSkeletons.length - 1;
+    }
+    System.arraycopy(planSkeletons, 0, planSkeletons, 1, index);
+    planSkeletons[0] = result;
+    return result;
+  }
+
   // Returns the index into the shift array corresponding to the given time.
   int indexOfShift (Instant time)
   {
@@ -952,21 +987,23 @@ implements CustomerModelAccessor
     return subs.get(0);
   }
 
-  private Map<Tariff, CapacityPlan> profiles = null;
+  private TariffCache<CapacityPlan> profiles = null;
   @Override
   public CapacityProfile getCapacityProfile (Tariff tariff)
   {
     if (null == profiles) {
-      profiles = new HashMap<Tariff, CapacityPlan>();
-    }
-    CapacityPlan plan = profiles.get(tariff);
-    if (null != plan) {
-      return plan.getCapacityProfile();
+      profiles = new TariffCache<CapacityPlan>(getName() + " profiles");
     }
-    plan = getCapacityPlan(tariff, getNextSunday(), getPlanningHorizon());
-    profiles.put(tariff, plan);
+    return profiles.get(tariff, this::makeProfilePlan).getCapacityProfile();
+  }
+
+  // creates the evaluation plan for a new tariff
+  private CapacityPlan makeProfilePlan (Tariff tariff)
+  {
+    CapacityPlan plan =
+        getCapacityPlan(tariff, getNextSunday(), getPlanningHorizon());
     plan.createPlan(tariff, 0.0);
-    return plan.getCapacityProfile();
+    return plan;
   }
 
   @Override
@@ -1001,6 +1038,9 @@ implements CustomerModelAccessor
   public void evaluateTariffs (List<Tariff> tariffs)
   {
     log.info(getName() + ": evaluate tariffs");
+    if (null != profiles) {
+      profiles.evictInactive();
+    }
     tariffEvaluator.evaluateTariffs();
   }
 
@@ -1129,6 +1169,17 @@ implements CustomerModelAccessor
       this.duration = duration;
     }
 
+    // Creates an undecorated copy of a ShiftEnergy that has not been ticked
+    ShiftEnergy (ShiftEnergy original)
+    {
+      super();
+      this.start = original.start;
+      this.endIndex = original.endIndex;
+      this.duration = original.duration;
+      this.energyNeeded = original.energyNeeded;
+      this.maxSurplus = original.maxSurplus;
+    }
+
     Instant getStart ()
     {
       return start;
@@ -1325,13 +1376,11 @@ implements CustomerModelAccessor
     void createPlan (Tariff tariff,
                      double initialCharging)
     {
-      needs = getFutureEnergyNeeds(start, size, initialCharging);
+      PlanSkeleton skeleton = getPlanSkeleton(start, size, initialCharging);
+      needs = skeleton.copyNeeds();
       // update size to use all of last ShiftEnergy instance
-      int newSize = 0;
-      for (ShiftEnergy need : needs)
-        newSize += need.getDuration();
-      size = newSize;
-      LpPlan plan = new LpPlan(tariff, needs, size);
+      size = skeleton.getHours();
+      LpPlan plan = new LpPlan(tariff, needs, size, skeleton);
       usage = plan.getSolution();
       slack = plan.getSlack();
       updateNeeds();
@@ -1356,7 +1405,7 @@ implements CustomerModelAccessor
     }
   }
 
-  // Creates a plan using the JOptimizer LP solver, gives access to
+  // Creates a plan using the ChargePlanner, gives access to
   // solution and slack values
   class LpPlan
   {
@@ -1367,55 +1416,82 @@ implements CustomerModelAccessor
     ShiftEnergy[] needs;
     int size;  // number of hours in plan
     int blockCount = 0; // number of multi-hour blocks in solution
+    PlanSkeleton skeleton; // may be null
 
     LpPlan (Tariff tariff, ShiftEnergy[] needs, int size)
+    {
+      this(tariff, needs, size, null);
+    }
+
+    LpPlan (Tariff tariff, ShiftEnergy[] needs, int size,
+            PlanSkeleton skeleton)
     {
       super();
       this.tariff = tariff;
       this.needs = needs;
       this.size = size;
+      this.skeleton = skeleton;
     }
 
-    // formulate and generate the solution, if necessary
+    // generate the solution, if necessary, reusing the solution of an
+    // earlier tariff with the same blocks and costs
     private void solve ()
     {
       if (solved)
         return;
 
-      // min obj.x s.t. a.x=b, lb <= x <= ub
-      // x is energy use per block for size hours, b is slack var per block.
+      // Create blocks that break on both shift boundaries and tariff price
+      // boundaries.
+      ShiftBlock[] blocks = makeBlocks(needs.length);
+      BlockKey key = null;
+      double[] result = null;
+      if (null != skeleton) {
+        key = new BlockKey(blocks);
+        result = skeleton.getSolution(key);
+      }
+      if (null == result) {
+        result = optimize(blocks);
+        if (null != key)
+          skeleton.putSolution(key, result);
+      }
+      else {
+        log.debug("Reusing plan for {}", tariff.getId());
+      }
+      recordSolution(result, blocks);
+      solved = true;
+    }
+
+    // formulate and solve the problem for the given blocks
+    private double[] optimize (ShiftBlock[] blocks)
+    {
+      // min obj.x s.t. lb <= x <= ub, cumulative use by the end of each
+      // shift between the energy it needs and the energy it can absorb.
+      // x is energy use per block for size hours; the slack per shift is the
+      // cumulative use beyond the need.
       // Block is a shift, or portion of shift with constant price.
       // For multi-hour blocks, energy use is evenly distributed across hours
       // after solution.
       Date start = new Date();
       int shifts = needs.length;
-      
-      // Create blocks that break on both shift boundaries and tariff price
-      // boundaries.
-      ShiftBlock[] blocks = makeBlocks(shifts); 
       int columns = blocks.length;
       int blockIndex = -1;
       
-      double[] obj = new double[columns + shifts];
-      double[][] a = new double[shifts][columns + shifts];
-      double[] b = new double[shifts];
-      double[] lb = new double[columns + shifts];
-      double[] ub = new double[columns + shifts];
+      double[] obj = new double[columns];
+      double[] ub = new double[columns];
+      int[] shiftEnd = new int[shifts];
+      double[] low = new double[shifts];
+      double[] high = new double[shifts];
       int column = 0;
       double cumulativeMin = 0.0; // this is the primary constraint
       // construct the problem
       for (int i = 0; i < shifts; i++) {
         // one iteration per shift
-        //double kwh =
-        //    needs[i].getEnergyNeeded() + needs[i].getMaxSurplus();
-        //for (int j = 0; j < needs[i].getDuration(); j++) {
         while ((blockIndex < blocks.length - 1) &&
                 (blocks[blockIndex + 1].getShiftEnergy() == needs[i])) {
           blockIndex += 1;
           // one iteration per block within a shift
           // fill in objective function
           obj[column] = blocks[blockIndex].getCost();
-          lb[column] = 0.0;
           if (0.0 == needs[i].getDuration()) {
             log.warn("Zero value in needs[{}]", i);
           }
@@ -1430,25 +1506,15 @@ implements CustomerModelAccessor
             ub[column] = 0.0;
           }
           column += 1;
-          // construct cumulative usage constraints
-          //a[i][column] = -1.0;
-          //time = time.plusMillis(TimeService.HOUR);
         }
-        // fill a row up to column
-        for (int j = 0; j < column; j++) {
-          a[i][j] = -1.0;
-        }
-        // b vector - one entry per constraint
+        shiftEnd[i] = column;
+        // cumulative minimum - one entry per constraint
         double need = needs[i].getEnergyNeeded();
         if (needs[i].getMaxSurplus() < 0.0)
           need += needs[i].getMaxSurplus();
         cumulativeMin += need;
-        b[i] = -cumulativeMin;
-        // fill in slack values, one per constraint
-        obj[columns + i] = 0.0;
-        a[i][columns + i] = 1.0;
-        lb[columns + i] = 0.0;
-        // upper bound is max possible energy for shift
+        low[i] = cumulativeMin;
+        // slack upper bound is max possible energy for shift
         double validEn = needs[i].getEnergyNeeded();
         if (Double.isNaN(validEn)) {
           log.warn("ub [{}] energyNeeded = NaN", i);
@@ -1459,41 +1525,25 @@ implements CustomerModelAccessor
           log.warn("ub[{}] maxSurplus = NaN", i);
           validSurplus = 0.0;
         }
-        ub[columns + i] =
-            (validEn + validSurplus);
+        high[i] = cumulativeMin + (validEn + validSurplus);
       }
       // run the optimization
-      LPOptimizationRequest or = new LPOptimizationRequest();
       log.debug("Obj: " + Arrays.toString(obj));
-      or.setC(obj);
-      log.debug("a:");
-      for (int i = 0; i < a.length; i++)
-        log.debug(Arrays.toString(a[i]));
-      or.setA(a);
-      log.debug("b: " + Arrays.toString(b));
-      or.setB(b);
-      or.setLb(lb);
+      log.debug("low: " + Arrays.toString(low));
+      log.debug("high: " + Arrays.toString(high));
       log.debug("ub: " + Arrays.toString(ub));
-      or.setUb(ub);
-      or.setTolerance(1.0e-2);
-      LPPrimalDualMethod opt = new LPPrimalDualMethod();
-      opt.setLPOptimizationRequest(or);
-      try {
-        int returnCode = opt.optimize();
-        if (returnCode != OptimizationResponse.SUCCESS) {
-          log.error(getName() + "bad optimization return code " + returnCode);
-        }
-        double[] sol = opt.getOptimizationResponse().getSolution();
-        Date end = new Date();
-        log.info("Solution time: " + (end.getTime() - start.getTime()));
-        log.debug("Solution = " + Arrays.toString(sol));
-        recordSolution(sol, blocks);
-      }
-      catch (Exception e) {
-        log.error(e.toString());
+      double[] sol = ChargePlanner.plan(obj, ub, shiftEnd, low, high);
+      double[] result = Arrays.copyOf(sol, columns + shifts);
+      double cumulative = 0.0;
+      for (int i = 0; i < shifts; i++) {
+        for (int j = (0 == i) ? 0 : shiftEnd[i - 1]; j < shiftEnd[i]; j++)
+          cumulative += sol[j];
+        result[columns + i] = cumulative - low[i];
       }
-      // we call it solved whether or not the solution was successful
-      solved = true;
+      Date end = new Date();
+      log.info("Solution time: " + (end.getTime() - start.getTime()));
+      log.debug("Solution = " + Arrays.toString(result));
+      return result;
     }
 
     ShiftBlock[] makeBlocks (int shifts)
@@ -1571,6 +1621,99 @@ implements CustomerModelAccessor
     }
   }
 
+  // ======== Tariff-independent part of a plan ========
+  // The energy needs of a plan depend only on its start, size, and initial
+  // charge, so they are computed once and copied into the plans for all the
+  // tariffs evaluated at the same time. Solutions are kept by block layout
+  // and costs, so tariffs that price the plan the same way share one.
+  class PlanSkeleton
+  {
+    private Instant start;
+    private int size; // requested size
+    private double initialCharging;
+    private ShiftEnergy[] needs;
+    private int hours; // size covering all of the last ShiftEnergy
+    private Map<BlockKey, double[]> solutions =
+        new HashMap<BlockKey, double[]>();
+
+    PlanSkeleton (Instant start, int size, double initialCharging)
+    {
+      super();
+      this.start = start;
+      this.size = size;
+      this.initialCharging = initialCharging;
+      needs = getFutureEnergyNeeds(start, size, initialCharging);
+      for (ShiftEnergy need : needs)
+        hours += need.getDuration();
+    }
+
+    boolean matches (Instant start, int size, double initialCharging)
+    {
+      return this.start.equals(start) && this.size == size
+          && this.initialCharging == initialCharging;
+    }
+
+    int getHours ()
+    {
+      return hours;
+    }
+
+    // each plan gets its own needs, which it decorates and ticks
+    ShiftEnergy[] copyNeeds ()
+    {
+      ShiftEnergy[] result = new ShiftEnergy[needs.length];
+      for (int i = 0; i < needs.length; i++)
+        result[i] = new ShiftEnergy(needs[i]);
+      return result;
+    }
+
+    double[] getSolution (BlockKey key)
+    {
+      double[] result = solutions.get(key);
+      return (null == result) ? null : Arrays.copyOf(result, result.length);
+    }
+
+    void putSolution (BlockKey key, double[] solution)
+    {
+      solutions.put(key, Arrays.copyOf(solution, solution.length));
+    }
+  }
+
+  // Layout and costs of the blocks of a plan
+  static class BlockKey
+  {
+    private int[] layout; // start offset and duration of each block
+    private double[] costs;
+
+    BlockKey (ShiftBlock[] blocks)
+    {
+      super();
+      layout = new int[blocks.length * 2];
+      costs = new double[blocks.length];
+      for (int i = 0; i < blocks.length; i++) {
+        layout[i * 2] = blocks[i].getStartOffset();
+        layout[i * 2 + 1] = blocks[i].getDuration();
+        costs[i] = blocks[i].getCost();
+      }
+    }
+
+    @Override
+    public boolean equals (Object other)
+    {
+      if (!(other instanceof BlockKey))
+        return false;
+      BlockKey key = (BlockKey) other;
+      return Arrays.equals(layout, key.layout)
+          && Arrays.equals(costs, key.costs);
+    }
+
+    @Override
+    public int hashCode ()
+    {
+      return 31 * Arrays.hashCode(layout) + Arrays.hashCode(costs);
+    }
+  }
+
   @Override
   public double getShiftingInconvenienceFactor(Tariff tariff) {
     return 0;
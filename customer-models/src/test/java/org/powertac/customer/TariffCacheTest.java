@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2026 by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.powertac.customer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.powertac.common.Tariff;
+
+/**
+ * @author agent
+ */
+public class TariffCacheTest
+{
+  private TariffCache<String> uut;
+  private Tariff t1;
+  private Tariff t2;
+  private Tariff t3;
+
+  @BeforeEach
+  public void setUp ()
+  {
+    uut = new TariffCache<String>("test");
+    t1 = mock(Tariff.class);
+    t2 = mock(Tariff.class);
+    t3 = mock(Tariff.class);
+  }
+
+  @Test
+  public void testGet ()
+  {
+    assertEquals(0, uut.size());
+    assertEquals("one", uut.get(t1, t -> "one"));
+    assertEquals("two", uut.get(t2, t -> "two"));
+    assertEquals("one", uut.get(t1, t -> "other"));
+    assertEquals(2, uut.size());
+    assertEquals(1, uut.getHits());
+    assertEquals(2, uut.getMisses());
+    assertEquals("two", uut.peek(t2));
+    assertNull(uut.peek(t3));
+    assertEquals(1, uut.getHits());
+  }
+
+  @Test
+  public void testEvictInactive ()
+  {
+    uut.get(t1, t -> "one");
+    uut.get(t2, t -> "two");
+    uut.get(t3, t -> "three");
+    assertEquals(0, uut.evictInactive());
+    when(t1.isRevoked()).thenReturn(true);
+    when(t3.isExpired()).thenReturn(true);
+    assertEquals(2, uut.evictInactive());
+    assertEquals(1, uut.size());
+    assertEquals(2, uut.getEvictions());
+    assertNull(uut.peek(t1));
+    assertEquals("two", uut.peek(t2));
+    // a revoked tariff that comes back is a miss
+    assertEquals("again", uut.get(t1, t -> "again"));
+    assertEquals(4, uut.getMisses());
+  }
+
+  @Test
+  public void testClear ()
+  {
+    uut.get(t1, t -> "one");
+    uut.get(t2, t -> "two");
+    uut.clear();
+    assertEquals(0, uut.size());
+    assertEquals(2, uut.getEvictions());
+    assertEquals("test: size 0, hits 0, misses 2, evictions 2",
+                 uut.toString());
+  }
+}
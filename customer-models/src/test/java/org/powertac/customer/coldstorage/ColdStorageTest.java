@@ -252,6 +252,70 @@ public class ColdStorageTest
     assertEquals(-93.44, rc.getDownRegulationCapacity(), 1e-4, "correct down-regulationCapacity");
   }
 
+  // a batch step gives the same results as the per-instance step() of each
+  // instance, which is also what tariff evaluation uses
+  @Test
+  public void testStepBatch ()
+  {
+    when(seed.nextDouble()).thenReturn(0.3);
+    weather = new WeatherReport(0, 30, 0, 0, 0);
+    when(mockWeatherRepo.currentWeatherReport()).thenReturn(weather);
+    ColdStorage[] single = { makeInstance("a1", -35.0, -10.0),
+                             makeInstance("b1", -30.0, -5.0) };
+    ColdStorage[] batch = { makeInstance("a2", -35.0, -10.0),
+                            makeInstance("b2", -30.0, -5.0) };
+    List<TariffSubscription> singleSubs = new ArrayList<>();
+    List<TariffSubscription> batchSubs = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      singleSubs.add(subscribe(single[i], 2.0));
+      batchSubs.add(subscribe(batch[i], 2.0));
+    }
+    assertFalse(batch[0].isBatchStepped());
+    for (ColdStorage cs : batch) {
+      cs.withBatchMode(true);
+    }
+    assertTrue(batch[0].isBatchStepped());
+    for (int step = 0; step < 3; step++) {
+      for (ColdStorage cs : single) {
+        cs.step();
+      }
+      batch[0].stepBatch(Arrays.asList(batch));
+    }
+    for (int i = 0; i < 2; i++) {
+      assertEquals(single[i].getCurrentTemp(), batch[i].getCurrentTemp(),
+                   1e-9, "same temp");
+      assertEquals(single[i].getCurrentNcUsage(),
+                   batch[i].getCurrentNcUsage(), 1e-9, "same nc usage");
+      ArgumentCaptor<Double> singlePwr = ArgumentCaptor.forClass(Double.class);
+      verify(singleSubs.get(i), times(3)).usePower(singlePwr.capture());
+      ArgumentCaptor<Double> batchPwr = ArgumentCaptor.forClass(Double.class);
+      verify(batchSubs.get(i), times(3)).usePower(batchPwr.capture());
+      assertEquals(singlePwr.getAllValues(), batchPwr.getAllValues(),
+                   "same usage");
+    }
+    assertNotEquals(batch[0].getCurrentTemp(), batch[1].getCurrentTemp());
+  }
+
+  private ColdStorage makeInstance (String name, double min, double max)
+  {
+    ColdStorage result = new ColdStorage(name);
+    result.withMinTemp(min).withMaxTemp(max);
+    result.setServiceAccessor(serviceAccessor);
+    result.initialize();
+    return result;
+  }
+
+  private TariffSubscription subscribe (ColdStorage cs, double regulation)
+  {
+    TariffSubscription sub = mock(TariffSubscription.class);
+    when(sub.getRegulation()).thenReturn(regulation);
+    List<TariffSubscription> subs = new ArrayList<TariffSubscription>();
+    subs.add(sub);
+    when(mockSubscriptionRepo.findActiveSubscriptionsForCustomer(cs
+             .getCustomerInfo())).thenReturn(subs);
+    return sub;
+  }
+
 //  @Test
 //  public void testStateLog ()
 //  {
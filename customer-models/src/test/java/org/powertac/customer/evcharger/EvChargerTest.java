@@ -225,6 +225,31 @@ class EvChargerTest
     config.setConfiguration(mapConfig);
   }
 
+  // preparing before initialization gives the same model as initializing
+  @Test
+  public void testPrepare ()
+  {
+    setConfig();
+    config.configureSingleton(uut);
+    uut.initialize();
+    EvCharger prepared = new EvCharger("prepared");
+    config.configureSingleton(prepared);
+    prepared.prepare();
+    prepared.setServiceAccessor(serviceAccessor);
+    prepared.initialize();
+
+    ZonedDateTime currentTime = timeService.getCurrentDateTime();
+    List<DemandElement> expected = uut.getDemandInfo(currentTime);
+    List<DemandElement> actual = prepared.getDemandInfo(currentTime);
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.get(i).getNVehicles(),
+                   actual.get(i).getNVehicles(), 1e-9);
+      assertArrayEquals(expected.get(i).getdistribution(),
+                        actual.get(i).getdistribution(), 1e-9);
+    }
+  }
+
   @Test
   public void testDemandElementMeanCalculation ()
   {
@@ -0,0 +1,475 @@
+/*
+ * Copyright (c) 2026 by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.powertac.customer.evcharger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.commons.configuration2.MapConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.powertac.common.Broker;
+import org.powertac.common.Competition;
+import org.powertac.common.CustomerInfo;
+import org.powertac.common.RandomSeed;
+import org.powertac.common.Rate;
+import org.powertac.common.RegulationAccumulator;
+import org.powertac.common.Tariff;
+import org.powertac.common.TariffSpecification;
+import org.powertac.common.TariffSubscription;
+import org.powertac.common.TariffTransaction;
+import org.powertac.common.TimeService;
+import org.powertac.common.Timeslot;
+import org.powertac.common.XMLMessageConverter;
+import org.powertac.common.config.Configurator;
+import org.powertac.common.enumerations.PowerType;
+import org.powertac.common.interfaces.Accounting;
+import org.powertac.common.interfaces.CustomerServiceAccessor;
+import org.powertac.common.interfaces.ServerConfiguration;
+import org.powertac.common.interfaces.TariffMarket;
+import org.powertac.common.repo.CustomerRepo;
+import org.powertac.common.repo.RandomSeedRepo;
+import org.powertac.common.repo.TariffRepo;
+import org.powertac.common.repo.TariffSubscriptionRepo;
+import org.powertac.common.repo.TimeslotRepo;
+import org.powertac.common.repo.WeatherReportRepo;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Accuracy harness for fleet mode: steps a fleet alongside the same number
+ * of independently stepped instances with the same configuration, and
+ * compares usage, regulation capacity, and storage state.
+ *
+ * @author agent
+ */
+class EvFleetTest
+{
+  private Competition competition;
+  private CustomerServiceAccessor serviceAccessor;
+  private TimeService timeService;
+  private TariffRepo tariffRepo;
+  private TariffSubscriptionRepo tariffSubscriptionRepo;
+  private RandomSeedRepo mockSeedRepo;
+  private RandomSeed seed;
+  private TimeslotRepo mockTimeslotRepo;
+  private TariffMarket tariffMarket;
+  private Accounting accountingService;
+  private Configurator config;
+
+  private Broker defaultBroker;
+  private Tariff evTariff;
+  private Tariff otherTariff;
+  private ZonedDateTime start =
+      ZonedDateTime.of(2014, 12, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+  private List<EvCharger> fleet;
+  private List<EvCharger> solo;
+
+  // usage posted in the current timeslot, by customer
+  private Map<CustomerInfo, Double> usage = new HashMap<>();
+
+  private double epsilon = 1e-6;
+
+  @BeforeEach
+  void setUp () throws Exception
+  {
+    competition = Competition.newInstance("ev-fleet-test");
+    Competition.setCurrent(competition);
+    timeService = new TimeService();
+    timeService.setCurrentTime(start.toInstant());
+    tariffSubscriptionRepo = new TariffSubscriptionRepo();
+    tariffRepo = new TariffRepo();
+    ReflectionTestUtils.setField(tariffSubscriptionRepo,
+                                 "tariffRepo", tariffRepo);
+    tariffMarket = mock(TariffMarket.class);
+    accountingService = mock(Accounting.class);
+    doAnswer(invocation -> {
+      TariffTransaction.Type type = invocation.getArgument(0);
+      if (TariffTransaction.Type.CONSUME == type
+          || TariffTransaction.Type.PRODUCE == type) {
+        CustomerInfo customer = invocation.getArgument(2);
+        double kWh = invocation.getArgument(4);
+        usage.merge(customer, kWh, Double::sum);
+      }
+      return null;
+    }).when(accountingService).addTariffTransaction(any(), any(), any(),
+                                                    anyInt(), anyDouble(),
+                                                    anyDouble());
+
+    mockSeedRepo = mock(RandomSeedRepo.class);
+    seed = mock(RandomSeed.class);
+    when(mockSeedRepo.getRandomSeed(anyString(),
+                                    anyLong(),
+                                    anyString())).thenReturn(seed);
+    mockTimeslotRepo = mock(TimeslotRepo.class);
+    serviceAccessor = new ServiceAccessor();
+
+    defaultBroker = new Broker("default");
+    evTariff =
+        new Tariff(new TariffSpecification(defaultBroker,
+                                           PowerType.ELECTRIC_VEHICLE)
+                   .addRate(new Rate().withValue(-0.3)));
+    initTariff(evTariff);
+    otherTariff =
+        new Tariff(new TariffSpecification(new Broker("Bob"),
+                                           PowerType.ELECTRIC_VEHICLE)
+                   .addRate(new Rate().withValue(-0.2)));
+    initTariff(otherTariff);
+
+    TreeMap<String, String> map = new TreeMap<>();
+    map.put("customer.evcharger.evCharger.population", "1000");
+    map.put("customer.evcharger.evCharger.chargerCapacity", "8.0");
+    map.put("customer.evcharger.evCharger.nominalDemandBias", "0.4");
+    map.put("customer.evcharger.evCharger.defaultCapacityData",
+            "1.55, 1.46, 1.36, 1.25, 1.16, 1.02, 0.80, 0.51, 0.34, 0.30, 0.32, 0.37, 0.48, 0.62, 0.78, 0.96, 1.13, 1.32, 1.49, 1.60, 1.69, 1.74, 1.73, 1.66");
+    map.put("customer.evcharger.evCharger.model", "residential_ev_1.xml");
+    config = new Configurator();
+    config.setConfiguration(new MapConfiguration(map));
+
+    fleet = new ArrayList<>();
+    solo = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      fleet.add(makeCharger("fleet-" + i));
+      solo.add(makeCharger("solo-" + i));
+    }
+  }
+
+  private EvCharger makeCharger (String name)
+  {
+    EvCharger result = new EvCharger(name);
+    result.setServiceAccessor(serviceAccessor);
+    config.configureSingleton(result);
+    result.initialize();
+    subscribeTo(result, evTariff, (int) result.getPopulation());
+    return result;
+  }
+
+  private TariffSubscription subscribeTo (EvCharger customer, Tariff tariff,
+                                          int count)
+  {
+    TariffSubscription subscription =
+        new TariffSubscription(customer.getCustomerInfo(), tariff);
+    initSubscription(subscription);
+    subscription.subscribe(count);
+    tariffSubscriptionRepo.add(subscription);
+    return subscription;
+  }
+
+  private void initTariff (Tariff tariff)
+  {
+    ReflectionTestUtils.setField(tariff, "timeService", timeService);
+    ReflectionTestUtils.setField(tariff, "tariffRepo", tariffRepo);
+    tariff.init();
+    tariff.setState(Tariff.State.OFFERED);
+  }
+
+  private void initSubscription (TariffSubscription sub)
+  {
+    ReflectionTestUtils.setField(sub, "timeService", timeService);
+    ReflectionTestUtils.setField(sub, "tariffMarketService", tariffMarket);
+    ReflectionTestUtils.setField(sub, "accountingService", accountingService);
+  }
+
+  private void setTimeslot (int index)
+  {
+    Instant now = start.plusHours(index).toInstant();
+    timeService.setCurrentTime(now);
+    when(mockTimeslotRepo.currentTimeslot())
+        .thenReturn(new Timeslot(index, now));
+    when(mockTimeslotRepo.currentSerialNumber()).thenReturn(index);
+  }
+
+  // Steps both groups and checks the fleet against the solo instances
+  private void run (int from, int to)
+  {
+    for (int index = from; index < to; index++) {
+      setTimeslot(index);
+      usage.clear();
+      fleet.get(0).stepBatch(fleet);
+      for (EvCharger charger : solo) {
+        charger.step();
+      }
+      for (int i = 0; i < fleet.size(); i++) {
+        EvCharger expected = solo.get(i);
+        EvCharger actual = fleet.get(i);
+        double kWh = usage.getOrDefault(expected.getCustomerInfo(), 0.0);
+        assertEquals(kWh, usage.getOrDefault(actual.getCustomerInfo(), 0.0),
+                     epsilon * Math.max(1.0, Math.abs(kWh)),
+                     "usage of member " + i + " at ts " + index);
+        for (TariffSubscription sub : expected.getCurrentSubscriptions()) {
+          RegulationAccumulator ra = sub.getRemainingRegulationCapacity();
+          RegulationAccumulator fa =
+              findSubscription(actual, sub.getTariff())
+              .getRemainingRegulationCapacity();
+          assertEquals(ra.getUpRegulationCapacity(),
+                       fa.getUpRegulationCapacity(), epsilon);
+          assertEquals(ra.getDownRegulationCapacity(),
+                       fa.getDownRegulationCapacity(), epsilon);
+        }
+      }
+      assertSameState(index, evTariff);
+      assertSameState(index, otherTariff);
+    }
+  }
+
+  // The fleet state on a tariff should be the sum of the solo states
+  private void assertSameState (int index, Tariff tariff)
+  {
+    StorageState actual = fleet.get(0).getFleet().getState(tariff);
+    List<StorageState> parts = new ArrayList<>();
+    for (EvCharger charger : solo) {
+      TariffSubscription sub = findSubscription(charger, tariff);
+      if (null != sub) {
+        parts.add(charger.getStorageState(sub));
+      }
+    }
+    if (parts.isEmpty()) {
+      return;
+    }
+    assertNotNull(actual);
+    for (int ts = index; ts < index + actual.getHorizon(index); ts++) {
+      StorageElement element = actual.getElement(ts);
+      double[] population = new double[element.getPopulation().length];
+      double[] energy = new double[element.getEnergy().length];
+      for (StorageState part : parts) {
+        StorageElement pe = part.getElement(ts);
+        assertEquals(population.length, pe.getPopulation().length);
+        for (int i = 0; i < population.length; i++) {
+          population[i] += pe.getPopulation()[i];
+          energy[i] += pe.getEnergy()[i];
+        }
+      }
+      for (int i = 0; i < population.length; i++) {
+        assertEquals(population[i], element.getPopulation()[i],
+                     epsilon * Math.max(1.0, population[i]));
+        assertEquals(energy[i], element.getEnergy()[i],
+                     epsilon * Math.max(1.0, energy[i]));
+      }
+    }
+  }
+
+  private TariffSubscription findSubscription (EvCharger charger,
+                                               Tariff tariff)
+  {
+    for (TariffSubscription sub : charger.getCurrentSubscriptions()) {
+      if (sub.getTariff() == tariff) {
+        return sub;
+      }
+    }
+    return null;
+  }
+
+  // Moves count subscribers to otherTariff, as the TariffEvaluator would
+  private void move (EvCharger charger, int count)
+  {
+    TariffSubscription oldsub = findSubscription(charger, evTariff);
+    TariffSubscription newsub = findSubscription(charger, otherTariff);
+    if (null == newsub) {
+      newsub = new TariffSubscription(charger.getCustomerInfo(), otherTariff);
+      initSubscription(newsub);
+      tariffSubscriptionRepo.add(newsub);
+    }
+    charger.notifyCustomer(oldsub, newsub, count);
+    // then the tariff market updates the subscriptions
+    newsub.subscribe(count);
+    oldsub.setCustomersCommitted(oldsub.getCustomersCommitted() - count);
+  }
+
+  @Test
+  public void testAssemble ()
+  {
+    EvCharger odd = new EvCharger("odd");
+    odd.setServiceAccessor(serviceAccessor);
+    config.configureSingleton(odd);
+    odd.withPopulation(500.0);
+    odd.initialize();
+    List<EvCharger> batch = new ArrayList<>(fleet);
+    batch.add(1, odd);
+    List<EvFleet> result = EvFleet.assemble(batch);
+    assertEquals(2, result.size());
+    assertEquals(fleet, result.get(0).getMembers());
+    for (EvCharger member : fleet) {
+      assertSame(result.get(0), member.getFleet());
+    }
+    assertEquals(1, result.get(1).getMembers().size());
+    assertNull(odd.getFleet());
+    assertSame(fleet.get(0).getDemandInfoMean(),
+               fleet.get(2).getDemandInfoMean());
+  }
+
+  // the fleets keep their members' state, so the batch cannot change
+  @Test
+  public void testBatchChange ()
+  {
+    run(0, 2);
+    List<EvCharger> reordered = new ArrayList<>(fleet);
+    Collections.reverse(reordered);
+    setTimeslot(2);
+    fleet.get(0).stepBatch(reordered);
+    assertThrows(IllegalStateException.class,
+                 () -> fleet.get(0).stepBatch(fleet.subList(1, fleet.size())));
+  }
+
+  @Test
+  public void testIsBatchStepped ()
+  {
+    assertFalse(fleet.get(0).isBatchStepped());
+    ReflectionTestUtils.setField(fleet.get(0), "fleetMode", true);
+    assertTrue(fleet.get(0).isBatchStepped());
+  }
+
+  // All members on the default tariff
+  @Test
+  public void testSameTariff ()
+  {
+    run(0, 30);
+    assertEquals(3000, fleet.get(0).getFleet().getPopulation(evTariff));
+  }
+
+  // Members move different portions of their populations
+  @Test
+  public void testSubscriptionChanges ()
+  {
+    run(0, 12);
+    for (List<EvCharger> group : List.of(fleet, solo)) {
+      move(group.get(0), 400);
+      move(group.get(1), 100);
+    }
+    EvFleet ef = fleet.get(0).getFleet();
+    assertEquals(2500, ef.getPopulation(evTariff));
+    assertEquals(500, ef.getPopulation(otherTariff));
+    run(12, 24);
+    for (List<EvCharger> group : List.of(fleet, solo)) {
+      move(group.get(1), 300);
+      move(group.get(2), 50);
+    }
+    run(24, 36);
+    assertEquals(2150, ef.getPopulation(evTariff));
+    assertEquals(850, ef.getPopulation(otherTariff));
+  }
+
+  // A member's bootstrap record holds its share of the fleet state
+  @Test
+  public void testShare ()
+  {
+    run(0, 12);
+    for (List<EvCharger> group : List.of(fleet, solo)) {
+      move(group.get(0), 400);
+    }
+    run(12, 16);
+    EvFleet ef = fleet.get(0).getFleet();
+    for (int i = 0; i < fleet.size(); i++) {
+      TariffSubscription sub = findSubscription(fleet.get(i), evTariff);
+      StorageState share = ef.getShare(15, sub);
+      StorageState expected =
+          solo.get(i).getStorageState(findSubscription(solo.get(i), evTariff));
+      assertSame(sub, share.getSubscription());
+      assertEquals(expected.getHorizon(15), share.getHorizon(15));
+      for (int ts = 15; ts < 15 + expected.getHorizon(15); ts++) {
+        double[] pe = expected.getElement(ts).getEnergy();
+        double[] ps = share.getElement(ts).getEnergy();
+        for (int j = 0; j < pe.length; j++) {
+          assertEquals(pe[j], ps[j], epsilon * Math.max(1.0, pe[j]));
+        }
+      }
+    }
+  }
+
+  class ServiceAccessor implements CustomerServiceAccessor
+  {
+    @Override
+    public CustomerRepo getCustomerRepo ()
+    {
+      return null;
+    }
+
+    @Override
+    public RandomSeedRepo getRandomSeedRepo ()
+    {
+      return mockSeedRepo;
+    }
+
+    @Override
+    public TariffRepo getTariffRepo ()
+    {
+      return tariffRepo;
+    }
+
+    @Override
+    public TariffSubscriptionRepo getTariffSubscriptionRepo ()
+    {
+      return tariffSubscriptionRepo;
+    }
+
+    @Override
+    public TimeslotRepo getTimeslotRepo ()
+    {
+      return mockTimeslotRepo;
+    }
+
+    @Override
+    public TimeService getTimeService ()
+    {
+      return timeService;
+    }
+
+    @Override
+    public WeatherReportRepo getWeatherReportRepo ()
+    {
+      return null;
+    }
+
+    @Override
+    public ServerConfiguration getServerConfiguration ()
+    {
+      return null;
+    }
+
+    @Override
+    public TariffMarket getTariffMarket ()
+    {
+      return null;
+    }
+
+    @Override
+    public XMLMessageConverter getMessageConverter ()
+    {
+      return null;
+    }
+  }
+}
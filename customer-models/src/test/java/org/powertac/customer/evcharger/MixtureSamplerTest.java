@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2026 by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.powertac.customer.evcharger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+import org.apache.commons.math3.distribution.MixtureMultivariateNormalDistribution;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Checks the table-driven mixture sampler against sampling the
+ * commons-math distribution directly.
+ *
+ * @author agent
+ */
+class MixtureSamplerTest
+{
+  private static final int N = 20000;
+
+  // column means and covariances of a set of samples
+  private double[] means (double[][] samples)
+  {
+    double[] result = new double[samples[0].length];
+    for (double[] sample : samples) {
+      for (int i = 0; i < result.length; i++) {
+        result[i] += sample[i] / samples.length;
+      }
+    }
+    return result;
+  }
+
+  private double[][] covariances (double[][] samples)
+  {
+    double[] mean = means(samples);
+    double[][] result = new double[mean.length][mean.length];
+    for (double[] sample : samples) {
+      for (int i = 0; i < mean.length; i++) {
+        for (int j = 0; j < mean.length; j++) {
+          result[i][j] += (sample[i] - mean[i]) * (sample[j] - mean[j])
+                  / (samples.length - 1);
+        }
+      }
+    }
+    return result;
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = { 2, 8, 16, 21 })
+  public void testMatchesCommonsMath (int hod)
+  {
+    DemandSampler demandSampler = new DemandSampler();
+    demandSampler.initialize("residential_ev_1.xml");
+    MixtureMultivariateNormalDistribution mixture =
+            demandSampler.readDemandHorizonProbability("hod" + hod);
+    mixture.reseedRandomGenerator(42);
+    double[][] expected = mixture.sample(N);
+    double[][] actual =
+            new MixtureSampler(mixture).sample(N, new SplittableRandom(42));
+
+    double[] expectedMeans = means(expected);
+    double[] actualMeans = means(actual);
+    double[][] expectedCovs = covariances(expected);
+    double[][] actualCovs = covariances(actual);
+    for (int i = 0; i < expectedMeans.length; i++) {
+      // five standard errors of the difference of two sample means
+      double tolerance = 5.0 * Math.sqrt(2.0 * expectedCovs[i][i] / N);
+      assertEquals(expectedMeans[i], actualMeans[i], tolerance, "mean " + i);
+      for (int j = 0; j < expectedMeans.length; j++) {
+        double scale = Math.sqrt(expectedCovs[i][i] * expectedCovs[j][j]);
+        assertEquals(expectedCovs[i][j], actualCovs[i][j], 0.1 * scale,
+                     "covariance " + i + "," + j);
+      }
+    }
+  }
+
+  @Test
+  public void testComponentWeights ()
+  {
+    // two well-separated components
+    MixtureMultivariateNormalDistribution mixture =
+            new MixtureMultivariateNormalDistribution(new double[] { 0.2, 0.8 },
+                    new double[][] { { 0.0 }, { 100.0 } },
+                    new double[][][] { { { 1.0 } }, { { 1.0 } } });
+    double[][] samples =
+            new MixtureSampler(mixture).sample(N, new SplittableRandom(3));
+    int high = 0;
+    for (double[] sample : samples) {
+      if (sample[0] > 50.0) {
+        high += 1;
+      }
+    }
+    assertEquals(0.8, (double) high / N, 0.02);
+  }
+
+  @Test
+  public void testReproducible ()
+  {
+    MixtureMultivariateNormalDistribution mixture =
+            new MixtureMultivariateNormalDistribution(new double[] { 0.5, 0.5 },
+                    new double[][] { { 1.0, 2.0 }, { 10.0, 5.0 } },
+                    new double[][][] { { { 1.0, 0.5 }, { 0.5, 2.0 } },
+                                       { { 4.0, -1.0 }, { -1.0, 3.0 } } });
+    MixtureSampler sampler = new MixtureSampler(mixture);
+    assertEquals(2, sampler.getDimension());
+    double[][] first = sampler.sample(10, new SplittableRandom(7));
+    double[][] second = sampler.sample(10, new SplittableRandom(7));
+    for (int i = 0; i < first.length; i++) {
+      assertArrayEquals(first[i], second[i]);
+    }
+  }
+}
@@ -869,10 +869,109 @@ class StorageStateTest
                       newSS.getElement(44).getEnergy(), 1e-6);
   }
 
+  /**
+   * Moves subscribers into a subscription that already has some, which must
+   * add to its state rather than replace it. 40% of the population moves
+   * first, then half of the rest.
+   */
   @Test
   void testSubscriptionShift ()
   {
-    
+    double chargerCapacity = 7.0; //kW
+    oldSub = subscribeTo (customer, defaultConsumption, customer.getPopulation());
+    oldSS = new StorageState(oldSub, chargerCapacity, maxHorizon);
+    ArrayList<DemandElement> demand = new ArrayList<>();
+    demand.add(new DemandElement(0, 11.0, new double[] {1.0}));
+    demand.add(new DemandElement(1, 15.0, new double[] {0.4, 0.6}));
+    demand.add(new DemandElement(3, 12.0, new double[] {0.2, 0.3, 0.3, 0.2}));
+    demand.add(new DemandElement(4, 25.0, new double[] {0.1, 0.3, 0.3, 0.2, 0.1}));
+    oldSS.distributeDemand(40, demand, 1.0);
+
+    TariffSpecification ts1 =
+            new TariffSpecification(bob, PowerType.ELECTRIC_VEHICLE)
+            .addRate(new Rate().withValue(-0.09));
+    Tariff tariff1 = new Tariff(ts1);
+    initTariff(tariff1);
+    TariffSubscription newSub = subscribeTo(customer, tariff1, 400);
+    StorageState newSS = new StorageState(newSub, chargerCapacity, maxHorizon);
+    newSS.moveSubscribers(40, 400, oldSS);
+    oldSub.setCustomersCommitted(600);
+
+    // now half of the remaining 600 move over
+    newSS.moveSubscribers(40, 300, oldSS);
+    newSub.subscribe(300);
+    oldSub.setCustomersCommitted(300);
+    assertArrayEquals(new double[] {11.55},
+                      oldSS.getElement(40).getEnergy(), 1e-6);
+    assertArrayEquals(new double[] {23.625, 55.125, 39.375, 15.75, 2.625},
+                      oldSS.getElement(44).getEnergy(), 1e-6);
+    assertArrayEquals(new double[] {26.95},
+                      newSS.getElement(40).getEnergy(), 1e-6);
+    assertArrayEquals(new double[] {44.1, 22.05},
+                      newSS.getElement(41).getEnergy(), 1e-6);
+    assertArrayEquals(new double[] {55.125, 128.625, 91.875, 36.75, 6.125},
+                      newSS.getElement(44).getEnergy(), 1e-6);
+  }
+
+  // copies must not share the ring with the original
+  @Test
+  void testCopy ()
+  {
+    double chargerCapacity = 6.0; //kW
+    TariffSubscription dc = subscribeTo (customer, defaultConsumption,
+                                         customer.getPopulation() / 2);
+    StorageState ss = new StorageState(dc, chargerCapacity, maxHorizon);
+
+    ArrayList<DemandElement> demand = new ArrayList<>();
+    demand.add(new DemandElement(0, 4.0, 0.0,
+                                 new double[]{1.0}));
+    demand.add(new DemandElement(1, 6.0, 0.0,
+                                 new double[]{0.4, 0.6}));
+    ss.distributeDemand(42, demand, 0.5);
+
+    StorageState ss1 = ss.copy();
+    assertEquals(2, ss1.getHorizon(42));
+    ss1.distributeUsage(42, ss1.getMinMax(42)[1]);
+    ss1.collapseElements(43);
+    assertArrayEquals(new double[] {0.0},
+                      ss1.getElement(42).getEnergy(), 1e-6);
+    assertEquals(1, ss1.getElement(43).getEnergy().length);
+
+    // original is unchanged
+    assertArrayEquals(new double[] {6.0},
+                      ss.getElement(42).getEnergy(), 1e-6);
+    assertArrayEquals(new double[] {10.8, 5.4},
+                      ss.getElement(43).getEnergy(), 1e-6);
+  }
+
+  // elements share their arrays with the state, and follow it when collapsing
+  @Test
+  void testElementAliasing ()
+  {
+    double chargerCapacity = 6.0; //kW
+    TariffSubscription dc = subscribeTo (customer, defaultConsumption,
+                                         customer.getPopulation() / 2);
+    StorageState ss = new StorageState(dc, chargerCapacity, maxHorizon);
+
+    ArrayList<DemandElement> demand = new ArrayList<>();
+    demand.add(new DemandElement(0, 4.0, 0.0,
+                                 new double[]{1.0}));
+    demand.add(new DemandElement(2, 6.0, 0.0,
+                                 new double[]{0.2, 0.6, 0.2}));
+    ss.distributeDemand(42, demand, 0.5);
+
+    StorageElement se = ss.getElement(44);
+    assertSame(se, ss.getElement(44));
+    se.getEnergy()[0] += 1.0;
+    assertEquals(10.0, ss.getElement(44).getEnergy()[0], 1e-6);
+
+    ss.collapseElements(43);
+    assertSame(se, ss.getElement(44));
+    assertEquals(2, se.getEnergy().length);
+    assertArrayEquals(new double[] {0.6, 1.8 + 0.6},
+                      se.getPopulation(), 1e-6);
+    assertArrayEquals(new double[] {10.0, 16.2 + 1.8},
+                      se.getEnergy(), 1e-6);
   }
 
   //Bogus XStream version
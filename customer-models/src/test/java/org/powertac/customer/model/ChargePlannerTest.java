@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2026 by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.powertac.customer.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.joptimizer.optimizers.LPOptimizationRequest;
+import com.joptimizer.optimizers.LPPrimalDualMethod;
+import com.joptimizer.optimizers.OptimizationResponse;
+
+/**
+ * Checks the charge planner against the JOptimizer formulation it replaced.
+ *
+ * @author agent
+ */
+public class ChargePlannerTest
+{
+  private double objective (double[] cost, double[] x)
+  {
+    double result = 0.0;
+    for (int j = 0; j < cost.length; j++)
+      result += cost[j] * x[j];
+    return result;
+  }
+
+  private void assertFeasible (double[] x, double[] cap, int[] shiftEnd,
+                               double[] low, double[] high)
+  {
+    double cumulative = 0.0;
+    int j = 0;
+    for (int i = 0; i < shiftEnd.length; i++) {
+      for (; j < shiftEnd[i]; j++) {
+        assertTrue(x[j] >= -1e-9, "block " + j + " not negative");
+        assertTrue(x[j] <= cap[j] + 1e-9, "block " + j + " within cap");
+        cumulative += x[j];
+      }
+      assertTrue(cumulative >= low[i] - 1e-6, "shift " + i + " above low");
+      assertTrue(cumulative <= high[i] + 1e-6, "shift " + i + " below high");
+    }
+  }
+
+  // the dense formulation formerly used by LiftTruck.LpPlan
+  private double[] oracle (double[] cost, double[] cap, int[] shiftEnd,
+                           double[] low, double[] high)
+  {
+    int columns = cost.length;
+    int shifts = shiftEnd.length;
+    double[] obj = new double[columns + shifts];
+    double[][] a = new double[shifts][columns + shifts];
+    double[] b = new double[shifts];
+    double[] lb = new double[columns + shifts];
+    double[] ub = new double[columns + shifts];
+    System.arraycopy(cost, 0, obj, 0, columns);
+    System.arraycopy(cap, 0, ub, 0, columns);
+    for (int i = 0; i < shifts; i++) {
+      for (int j = 0; j < shiftEnd[i]; j++)
+        a[i][j] = -1.0;
+      b[i] = -low[i];
+      a[i][columns + i] = 1.0;
+      ub[columns + i] = high[i] - low[i];
+    }
+    LPOptimizationRequest or = new LPOptimizationRequest();
+    or.setC(obj);
+    or.setA(a);
+    or.setB(b);
+    or.setLb(lb);
+    or.setUb(ub);
+    LPPrimalDualMethod opt = new LPPrimalDualMethod();
+    opt.setLPOptimizationRequest(or);
+    try {
+      assertEquals(OptimizationResponse.SUCCESS, opt.optimize(), "success");
+    }
+    catch (Exception e) {
+      fail(e.toString());
+    }
+    return opt.getOptimizationResponse().getSolution();
+  }
+
+  @Test
+  public void testTou ()
+  {
+    // night, day, night blocks within three shifts
+    double[] cost = {0.09, 0.15, 0.15, 0.09};
+    double[] cap = {100.0, 100.0, 200.0, 100.0};
+    int[] shiftEnd = {2, 3, 4};
+    double[] low = {120.0, 120.0, 300.0};
+    double[] high = {200.0, 400.0, 500.0};
+    double[] x = ChargePlanner.plan(cost, cap, shiftEnd, low, high);
+    assertFeasible(x, cap, shiftEnd, low, high);
+    // night energy first; equal day prices go to the earlier block
+    assertEquals(100.0, x[0], 1e-6);
+    assertEquals(100.0, x[1], 1e-6);
+    assertEquals(0.0, x[2], 1e-6);
+    assertEquals(100.0, x[3], 1e-6);
+  }
+
+  @Test
+  public void testNegativeCost ()
+  {
+    // a paying block is used to its limit
+    double[] cost = {-0.1, 0.2};
+    double[] cap = {50.0, 50.0};
+    int[] shiftEnd = {1, 2};
+    double[] low = {10.0, 30.0};
+    double[] high = {40.0, 60.0};
+    double[] x = ChargePlanner.plan(cost, cap, shiftEnd, low, high);
+    assertFeasible(x, cap, shiftEnd, low, high);
+    assertEquals(40.0, x[0], 1e-6);
+    assertEquals(0.0, x[1], 1e-6);
+  }
+
+  @Test
+  public void testAgainstOracle ()
+  {
+    Random gen = new Random(5);
+    for (int trial = 0; trial < 50; trial++) {
+      int shifts = 1 + gen.nextInt(8);
+      int[] shiftEnd = new int[shifts];
+      int blocks = 0;
+      for (int i = 0; i < shifts; i++) {
+        blocks += 1 + gen.nextInt(4);
+        shiftEnd[i] = blocks;
+      }
+      double[] cost = new double[blocks];
+      double[] cap = new double[blocks];
+      double[] witness = new double[blocks];
+      for (int j = 0; j < blocks; j++) {
+        cost[j] = 0.05 + 0.2 * gen.nextDouble();
+        cap[j] = 10.0 + 90.0 * gen.nextDouble();
+        witness[j] = cap[j] * gen.nextDouble();
+      }
+      // bounds around a feasible witness, so every trial has a solution
+      double[] low = new double[shifts];
+      double[] high = new double[shifts];
+      double cumulative = 0.0;
+      int j = 0;
+      for (int i = 0; i < shifts; i++) {
+        for (; j < shiftEnd[i]; j++)
+          cumulative += witness[j];
+        low[i] = cumulative * gen.nextDouble();
+        high[i] = cumulative + 50.0 * gen.nextDouble();
+      }
+
+      double[] x = ChargePlanner.plan(cost, cap, shiftEnd, low, high);
+      assertFeasible(x, cap, shiftEnd, low, high);
+      double expected = objective(cost, oracle(cost, cap, shiftEnd, low, high));
+      assertEquals(expected, objective(cost, x),
+                   1e-3 * (1.0 + Math.abs(expected)),
+                   "trial " + trial);
+    }
+  }
+}
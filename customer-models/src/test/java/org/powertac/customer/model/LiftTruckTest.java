@@ -704,6 +704,67 @@ public class LiftTruckTest
 
   }
 
+  @Test
+  public void testPlanReuse ()
+  {
+    LiftTruck truck = new LiftTruck("Test");
+    truck.setServiceAccessor(serviceAccessor);
+    truck.initialize();
+    ZonedDateTime now =
+        ZonedDateTime.of(2014, 12, 1, 10, 0, 0, 0, ZoneOffset.UTC);
+    Timeslot ts = new Timeslot(2, now.toInstant());
+    when(tsRepo.currentTimeslot()).thenReturn(ts);
+    Broker broker = new Broker("bob");
+    TimeService tsvc = mock(TimeService.class);
+    when(tsvc.getCurrentTime()).thenReturn(now.toInstant());
+    Tariff[] tariffs = new Tariff[2];
+    for (int i = 0; i < tariffs.length; i++) {
+      TariffSpecification spec =
+          new TariffSpecification(broker, PowerType.CONSUMPTION);
+      spec.addRate(new Rate().withValue(0.15));
+      tariffs[i] = new Tariff(spec);
+      ReflectionTestUtils.setField(tariffs[i], "timeService", tsvc);
+      ReflectionTestUtils.setField(tariffs[i], "tariffRepo",
+                                   mock(TariffRepo.class));
+      tariffs[i].init();
+    }
+
+    LiftTruck.CapacityPlan first =
+        truck.getCapacityPlan(tariffs[0], now.toInstant(), 95);
+    first.createPlan(1.0);
+    LiftTruck.PlanSkeleton skeleton =
+        truck.getPlanSkeleton(now.toInstant(), 95, 1.0);
+    LiftTruck.CapacityPlan second =
+        truck.getCapacityPlan(tariffs[1], now.toInstant(), 95);
+    second.createPlan(1.0);
+    assertSame(skeleton, truck.getPlanSkeleton(now.toInstant(), 95, 1.0),
+               "skeleton shared");
+    assertArrayEquals(first.getCapacityProfile().getProfile(),
+                      second.getCapacityProfile().getProfile(), 1e-9,
+                      "same usage");
+
+    // each plan decorates its own needs
+    ShiftEnergy[] firstNeeds = first.updateNeeds();
+    ShiftEnergy[] secondNeeds = second.updateNeeds();
+    assertEquals(firstNeeds.length, secondNeeds.length, "same needs");
+    assertNotSame(firstNeeds[0], secondNeeds[0], "needs not shared");
+
+    LiftTruck.PlanSkeleton other =
+        truck.getPlanSkeleton(now.toInstant(), 95, 2.0);
+    assertNotSame(skeleton, other, "new skeleton for new initial charge");
+
+    // the two most recent skeletons are kept
+    assertSame(skeleton, truck.getPlanSkeleton(now.toInstant(), 95, 1.0),
+               "first skeleton kept");
+    assertSame(other, truck.getPlanSkeleton(now.toInstant(), 95, 2.0),
+               "second skeleton kept");
+    truck.getPlanSkeleton(now.toInstant(), 95, 3.0);
+    assertSame(other, truck.getPlanSkeleton(now.toInstant(), 95, 2.0),
+               "recently used skeleton kept");
+    assertNotSame(skeleton, truck.getPlanSkeleton(now.toInstant(), 95, 1.0),
+                  "least recently used skeleton dropped");
+  }
+
   /**
    * Test method for {@link org.powertac.customer.model.LiftTruck#step()}.
    */
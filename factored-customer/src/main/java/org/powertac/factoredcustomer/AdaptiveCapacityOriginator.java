@@ -34,7 +34,6 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Random;
 
@@ -53,7 +52,7 @@ final class AdaptiveCapacityOriginator extends DefaultCapacityOriginator
 
   private final ProfileOptimizerStructure optimizerStructure;
   private final Random recommendationHandler;
-  private Map<TariffSubscription, Map<Integer, Double>> forecastCapacitiesPerSub;
+  private Map<TariffSubscription, TimeslotCapacityStore> forecastCapacitiesPerSub;
   private Map<Tariff, Double> tariff2inconv;
   private TimeslotRepo timeslotRepo;
 
@@ -230,9 +229,9 @@ final class AdaptiveCapacityOriginator extends DefaultCapacityOriginator
                                                    int futureTimeslot,
                                                    double futureCapacity)
   {
-    Map<Integer, Double> ts2capacity = forecastCapacitiesPerSub.get(sub);
+    TimeslotCapacityStore ts2capacity = forecastCapacitiesPerSub.get(sub);
     if (null == ts2capacity) {
-      ts2capacity = new HashMap<>();
+      ts2capacity = new TimeslotCapacityStore(capacityRetention);
       forecastCapacitiesPerSub.put(sub, ts2capacity);
     }
     ts2capacity.put(futureTimeslot, futureCapacity);
@@ -290,24 +289,24 @@ final class AdaptiveCapacityOriginator extends DefaultCapacityOriginator
                                                       TariffSubscription subscription)
   {
     int timeslot = startingTimeslot;
-    List<Double> values = new ArrayList<>();
+    double[] values = new double[CapacityProfile.NUM_TIMESLOTS];
     for (int i = 0; i < CapacityProfile.NUM_TIMESLOTS; ++i) {
-      values.add(getForecastCapacityPerSub(timeslot, subscription));
+      values[i] = getForecastCapacityPerSub(timeslot, subscription);
       timeslot += 1;
     }
-    return new CapacityProfile(values);
+    return CapacityProfile.adopt(values);
   }
 
-  private Double getForecastCapacityPerSub (int timeslot,
+  private double getForecastCapacityPerSub (int timeslot,
                                             TariffSubscription subscription)
   {
-    Map<Integer, Double> ts2capacity = forecastCapacitiesPerSub.get(subscription);
+    TimeslotCapacityStore ts2capacity = forecastCapacitiesPerSub.get(subscription);
 
-    if (null == ts2capacity || null == ts2capacity.get(timeslot)) {
+    if (null == ts2capacity || !ts2capacity.containsKey(timeslot)) {
       return getForecastCapacity(timeslot);
     }
     else {
-      return ts2capacity.get(timeslot);
+      return ts2capacity.getOrDefault(timeslot, 0.0);
     }
   }
 }
@@ -19,7 +19,7 @@ package org.powertac.factoredcustomer;
 //import org.powertac.common.state.Domain;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
 
 
@@ -42,31 +42,47 @@ public final class CapacityProfile
   private static final int MAX_BALANCING_SHIFTS = 24;
   private static final double BALANCING_SHIFTS_EPSILON = 0.1;  // range as percent of max
 
-  private List<Double> values;
+  private final double[] values;
 
   public CapacityProfile (Double uniformValue)
   {
-    values = new ArrayList<>(NUM_TIMESLOTS);
-    for (int i = 0; i < NUM_TIMESLOTS; ++i) {
-      values.add(uniformValue);
-    }
+    values = new double[NUM_TIMESLOTS];
+    Arrays.fill(values, uniformValue);
   }
 
   public CapacityProfile (List<Double> list)
   {
-    values = new ArrayList<>(NUM_TIMESLOTS);
-    values.addAll(list);
+    values = new double[list.size()];
+    for (int i = 0; i < values.length; ++i) {
+      values[i] = list.get(i);
+    }
   }
 
   public CapacityProfile (double[] array)
+  {
+    this(checkLength(array).clone(), true);
+  }
+
+  private CapacityProfile (double[] array, boolean adopted)
+  {
+    values = array;
+  }
+
+  /**
+   * Creates a profile that takes ownership of the given array instead of
+   * copying it; the caller must not modify the array afterwards.
+   */
+  static CapacityProfile adopt (double[] array)
+  {
+    return new CapacityProfile(checkLength(array), true);
+  }
+
+  private static double[] checkLength (double[] array)
   {
     if (array.length != NUM_TIMESLOTS) {
       throw new Error("Number of elements in array does not match expected length: " + NUM_TIMESLOTS);
     }
-    values = new ArrayList<>(NUM_TIMESLOTS);
-    for (int i = 0; i < NUM_TIMESLOTS; ++i) {
-      values.add(array[i]);
-    }
+    return array;
   }
 
   public double distanceTo (CapacityProfile other)
@@ -81,7 +97,7 @@ public final class CapacityProfile
 
   double getCapacity (int index)
   {
-    return values.get(index);
+    return values[index];
   }
 
   public List<CapacityProfile> getPermutations (PermutationRule rule)
@@ -109,12 +125,12 @@ public final class CapacityProfile
   {
     List<CapacityProfile> perms = new ArrayList<>();
     for (int i = 0; i < NUM_TIMESLOTS; ++i) {
-      List<Double> perm = new ArrayList<>(NUM_TIMESLOTS);
+      double[] perm = new double[NUM_TIMESLOTS];
       for (int j = i; j < i + NUM_TIMESLOTS; ++j) {
-        perm.add(values.get(j % NUM_TIMESLOTS));
+        perm[j - i] = values[j % NUM_TIMESLOTS];
       }
       validatePermutation(perm);  // TODO TEMP
-      perms.add(new CapacityProfile(perm));
+      perms.add(adopt(perm));
     }
     return perms;
   }
@@ -126,40 +142,37 @@ public final class CapacityProfile
     return perms;
   }
 
-  private void recursivePeakShift (List<Double> curr, List<CapacityProfile> perms)
+  private void recursivePeakShift (double[] curr, List<CapacityProfile> perms)
   {
     int peakIndex = 0;
     int valleyIndex = 0;
     for (int i = 0; i < NUM_TIMESLOTS; ++i) {
-      Double val = curr.get(i);
-      if (val > curr.get(peakIndex)) {
+      double val = curr[i];
+      if (val > curr[peakIndex]) {
         peakIndex = i;
       }
-      if (val < curr.get(valleyIndex)) {
+      if (val < curr[valleyIndex]) {
         valleyIndex = i;
       }
     }
-    Double max = curr.get(peakIndex);
-    Double min = curr.get(valleyIndex);
-    Double mid = 0.5 * (max + min);
+    double max = curr[peakIndex];
+    double min = curr[valleyIndex];
+    double mid = 0.5 * (max + min);
     if (peakIndex != valleyIndex) {
-      List<Double> newList = new ArrayList<>();
-      for (int j = 0; j < NUM_TIMESLOTS; ++j) {
-        if (j == peakIndex) {
-          newList.add(mid); // shift down (max - mid)
-        }
-        else if (j == valleyIndex) {
-          newList.add(min + (max - mid)); // shift up (max - mid)
-        }
-        else {
-          newList.add(curr.get(j));
-        }
-      }
+      double[] newList = Arrays.copyOf(curr, NUM_TIMESLOTS);
+      newList[peakIndex] = mid; // shift down (max - mid)
+      newList[valleyIndex] = min + (max - mid); // shift up (max - mid)
       validatePermutation(newList);  // TODO TEMP
-      CapacityProfile newProfile = new CapacityProfile(newList);
+      CapacityProfile newProfile = adopt(newList);
       perms.add(newProfile);
       if (perms.size() < MAX_BALANCING_SHIFTS) {
-        double newRange = Collections.max(newList) - Collections.min(newList);
+        double newMax = Double.NEGATIVE_INFINITY;
+        double newMin = Double.POSITIVE_INFINITY;
+        for (double value : newList) {
+          newMax = Math.max(newMax, value);
+          newMin = Math.min(newMin, value);
+        }
+        double newRange = newMax - newMin;
         if (newRange > (BALANCING_SHIFTS_EPSILON * max)) {
           recursivePeakShift(newList, perms);
         }
@@ -167,13 +180,13 @@ public final class CapacityProfile
     }
   }
 
-  private void validatePermutation (List<Double> perm)
+  private void validatePermutation (double[] perm)
   {
-    Double origTotal = 0.0;
-    Double permTotal = 0.0;
+    double origTotal = 0.0;
+    double permTotal = 0.0;
     for (int i = 0; i < NUM_TIMESLOTS; ++i) {
-      origTotal += values.get(i);
-      permTotal += perm.get(i);
+      origTotal += values[i];
+      permTotal += perm[i];
     }
     if (Math.abs(permTotal - origTotal) > 0.01) {
       throw new Error("Total permutation capacity " + permTotal + " not approximately equal to original capacity " + origTotal);
@@ -183,7 +196,7 @@ public final class CapacityProfile
   @Override
   public String toString ()
   {
-    return this.getClass().getCanonicalName() + ":" + values.toString();
+    return this.getClass().getCanonicalName() + ":" + Arrays.toString(values);
   }
 }
 
@@ -57,6 +57,10 @@ public final class Config
       description = "Toggle logging of expected usage charges")
   private boolean usageChargesLogging = false;
 
+  @ConfigurableValue(valueType = "Integer", dump = false,
+      description = "Timeslots of capacity history kept by each capacity originator")
+  private int capacityRetention = 168;
+
   @ConfigurableValue(valueType = "List", dump = false,
       description = "classnames of bean types to be configured")
   private List<String> structureTypes = new ArrayList<>();
@@ -86,6 +90,11 @@ public final class Config
     return usageChargesLogging;
   }
 
+  public int getCapacityRetention ()
+  {
+    return capacityRetention;
+  }
+
   // Just for testing
   public List<String> getStructureTypes ()
   {
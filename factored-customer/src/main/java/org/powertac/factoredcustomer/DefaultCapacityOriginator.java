@@ -23,12 +23,10 @@ import org.powertac.common.RegulationCapacity;
 import org.powertac.common.Tariff;
 import org.powertac.common.TariffSubscription;
 import org.powertac.common.TimeService;
-import org.powertac.common.WeatherForecast;
 import org.powertac.common.WeatherForecastPrediction;
 import org.powertac.common.WeatherReport;
 import org.powertac.common.enumerations.PowerType;
 import org.powertac.common.repo.TimeslotRepo;
-import org.powertac.common.repo.WeatherForecastRepo;
 import org.powertac.common.repo.WeatherReportRepo;
 //import org.powertac.common.state.Domain;
 import org.powertac.factoredcustomer.CapacityStructure.BaseCapacityType;
@@ -37,8 +35,6 @@ import org.powertac.factoredcustomer.interfaces.CapacityBundle;
 import org.powertac.factoredcustomer.interfaces.CapacityOriginator;
 import org.powertac.factoredcustomer.interfaces.StructureInstance;
 
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -56,7 +52,7 @@ class DefaultCapacityOriginator implements CapacityOriginator
   private TimeService timeService;
   private TimeslotRepo timeslotRepo;
   private WeatherReportRepo weatherReportRepo;
-  private WeatherForecastRepo weatherForecastRepo;
+  private WeatherForecastIndex weatherForecastIndex;
 
   private final double SMOOTHING_WEIGHT = 0.4; // 0.0 => ignore previous value
 
@@ -66,11 +62,13 @@ class DefaultCapacityOriginator implements CapacityOriginator
   private final CapacityBundle parentBundle;
 
   protected final String logIdentifier;
-  protected final Map<Integer, Double> baseCapacities = new HashMap<>();
-  protected final Map<Integer, Double> forecastCapacities = new HashMap<>();
-  protected final Map<Integer, Double> actualCapacities = new HashMap<>();
-  protected final Map<Integer, Double> curtailedCapacities = new HashMap<>();
-  protected final Map<Integer, Double> shiftedCurtailments = new HashMap<>();
+  // capacities by timeslot, retained for a bounded window
+  protected final int capacityRetention;
+  protected final TimeslotCapacityStore baseCapacities;
+  protected final TimeslotCapacityStore forecastCapacities;
+  protected final TimeslotCapacityStore actualCapacities;
+  protected final TimeslotCapacityStore curtailedCapacities;
+  protected final TimeslotCapacityStore shiftedCurtailments;
   protected RegulationCapacity currentRegCapacity = null;
 
   public DefaultCapacityOriginator (FactoredCustomerService service,
@@ -80,7 +78,7 @@ class DefaultCapacityOriginator implements CapacityOriginator
     this.timeService = service.getTimeService();
     this.timeslotRepo = service.getTimeslotRepo();
     this.weatherReportRepo = service.getWeatherReportRepo();
-    this.weatherForecastRepo = service.getWeatherForecastRepo();
+    this.weatherForecastIndex = service.getWeatherForecastIndex();
     this.capacityStructure = capacityStructure;
     this.parentBundle = bundle;
 
@@ -88,6 +86,17 @@ class DefaultCapacityOriginator implements CapacityOriginator
         ? bundle.getName()
         : bundle.getName() + "#" + this.capacityStructure.getName();
 
+    // the window must reach from the previous timeslot to the end of the
+    // forecast horizon
+    capacityRetention =
+        Math.max(Config.getInstance().getCapacityRetention(),
+                 2 * CapacityProfile.NUM_TIMESLOTS);
+    baseCapacities = new TimeslotCapacityStore(capacityRetention);
+    forecastCapacities = new TimeslotCapacityStore(capacityRetention);
+    actualCapacities = new TimeslotCapacityStore(capacityRetention);
+    curtailedCapacities = new TimeslotCapacityStore(capacityRetention);
+    shiftedCurtailments = new TimeslotCapacityStore(capacityRetention);
+
     if (capacityStructure.getBaseCapacityType() == BaseCapacityType.TIMESERIES) {
       Map<String, StructureInstance> map =
           Config.getInstance().getStructures().get("TimeseriesGenerator");
@@ -118,18 +127,12 @@ class DefaultCapacityOriginator implements CapacityOriginator
 
   private CapacityProfile getForecastForTimeslot (int timeslot)
   {
-    List<Double> values = new ArrayList<>();
+    double[] values = new double[CapacityProfile.NUM_TIMESLOTS];
     for (int i = 0; i < CapacityProfile.NUM_TIMESLOTS; ++i) {
-      Double forecastCapacity = forecastCapacities.get(timeslot);
-      if (forecastCapacity != null) {
-        values.add(forecastCapacity);
-      }
-      else {
-        values.add(getForecastCapacity(timeslot));
-      }
+      values[i] = getForecastCapacity(timeslot);
       timeslot += 1;
     }
-    return new CapacityProfile(values);
+    return CapacityProfile.adopt(values);
   }
 
   @Override
@@ -148,11 +151,10 @@ class DefaultCapacityOriginator implements CapacityOriginator
 
   protected double getForecastCapacity (int timeslot)
   {
-    Double ret = forecastCapacities.get(timeslot);
-    if (ret == null) {
-      ret = computeForecastCapacity(timeslot);
+    if (forecastCapacities.containsKey(timeslot)) {
+      return forecastCapacities.getOrDefault(timeslot, 0.0);
     }
-    return ret;
+    return computeForecastCapacity(timeslot);
   }
 
   private double computeForecastCapacity (int future)
@@ -165,12 +167,10 @@ class DefaultCapacityOriginator implements CapacityOriginator
           new Weather(weatherReportRepo.currentWeatherReport());
     }
     else {
-      WeatherForecast forecast = weatherForecastRepo.currentWeatherForecast();
-      List<WeatherForecastPrediction> predictions = forecast.getPredictions();
-      for (WeatherForecastPrediction prediction : predictions) {
-        if (prediction.getForecastTime() == timeToFuture) {
-          weather = new Weather(prediction);
-        }
+      WeatherForecastPrediction prediction =
+          weatherForecastIndex.getPrediction(timeToFuture);
+      if (prediction != null) {
+        weather = new Weather(prediction);
       }
     }
     if (weather == null) {
@@ -204,11 +204,10 @@ class DefaultCapacityOriginator implements CapacityOriginator
 
   private double getBaseCapacity (int future)
   {
-    Double ret = baseCapacities.get(future);
-    if (ret == null) {
-      ret = drawBaseCapacitySample(future);
+    if (baseCapacities.containsKey(future)) {
+      return baseCapacities.getOrDefault(future, 0.0);
     }
-    return ret;
+    return drawBaseCapacitySample(future);
   }
 
   private double drawBaseCapacitySample (int timeslot)
@@ -233,8 +232,8 @@ class DefaultCapacityOriginator implements CapacityOriginator
             + capacityStructure.getBaseCapacityType());
     }
 
-    Double prevCapacity = baseCapacities.get(timeslot - 1);
-    if (prevCapacity != null) {
+    if (baseCapacities.containsKey(timeslot - 1)) {
+      double prevCapacity = baseCapacities.getOrDefault(timeslot - 1, 0.0);
       baseCapacity =
           SMOOTHING_WEIGHT * prevCapacity + (1 - SMOOTHING_WEIGHT) * baseCapacity;
     }
@@ -331,13 +330,11 @@ class DefaultCapacityOriginator implements CapacityOriginator
       for (int i = 0; i < shifts.size(); ++i) {
         double shiftingFactor = Double.parseDouble(shifts.get(i));
         double shiftedCapacity = lastCurtailment * shiftingFactor;
-        Double previousShifts = shiftedCurtailments.get(timeslot + i);
-        shiftedCapacity += (previousShifts != null) ? previousShifts : 0.0;
+        shiftedCapacity += shiftedCurtailments.getOrDefault(timeslot + i, 0.0);
         shiftedCurtailments.put(timeslot + i, shiftedCapacity);
       }
     }
-    Double currentShift = shiftedCurtailments.get(timeslot);
-    return (currentShift == null) ? capacity : capacity + currentShift;
+    return capacity + shiftedCurtailments.getOrDefault(timeslot, 0.0);
   }
 
   private double adjustCapacityForPeriodicSkew (double capacity, ZonedDateTime when,
@@ -93,6 +93,7 @@ public class FactoredCustomerService extends TimeslotPhaseProcessor
 
   private List<FactoredCustomer> customers;
   private CustomerFactory customerFactory;
+  private WeatherForecastIndex weatherForecastIndex;
   private boolean newTariffs = false; // When true, check for new subscriptions
 
   public FactoredCustomerService ()
@@ -115,6 +116,7 @@ public class FactoredCustomerService extends TimeslotPhaseProcessor
     customers = new ArrayList<>(); // recycle between games
     customerFactory = new CustomerFactory();
     newTariffs = false;
+    weatherForecastIndex = new WeatherForecastIndex(weatherForecastRepo);
     tariffMarketService.registerNewTariffListener(this);
 
     registerAvailableCustomerCreators();
@@ -191,6 +193,12 @@ public class FactoredCustomerService extends TimeslotPhaseProcessor
     return weatherForecastRepo;
   }
 
+  // forecast view shared by the capacity originators
+  WeatherForecastIndex getWeatherForecastIndex ()
+  {
+    return weatherForecastIndex;
+  }
+
   private void registerAvailableCustomerCreators ()
   {
     customerFactory.registerDefaultCreator(DefaultFactoredCustomer.getCreator());
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2026 by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.powertac.factoredcustomer;
+
+import java.util.Arrays;
+
+/**
+ * Capacity values indexed by timeslot serial number, held in a ring of
+ * primitive arrays. Only the most recent timeslots are retained: the store
+ * covers the window of the given size ending at the highest timeslot written
+ * so far. Writing a later timeslot slides the window forward and forgets the
+ * values that fall out of it; writes behind the window are ignored, and
+ * reads outside it find nothing.
+ *
+ * @author agent
+ */
+class TimeslotCapacityStore
+{
+  private static final int EMPTY = Integer.MIN_VALUE;
+
+  private final int[] timeslots;
+  private final double[] values;
+  private final int mask;
+  private int highest = EMPTY;
+
+  /**
+   * Creates a store that retains at least the given number of timeslots.
+   */
+  TimeslotCapacityStore (int retention)
+  {
+    super();
+    if (retention < 1)
+      throw new IllegalArgumentException("Bad retention " + retention);
+    int size = Integer.highestOneBit(retention);
+    if (size < retention)
+      size <<= 1;
+    timeslots = new int[size];
+    Arrays.fill(timeslots, EMPTY);
+    values = new double[size];
+    mask = size - 1;
+  }
+
+  /**
+   * Number of timeslots the window covers
+   */
+  int getRetention ()
+  {
+    return timeslots.length;
+  }
+
+  /**
+   * True just in case a value is held for the given timeslot.
+   */
+  boolean containsKey (int timeslot)
+  {
+    return timeslot != EMPTY && timeslot > highest - timeslots.length
+           && timeslots[timeslot & mask] == timeslot;
+  }
+
+  /**
+   * Returns the value held for the given timeslot, or null if there is none.
+   */
+  Double get (int timeslot)
+  {
+    return containsKey(timeslot) ? values[timeslot & mask] : null;
+  }
+
+  /**
+   * Returns the value held for the given timeslot, or the given default if
+   * there is none.
+   */
+  double getOrDefault (int timeslot, double missing)
+  {
+    return containsKey(timeslot) ? values[timeslot & mask] : missing;
+  }
+
+  /**
+   * Records the value for the given timeslot, replacing any earlier value.
+   */
+  void put (int timeslot, double value)
+  {
+    if (timeslot == EMPTY)
+      throw new IllegalArgumentException("Bad timeslot " + timeslot);
+    if (highest != EMPTY && timeslot <= highest - timeslots.length)
+      return;
+    if (highest == EMPTY || timeslot > highest)
+      highest = timeslot;
+    timeslots[timeslot & mask] = timeslot;
+    values[timeslot & mask] = value;
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2026 by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.powertac.factoredcustomer;
+
+import java.util.List;
+
+import org.powertac.common.WeatherForecast;
+import org.powertac.common.WeatherForecastPrediction;
+import org.powertac.common.repo.WeatherForecastRepo;
+
+/**
+ * View of the current weather forecast indexed by lead time, shared by all
+ * the capacity originators of the factored customers. The index is rebuilt
+ * once each time a new forecast becomes current, rather than each originator
+ * scanning the predictions for every future timeslot.
+ *
+ * @author agent
+ */
+class WeatherForecastIndex
+{
+  private final WeatherForecastRepo weatherForecastRepo;
+
+  private WeatherForecast forecast = null;
+  private WeatherForecastPrediction[] predictions =
+      new WeatherForecastPrediction[0];
+
+  WeatherForecastIndex (WeatherForecastRepo weatherForecastRepo)
+  {
+    super();
+    this.weatherForecastRepo = weatherForecastRepo;
+  }
+
+  /**
+   * Returns the prediction of the current forecast for the given number of
+   * timeslots ahead, or null if the forecast has none.
+   */
+  synchronized WeatherForecastPrediction getPrediction (int leadTime)
+  {
+    WeatherForecast current = weatherForecastRepo.currentWeatherForecast();
+    if (current != forecast) {
+      index(current);
+    }
+    if (leadTime < 0 || leadTime >= predictions.length) {
+      return null;
+    }
+    return predictions[leadTime];
+  }
+
+  private void index (WeatherForecast current)
+  {
+    forecast = current;
+    int horizon = 0;
+    List<WeatherForecastPrediction> list =
+        (null == current) ? List.of() : current.getPredictions();
+    for (WeatherForecastPrediction prediction : list) {
+      horizon = Math.max(horizon, prediction.getForecastTime() + 1);
+    }
+    predictions = new WeatherForecastPrediction[horizon];
+    // a later prediction for the same lead time wins, as it did in the scan
+    for (WeatherForecastPrediction prediction : list) {
+      if (prediction.getForecastTime() >= 0) {
+        predictions[prediction.getForecastTime()] = prediction;
+      }
+    }
+  }
+}
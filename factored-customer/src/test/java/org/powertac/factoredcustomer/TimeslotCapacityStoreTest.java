@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2026 by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.powertac.factoredcustomer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author agent
+ */
+public class TimeslotCapacityStoreTest
+{
+  private TimeslotCapacityStore store;
+
+  @BeforeEach
+  public void setUp ()
+  {
+    store = new TimeslotCapacityStore(6);
+  }
+
+  @Test
+  public void testEmpty ()
+  {
+    assertEquals(8, store.getRetention());
+    assertFalse(store.containsKey(0));
+    assertNull(store.get(0));
+    assertEquals(-1.0, store.getOrDefault(0, -1.0), 1e-6);
+  }
+
+  @Test
+  public void testPutGet ()
+  {
+    store.put(360, 1.5);
+    store.put(361, 2.5);
+    store.put(359, 0.5);
+    assertEquals(1.5, store.get(360), 1e-6);
+    assertEquals(2.5, store.getOrDefault(361, 0.0), 1e-6);
+    assertEquals(0.5, store.get(359), 1e-6);
+    assertNull(store.get(362));
+    store.put(360, 3.0);
+    assertEquals(3.0, store.get(360), 1e-6);
+  }
+
+  @Test
+  public void testWindow ()
+  {
+    for (int ts = 360; ts < 370; ts++)
+      store.put(ts, ts);
+    // window is 362..369
+    assertFalse(store.containsKey(361));
+    assertTrue(store.containsKey(362));
+    assertEquals(369.0, store.get(369), 1e-6);
+
+    // writes behind the window are dropped
+    store.put(361, 1.0);
+    assertNull(store.get(361));
+    assertEquals(369.0, store.get(369), 1e-6);
+
+    // a jump forward forgets everything that falls out of the window
+    store.put(400, 4.0);
+    assertNull(store.get(369));
+    assertNull(store.get(392));
+    assertEquals(4.0, store.get(400), 1e-6);
+  }
+}
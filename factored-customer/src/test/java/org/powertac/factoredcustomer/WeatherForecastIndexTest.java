@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2026 by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.powertac.factoredcustomer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.powertac.common.WeatherForecast;
+import org.powertac.common.WeatherForecastPrediction;
+import org.powertac.common.repo.WeatherForecastRepo;
+
+/**
+ * @author agent
+ */
+public class WeatherForecastIndexTest
+{
+  private WeatherForecastRepo repo;
+  private WeatherForecastIndex index;
+
+  @BeforeEach
+  public void setUp ()
+  {
+    repo = mock(WeatherForecastRepo.class);
+    index = new WeatherForecastIndex(repo);
+  }
+
+  private WeatherForecast forecast (int timeslot, double baseTemperature)
+  {
+    List<WeatherForecastPrediction> predictions = new ArrayList<>();
+    for (int i = 0; i < 24; i++) {
+      predictions.add(new WeatherForecastPrediction(i + 1,
+                                                    baseTemperature + i,
+                                                    0.0, 0.0, 0.0));
+    }
+    return new WeatherForecast(timeslot, predictions);
+  }
+
+  @Test
+  public void testLookup ()
+  {
+    when(repo.currentWeatherForecast()).thenReturn(forecast(0, 10.0));
+    assertNull(index.getPrediction(0));
+    assertEquals(10.0, index.getPrediction(1).getTemperature(), 1e-6);
+    assertEquals(33.0, index.getPrediction(24).getTemperature(), 1e-6);
+    assertNull(index.getPrediction(25));
+    assertNull(index.getPrediction(-1));
+  }
+
+  @Test
+  public void testNewForecast ()
+  {
+    when(repo.currentWeatherForecast()).thenReturn(forecast(0, 10.0));
+    assertEquals(15.0, index.getPrediction(6).getTemperature(), 1e-6);
+    when(repo.currentWeatherForecast()).thenReturn(forecast(1, 20.0));
+    assertEquals(25.0, index.getPrediction(6).getTemperature(), 1e-6);
+  }
+
+  @Test
+  public void testNoForecast ()
+  {
+    when(repo.currentWeatherForecast()).thenReturn(null);
+    assertNull(index.getPrediction(1));
+  }
+}
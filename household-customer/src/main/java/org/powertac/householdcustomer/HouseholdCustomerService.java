@@ -15,6 +15,7 @@
  */
 package org.powertac.householdcustomer;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -23,6 +24,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
@@ -47,6 +50,7 @@ import org.powertac.common.repo.TariffRepo;
 import org.powertac.common.repo.TariffSubscriptionRepo;
 import org.powertac.common.repo.TimeslotRepo;
 import org.powertac.common.repo.WeatherReportRepo;
+import org.powertac.customer.PopulationCache;
 import org.powertac.householdcustomer.customers.Village;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -103,6 +107,12 @@ public class HouseholdCustomerService extends TimeslotPhaseProcessor
   // read this from configurator
   private String configFile1 = null;
 
+  // number of threads building households; 1 builds them sequentially
+  private int initializationThreads = 1;
+
+  // directory of the population cache; null generates every population
+  private String populationCacheDirectory = null;
+
   /**
    * This is the configuration file that will be utilized to pass the parameters
    * that can be adjusted by user
@@ -195,6 +205,27 @@ public class HouseholdCustomerService extends TimeslotPhaseProcessor
       }
     };
 
+    ExecutorService pool = null;
+    if (initializationThreads > 1)
+      pool = Executors.newFixedThreadPool(initializationThreads);
+    try {
+      createVillages(numberOfVillages, types, shifts, houses, comp, pool);
+    }
+    finally {
+      if (null != pool)
+        pool.shutdown();
+    }
+  }
+
+  private void createVillages (int numberOfVillages, String[] types,
+                               String[] shifts, Map<String, Integer> houses,
+                               Comparator<CustomerInfo> comp,
+                               ExecutorService pool)
+  {
+    PopulationCache populationCache = null;
+    if (null != populationCacheDirectory)
+      populationCache = new PopulationCache(new File(populationCacheDirectory));
+
     for (int i = 1; i < numberOfVillages + 1; i++) {
       Village village = new Village("Village " + i);
       Map<CustomerInfo, String> map = new TreeMap<CustomerInfo, String>(comp);
@@ -216,7 +247,8 @@ public class HouseholdCustomerService extends TimeslotPhaseProcessor
       }
 
       village.setServiceAccessor(this);
-      village.initialize(configuration, seedId++, map);
+      village.setPopulationCache(populationCache);
+      village.initialize(configuration, seedId++, map, pool);
       villageList.add(village);
       village.subscribeDefault(tariffMarketService);
 
@@ -246,6 +278,32 @@ public class HouseholdCustomerService extends TimeslotPhaseProcessor
     configFile1 = config;
   }
 
+  /** Getter method for the number of household initialization threads */
+  public int getInitializationThreads ()
+  {
+    return initializationThreads;
+  }
+
+  @ConfigurableValue(valueType = "Integer", description = "number of threads building the households of each village; 1 builds them sequentially")
+  public
+    void setInitializationThreads (int threads)
+  {
+    initializationThreads = threads;
+  }
+
+  /** Getter method for the population cache directory */
+  public String getPopulationCacheDirectory ()
+  {
+    return populationCacheDirectory;
+  }
+
+  @ConfigurableValue(valueType = "String", description = "directory caching the households generated from restored random seeds; unset generates them every game")
+  public
+    void setPopulationCacheDirectory (String directory)
+  {
+    populationCacheDirectory = directory;
+  }
+
   /**
    * This function returns the list of the villages created at the beginning of
    * the game by the service
@@ -16,8 +16,8 @@
 
 package org.powertac.householdcustomer.appliances;
 
+import java.io.Serial;
 import java.util.Properties;
-import java.util.Vector;
 
 import org.powertac.common.repo.RandomSeedRepo;
 import org.powertac.common.spring.SpringApplicationContext;
@@ -38,6 +38,8 @@ import org.powertac.householdcustomer.enumerations.AirConditionType;
  */
 public class AirCondition extends WeatherSensitiveAppliance
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
 
   /**
    * The type of the air condition unit. For more info, read the details in the
@@ -275,20 +277,27 @@ public class AirCondition extends WeatherSensitiveAppliance
 
   }
 
+  /** This function returns the temperature below which it starts heating. */
+  public int getLowerLimit ()
+  {
+    return lowerLimit;
+  }
+
+  /** This function returns the temperature above which it starts cooling. */
+  public int getUpperLimit ()
+  {
+    return upperLimit;
+  }
+
   @Override
   public void fillDailyOperation (int weekday)
   {
     // Initializing And Creating Auxiliary Variables
-    loadVector = new Vector<Integer>();
-    dailyOperation = new Vector<Boolean>();
+    loadVector = new int[VillageConstants.QUARTERS_OF_DAY];
+    dailyOperation = new boolean[VillageConstants.QUARTERS_OF_DAY];
 
-    for (int i = 0; i < VillageConstants.QUARTERS_OF_DAY; i++) {
-
-      dailyOperation.add(false);
-      loadVector.add(0);
-    }
-    weeklyLoadVector.add(loadVector);
-    weeklyOperation.add(dailyOperation);
+    weeklyLoadVector.addDay(loadVector);
+    weeklyOperation.addDay(dailyOperation);
 
   }
 
@@ -320,8 +329,8 @@ public class AirCondition extends WeatherSensitiveAppliance
 
       for (int i = 0; i < VillageConstants.QUARTERS_OF_HOUR; i++) {
         hourPresence[i] =
-          possibilityOperationVector.get(day)
-                  .get(hour * VillageConstants.QUARTERS_OF_HOUR + i);
+          possibilityOperationVector
+                  .get(day, hour * VillageConstants.QUARTERS_OF_HOUR + i);
         if (hourPresence[i] == true)
           trueCounter++;
         // log.debug("Day:" + day + " Hour: " + hour + " Quarter: " + (hour *
@@ -367,8 +376,8 @@ public class AirCondition extends WeatherSensitiveAppliance
       */
 
       if (open) {
-        loadVector = weeklyLoadVector.get(day);
-        dailyOperation = weeklyOperation.get(day);
+        loadVector = weeklyLoadVector.getDay(day);
+        dailyOperation = weeklyOperation.getDay(day);
 
         if (type == AirConditionType.Normal) { // Normal type of air condition
 
@@ -383,14 +392,14 @@ public class AirCondition extends WeatherSensitiveAppliance
 
               if (time < cycleOn) {
                 if (acOperation == AirConditionOperation.Cooling)
-                  loadVector.set(hour * VillageConstants.QUARTERS_OF_HOUR + i,
-                                 powerCooling);
+                  loadVector[hour * VillageConstants.QUARTERS_OF_HOUR + i] =
+                    powerCooling;
                 else
-                  loadVector.set(hour * VillageConstants.QUARTERS_OF_HOUR + i,
-                                 powerHeating);
+                  loadVector[hour * VillageConstants.QUARTERS_OF_HOUR + i] =
+                    powerHeating;
 
-                dailyOperation
-                        .set(hour * VillageConstants.QUARTERS_OF_HOUR + i, true);
+                dailyOperation[hour * VillageConstants.QUARTERS_OF_HOUR + i] =
+                  true;
               }
               cycleCounter++;
             }
@@ -406,14 +415,14 @@ public class AirCondition extends WeatherSensitiveAppliance
 
               if (time < cycleOn) {
                 if (acOperation == AirConditionOperation.Cooling)
-                  loadVector.set(hour * VillageConstants.QUARTERS_OF_HOUR + i,
-                                 powerCooling);
+                  loadVector[hour * VillageConstants.QUARTERS_OF_HOUR + i] =
+                    powerCooling;
                 else
-                  loadVector.set(hour * VillageConstants.QUARTERS_OF_HOUR + i,
-                                 powerHeating);
+                  loadVector[hour * VillageConstants.QUARTERS_OF_HOUR + i] =
+                    powerHeating;
 
-                dailyOperation
-                        .set(hour * VillageConstants.QUARTERS_OF_HOUR + i, true);
+                dailyOperation[hour * VillageConstants.QUARTERS_OF_HOUR + i] =
+                  true;
               }
               cycleCounter++;
             }
@@ -436,41 +445,37 @@ public class AirCondition extends WeatherSensitiveAppliance
               if (time < cycleOn) {
                 if (acOperation == AirConditionOperation.Cooling) {
                   if (cycleCounter == 0) {
-                    loadVector
-                            .set(hour * VillageConstants.QUARTERS_OF_HOUR + i,
-                                 powerStartCooling);
+                    loadVector[hour * VillageConstants.QUARTERS_OF_HOUR + i] =
+                      powerStartCooling;
                   }
                   else {
-                    loadVector
-                            .set(hour * VillageConstants.QUARTERS_OF_HOUR + i,
-                                 powerCooling);
+                    loadVector[hour * VillageConstants.QUARTERS_OF_HOUR + i] =
+                      powerCooling;
                   }
                 }
                 else {
                   if (cycleCounter == 0) {
-                    loadVector
-                            .set(hour * VillageConstants.QUARTERS_OF_HOUR + i,
-                                 powerStartHeating);
+                    loadVector[hour * VillageConstants.QUARTERS_OF_HOUR + i] =
+                      powerStartHeating;
                   }
                   else {
-                    loadVector
-                            .set(hour * VillageConstants.QUARTERS_OF_HOUR + i,
-                                 powerHeating);
+                    loadVector[hour * VillageConstants.QUARTERS_OF_HOUR + i] =
+                      powerHeating;
                   }
                 }
 
               }
               else {
                 if (acOperation == AirConditionOperation.Cooling)
-                  loadVector.set(hour * VillageConstants.QUARTERS_OF_HOUR + i,
-                                 powerOffCooling);
+                  loadVector[hour * VillageConstants.QUARTERS_OF_HOUR + i] =
+                    powerOffCooling;
                 else
-                  loadVector.set(hour * VillageConstants.QUARTERS_OF_HOUR + i,
-                                 powerOffHeating);
+                  loadVector[hour * VillageConstants.QUARTERS_OF_HOUR + i] =
+                    powerOffHeating;
               }
 
-              dailyOperation.set(hour * VillageConstants.QUARTERS_OF_HOUR + i,
-                                 true);
+              dailyOperation[hour * VillageConstants.QUARTERS_OF_HOUR + i] =
+                true;
               cycleCounter++;
             }
 
@@ -485,14 +490,14 @@ public class AirCondition extends WeatherSensitiveAppliance
 
               if (time < cycleOn) {
                 if (acOperation == AirConditionOperation.Cooling)
-                  loadVector.set(hour * VillageConstants.QUARTERS_OF_HOUR + i,
-                                 powerCooling);
+                  loadVector[hour * VillageConstants.QUARTERS_OF_HOUR + i] =
+                    powerCooling;
                 else
-                  loadVector.set(hour * VillageConstants.QUARTERS_OF_HOUR + i,
-                                 powerHeating);
+                  loadVector[hour * VillageConstants.QUARTERS_OF_HOUR + i] =
+                    powerHeating;
 
-                dailyOperation
-                        .set(hour * VillageConstants.QUARTERS_OF_HOUR + i, true);
+                dailyOperation[hour * VillageConstants.QUARTERS_OF_HOUR + i] =
+                  true;
               }
               cycleCounter++;
             }
@@ -503,8 +508,8 @@ public class AirCondition extends WeatherSensitiveAppliance
 
         }
 
-        weeklyLoadVector.set(day, loadVector);
-        weeklyOperation.set(day, dailyOperation);
+        weeklyLoadVector.setDay(day, loadVector);
+        weeklyOperation.setDay(day, dailyOperation);
         // log.debug("Changed");
 
       }
@@ -519,17 +524,18 @@ public class AirCondition extends WeatherSensitiveAppliance
   }
 
   @Override
-  Vector<Boolean> createDailyPossibilityOperationVector (int day)
+  boolean[] createDailyPossibilityOperationVector (int day)
   {
 
-    Vector<Boolean> possibilityDailyOperation = new Vector<Boolean>();
+    boolean[] possibilityDailyOperation =
+      new boolean[VillageConstants.QUARTERS_OF_DAY];
 
     // It can operate each quarter someone is at home to turn it on
     for (int j = 0; j < VillageConstants.QUARTERS_OF_DAY; j++) {
       if (applianceOf.isEmpty(day, j) == false)
-        possibilityDailyOperation.add(true);
+        possibilityDailyOperation[j] = true;
       else
-        possibilityDailyOperation.add(false);
+        possibilityDailyOperation[j] = false;
     }
 
     return possibilityDailyOperation;
@@ -16,6 +16,8 @@
 
 package org.powertac.householdcustomer.appliances;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.Properties;
 import java.util.Vector;
 
@@ -26,6 +28,8 @@ import org.powertac.common.RandomSeed;
 import org.powertac.common.Tariff;
 import org.powertac.common.TariffEvaluationHelper;
 import org.powertac.common.repo.RandomSeedRepo;
+import org.powertac.customer.LoadSchedule;
+import org.powertac.customer.OperationSchedule;
 import org.powertac.householdcustomer.configurations.VillageConstants;
 import org.powertac.householdcustomer.customers.Household;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -39,8 +43,11 @@ import org.springframework.beans.factory.annotation.Autowired;
  * @author Antonios Chrysopoulos
  * @version 1.5, Date: 2.25.12
  */
-public class Appliance
+public class Appliance implements Serializable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+
 
   /**
    * logger for trace logging -- use log.info(), log.warn(), and log.error()
@@ -59,7 +66,7 @@ public class Appliance
   protected Household applianceOf;
 
   @Autowired
-  protected RandomSeedRepo randomSeedRepo;
+  protected transient RandomSeedRepo randomSeedRepo;
 
   /**
    * This variable is utilized for the creation of the RandomSeed numbers and is
@@ -84,11 +91,11 @@ public class Appliance
   protected int cycleDuration;
 
   /**
-   * This is a vector containing the quarters that the appliance can start
+   * This is a schedule containing the quarters that the appliance can start
    * functioning.
    */
-  Vector<Vector<Boolean>> possibilityOperationVector =
-    new Vector<Vector<Boolean>>();
+  OperationSchedule possibilityOperationVector =
+    new OperationSchedule(VillageConstants.QUARTERS_OF_DAY);
 
   /**
    * This is a vector that contains the operation days of each appliance for the
@@ -97,28 +104,30 @@ public class Appliance
   Vector<Boolean> operationDaysVector = new Vector<Boolean>();
 
   /**
-   * This is a vector containing the final daily operation of the appliance
+   * This is an array containing the final daily operation of the appliance
    * (after shifting due to any cause).
    */
-  Vector<Boolean> dailyOperation = new Vector<Boolean>();
+  boolean[] dailyOperation = new boolean[VillageConstants.QUARTERS_OF_DAY];
 
   /**
-   * This is a vector containing the final weekly operation of the appliance
+   * This is a schedule containing the final weekly operation of the appliance
    * (after shifting due to any cause).
    */
-  Vector<Vector<Boolean>> weeklyOperation = new Vector<Vector<Boolean>>();
+  OperationSchedule weeklyOperation =
+    new OperationSchedule(VillageConstants.QUARTERS_OF_DAY);
 
   /**
-   * This is a vector containing the consumption load of the appliance during
+   * This is an array containing the consumption load of the appliance during
    * the day.
    */
-  Vector<Integer> loadVector = new Vector<Integer>();
+  int[] loadVector = new int[VillageConstants.QUARTERS_OF_DAY];
 
   /**
-   * This is a vector containing the final weekly load of the appliance (after
-   * shifting due to any cause).
+   * This is a schedule containing the final weekly load of the appliance
+   * (after shifting due to any cause).
    */
-  Vector<Vector<Integer>> weeklyLoadVector = new Vector<Vector<Integer>>();
+  LoadSchedule weeklyLoadVector =
+    new LoadSchedule(VillageConstants.QUARTERS_OF_DAY);
 
   /**
    * This variable contains the amount of times the appliance may work through
@@ -156,14 +165,14 @@ public class Appliance
     return cycleDuration;
   }
 
-  /** This function returns the weekly operation vector of the appliance. */
-  public Vector<Vector<Boolean>> getWeeklyOperation ()
+  /** This function returns the weekly operation schedule of the appliance. */
+  public OperationSchedule getWeeklyOperation ()
   {
     return weeklyOperation;
   }
 
-  /** This function returns the weekly load vector of the appliance. */
-  public Vector<Vector<Integer>> getWeeklyLoadVector ()
+  /** This function returns the weekly load schedule of the appliance. */
+  public LoadSchedule getWeeklyLoadVector ()
   {
     return weeklyLoadVector;
   }
@@ -196,9 +205,9 @@ public class Appliance
    * @param day
    * @return
    */
-  Vector<Boolean> createDailyPossibilityOperationVector (int day)
+  boolean[] createDailyPossibilityOperationVector (int day)
   {
-    return new Vector<Boolean>();
+    return new boolean[VillageConstants.QUARTERS_OF_DAY];
   }
 
   /**
@@ -209,7 +218,8 @@ public class Appliance
   public void createWeeklyPossibilityOperationVector ()
   {
     for (int i = 0; i < VillageConstants.DAYS_OF_WEEK; i++)
-      possibilityOperationVector.add(createDailyPossibilityOperationVector(i));
+      possibilityOperationVector
+              .addDay(createDailyPossibilityOperationVector(i));
   }
 
   /**
@@ -257,16 +267,10 @@ public class Appliance
       new boolean[VillageConstants.HOURS_OF_DAY];
 
     for (int i = 0; i < VillageConstants.HOURS_OF_DAY; i++) {
-      boolean function =
-        possibilityOperationVector.get(day)
-                .get(i * VillageConstants.QUARTERS_OF_HOUR)
-                || possibilityOperationVector.get(day)
-                        .get(i * VillageConstants.QUARTERS_OF_HOUR + 1)
-                || possibilityOperationVector.get(day)
-                        .get(i * VillageConstants.QUARTERS_OF_HOUR + 2)
-                || possibilityOperationVector.get(day)
-                        .get(i * VillageConstants.QUARTERS_OF_HOUR + 3);
-      shiftingOperationMatrix[i] = function;
+      shiftingOperationMatrix[i] =
+        possibilityOperationVector.any(day,
+                                       i * VillageConstants.QUARTERS_OF_HOUR,
+                                       VillageConstants.QUARTERS_OF_HOUR);
     }
     return shiftingOperationMatrix;
   }
@@ -345,15 +349,23 @@ public class Appliance
 
     // Add the data values for each day of competition and each quarter of each
     // day.
-    for (int i = 0; i < weeklyOperation.size(); i++) {
-      boolean function = false;
-      for (int j = 0; j < VillageConstants.QUARTERS_OF_DAY; j++) {
-        function = function || weeklyOperation.get(i).get(j);
-      }
-      operationDaysVector.add(function);
+    for (int i = 0; i < weeklyOperation.getDays(); i++) {
+      operationDaysVector.add(weeklyOperation.any(i));
     }
   }
 
+  /**
+   * This function releases the load and operation schedules of the appliance.
+   * It is called once the household has been aggregated, for the appliances
+   * that are not rescheduled by the weather. The possibility and operation
+   * days vectors are kept, since tariff evaluation reads them.
+   */
+  public void releaseSchedules ()
+  {
+    weeklyLoadVector.discardBefore(weeklyLoadVector.getDays());
+    weeklyOperation.discardBefore(weeklyOperation.getDays());
+  }
+
   // public void test ()
   // {
   // System.out.println(toString() + " " + gen.nextDouble());
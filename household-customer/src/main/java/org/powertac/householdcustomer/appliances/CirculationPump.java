@@ -15,8 +15,8 @@
  */
 package org.powertac.householdcustomer.appliances;
 
+import java.io.Serial;
 import java.util.Properties;
-import java.util.Vector;
 
 import org.powertac.common.repo.RandomSeedRepo;
 import org.powertac.common.spring.SpringApplicationContext;
@@ -32,6 +32,8 @@ import org.powertac.householdcustomer.configurations.VillageConstants;
  */
 public class CirculationPump extends NotShiftingAppliance
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
 
   /**
    * Variable that presents the mean possibility to utilize the appliance each
@@ -65,15 +67,12 @@ public class CirculationPump extends NotShiftingAppliance
   {
 
     // Initializing and Creating auxiliary variables
-    loadVector = new Vector<Integer>();
-    dailyOperation = new Vector<Boolean>();
+    loadVector = new int[VillageConstants.QUARTERS_OF_DAY];
+    dailyOperation = new boolean[VillageConstants.QUARTERS_OF_DAY];
 
     // For each quarter of a day
     for (int i = 0; i < VillageConstants.QUARTERS_OF_DAY; i++) {
 
-      dailyOperation.add(false);
-      loadVector.add(0);
-
       if (applianceOf.isEmpty(weekday, i) == false) {
 
         double tempPercentage =
@@ -81,14 +80,14 @@ public class CirculationPump extends NotShiftingAppliance
                   + (VillageConstants.OPERATION_PARTITION * (applianceOf
                           .tenantsNumber(weekday, i)));
         if (tempPercentage > gen.nextDouble()) {
-          dailyOperation.set(i, true);
-          loadVector.set(i, power);
+          dailyOperation[i] = true;
+          loadVector[i] = power;
         }
 
       }
     }
-    weeklyLoadVector.add(loadVector);
-    weeklyOperation.add(dailyOperation);
+    weeklyLoadVector.addDay(loadVector);
+    weeklyOperation.addDay(dailyOperation);
 
   }
 
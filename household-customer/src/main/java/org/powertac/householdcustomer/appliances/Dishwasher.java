@@ -16,6 +16,7 @@
 
 package org.powertac.householdcustomer.appliances;
 
+import java.io.Serial;
 import java.util.Arrays;
 import java.util.Properties;
 import java.util.Vector;
@@ -38,6 +39,8 @@ import org.powertac.householdcustomer.configurations.VillageConstants;
  */
 public class Dishwasher extends SemiShiftingAppliance
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
 
   /**
    * The function mode of the dishwasher. For more info, read the details in the
@@ -95,18 +98,19 @@ public class Dishwasher extends SemiShiftingAppliance
 //  }
 
   @Override
-  Vector<Boolean> createDailyPossibilityOperationVector (int day)
+  boolean[] createDailyPossibilityOperationVector (int day)
   {
 
-    Vector<Boolean> possibilityDailyOperation = new Vector<Boolean>();
+    boolean[] possibilityDailyOperation =
+      new boolean[VillageConstants.QUARTERS_OF_DAY];
 
     // The dishwasher needs for someone to be in the house at the beginning and
     // the end of its function.
     for (int j = 0; j < VillageConstants.QUARTERS_OF_DAY; j++) {
       if (checkHouse(day, j) == true)
-        possibilityDailyOperation.add(false);
+        possibilityDailyOperation[j] = false;
       else
-        possibilityDailyOperation.add(true);
+        possibilityDailyOperation[j] = true;
     }
     return possibilityDailyOperation;
   }
@@ -116,13 +120,8 @@ public class Dishwasher extends SemiShiftingAppliance
   {
 
     // Initializing Variables
-    loadVector = new Vector<Integer>();
-    dailyOperation = new Vector<Boolean>();
-
-    for (int l = 0; l < VillageConstants.QUARTERS_OF_DAY; l++) {
-      loadVector.add(0);
-      dailyOperation.add(false);
-    }
+    loadVector = new int[VillageConstants.QUARTERS_OF_DAY];
+    dailyOperation = new boolean[VillageConstants.QUARTERS_OF_DAY];
 
     if (lastWeek[weekday] > 0) {
       Vector<Integer> temp = new Vector<Integer>();
@@ -142,8 +141,8 @@ public class Dishwasher extends SemiShiftingAppliance
           int quarter = temp.get(rand);
 
           for (int j = 0; j < cycleDuration; j++) {
-            dailyOperation.set(quarter + j, true);
-            loadVector.set(quarter + j, power);
+            dailyOperation[quarter + j] = true;
+            loadVector[quarter + j] = power;
           }
           temp.remove(rand);
           if (temp.size() == 0)
@@ -152,8 +151,8 @@ public class Dishwasher extends SemiShiftingAppliance
       }
 
     }
-    weeklyLoadVector.add(loadVector);
-    weeklyOperation.add(dailyOperation);
+    weeklyLoadVector.addDay(loadVector);
+    weeklyOperation.addDay(dailyOperation);
   }
 
   /**
@@ -16,8 +16,8 @@
 
 package org.powertac.householdcustomer.appliances;
 
+import java.io.Serial;
 import java.util.Properties;
-import java.util.Vector;
 
 import java.time.Instant;
 import org.powertac.common.Tariff;
@@ -38,6 +38,8 @@ import org.powertac.householdcustomer.configurations.VillageConstants;
  */
 public class Dryer extends SemiShiftingAppliance
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
 
   @Override
   public void initialize (String household, Properties conf, int seed)
@@ -72,13 +74,8 @@ public class Dryer extends SemiShiftingAppliance
     }
 
     // Initializing Variables
-    loadVector = new Vector<Integer>();
-    dailyOperation = new Vector<Boolean>();
-
-    for (int l = 0; l < VillageConstants.QUARTERS_OF_DAY; l++) {
-      loadVector.add(0);
-      dailyOperation.add(false);
-    }
+    loadVector = new int[VillageConstants.QUARTERS_OF_DAY];
+    dailyOperation = new boolean[VillageConstants.QUARTERS_OF_DAY];
 
     int start = washingEnds(weekday);
 
@@ -86,8 +83,8 @@ public class Dryer extends SemiShiftingAppliance
       for (int i = start; i < VillageConstants.QUARTERS_OF_DAY - 1; i++) {
         if (applianceOf.isEmpty(weekday, i) == false) {
           for (int j = i; j < i + VillageConstants.DRYER_SECOND_PHASE; j++) {
-            loadVector.set(j, power);
-            dailyOperation.set(j, true);
+            loadVector[j] = power;
+            dailyOperation[j] = true;
             if (j == VillageConstants.QUARTERS_OF_DAY - 1)
               break;
           }
@@ -97,9 +94,9 @@ public class Dryer extends SemiShiftingAppliance
               // System.out.println("K out of bounds " + k);
               break;
             }
-            loadVector.set(k, loadVector.get(k - 1)
-                              - VillageConstants.DRYER_THIRD_PHASE_LOAD);
-            dailyOperation.set(k, true);
+            loadVector[k] =
+              loadVector[k - 1] - VillageConstants.DRYER_THIRD_PHASE_LOAD;
+            dailyOperation[k] = true;
 
           }
           i = VillageConstants.QUARTERS_OF_DAY;
@@ -107,24 +104,25 @@ public class Dryer extends SemiShiftingAppliance
       }
     }
 
-    weeklyLoadVector.add(loadVector);
-    weeklyOperation.add(dailyOperation);
+    weeklyLoadVector.addDay(loadVector);
+    weeklyOperation.addDay(dailyOperation);
 
   }
 
   @Override
-  Vector<Boolean> createDailyPossibilityOperationVector (int day)
+  boolean[] createDailyPossibilityOperationVector (int day)
   {
 
-    Vector<Boolean> possibilityDailyOperation = new Vector<Boolean>();
+    boolean[] possibilityDailyOperation =
+      new boolean[VillageConstants.QUARTERS_OF_DAY];
 
     for (int j = 0; j < VillageConstants.QUARTERS_OF_DAY; j++) {
       // The dishwasher needs for someone to be in the house at the beginning of
       // its function
       if (applianceOf.isEmpty(day, j) == false)
-        possibilityDailyOperation.add(true);
+        possibilityDailyOperation[j] = true;
       else
-        possibilityDailyOperation.add(false);
+        possibilityDailyOperation[j] = false;
     }
 
     return possibilityDailyOperation;
@@ -141,7 +139,7 @@ public class Dryer extends SemiShiftingAppliance
   {
 
     // Creating auxiliary variables
-    Vector<Boolean> v = new Vector<Boolean>();
+    boolean[] v = new boolean[VillageConstants.QUARTERS_OF_DAY];
     int start = 0;
 
     // Search for the washing machine to take its schedule in consideration
@@ -149,11 +147,11 @@ public class Dryer extends SemiShiftingAppliance
       if (appliance instanceof WashingMachine)
         v =
           appliance.getWeeklyOperation()
-                  .get(applianceOf.getWeek() * VillageConstants.DAYS_OF_WEEK
-                               + weekday);
+                  .getDay(applianceOf.getWeek() * VillageConstants.DAYS_OF_WEEK
+                                  + weekday);
 
     for (int i = (VillageConstants.QUARTERS_OF_DAY - 1); i > 0; i--) {
-      if (v.get(i) == true) {
+      if (v[i] == true) {
         start = i + 1;
         i = 0;
       }
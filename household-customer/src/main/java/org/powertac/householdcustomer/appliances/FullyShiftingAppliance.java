@@ -16,6 +16,8 @@
 
 package org.powertac.householdcustomer.appliances;
 
+import java.io.Serial;
+
 /**
  * This is the class for the appliance domain instances that can change / shift
  * their load without the need for the inhabitants interference. They see when
@@ -26,5 +28,6 @@ package org.powertac.householdcustomer.appliances;
  */
 public class FullyShiftingAppliance extends Appliance
 {
-
+  @Serial
+  private static final long serialVersionUID = 1L;
 }
@@ -15,8 +15,8 @@
 
 package org.powertac.householdcustomer.appliances;
 
+import java.io.Serial;
 import java.util.Properties;
-import java.util.Vector;
 
 import org.powertac.common.repo.RandomSeedRepo;
 import org.powertac.common.spring.SpringApplicationContext;
@@ -32,6 +32,8 @@ import org.powertac.householdcustomer.configurations.VillageConstants;
  */
 public class Lights extends NotShiftingAppliance
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
 
   /**
    * This variable is used to simulated the luminance levels in the household
@@ -60,14 +62,11 @@ public class Lights extends NotShiftingAppliance
   public void fillDailyOperation (int weekday)
   {
     // Initializing and Creating auxiliary variables
-    loadVector = new Vector<Integer>();
-    dailyOperation = new Vector<Boolean>();
+    loadVector = new int[VillageConstants.QUARTERS_OF_DAY];
+    dailyOperation = new boolean[VillageConstants.QUARTERS_OF_DAY];
 
     for (int i = 0; i < VillageConstants.QUARTERS_OF_DAY; i++) {
 
-      dailyOperation.add(false);
-      loadVector.add(0);
-
       if (applianceOf.isEmpty(weekday, i) == false) {
 
         luminance =
@@ -77,15 +76,15 @@ public class Lights extends NotShiftingAppliance
 
         // System.out.println("Quarter:" + i + " Luminance: " + luminance);
         if (luminance < gen.nextDouble()) {
-          dailyOperation.set(i, true);
-          loadVector.set(i, power * applianceOf.tenantsNumber(weekday, i));
+          dailyOperation[i] = true;
+          loadVector[i] = power * applianceOf.tenantsNumber(weekday, i);
         }
       }
 
     }
 
-    weeklyLoadVector.add(loadVector);
-    weeklyOperation.add(dailyOperation);
+    weeklyLoadVector.addDay(loadVector);
+    weeklyOperation.addDay(dailyOperation);
   }
 
   @Override
@@ -16,6 +16,8 @@
 
 package org.powertac.householdcustomer.appliances;
 
+import java.io.Serial;
+
 /**
  * This is the class for the appliance domain instances that cannot change /
  * shift their load at all. Most of them are appliance that require the tenant's
@@ -26,5 +28,6 @@ package org.powertac.householdcustomer.appliances;
  */
 public class NotShiftingAppliance extends Appliance
 {
-
+  @Serial
+  private static final long serialVersionUID = 1L;
 }
@@ -16,6 +16,7 @@
 
 package org.powertac.householdcustomer.appliances;
 
+import java.io.Serial;
 import java.util.Properties;
 import java.util.Vector;
 
@@ -34,6 +35,8 @@ import org.powertac.householdcustomer.configurations.VillageConstants;
  */
 public class Others extends NotShiftingAppliance
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
 
   @Override
   public void initialize (String household, Properties conf, int seed)
@@ -58,15 +61,8 @@ public class Others extends NotShiftingAppliance
   public void fillDailyOperation (int weekday)
   {
     // Initializing and Creating auxiliary variables
-    loadVector = new Vector<Integer>();
-    dailyOperation = new Vector<Boolean>();
-
-    for (int i = 0; i < VillageConstants.QUARTERS_OF_DAY; i++) {
-
-      dailyOperation.add(false);
-      loadVector.add(0);
-
-    }
+    loadVector = new int[VillageConstants.QUARTERS_OF_DAY];
+    dailyOperation = new boolean[VillageConstants.QUARTERS_OF_DAY];
 
     Vector<Integer> temp = new Vector<Integer>();
 
@@ -84,16 +80,16 @@ public class Others extends NotShiftingAppliance
         int rand = gen.nextInt(temp.size());
         int quarter = temp.get(rand);
 
-        dailyOperation.set(quarter, true);
-        loadVector.set(quarter, (loadVector.get(quarter) + power));
+        dailyOperation[quarter] = true;
+        loadVector[quarter] = (loadVector[quarter] + power);
         temp.remove(rand);
         if (temp.size() == 0)
           break;
       }
     }
 
-    weeklyLoadVector.add(loadVector);
-    weeklyOperation.add(dailyOperation);
+    weeklyLoadVector.addDay(loadVector);
+    weeklyOperation.addDay(dailyOperation);
   }
 
   @Override
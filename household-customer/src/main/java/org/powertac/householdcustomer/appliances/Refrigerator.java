@@ -16,8 +16,8 @@
 
 package org.powertac.householdcustomer.appliances;
 
+import java.io.Serial;
 import java.util.Properties;
-import java.util.Vector;
 
 import java.time.Instant;
 import org.powertac.common.Tariff;
@@ -37,6 +37,8 @@ import org.powertac.householdcustomer.configurations.VillageConstants;
  */
 public class Refrigerator extends NotShiftingAppliance
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
 
   @Override
   public void initialize (String office, Properties conf, int seed)
@@ -55,14 +57,15 @@ public class Refrigerator extends NotShiftingAppliance
   }
 
   @Override
-  Vector<Boolean> createDailyPossibilityOperationVector (int day)
+  boolean[] createDailyPossibilityOperationVector (int day)
   {
 
-    Vector<Boolean> possibilityDailyOperation = new Vector<Boolean>();
+    boolean[] possibilityDailyOperation =
+      new boolean[VillageConstants.QUARTERS_OF_DAY];
 
     // Freezer can work anytime
     for (int j = 0; j < VillageConstants.QUARTERS_OF_DAY; j++) {
-      possibilityDailyOperation.add(true);
+      possibilityDailyOperation[j] = true;
     }
 
     return possibilityDailyOperation;
@@ -72,22 +75,18 @@ public class Refrigerator extends NotShiftingAppliance
   public void fillDailyOperation (int weekday)
   {
     // Initializing Variables
-    loadVector = new Vector<Integer>();
-    dailyOperation = new Vector<Boolean>();
+    loadVector = new int[VillageConstants.QUARTERS_OF_DAY];
+    dailyOperation = new boolean[VillageConstants.QUARTERS_OF_DAY];
     int k = gen.nextInt(cycleDuration);
 
     for (int i = 0; i < VillageConstants.QUARTERS_OF_DAY; i++) {
       if (i % cycleDuration == k) {
-        loadVector.add(power);
-        dailyOperation.add(true);
-      }
-      else {
-        loadVector.add(0);
-        dailyOperation.add(false);
+        loadVector[i] = power;
+        dailyOperation[i] = true;
       }
     }
-    weeklyLoadVector.add(loadVector);
-    weeklyOperation.add(dailyOperation);
+    weeklyLoadVector.addDay(loadVector);
+    weeklyOperation.addDay(dailyOperation);
   }
 
   @Override
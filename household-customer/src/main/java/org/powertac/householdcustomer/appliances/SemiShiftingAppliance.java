@@ -16,6 +16,7 @@
 
 package org.powertac.householdcustomer.appliances;
 
+import java.io.Serial;
 import java.util.Vector;
 
 import org.powertac.householdcustomer.configurations.VillageConstants;
@@ -31,6 +32,8 @@ import org.powertac.householdcustomer.configurations.VillageConstants;
  */
 class SemiShiftingAppliance extends Appliance
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
 
   /** This vector contains the weekdays that the appliance will be functioning. */
   Vector<Integer> days = new Vector<Integer>();
@@ -16,8 +16,9 @@
 
 package org.powertac.householdcustomer.appliances;
 
+import java.io.Serial;
+import java.util.Arrays;
 import java.util.Properties;
-import java.util.Vector;
 
 import org.powertac.common.repo.RandomSeedRepo;
 import org.powertac.common.spring.SpringApplicationContext;
@@ -34,6 +35,8 @@ import org.powertac.householdcustomer.configurations.VillageConstants;
  */
 public class SpaceHeater extends WeatherSensitiveAppliance
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
 
   /**
    * Variable that presents the mean possibility to utilize the appliance each
@@ -73,14 +76,10 @@ public class SpaceHeater extends WeatherSensitiveAppliance
   public void fillDailyOperation (int weekday)
   {
     // Initializing Variables
-    loadVector = new Vector<Integer>();
-    dailyOperation = new Vector<Boolean>();
-    for (int i = 0; i < VillageConstants.QUARTERS_OF_DAY; i++) {
-      loadVector.add(0);
-      dailyOperation.add(false);
-    }
-    weeklyLoadVector.add(loadVector);
-    weeklyOperation.add(dailyOperation);
+    loadVector = new int[VillageConstants.QUARTERS_OF_DAY];
+    dailyOperation = new boolean[VillageConstants.QUARTERS_OF_DAY];
+    weeklyLoadVector.addDay(loadVector);
+    weeklyOperation.addDay(dailyOperation);
 
   }
 
@@ -99,43 +98,43 @@ public class SpaceHeater extends WeatherSensitiveAppliance
 
     }
     else {
-      for (int i = 0; i < VillageConstants.QUARTERS_OF_DAY; i++) {
-        loadVector.add(0);
-        dailyOperation.add(true);
-      }
+      loadVector = new int[VillageConstants.QUARTERS_OF_DAY];
+      dailyOperation = new boolean[VillageConstants.QUARTERS_OF_DAY];
+      Arrays.fill(dailyOperation, true);
       for (int i = 0; i < VillageConstants.SPACE_HEATER_PHASE_1; i++)
-        loadVector.set(i, power);
+        loadVector[i] = power;
       for (int i = VillageConstants.SPACE_HEATER_PHASE_1; i < VillageConstants.SPACE_HEATER_PHASE_2; i++)
-        loadVector.set(i, loadVector.get(i - 1)
-                          - VillageConstants.SPACE_HEATER_PHASE_LOAD);
+        loadVector[i] =
+          loadVector[i - 1] - VillageConstants.SPACE_HEATER_PHASE_LOAD;
       for (int i = VillageConstants.SPACE_HEATER_PHASE_2; i < VillageConstants.SPACE_HEATER_PHASE_3; i++)
-        loadVector.set(i, loadVector.get(i - 1));
+        loadVector[i] = loadVector[i - 1];
       for (int i = VillageConstants.SPACE_HEATER_PHASE_3; i < VillageConstants.SPACE_HEATER_PHASE_4; i++)
-        loadVector.set(i, loadVector.get(i - 1) + 2
-                          * VillageConstants.SPACE_HEATER_PHASE_LOAD);
+        loadVector[i] =
+          loadVector[i - 1] + 2 * VillageConstants.SPACE_HEATER_PHASE_LOAD;
       for (int i = VillageConstants.SPACE_HEATER_PHASE_4; i < VillageConstants.QUARTERS_OF_DAY; i++)
-        loadVector.set(i, power);
-      weeklyLoadVector.set(day, loadVector);
-      weeklyOperation.set(day, dailyOperation);
+        loadVector[i] = power;
+      weeklyLoadVector.setDay(day, loadVector);
+      weeklyOperation.setDay(day, dailyOperation);
       log.debug("Changed");
     }
   }
 
   @Override
-  Vector<Boolean> createDailyPossibilityOperationVector (int day)
+  boolean[] createDailyPossibilityOperationVector (int day)
   {
 
-    Vector<Boolean> possibilityDailyOperation = new Vector<Boolean>();
+    boolean[] possibilityDailyOperation =
+      new boolean[VillageConstants.QUARTERS_OF_DAY];
 
     // In case the attenants are not in vacation, the spaceheater works all day
     if (applianceOf.isOnVacation(day)) {
       for (int j = 0; j < VillageConstants.QUARTERS_OF_DAY; j++) {
-        possibilityDailyOperation.add(false);
+        possibilityDailyOperation[j] = false;
       }
     }
     else {
       for (int j = 0; j < VillageConstants.QUARTERS_OF_DAY; j++) {
-        possibilityDailyOperation.add(true);
+        possibilityDailyOperation[j] = true;
       }
     }
     return possibilityDailyOperation;
@@ -16,6 +16,7 @@
 
 package org.powertac.householdcustomer.appliances;
 
+import java.io.Serial;
 import java.util.Arrays;
 import java.util.Properties;
 import java.util.Vector;
@@ -37,6 +38,8 @@ import org.powertac.householdcustomer.configurations.VillageConstants;
  */
 public class Stove extends SemiShiftingAppliance
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
 
   @Override
   public void initialize (String household, Properties conf, int seed)
@@ -60,13 +63,8 @@ public class Stove extends SemiShiftingAppliance
   {
 
     // Initializing Variables
-    loadVector = new Vector<Integer>();
-    dailyOperation = new Vector<Boolean>();
-
-    for (int l = 0; l < VillageConstants.QUARTERS_OF_DAY; l++) {
-      loadVector.add(0);
-      dailyOperation.add(false);
-    }
+    loadVector = new int[VillageConstants.QUARTERS_OF_DAY];
+    dailyOperation = new boolean[VillageConstants.QUARTERS_OF_DAY];
 
     Vector<Integer> temp = new Vector<Integer>();
 
@@ -86,8 +84,8 @@ public class Stove extends SemiShiftingAppliance
         int quarter = temp.get(rand);
 
         for (int j = 0; j < cycleDuration; j++) {
-          dailyOperation.set(quarter + j, true);
-          loadVector.set(quarter + j, power);
+          dailyOperation[quarter + j] = true;
+          loadVector[quarter + j] = power;
         }
         temp.remove(rand);
         if (temp.size() == 0)
@@ -95,26 +93,27 @@ public class Stove extends SemiShiftingAppliance
       }
     }
 
-    weeklyLoadVector.add(loadVector);
-    weeklyOperation.add(dailyOperation);
+    weeklyLoadVector.addDay(loadVector);
+    weeklyOperation.addDay(dailyOperation);
   }
 
   @Override
-  Vector<Boolean> createDailyPossibilityOperationVector (int day)
+  boolean[] createDailyPossibilityOperationVector (int day)
   {
-    Vector<Boolean> possibilityDailyOperation = new Vector<Boolean>();
+    boolean[] possibilityDailyOperation =
+      new boolean[VillageConstants.QUARTERS_OF_DAY];
 
     // In order for stove to work someone must be in the house for half hour
     for (int j = 0; j < VillageConstants.QUARTERS_OF_DAY - 1; j++) {
       if (applianceOf.isEmpty(day, j) == false
           && applianceOf.isEmpty(day, j + 1) == false)
-        possibilityDailyOperation.add(true);
+        possibilityDailyOperation[j] = true;
       else
-        possibilityDailyOperation.add(false);
+        possibilityDailyOperation[j] = false;
     }
 
     // For the last time, without check because it is the next day
-    possibilityDailyOperation.add(false);
+    possibilityDailyOperation[VillageConstants.QUARTERS_OF_DAY - 1] = false;
     return possibilityDailyOperation;
   }
 
@@ -16,6 +16,7 @@
 
 package org.powertac.householdcustomer.appliances;
 
+import java.io.Serial;
 import java.util.Arrays;
 import java.util.Properties;
 import java.util.Vector;
@@ -39,6 +40,8 @@ import org.powertac.householdcustomer.configurations.VillageConstants;
  */
 public class WashingMachine extends SemiShiftingAppliance
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
 
   /**
    * This variable is utilized to show if there's a dryer in the household or
@@ -87,13 +90,8 @@ public class WashingMachine extends SemiShiftingAppliance
   public void fillDailyOperation (int weekday)
   {
     // Initializing Variables
-    loadVector = new Vector<Integer>();
-    dailyOperation = new Vector<Boolean>();
-
-    for (int l = 0; l < VillageConstants.QUARTERS_OF_DAY; l++) {
-      loadVector.add(0);
-      dailyOperation.add(false);
-    }
+    loadVector = new int[VillageConstants.QUARTERS_OF_DAY];
+    dailyOperation = new boolean[VillageConstants.QUARTERS_OF_DAY];
 
     if (lastWeek[weekday] > 0) {
       Vector<Integer> temp = new Vector<Integer>();
@@ -113,8 +111,8 @@ public class WashingMachine extends SemiShiftingAppliance
           int quarter = temp.get(rand);
 
           for (int j = 0; j < cycleDuration; j++) {
-            dailyOperation.set(quarter + j, true);
-            loadVector.set(quarter + j, power);
+            dailyOperation[quarter + j] = true;
+            loadVector[quarter + j] = power;
           }
           temp.remove(rand);
           if (temp.size() == 0)
@@ -123,24 +121,25 @@ public class WashingMachine extends SemiShiftingAppliance
       }
     }
 
-    weeklyLoadVector.add(loadVector);
-    weeklyOperation.add(dailyOperation);
+    weeklyLoadVector.addDay(loadVector);
+    weeklyOperation.addDay(dailyOperation);
   }
 
   @Override
-  Vector<Boolean> createDailyPossibilityOperationVector (int day)
+  boolean[] createDailyPossibilityOperationVector (int day)
   {
 
-    Vector<Boolean> possibilityDailyOperation = new Vector<Boolean>();
+    boolean[] possibilityDailyOperation =
+      new boolean[VillageConstants.QUARTERS_OF_DAY];
 
     // In order to function the washing machine needs someone to be there in the
     // end of its
     // operation
     for (int j = 0; j < VillageConstants.QUARTERS_OF_DAY; j++) {
       if (checkHouse(day, j) == true)
-        possibilityDailyOperation.add(false);
+        possibilityDailyOperation[j] = false;
       else
-        possibilityDailyOperation.add(true);
+        possibilityDailyOperation[j] = true;
     }
     return possibilityDailyOperation;
   }
@@ -16,6 +16,7 @@
 
 package org.powertac.householdcustomer.appliances;
 
+import java.io.Serial;
 import java.util.Arrays;
 import java.util.Properties;
 import java.util.Vector;
@@ -38,6 +39,8 @@ import org.powertac.householdcustomer.enumerations.HeaterType;
  */
 public class WaterHeater extends FullyShiftingAppliance
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
 
   /**
    * The type of the water heater. For more info, read the details in the
@@ -88,16 +91,11 @@ public class WaterHeater extends FullyShiftingAppliance
   public void fillDailyOperation (int weekday)
   {
     // Initializing And Creating Auxiliary Variables
-    loadVector = new Vector<Integer>();
-    dailyOperation = new Vector<Boolean>();
+    loadVector = new int[VillageConstants.QUARTERS_OF_DAY];
+    dailyOperation = new boolean[VillageConstants.QUARTERS_OF_DAY];
 
     if (type == HeaterType.InstantHeater) {
 
-      for (int i = 0; i < VillageConstants.QUARTERS_OF_DAY; i++) {
-        dailyOperation.add(false);
-        loadVector.add(0);
-      }
-
       Vector<Integer> temp = new Vector<Integer>();
 
       for (int i = 0; i < VillageConstants.QUARTERS_OF_DAY; i++) {
@@ -113,16 +111,16 @@ public class WaterHeater extends FullyShiftingAppliance
           int rand = gen.nextInt(temp.size());
           int quarter = temp.get(rand);
 
-          dailyOperation.set(quarter, true);
-          loadVector.set(quarter, (loadVector.get(quarter) + power));
+          dailyOperation[quarter] = true;
+          loadVector[quarter] = (loadVector[quarter] + power);
           temp.remove(rand);
           if (temp.size() == 0)
             break;
         }
       }
 
-      weeklyLoadVector.add(loadVector);
-      weeklyOperation.add(dailyOperation);
+      weeklyLoadVector.addDay(loadVector);
+      weeklyOperation.addDay(dailyOperation);
 
     }
     else {
@@ -130,11 +128,6 @@ public class WaterHeater extends FullyShiftingAppliance
       int start = 0;
       int temp = 0;
 
-      for (int i = 0; i < VillageConstants.QUARTERS_OF_DAY; i++) {
-        dailyOperation.add(false);
-        loadVector.add(0);
-      }
-
       if (gen.nextFloat() > VillageConstants.STORAGE_HEATER_POSSIBILITY)
         start =
           (VillageConstants.STORAGE_HEATER_START + 1)
@@ -144,46 +137,46 @@ public class WaterHeater extends FullyShiftingAppliance
 
       for (int i = start; i < start
                               + VillageConstants.STORAGE_HEATER_PHASE_LOAD; i++) {
-        dailyOperation.set(i, true);
-        loadVector.set(i, power);
+        dailyOperation[i] = true;
+        loadVector[i] = power;
       }
 
       temp = start + VillageConstants.STORAGE_HEATER_PHASE_LOAD;
 
       for (int j = 1; j < VillageConstants.STORAGE_HEATER_PHASES; j++) {
-        dailyOperation.set((temp + VillageConstants.STORAGE_HEATER_PHASES * j),
-                           true);
-        loadVector.set((temp + VillageConstants.STORAGE_HEATER_PHASES * j),
-                       power);
+        dailyOperation[(temp + VillageConstants.STORAGE_HEATER_PHASES * j)] =
+          true;
+        loadVector[(temp + VillageConstants.STORAGE_HEATER_PHASES * j)] = power;
       }
 
-      weeklyLoadVector.add(loadVector);
-      weeklyOperation.add(dailyOperation);
+      weeklyLoadVector.addDay(loadVector);
+      weeklyOperation.addDay(dailyOperation);
 
     }
   }
 
   @Override
-  Vector<Boolean> createDailyPossibilityOperationVector (int day)
+  boolean[] createDailyPossibilityOperationVector (int day)
   {
 
-    Vector<Boolean> possibilityDailyOperation = new Vector<Boolean>();
+    boolean[] possibilityDailyOperation =
+      new boolean[VillageConstants.QUARTERS_OF_DAY];
 
     // If the heater is instant Heater
     if (type == HeaterType.InstantHeater) {
       // It can operate each quarter someone is at home to turn it on
       for (int j = 0; j < VillageConstants.QUARTERS_OF_DAY; j++) {
         if (applianceOf.isEmpty(day, j) == false)
-          possibilityDailyOperation.add(true);
+          possibilityDailyOperation[j] = true;
         else
-          possibilityDailyOperation.add(false);
+          possibilityDailyOperation[j] = false;
       }
     }
     // If heater is storage
     else {
       // It can operate all quarters of day
       for (int j = 0; j < VillageConstants.QUARTERS_OF_DAY; j++) {
-        possibilityDailyOperation.add(true);
+        possibilityDailyOperation[j] = true;
       }
     }
     return possibilityDailyOperation;
@@ -360,7 +353,7 @@ public class WaterHeater extends FullyShiftingAppliance
       day = (int) (gen.nextDouble() * operationDaysVector.size());
       flag = false;
 
-      for (Integer consumption : weeklyLoadVector.get(day)) {
+      for (int consumption : weeklyLoadVector.getDay(day)) {
         overallPower += consumption;
       }
     }
@@ -16,6 +16,8 @@
 
 package org.powertac.householdcustomer.appliances;
 
+import java.io.Serial;
+
 
 /**
  * This is the class for the appliance domain instances that start their
@@ -28,5 +30,7 @@ package org.powertac.householdcustomer.appliances;
  */
 public class WeatherSensitiveAppliance extends Appliance
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
 
 }
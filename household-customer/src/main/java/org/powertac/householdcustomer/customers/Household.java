@@ -16,8 +16,9 @@
  */
 package org.powertac.householdcustomer.customers;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.Arrays;
-import java.util.ListIterator;
 import java.util.Properties;
 import java.util.Vector;
 
@@ -29,6 +30,7 @@ import org.powertac.common.Tariff;
 import org.powertac.common.TariffEvaluationHelper;
 import org.powertac.common.repo.RandomSeedRepo;
 import org.powertac.common.spring.SpringApplicationContext;
+import org.powertac.customer.LoadSchedule;
 import org.powertac.householdcustomer.appliances.AirCondition;
 import org.powertac.householdcustomer.appliances.Appliance;
 import org.powertac.householdcustomer.appliances.CirculationPump;
@@ -63,8 +65,11 @@ import org.springframework.beans.factory.annotation.Autowired;
  * @author Antonios Chrysopoulos
  * @version 1.5, Date: 2.25.12
  */
-public class Household
+public class Household implements Serializable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+
 
   /**
    * logger for trace logging -- use log.info(), log.warn(), and log.error()
@@ -74,7 +79,7 @@ public class Household
   static protected Logger log = LogManager.getLogger(Household.class.getName());
 
   @Autowired
-  private RandomSeedRepo randomSeedRepo;
+  private transient RandomSeedRepo randomSeedRepo;
 
   int seedId = 1;
 
@@ -88,48 +93,53 @@ public class Household
    * This is a vector containing each day's base, controllable and weather
    * sensitive load from the appliances installed inside the household.
    **/
-  Vector<Integer> dailyBaseLoad = new Vector<Integer>();
-  Vector<Integer> dailyControllableLoad = new Vector<Integer>();
-  Vector<Integer> dailyWeatherSensitiveLoad = new Vector<Integer>();
-  Vector<Integer> dailyNonDominantLoad = new Vector<Integer>();
-  Vector<Integer> dailyDominantLoad = new Vector<Integer>();
+  int[] dailyBaseLoad = new int[VillageConstants.QUARTERS_OF_DAY];
+  int[] dailyControllableLoad = new int[VillageConstants.QUARTERS_OF_DAY];
+  int[] dailyWeatherSensitiveLoad = new int[VillageConstants.QUARTERS_OF_DAY];
+  int[] dailyNonDominantLoad = new int[VillageConstants.QUARTERS_OF_DAY];
+  int[] dailyDominantLoad = new int[VillageConstants.QUARTERS_OF_DAY];
 
   /**
    * This is a vector containing the base, controllable and weather sensitive
    * load from the appliances installed inside the household for all the week
    * days.
    **/
-  Vector<Vector<Integer>> weeklyBaseLoad = new Vector<Vector<Integer>>();
-  Vector<Vector<Integer>> weeklyControllableLoad =
-    new Vector<Vector<Integer>>();
-  Vector<Vector<Integer>> weeklyWeatherSensitiveLoad =
-    new Vector<Vector<Integer>>();
-  Vector<Vector<Integer>> weeklyNonDominantLoad = new Vector<Vector<Integer>>();
-  Vector<Vector<Integer>> weeklyDominantLoad = new Vector<Vector<Integer>>();
+  LoadSchedule weeklyBaseLoad =
+    new LoadSchedule(VillageConstants.QUARTERS_OF_DAY);
+  LoadSchedule weeklyControllableLoad =
+    new LoadSchedule(VillageConstants.QUARTERS_OF_DAY);
+  LoadSchedule weeklyWeatherSensitiveLoad =
+    new LoadSchedule(VillageConstants.QUARTERS_OF_DAY);
+  LoadSchedule weeklyNonDominantLoad =
+    new LoadSchedule(VillageConstants.QUARTERS_OF_DAY);
+  LoadSchedule weeklyDominantLoad =
+    new LoadSchedule(VillageConstants.QUARTERS_OF_DAY);
 
   /**
    * This is an aggregated vector containing each day's base, controllable and
    * weather sensitive load in hours.
    **/
-  Vector<Integer> dailyBaseLoadInHours = new Vector<Integer>();
-  Vector<Integer> dailyControllableLoadInHours = new Vector<Integer>();
-  Vector<Integer> dailyWeatherSensitiveLoadInHours = new Vector<Integer>();
-  Vector<Integer> dailyNonDominantLoadInHours = new Vector<Integer>();
-  Vector<Integer> dailyDominantLoadInHours = new Vector<Integer>();
+  int[] dailyBaseLoadInHours = new int[VillageConstants.HOURS_OF_DAY];
+  int[] dailyControllableLoadInHours = new int[VillageConstants.HOURS_OF_DAY];
+  int[] dailyWeatherSensitiveLoadInHours =
+    new int[VillageConstants.HOURS_OF_DAY];
+  int[] dailyNonDominantLoadInHours = new int[VillageConstants.HOURS_OF_DAY];
+  int[] dailyDominantLoadInHours = new int[VillageConstants.HOURS_OF_DAY];
 
   /**
    * This is an aggregated vector containing the weekly base, controllable and
    * weather sensitive load in hours.
    **/
-  Vector<Vector<Integer>> weeklyBaseLoadInHours = new Vector<Vector<Integer>>();
-  Vector<Vector<Integer>> weeklyControllableLoadInHours =
-    new Vector<Vector<Integer>>();
-  Vector<Vector<Integer>> weeklyWeatherSensitiveLoadInHours =
-    new Vector<Vector<Integer>>();
-  Vector<Vector<Integer>> weeklyNonDominantLoadInHours =
-    new Vector<Vector<Integer>>();
-  Vector<Vector<Integer>> weeklyDominantLoadInHours =
-    new Vector<Vector<Integer>>();
+  LoadSchedule weeklyBaseLoadInHours =
+    new LoadSchedule(VillageConstants.HOURS_OF_DAY);
+  LoadSchedule weeklyControllableLoadInHours =
+    new LoadSchedule(VillageConstants.HOURS_OF_DAY);
+  LoadSchedule weeklyWeatherSensitiveLoadInHours =
+    new LoadSchedule(VillageConstants.HOURS_OF_DAY);
+  LoadSchedule weeklyNonDominantLoadInHours =
+    new LoadSchedule(VillageConstants.HOURS_OF_DAY);
+  LoadSchedule weeklyDominantLoadInHours =
+    new LoadSchedule(VillageConstants.HOURS_OF_DAY);
 
   /**
    * Helping variable showing the current week of competition for the correct
@@ -168,8 +178,10 @@ public class Household
 
   /**
    * This variable is pointing to the village that this household is part of.
+   * It is not kept in the population cache; the village sets it again when it
+   * loads its households from there.
    */
-  public Village householdOf;
+  public transient Village householdOf;
 
   /**
    * This variable is utilized for the creation of the RandomSeed numbers and is
@@ -189,6 +201,19 @@ public class Household
    */
   public void initialize (String HouseName, Properties conf,
                           Vector<Integer> publicVacationVector, int seed)
+  {
+    populate(HouseName, conf, publicVacationVector, seed);
+    fillSchedules(conf);
+  }
+
+  /**
+   * This is the first part of the initialization. It creates the persons and
+   * the appliances of the household, and with them every RandomSeed the
+   * household uses, so it has to run on the calling thread, in the order of
+   * the households.
+   */
+  void populate (String HouseName, Properties conf,
+                 Vector<Integer> publicVacationVector, int seed)
   {
     randomSeedRepo =
       (RandomSeedRepo) SpringApplicationContext.getBean("randomSeedRepo");
@@ -212,7 +237,16 @@ public class Household
     }
 
     fillAppliances(conf);
+  }
 
+  /**
+   * This is the second part of the initialization. It fills the schedules of
+   * the household for every week of the game from the seeds taken in
+   * populate(), and creates no domain objects, so households may run it
+   * concurrently.
+   */
+  void fillSchedules (Properties conf)
+  {
     for (int i = 0; i < VillageConstants.DAYS_OF_WEEK; i++) {
       dailyBaseLoad =
         fillDailyBaseLoad(week * VillageConstants.DAYS_OF_WEEK + i);
@@ -220,16 +254,17 @@ public class Household
         fillDailyControllableLoad(week * VillageConstants.DAYS_OF_WEEK + i);
       dailyWeatherSensitiveLoad =
         fillDailyWeatherSensitiveLoad(week * VillageConstants.DAYS_OF_WEEK + i);
-      weeklyBaseLoad.add(dailyBaseLoad);
-      weeklyControllableLoad.add(dailyControllableLoad);
-      weeklyWeatherSensitiveLoad.add(dailyWeatherSensitiveLoad);
+      weeklyBaseLoad.addDay(dailyBaseLoad);
+      weeklyControllableLoad.addDay(dailyControllableLoad);
+      weeklyWeatherSensitiveLoad.addDay(dailyWeatherSensitiveLoad);
 
       dailyBaseLoadInHours = fillDailyBaseLoadInHours();
       dailyControllableLoadInHours = fillDailyControllableLoadInHours();
       dailyWeatherSensitiveLoadInHours = fillDailyWeatherSensitiveLoadInHours();
-      weeklyBaseLoadInHours.add(dailyBaseLoadInHours);
-      weeklyControllableLoadInHours.add(dailyControllableLoadInHours);
-      weeklyWeatherSensitiveLoadInHours.add(dailyWeatherSensitiveLoadInHours);
+      weeklyBaseLoadInHours.addDay(dailyBaseLoadInHours);
+      weeklyControllableLoadInHours.addDay(dailyControllableLoadInHours);
+      weeklyWeatherSensitiveLoadInHours
+              .addDay(dailyWeatherSensitiveLoadInHours);
 
     }
 
@@ -262,13 +297,13 @@ public class Household
 
     for (int i = 0; i < overallDays; i++) {
       dailyNonDominantLoad = fillDailyNonDominantLoad(i);
-      weeklyNonDominantLoad.add(dailyNonDominantLoad);
+      weeklyNonDominantLoad.addDay(dailyNonDominantLoad);
       dailyNonDominantLoadInHours = fillDailyNonDominantLoadInHours();
-      weeklyNonDominantLoadInHours.add(dailyNonDominantLoadInHours);
+      weeklyNonDominantLoadInHours.addDay(dailyNonDominantLoadInHours);
       dailyDominantLoad = fillDailyDominantLoad(i);
-      weeklyDominantLoad.add(dailyDominantLoad);
+      weeklyDominantLoad.addDay(dailyDominantLoad);
       dailyDominantLoadInHours = fillDailyDominantLoadInHours();
-      weeklyDominantLoadInHours.add(dailyDominantLoadInHours);
+      weeklyDominantLoadInHours.addDay(dailyDominantLoadInHours);
     }
 
     /*
@@ -304,6 +339,35 @@ public class Household
     */
   }
 
+  /**
+   * This function releases the schedules that are only read while the village
+   * aggregates the household: the base, controllable, dominant and non
+   * dominant loads and the schedules of the appliances that are not weather
+   * sensitive. The weather sensitive loads and the routines of the members are
+   * kept, since the weather check reschedules them during the game.
+   */
+  public void releaseSchedules ()
+  {
+    for (Appliance appliance: appliances) {
+      if (!(appliance instanceof WeatherSensitiveAppliance))
+        appliance.releaseSchedules();
+    }
+
+    release(weeklyBaseLoad);
+    release(weeklyControllableLoad);
+    release(weeklyNonDominantLoad);
+    release(weeklyDominantLoad);
+    release(weeklyBaseLoadInHours);
+    release(weeklyControllableLoadInHours);
+    release(weeklyNonDominantLoadInHours);
+    release(weeklyDominantLoadInHours);
+  }
+
+  private void release (LoadSchedule schedule)
+  {
+    schedule.discardBefore(schedule.getDays());
+  }
+
   /**
    * This function is creating a RandomSeed number of person (given by the next
    * function) and add them to the current household, filling it up with life.
@@ -360,14 +424,14 @@ public class Household
       for (int j = 0; j < VillageConstants.HOURS_OF_DAY; j++) {
         if (op.get(i))
           dominantConsumption[j] +=
-            weeklyBaseLoadInHours.get(i).get(j)
-                    + weeklyControllableLoadInHours.get(i).get(j)
-                    + weeklyWeatherSensitiveLoadInHours.get(i).get(j);
+            weeklyBaseLoadInHours.get(i, j)
+                    + weeklyControllableLoadInHours.get(i, j)
+                    + weeklyWeatherSensitiveLoadInHours.get(i, j);
         else
           nonDominantConsumption[j] +=
-            weeklyBaseLoadInHours.get(i).get(j)
-                    + weeklyControllableLoadInHours.get(i).get(j)
-                    + weeklyWeatherSensitiveLoadInHours.get(i).get(j);
+            weeklyBaseLoadInHours.get(i, j)
+                    + weeklyControllableLoadInHours.get(i, j)
+                    + weeklyWeatherSensitiveLoadInHours.get(i, j);
       }
     }
 
@@ -699,15 +763,11 @@ public class Household
     for (int i = 0; i < VillageConstants.DAYS_OF_COMPETITION
                         + VillageConstants.DAYS_OF_BOOTSTRAP; i++) {
       log.info("Day " + i);
-      ListIterator<Integer> iter2 = weeklyBaseLoad.get(i).listIterator();
-      ListIterator<Integer> iter3 =
-        weeklyControllableLoad.get(i).listIterator();
-      ListIterator<Integer> iter4 =
-        weeklyWeatherSensitiveLoad.get(i).listIterator();
       for (int j = 0; j < VillageConstants.QUARTERS_OF_DAY; j++)
-        log.info("Quarter : " + j + " Base Load : " + iter2.next()
-                 + " Controllable Load: " + iter3.next()
-                 + " WeatherSensitive Load: " + iter4.next());
+        log.info("Quarter : " + j + " Base Load : " + weeklyBaseLoad.get(i, j)
+                 + " Controllable Load: " + weeklyControllableLoad.get(i, j)
+                 + " WeatherSensitive Load: "
+                 + weeklyWeatherSensitiveLoad.get(i, j));
     }
 
     // Printing daily load in hours
@@ -715,15 +775,13 @@ public class Household
     for (int i = 0; i < VillageConstants.DAYS_OF_COMPETITION
                         + VillageConstants.DAYS_OF_BOOTSTRAP; i++) {
       log.info("Day " + i);
-      ListIterator<Integer> iter2 = weeklyBaseLoadInHours.get(i).listIterator();
-      ListIterator<Integer> iter3 =
-        weeklyControllableLoadInHours.get(i).listIterator();
-      ListIterator<Integer> iter4 =
-        weeklyWeatherSensitiveLoadInHours.get(i).listIterator();
       for (int j = 0; j < VillageConstants.HOURS_OF_DAY; j++)
-        log.info("Hours : " + j + " Base Load : " + iter2.next()
-                 + " Controllable Load: " + iter3.next()
-                 + " WeatherSensitive Load: " + iter4.next());
+        log.info("Hours : " + j + " Base Load : "
+                 + weeklyBaseLoadInHours.get(i, j)
+                 + " Controllable Load: "
+                 + weeklyControllableLoadInHours.get(i, j)
+                 + " WeatherSensitive Load: "
+                 + weeklyWeatherSensitiveLoadInHours.get(i, j));
     }
   }
 
@@ -734,18 +792,18 @@ public class Household
    * @param weekday
    * @return daily base load
    */
-  Vector<Integer> fillDailyBaseLoad (int day)
+  int[] fillDailyBaseLoad (int day)
   {
     // Creating auxiliary variables
-    Vector<Integer> v = new Vector<Integer>(VillageConstants.QUARTERS_OF_DAY);
+    int[] v = new int[VillageConstants.QUARTERS_OF_DAY];
     int sum = 0;
     for (int i = 0; i < VillageConstants.QUARTERS_OF_DAY; i++) {
       sum = 0;
       for (Appliance appliance: appliances) {
         if (appliance instanceof NotShiftingAppliance)
-          sum = sum + appliance.getWeeklyLoadVector().get(day).get(i);
+          sum = sum + appliance.getWeeklyLoadVector().get(day, i);
       }
-      v.add(sum);
+      v[i] = sum;
     }
     return v;
   }
@@ -757,18 +815,18 @@ public class Household
    * @param weekday
    * @return daily controllable load
    */
-  Vector<Integer> fillDailyControllableLoad (int day)
+  int[] fillDailyControllableLoad (int day)
   {
     // Creating auxiliary variables
-    Vector<Integer> v = new Vector<Integer>(VillageConstants.QUARTERS_OF_DAY);
+    int[] v = new int[VillageConstants.QUARTERS_OF_DAY];
     int sum = 0;
     for (int i = 0; i < VillageConstants.QUARTERS_OF_DAY; i++) {
       sum = 0;
       for (Appliance appliance: appliances) {
         if (!(appliance instanceof NotShiftingAppliance))
-          sum = sum + appliance.getWeeklyLoadVector().get(day).get(i);
+          sum = sum + appliance.getWeeklyLoadVector().get(day, i);
       }
-      v.add(sum);
+      v[i] = sum;
     }
     return v;
   }
@@ -780,18 +838,18 @@ public class Household
    * @param weekday
    * @return daily weather sensitive load
    */
-  Vector<Integer> fillDailyWeatherSensitiveLoad (int day)
+  int[] fillDailyWeatherSensitiveLoad (int day)
   {
     // Creating auxiliary variables
-    Vector<Integer> v = new Vector<Integer>(VillageConstants.QUARTERS_OF_DAY);
+    int[] v = new int[VillageConstants.QUARTERS_OF_DAY];
     int sum = 0;
     for (int i = 0; i < VillageConstants.QUARTERS_OF_DAY; i++) {
       sum = 0;
       for (Appliance appliance: appliances) {
         if (appliance instanceof WeatherSensitiveAppliance)
-          sum = sum + appliance.getWeeklyLoadVector().get(day).get(i);
+          sum = sum + appliance.getWeeklyLoadVector().get(day, i);
       }
-      v.add(sum);
+      v[i] = sum;
     }
     return v;
   }
@@ -803,10 +861,10 @@ public class Household
    * @param weekday
    * @return daily dominant load
    */
-  Vector<Integer> fillDailyDominantLoad (int day)
+  int[] fillDailyDominantLoad (int day)
   {
     // Creating auxiliary variables
-    Vector<Integer> v = new Vector<Integer>(VillageConstants.QUARTERS_OF_DAY);
+    int[] v = new int[VillageConstants.QUARTERS_OF_DAY];
     int sum = 0;
     int helpIndex = -1;
 
@@ -821,14 +879,13 @@ public class Household
     for (int i = 0; i < VillageConstants.QUARTERS_OF_DAY; i++) {
       if (appliances.get(dominantAppliance).getOverallPower() != -1) {
         sum =
-          appliances.get(dominantAppliance).getWeeklyLoadVector().get(day)
-                  .get(i);
+          appliances.get(dominantAppliance).getWeeklyLoadVector().get(day, i);
 
         if (helpIndex != -1)
           sum +=
-            appliances.get(helpIndex).getWeeklyLoadVector().get(day).get(i);
+            appliances.get(helpIndex).getWeeklyLoadVector().get(day, i);
       }
-      v.add(sum);
+      v[i] = sum;
     }
 
     return v;
@@ -841,18 +898,18 @@ public class Household
    * @param weekday
    * @return daily non-dominant load
    */
-  Vector<Integer> fillDailyNonDominantLoad (int day)
+  int[] fillDailyNonDominantLoad (int day)
   {
     // Creating auxiliary variables
-    Vector<Integer> v = new Vector<Integer>(VillageConstants.QUARTERS_OF_DAY);
+    int[] v = new int[VillageConstants.QUARTERS_OF_DAY];
     int sum = 0;
     for (int i = 0; i < VillageConstants.QUARTERS_OF_DAY; i++) {
       sum = 0;
       for (int j = 0; j < appliances.size(); j++) {
         if (j != dominantAppliance)
-          sum = sum + appliances.get(j).getWeeklyLoadVector().get(day).get(i);
+          sum = sum + appliances.get(j).getWeeklyLoadVector().get(day, i);
       }
-      v.add(sum);
+      v[i] = sum;
     }
     return v;
   }
@@ -880,20 +937,20 @@ public class Household
    * 
    * @return daily base load in hours
    */
-  Vector<Integer> fillDailyBaseLoadInHours ()
+  int[] fillDailyBaseLoadInHours ()
   {
 
     // Creating Auxiliary Variables
-    Vector<Integer> v = new Vector<Integer>(VillageConstants.HOURS_OF_DAY);
+    int[] v = new int[VillageConstants.HOURS_OF_DAY];
     int sum = 0;
     for (int i = 0; i < VillageConstants.HOURS_OF_DAY; i++) {
-      sum = 0;
+      int quarter = i * VillageConstants.QUARTERS_OF_HOUR;
       sum =
-        dailyBaseLoad.get(i * VillageConstants.QUARTERS_OF_HOUR)
-                + dailyBaseLoad.get(i * VillageConstants.QUARTERS_OF_HOUR + 1)
-                + dailyBaseLoad.get(i * VillageConstants.QUARTERS_OF_HOUR + 2)
-                + dailyBaseLoad.get(i * VillageConstants.QUARTERS_OF_HOUR + 3);
-      v.add(sum);
+        dailyBaseLoad[quarter]
+                + dailyBaseLoad[quarter + 1]
+                + dailyBaseLoad[quarter + 2]
+                + dailyBaseLoad[quarter + 3];
+      v[i] = sum;
     }
     return v;
   }
@@ -904,26 +961,20 @@ public class Household
    * 
    * @return daily controllable load in hours
    */
-  Vector<Integer> fillDailyControllableLoadInHours ()
+  int[] fillDailyControllableLoadInHours ()
   {
 
     // Creating Auxiliary Variables
-    Vector<Integer> v = new Vector<Integer>(VillageConstants.HOURS_OF_DAY);
+    int[] v = new int[VillageConstants.HOURS_OF_DAY];
     int sum = 0;
     for (int i = 0; i < VillageConstants.HOURS_OF_DAY; i++) {
-      sum = 0;
+      int quarter = i * VillageConstants.QUARTERS_OF_HOUR;
       sum =
-        dailyControllableLoad.get(i * VillageConstants.QUARTERS_OF_HOUR)
-                + dailyControllableLoad.get(i
-                                            * VillageConstants.QUARTERS_OF_HOUR
-                                            + 1)
-                + dailyControllableLoad.get(i
-                                            * VillageConstants.QUARTERS_OF_HOUR
-                                            + 2)
-                + dailyControllableLoad.get(i
-                                            * VillageConstants.QUARTERS_OF_HOUR
-                                            + 3);
-      v.add(sum);
+        dailyControllableLoad[quarter]
+                + dailyControllableLoad[quarter + 1]
+                + dailyControllableLoad[quarter + 2]
+                + dailyControllableLoad[quarter + 3];
+      v[i] = sum;
     }
     return v;
   }
@@ -934,23 +985,20 @@ public class Household
    * 
    * @return daily weather sensitive load in hours
    */
-  Vector<Integer> fillDailyWeatherSensitiveLoadInHours ()
+  int[] fillDailyWeatherSensitiveLoadInHours ()
   {
 
     // Creating Auxiliary Variables
-    Vector<Integer> v = new Vector<Integer>(VillageConstants.HOURS_OF_DAY);
+    int[] v = new int[VillageConstants.HOURS_OF_DAY];
     int sum = 0;
     for (int i = 0; i < VillageConstants.HOURS_OF_DAY; i++) {
-      sum = 0;
+      int quarter = i * VillageConstants.QUARTERS_OF_HOUR;
       sum =
-        dailyWeatherSensitiveLoad.get(i * VillageConstants.QUARTERS_OF_HOUR)
-                + dailyWeatherSensitiveLoad
-                        .get(i * VillageConstants.QUARTERS_OF_HOUR + 1)
-                + dailyWeatherSensitiveLoad
-                        .get(i * VillageConstants.QUARTERS_OF_HOUR + 2)
-                + dailyWeatherSensitiveLoad
-                        .get(i * VillageConstants.QUARTERS_OF_HOUR + 3);
-      v.add(sum);
+        dailyWeatherSensitiveLoad[quarter]
+                + dailyWeatherSensitiveLoad[quarter + 1]
+                + dailyWeatherSensitiveLoad[quarter + 2]
+                + dailyWeatherSensitiveLoad[quarter + 3];
+      v[i] = sum;
     }
     return v;
   }
@@ -961,23 +1009,20 @@ public class Household
    * 
    * @return daily dominant load in hours
    */
-  Vector<Integer> fillDailyDominantLoadInHours ()
+  int[] fillDailyDominantLoadInHours ()
   {
 
     // Creating Auxiliary Variables
-    Vector<Integer> v = new Vector<Integer>(VillageConstants.HOURS_OF_DAY);
+    int[] v = new int[VillageConstants.HOURS_OF_DAY];
     int sum = 0;
     for (int i = 0; i < VillageConstants.HOURS_OF_DAY; i++) {
-      sum = 0;
+      int quarter = i * VillageConstants.QUARTERS_OF_HOUR;
       sum =
-        dailyDominantLoad.get(i * VillageConstants.QUARTERS_OF_HOUR)
-                + dailyDominantLoad.get(i * VillageConstants.QUARTERS_OF_HOUR
-                                        + 1)
-                + dailyDominantLoad.get(i * VillageConstants.QUARTERS_OF_HOUR
-                                        + 2)
-                + dailyDominantLoad.get(i * VillageConstants.QUARTERS_OF_HOUR
-                                        + 3);
-      v.add(sum);
+        dailyDominantLoad[quarter]
+                + dailyDominantLoad[quarter + 1]
+                + dailyDominantLoad[quarter + 2]
+                + dailyDominantLoad[quarter + 3];
+      v[i] = sum;
     }
     return v;
   }
@@ -988,26 +1033,20 @@ public class Household
    * 
    * @return daily non-dominant load in hours
    */
-  Vector<Integer> fillDailyNonDominantLoadInHours ()
+  int[] fillDailyNonDominantLoadInHours ()
   {
 
     // Creating Auxiliary Variables
-    Vector<Integer> v = new Vector<Integer>(VillageConstants.HOURS_OF_DAY);
+    int[] v = new int[VillageConstants.HOURS_OF_DAY];
     int sum = 0;
     for (int i = 0; i < VillageConstants.HOURS_OF_DAY; i++) {
-      sum = 0;
+      int quarter = i * VillageConstants.QUARTERS_OF_HOUR;
       sum =
-        dailyNonDominantLoad.get(i * VillageConstants.QUARTERS_OF_HOUR)
-                + dailyNonDominantLoad.get(i
-                                           * VillageConstants.QUARTERS_OF_HOUR
-                                           + 1)
-                + dailyNonDominantLoad.get(i
-                                           * VillageConstants.QUARTERS_OF_HOUR
-                                           + 2)
-                + dailyNonDominantLoad.get(i
-                                           * VillageConstants.QUARTERS_OF_HOUR
-                                           + 3);
-      v.add(sum);
+        dailyNonDominantLoad[quarter]
+                + dailyNonDominantLoad[quarter + 1]
+                + dailyNonDominantLoad[quarter + 2]
+                + dailyNonDominantLoad[quarter + 3];
+      v[i] = sum;
     }
     return v;
   }
@@ -1041,16 +1080,17 @@ public class Household
         fillDailyControllableLoad(week * VillageConstants.DAYS_OF_WEEK + i);
       dailyWeatherSensitiveLoad =
         fillDailyWeatherSensitiveLoad(week * VillageConstants.DAYS_OF_WEEK + i);
-      weeklyBaseLoad.add(dailyBaseLoad);
-      weeklyControllableLoad.add(dailyControllableLoad);
-      weeklyWeatherSensitiveLoad.add(dailyWeatherSensitiveLoad);
+      weeklyBaseLoad.addDay(dailyBaseLoad);
+      weeklyControllableLoad.addDay(dailyControllableLoad);
+      weeklyWeatherSensitiveLoad.addDay(dailyWeatherSensitiveLoad);
 
       dailyBaseLoadInHours = fillDailyBaseLoadInHours();
       dailyControllableLoadInHours = fillDailyControllableLoadInHours();
       dailyWeatherSensitiveLoadInHours = fillDailyWeatherSensitiveLoadInHours();
-      weeklyBaseLoadInHours.add(dailyBaseLoadInHours);
-      weeklyControllableLoadInHours.add(dailyControllableLoadInHours);
-      weeklyWeatherSensitiveLoadInHours.add(dailyWeatherSensitiveLoadInHours);
+      weeklyBaseLoadInHours.addDay(dailyBaseLoadInHours);
+      weeklyControllableLoadInHours.addDay(dailyControllableLoadInHours);
+      weeklyWeatherSensitiveLoadInHours
+              .addDay(dailyWeatherSensitiveLoadInHours);
     }
 
   }
@@ -1058,12 +1098,15 @@ public class Household
   /**
    * This function is checking the current weather conditions and the existence
    * of weather sensitive appliances and if the temperature is over/under a
-   * certain threshold, the appliances begin or stop their operation.
+   * certain threshold, the appliances begin or stop their operation. It
+   * returns true if the weather sensitive load of the household was updated.
    * TODO - JEC - this code should be in the individual appliances.
    */
-  public void weatherCheck (int day, int hour, Instant now, double temperature)
+  public boolean weatherCheck (int day, int hour, Instant now,
+                               double temperature)
   {
     boolean flag = false;
+    boolean changed = false;
 
     for (Appliance appliance: appliances) {
 
@@ -1072,16 +1115,18 @@ public class Household
 
         appliance.weatherDailyOperation(day + 1, 0, temperature);
 
-        if (appliance.getWeeklyLoadVector().get(day + 1).get(0) > 0) {
+        if (appliance.getWeeklyLoadVector().get(day + 1, 0) > 0) {
           // log.debug("Changed Space Heater indeed");
 
           dailyWeatherSensitiveLoad = fillDailyWeatherSensitiveLoad(day + 1);
-          weeklyWeatherSensitiveLoad.set(day + 1, dailyWeatherSensitiveLoad);
+          weeklyWeatherSensitiveLoad
+                  .setDay(day + 1, dailyWeatherSensitiveLoad);
           dailyWeatherSensitiveLoadInHours =
             fillDailyWeatherSensitiveLoadInHours();
           weeklyWeatherSensitiveLoadInHours
-                  .set(day + 1, dailyWeatherSensitiveLoadInHours);
+                  .setDay(day + 1, dailyWeatherSensitiveLoadInHours);
           flag = true;
+          changed = true;
         }
       }
 
@@ -1089,27 +1134,27 @@ public class Household
 
         appliance.weatherDailyOperation(day, hour, temperature);
 
-        if ((appliance.getWeeklyLoadVector().get(day)
-                .get(hour * VillageConstants.QUARTERS_OF_HOUR) > 0)
-            || (appliance.getWeeklyLoadVector().get(day)
-                    .get(hour * VillageConstants.QUARTERS_OF_HOUR + 1) > 0)
-            || (appliance.getWeeklyLoadVector().get(day)
-                    .get(hour * VillageConstants.QUARTERS_OF_HOUR + 2) > 0)
-            || (appliance.getWeeklyLoadVector().get(day)
-                    .get(hour * VillageConstants.QUARTERS_OF_HOUR + 3) > 0)) {
+        if ((appliance.getWeeklyLoadVector()
+                .get(day, hour * VillageConstants.QUARTERS_OF_HOUR) > 0)
+            || (appliance.getWeeklyLoadVector()
+                    .get(day, hour * VillageConstants.QUARTERS_OF_HOUR + 1) > 0)
+            || (appliance.getWeeklyLoadVector()
+                    .get(day, hour * VillageConstants.QUARTERS_OF_HOUR + 2) > 0)
+            || (appliance.getWeeklyLoadVector()
+                    .get(day, hour * VillageConstants.QUARTERS_OF_HOUR + 3) > 0)) {
 
           // log.debug("Changed Air Condition indeed");
           dailyWeatherSensitiveLoad = fillDailyWeatherSensitiveLoad(day);
-          weeklyWeatherSensitiveLoad.set(day, dailyWeatherSensitiveLoad);
+          weeklyWeatherSensitiveLoad.setDay(day, dailyWeatherSensitiveLoad);
           dailyWeatherSensitiveLoadInHours =
             fillDailyWeatherSensitiveLoadInHours();
           weeklyWeatherSensitiveLoadInHours
-                  .set(day, dailyWeatherSensitiveLoadInHours);
-
+                  .setDay(day, dailyWeatherSensitiveLoadInHours);
+          changed = true;
         }
       }
     }
-
+    return changed;
   }
 
   // public void test ()
@@ -15,8 +15,11 @@
  */
 package org.powertac.householdcustomer.customers;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Comparator;
 import java.util.List;
 import java.util.ListIterator;
@@ -24,6 +27,9 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.TreeMap;
 import java.util.Vector;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
@@ -41,6 +47,12 @@ import org.powertac.common.enumerations.PowerType;
 import org.powertac.common.interfaces.CustomerModelAccessor;
 import org.powertac.common.interfaces.TariffMarket;
 import org.powertac.customer.AbstractCustomer;
+import org.powertac.customer.LoadTable;
+import org.powertac.customer.PopulationCache;
+import org.powertac.customer.TariffProfileMemo;
+import org.powertac.customer.TemperatureTriggerIndex;
+import org.powertac.householdcustomer.appliances.AirCondition;
+import org.powertac.householdcustomer.appliances.Appliance;
 import org.powertac.householdcustomer.configurations.VillageConstants;
 
 /**
@@ -64,114 +76,94 @@ public class Village extends AbstractCustomer
   int seedId = 1;
 
   /**
-   * These are the vectors containing aggregated each day's base load from the
+   * These are the tables containing aggregated each day's base load from the
    * appliances installed inside the households of each type.
    **/
-  Vector<Vector<Long>> aggDailyBaseLoadNS = new Vector<Vector<Long>>();
-//  Vector<Vector<Long>> aggDailyBaseLoadRaS = new Vector<Vector<Long>>();
-//  Vector<Vector<Long>> aggDailyBaseLoadReS = new Vector<Vector<Long>>();
-  Vector<Vector<Long>> aggDailyBaseLoadSS = new Vector<Vector<Long>>();
+  LoadTable aggDailyBaseLoadNS;
+//  LoadTable aggDailyBaseLoadRaS;
+//  LoadTable aggDailyBaseLoadReS;
+  LoadTable aggDailyBaseLoadSS;
 
   /**
-   * These are the vectors containing aggregated each day's controllable load
+   * These are the tables containing aggregated each day's controllable load
    * from the appliances installed inside the households.
    **/
-  Vector<Vector<Long>> aggDailyControllableLoadNS = new Vector<Vector<Long>>();
-//  Vector<Vector<Long>> aggDailyControllableLoadRaS = new Vector<Vector<Long>>();
-//  Vector<Vector<Long>> aggDailyControllableLoadReS = new Vector<Vector<Long>>();
-  Vector<Vector<Long>> aggDailyControllableLoadSS = new Vector<Vector<Long>>();
+  LoadTable aggDailyControllableLoadNS;
+//  LoadTable aggDailyControllableLoadRaS;
+//  LoadTable aggDailyControllableLoadReS;
+  LoadTable aggDailyControllableLoadSS;
 
   /**
-   * These are the vectors containing aggregated each day's weather sensitive
+   * These are the tables containing aggregated each day's weather sensitive
    * load from the appliances installed inside the households.
    **/
-  Vector<Vector<Long>> aggDailyWeatherSensitiveLoadNS =
-    new Vector<Vector<Long>>();
-//  Vector<Vector<Long>> aggDailyWeatherSensitiveLoadRaS =
-//    new Vector<Vector<Long>>();
-//  Vector<Vector<Long>> aggDailyWeatherSensitiveLoadReS =
-//    new Vector<Vector<Long>>();
-  Vector<Vector<Long>> aggDailyWeatherSensitiveLoadSS =
-    new Vector<Vector<Long>>();
+  LoadTable aggDailyWeatherSensitiveLoadNS;
+//  LoadTable aggDailyWeatherSensitiveLoadRaS;
+//  LoadTable aggDailyWeatherSensitiveLoadReS;
+  LoadTable aggDailyWeatherSensitiveLoadSS;
 
   /**
-   * These are the vectors containing aggregated each day's dominant load from
+   * These are the tables containing aggregated each day's dominant load from
    * the appliances installed inside the households of each type.
    **/
-  Vector<Vector<Long>> aggDailyDominantLoadNS = new Vector<Vector<Long>>();
-//  Vector<Vector<Long>> aggDailyDominantLoadRaS = new Vector<Vector<Long>>();
-//  Vector<Vector<Long>> aggDailyDominantLoadReS = new Vector<Vector<Long>>();
-  Vector<Vector<Long>> aggDailyDominantLoadSS = new Vector<Vector<Long>>();
+  LoadTable aggDailyDominantLoadNS;
+//  LoadTable aggDailyDominantLoadRaS;
+//  LoadTable aggDailyDominantLoadReS;
+  LoadTable aggDailyDominantLoadSS;
 
   /**
-   * These are the vectors containing aggregated each day's non dominant load
+   * These are the tables containing aggregated each day's non dominant load
    * from the appliances installed inside the households of each type.
    **/
-  Vector<Vector<Long>> aggDailyNonDominantLoadNS = new Vector<Vector<Long>>();
-//  Vector<Vector<Long>> aggDailyNonDominantLoadRaS = new Vector<Vector<Long>>();
-//  Vector<Vector<Long>> aggDailyNonDominantLoadReS = new Vector<Vector<Long>>();
-  Vector<Vector<Long>> aggDailyNonDominantLoadSS = new Vector<Vector<Long>>();
+  LoadTable aggDailyNonDominantLoadNS;
+//  LoadTable aggDailyNonDominantLoadRaS;
+//  LoadTable aggDailyNonDominantLoadReS;
+  LoadTable aggDailyNonDominantLoadSS;
 
   /**
-   * These are the aggregated vectors containing each day's base load of all the
+   * These are the aggregated tables containing each day's base load of all the
    * households in hours.
    **/
-  Vector<Vector<Long>> aggDailyBaseLoadInHoursNS = new Vector<Vector<Long>>();
-//  Vector<Vector<Long>> aggDailyBaseLoadInHoursRaS = new Vector<Vector<Long>>();
-//  Vector<Vector<Long>> aggDailyBaseLoadInHoursReS = new Vector<Vector<Long>>();
-  Vector<Vector<Long>> aggDailyBaseLoadInHoursSS = new Vector<Vector<Long>>();
+  LoadTable aggDailyBaseLoadInHoursNS;
+//  LoadTable aggDailyBaseLoadInHoursRaS;
+//  LoadTable aggDailyBaseLoadInHoursReS;
+  LoadTable aggDailyBaseLoadInHoursSS;
 
   /**
-   * These are the aggregated vectors containing each day's controllable load of
+   * These are the aggregated tables containing each day's controllable load of
    * all the households in hours.
    **/
-  Vector<Vector<Long>> aggDailyControllableLoadInHoursNS =
-    new Vector<Vector<Long>>();
-//  Vector<Vector<Long>> aggDailyControllableLoadInHoursRaS =
-//    new Vector<Vector<Long>>();
-//  Vector<Vector<Long>> aggDailyControllableLoadInHoursReS =
-//    new Vector<Vector<Long>>();
-  Vector<Vector<Long>> aggDailyControllableLoadInHoursSS =
-    new Vector<Vector<Long>>();
+  LoadTable aggDailyControllableLoadInHoursNS;
+//  LoadTable aggDailyControllableLoadInHoursRaS;
+//  LoadTable aggDailyControllableLoadInHoursReS;
+  LoadTable aggDailyControllableLoadInHoursSS;
 
   /**
-   * These are the aggregated vectors containing each day's weather sensitive
+   * These are the aggregated tables containing each day's weather sensitive
    * load of all the households in hours.
    **/
-  Vector<Vector<Long>> aggDailyWeatherSensitiveLoadInHoursNS =
-    new Vector<Vector<Long>>();
-//  Vector<Vector<Long>> aggDailyWeatherSensitiveLoadInHoursRaS =
-//    new Vector<Vector<Long>>();
-//  Vector<Vector<Long>> aggDailyWeatherSensitiveLoadInHoursReS =
-//    new Vector<Vector<Long>>();
-  Vector<Vector<Long>> aggDailyWeatherSensitiveLoadInHoursSS =
-    new Vector<Vector<Long>>();
+  LoadTable aggDailyWeatherSensitiveLoadInHoursNS;
+//  LoadTable aggDailyWeatherSensitiveLoadInHoursRaS;
+//  LoadTable aggDailyWeatherSensitiveLoadInHoursReS;
+  LoadTable aggDailyWeatherSensitiveLoadInHoursSS;
 
   /**
-   * These are the vectors containing aggregated each day's dominant load from
+   * These are the tables containing aggregated each day's dominant load from
    * the appliances installed inside the households of each type.
    **/
-  Vector<Vector<Long>> aggDailyDominantLoadInHoursNS =
-    new Vector<Vector<Long>>();
-//  Vector<Vector<Long>> aggDailyDominantLoadInHoursRaS =
-//    new Vector<Vector<Long>>();
-//  Vector<Vector<Long>> aggDailyDominantLoadInHoursReS =
-//    new Vector<Vector<Long>>();
-  Vector<Vector<Long>> aggDailyDominantLoadInHoursSS =
-    new Vector<Vector<Long>>();
+  LoadTable aggDailyDominantLoadInHoursNS;
+//  LoadTable aggDailyDominantLoadInHoursRaS;
+//  LoadTable aggDailyDominantLoadInHoursReS;
+  LoadTable aggDailyDominantLoadInHoursSS;
 
   /**
-   * These are the vectors containing aggregated each day's non dominant load
+   * These are the tables containing aggregated each day's non dominant load
    * from the appliances installed inside the households of each type.
    **/
-  Vector<Vector<Long>> aggDailyNonDominantLoadInHoursNS =
-    new Vector<Vector<Long>>();
-//  Vector<Vector<Long>> aggDailyNonDominantLoadInHoursRaS =
-//    new Vector<Vector<Long>>();
-//  Vector<Vector<Long>> aggDailyNonDominantLoadInHoursReS =
-//    new Vector<Vector<Long>>();
-  Vector<Vector<Long>> aggDailyNonDominantLoadInHoursSS =
-    new Vector<Vector<Long>>();
+  LoadTable aggDailyNonDominantLoadInHoursNS;
+//  LoadTable aggDailyNonDominantLoadInHoursRaS;
+//  LoadTable aggDailyNonDominantLoadInHoursReS;
+  LoadTable aggDailyNonDominantLoadInHoursSS;
 
   /**
    * These are the mean consumption of the village types for the days with the
@@ -195,6 +187,17 @@ public class Village extends AbstractCustomer
   protected final TariffEvaluationHelper tariffEvalHelper =
     new TariffEvaluationHelper();
 
+  /** Cache of generated households; null generates them every time. */
+  PopulationCache populationCache = null;
+
+  /**
+   * The comfort bands of the air conditions of each type of houses, indexed by
+   * the position of the household in its type, and the households themselves
+   * in that order. Built on the first weather check.
+   */
+  Map<String, TemperatureTriggerIndex> airConditionIndex = null;
+  Map<String, Vector<Household>> indexedHouses = null;
+
   /**
    * This variable is utilized for the creation of the RandomSeed numbers and is
    * taken from the service.
@@ -265,6 +268,18 @@ public class Village extends AbstractCustomer
    */
   public void initialize (Properties conf, int seed,
                           Map<CustomerInfo, String> mapping)
+  {
+    initialize(conf, seed, mapping, null);
+  }
+
+  /**
+   * Initializes the village as above, building its households concurrently on
+   * the given pool. A null pool builds them one after the other on the calling
+   * thread.
+   */
+  public void initialize (Properties conf, int seed,
+                          Map<CustomerInfo, String> mapping,
+                          ExecutorService pool)
   {
     super.initialize();
     // Initializing variables
@@ -285,40 +300,32 @@ public class Village extends AbstractCustomer
 
     Vector<Integer> publicVacationVector = createPublicVacationVector(days);
 
-    for (int i = 0; i < numberOfHouses.get("NS"); i++) {
-      log.info("Initializing " + toString() + " NSHouse " + i);
-      Household hh = new Household();
-      hh.initialize(toString() + " NSHouse" + i, conf, publicVacationVector,
-                    seedId++);
-      notShiftingHouses.add(hh);
-      hh.householdOf = this;
-    }
-
-//    for (int i = 0; i < numberOfHouses.get("RaS"); i++) {
-//      log.info("Initializing " + toString() + " RaSHouse " + i);
-//      Household hh = new Household();
-//      hh.initialize(toString() + " RaSHouse" + i, conf, publicVacationVector,
-//                    seedId++);
-//      randomlyShiftingHouses.add(hh);
-//      hh.householdOf = this;
-//    }
-//
-//    for (int i = 0; i < numberOfHouses.get("ReS"); i++) {
-//      log.info("Initializing " + toString() + " ReSHouse " + i);
-//      Household hh = new Household();
-//      hh.initialize(toString() + " ReSHouse" + i, conf, publicVacationVector,
-//                    seedId++);
-//      regularlyShiftingHouses.add(hh);
-//      hh.householdOf = this;
-//    }
+    // A village drawn from restored seeds is the same in every game that
+    // restores them, so its households may come from the population cache.
+    String cacheKey = null;
+    Population population = null;
+    if (null != populationCache) {
+      cacheKey =
+        populationCache.key(toString(), conf, service.getRandomSeedRepo(),
+                            seed, VillageConstants.DAYS_OF_COMPETITION,
+                            Population.serialVersionUID);
+      if (null != cacheKey)
+        population = populationCache.load(cacheKey, Population.class);
+    }
+
+    if (null != population) {
+      population.restore(this);
+    }
+    else {
+      notShiftingHouses.addAll(createHouses("NS", conf, publicVacationVector,
+                                            pool));
+
+      smartShiftingHouses.addAll(createHouses("SS", conf, publicVacationVector,
+                                              pool));
 
-    for (int i = 0; i < numberOfHouses.get("SS"); i++) {
-      log.info("Initializing " + toString() + " SSHouse " + i);
-      Household hh = new Household();
-      hh.initialize(toString() + " SSHouse" + i, conf, publicVacationVector,
-                    seedId++);
-      smartShiftingHouses.add(hh);
-      hh.householdOf = this;
+      if (null != cacheKey
+          && service.getRandomSeedRepo().isRestored(toString()))
+        populationCache.store(cacheKey, new Population(this));
     }
 
     for (String type: numberOfHouses.keySet()) {
@@ -380,6 +387,75 @@ public class Village extends AbstractCustomer
 
       tariffEvaluators.put(customer.get(0), te);
     }
+
+    // The households are aggregated now, and from here on only the weather
+    // sensitive part of their schedules is read.
+    for (Household house: getHouses())
+      house.releaseSchedules();
+  }
+
+  /**
+   * Creates the households of the given type. Each household is populated
+   * here, in the order of a sequential build, so its RandomSeeds are created
+   * with the same ids and in the same order either way. Only the filling of
+   * the schedules, which draws from those seeds alone, runs on the pool.
+   */
+  Vector<Household> createHouses (String type, Properties conf,
+                                  Vector<Integer> publicVacationVector,
+                                  ExecutorService pool)
+  {
+    int count = numberOfHouses.get(type);
+    Vector<Household> houses = new Vector<Household>(count);
+    if (null == pool) {
+      for (int i = 0; i < count; i++)
+        houses.add(createHouse(type, i, conf, publicVacationVector, seedId++));
+      return houses;
+    }
+
+    List<Future<?>> results = new ArrayList<Future<?>>(count);
+    for (int i = 0; i < count; i++) {
+      Household hh = populateHouse(type, i, conf, publicVacationVector,
+                                   seedId++);
+      houses.add(hh);
+      results.add(pool.submit(() -> hh.fillSchedules(conf)));
+    }
+    try {
+      for (Future<?> result: results)
+        result.get();
+    }
+    catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted initializing " + toString(),
+                                      ie);
+    }
+    catch (ExecutionException ee) {
+      log.error("Failed to initialize " + toString() + " " + type + "House: "
+                + ee.getCause());
+      throw new IllegalStateException(ee.getCause());
+    }
+    return houses;
+  }
+
+  private Household createHouse (String type, int index, Properties conf,
+                                 Vector<Integer> publicVacationVector,
+                                 int houseSeed)
+  {
+    Household hh =
+      populateHouse(type, index, conf, publicVacationVector, houseSeed);
+    hh.fillSchedules(conf);
+    return hh;
+  }
+
+  private Household populateHouse (String type, int index, Properties conf,
+                                   Vector<Integer> publicVacationVector,
+                                   int houseSeed)
+  {
+    log.info("Initializing " + toString() + " " + type + "House " + index);
+    Household hh = new Household();
+    hh.populate(toString() + " " + type + "House" + index, conf,
+                publicVacationVector, houseSeed);
+    hh.householdOf = this;
+    return hh;
   }
 
   // =====SUBSCRIPTION FUNCTIONS===== //
@@ -413,96 +489,70 @@ public class Village extends AbstractCustomer
    */
   void fillAggWeeklyLoad (String type)
   {
+    int days =
+      VillageConstants.DAYS_OF_WEEK
+              * (VillageConstants.WEEKS_OF_COMPETITION + VillageConstants.WEEKS_OF_BOOTSTRAP);
 
     if (type.equals("NS")) {
-      for (int i = 0; i < VillageConstants.DAYS_OF_WEEK
-                          * (VillageConstants.WEEKS_OF_COMPETITION + VillageConstants.WEEKS_OF_BOOTSTRAP); i++) {
-        aggDailyBaseLoadNS.add(fillAggDailyBaseLoad(i, type));
-        aggDailyControllableLoadNS.add(fillAggDailyControllableLoad(i, type));
-        aggDailyWeatherSensitiveLoadNS
-                .add(fillAggDailyWeatherSensitiveLoad(i, type));
-
-        aggDailyBaseLoadInHoursNS.add(fillAggDailyBaseLoadInHours(i, type));
-        aggDailyControllableLoadInHoursNS
-                .add(fillAggDailyControllableLoadInHours(i, type));
-        aggDailyWeatherSensitiveLoadInHoursNS
-                .add(fillAggDailyWeatherSensitiveLoadInHours(i, type));
-
-        aggDailyDominantLoadNS.add(fillAggDailyDominantLoad(i, type));
-        aggDailyNonDominantLoadNS.add(fillAggDailyNonDominantLoad(i, type));
-        aggDailyDominantLoadInHoursNS
-                .add(fillAggDailyDominantLoadInHours(i, type));
-        aggDailyNonDominantLoadInHoursNS
-                .add(fillAggDailyNonDominantLoadInHours(i, type));
-      }
+      aggDailyBaseLoadNS = new LoadTable(days, VillageConstants.QUARTERS_OF_DAY);
+      aggDailyControllableLoadNS =
+        new LoadTable(days, VillageConstants.QUARTERS_OF_DAY);
+      aggDailyWeatherSensitiveLoadNS =
+        new LoadTable(days, VillageConstants.QUARTERS_OF_DAY);
+      aggDailyDominantLoadNS =
+        new LoadTable(days, VillageConstants.QUARTERS_OF_DAY);
+      aggDailyNonDominantLoadNS =
+        new LoadTable(days, VillageConstants.QUARTERS_OF_DAY);
+      aggDailyBaseLoadInHoursNS =
+        new LoadTable(days, VillageConstants.HOURS_OF_DAY);
+      aggDailyControllableLoadInHoursNS =
+        new LoadTable(days, VillageConstants.HOURS_OF_DAY);
+      aggDailyWeatherSensitiveLoadInHoursNS =
+        new LoadTable(days, VillageConstants.HOURS_OF_DAY);
+      aggDailyDominantLoadInHoursNS =
+        new LoadTable(days, VillageConstants.HOURS_OF_DAY);
+      aggDailyNonDominantLoadInHoursNS =
+        new LoadTable(days, VillageConstants.HOURS_OF_DAY);
     }
-//    else if (type.equals("RaS")) {
-//      for (int i = 0; i < VillageConstants.DAYS_OF_WEEK
-//                          * (VillageConstants.WEEKS_OF_COMPETITION + VillageConstants.WEEKS_OF_BOOTSTRAP); i++) {
-//        aggDailyBaseLoadRaS.add(fillAggDailyBaseLoad(i, type));
-//        aggDailyControllableLoadRaS.add(fillAggDailyControllableLoad(i, type));
-//        aggDailyWeatherSensitiveLoadRaS
-//                .add(fillAggDailyWeatherSensitiveLoad(i, type));
-//        aggDailyBaseLoadInHoursRaS.add(fillAggDailyBaseLoadInHours(i, type));
-//        aggDailyControllableLoadInHoursRaS
-//                .add(fillAggDailyControllableLoadInHours(i, type));
-//        aggDailyWeatherSensitiveLoadInHoursRaS
-//                .add(fillAggDailyWeatherSensitiveLoadInHours(i, type));
-//
-//        aggDailyDominantLoadRaS.add(fillAggDailyDominantLoad(i, type));
-//        aggDailyNonDominantLoadRaS.add(fillAggDailyNonDominantLoad(i, type));
-//        aggDailyDominantLoadInHoursRaS
-//                .add(fillAggDailyDominantLoadInHours(i, type));
-//        aggDailyNonDominantLoadInHoursRaS
-//                .add(fillAggDailyNonDominantLoadInHours(i, type));
-//      }
-//    }
-//    else if (type.equals("ReS")) {
-//      for (int i = 0; i < VillageConstants.DAYS_OF_WEEK
-//                          * (VillageConstants.WEEKS_OF_COMPETITION + VillageConstants.WEEKS_OF_BOOTSTRAP); i++) {
-//        aggDailyBaseLoadReS.add(fillAggDailyBaseLoad(i, type));
-//        aggDailyControllableLoadReS.add(fillAggDailyControllableLoad(i, type));
-//        aggDailyWeatherSensitiveLoadReS
-//                .add(fillAggDailyWeatherSensitiveLoad(i, type));
-//        aggDailyBaseLoadInHoursReS.add(fillAggDailyBaseLoadInHours(i, type));
-//        aggDailyControllableLoadInHoursReS
-//                .add(fillAggDailyControllableLoadInHours(i, type));
-//        aggDailyWeatherSensitiveLoadInHoursReS
-//                .add(fillAggDailyWeatherSensitiveLoadInHours(i, type));
-//
-//        aggDailyDominantLoadReS.add(fillAggDailyDominantLoad(i, type));
-//        aggDailyNonDominantLoadReS.add(fillAggDailyNonDominantLoad(i, type));
-//        aggDailyDominantLoadInHoursReS
-//                .add(fillAggDailyDominantLoadInHours(i, type));
-//        aggDailyNonDominantLoadInHoursReS
-//                .add(fillAggDailyNonDominantLoadInHours(i, type));
-//      }
-//    }
     else {
-      for (int i = 0; i < VillageConstants.DAYS_OF_WEEK
-                          * (VillageConstants.WEEKS_OF_COMPETITION + VillageConstants.WEEKS_OF_BOOTSTRAP); i++) {
-        aggDailyBaseLoadSS.add(fillAggDailyBaseLoad(i, type));
-        aggDailyControllableLoadSS.add(fillAggDailyControllableLoad(i, type));
-        aggDailyWeatherSensitiveLoadSS
-                .add(fillAggDailyWeatherSensitiveLoad(i, type));
-        aggDailyBaseLoadInHoursSS.add(fillAggDailyBaseLoadInHours(i, type));
-        aggDailyControllableLoadInHoursSS
-                .add(fillAggDailyControllableLoadInHours(i, type));
-        aggDailyWeatherSensitiveLoadInHoursSS
-                .add(fillAggDailyWeatherSensitiveLoadInHours(i, type));
-
-        aggDailyDominantLoadSS.add(fillAggDailyDominantLoad(i, type));
-        aggDailyNonDominantLoadSS.add(fillAggDailyNonDominantLoad(i, type));
-        aggDailyDominantLoadInHoursSS
-                .add(fillAggDailyDominantLoadInHours(i, type));
-        aggDailyNonDominantLoadInHoursSS
-                .add(fillAggDailyNonDominantLoadInHours(i, type));
-      }
+      aggDailyBaseLoadSS = new LoadTable(days, VillageConstants.QUARTERS_OF_DAY);
+      aggDailyControllableLoadSS =
+        new LoadTable(days, VillageConstants.QUARTERS_OF_DAY);
+      aggDailyWeatherSensitiveLoadSS =
+        new LoadTable(days, VillageConstants.QUARTERS_OF_DAY);
+      aggDailyDominantLoadSS =
+        new LoadTable(days, VillageConstants.QUARTERS_OF_DAY);
+      aggDailyNonDominantLoadSS =
+        new LoadTable(days, VillageConstants.QUARTERS_OF_DAY);
+      aggDailyBaseLoadInHoursSS =
+        new LoadTable(days, VillageConstants.HOURS_OF_DAY);
+      aggDailyControllableLoadInHoursSS =
+        new LoadTable(days, VillageConstants.HOURS_OF_DAY);
+      aggDailyWeatherSensitiveLoadInHoursSS =
+        new LoadTable(days, VillageConstants.HOURS_OF_DAY);
+      aggDailyDominantLoadInHoursSS =
+        new LoadTable(days, VillageConstants.HOURS_OF_DAY);
+      aggDailyNonDominantLoadInHoursSS =
+        new LoadTable(days, VillageConstants.HOURS_OF_DAY);
+    }
+
+    for (int i = 0; i < days; i++) {
+      fillAggDailyBaseLoad(i, type);
+      fillAggDailyControllableLoad(i, type);
+      fillAggDailyWeatherSensitiveLoad(i, type);
+
+      fillAggDailyBaseLoadInHours(i, type);
+      fillAggDailyControllableLoadInHours(i, type);
+      fillAggDailyWeatherSensitiveLoadInHours(i, type);
+
+      fillAggDailyDominantLoad(i, type);
+      fillAggDailyNonDominantLoad(i, type);
+      fillAggDailyDominantLoadInHours(i, type);
+      fillAggDailyNonDominantLoadInHours(i, type);
     }
 
     fillAggDominantLoads(type);
   }
-
   private void fillAggDominantLoads (String type)
   {
 
@@ -572,34 +622,8 @@ public class Village extends AbstractCustomer
     int dayTemp =
       day
               % (VillageConstants.DAYS_OF_BOOTSTRAP + VillageConstants.DAYS_OF_COMPETITION);
-    if (type.equals("NS")) {
-      aggDailyWeatherSensitiveLoadNS
-              .set(dayTemp, fillAggDailyWeatherSensitiveLoad(dayTemp, type));
-      aggDailyWeatherSensitiveLoadInHoursNS
-              .set(dayTemp,
-                   fillAggDailyWeatherSensitiveLoadInHours(dayTemp, type));
-    }
-//    else if (type.equals("RaS")) {
-//      aggDailyWeatherSensitiveLoadRaS
-//              .set(dayTemp, fillAggDailyWeatherSensitiveLoad(dayTemp, type));
-//      aggDailyWeatherSensitiveLoadInHoursRaS
-//              .set(dayTemp,
-//                   fillAggDailyWeatherSensitiveLoadInHours(dayTemp, type));
-//    }
-//    else if (type.equals("ReS")) {
-//      aggDailyWeatherSensitiveLoadReS
-//              .set(dayTemp, fillAggDailyWeatherSensitiveLoad(dayTemp, type));
-//      aggDailyWeatherSensitiveLoadInHoursReS
-//              .set(dayTemp,
-//                   fillAggDailyWeatherSensitiveLoadInHours(dayTemp, type));
-//    }
-    else {
-      aggDailyWeatherSensitiveLoadSS
-              .set(dayTemp, fillAggDailyWeatherSensitiveLoad(dayTemp, type));
-      aggDailyWeatherSensitiveLoadInHoursSS
-              .set(dayTemp,
-                   fillAggDailyWeatherSensitiveLoadInHours(dayTemp, type));
-    }
+    fillAggDailyWeatherSensitiveLoad(dayTemp, type);
+    fillAggDailyWeatherSensitiveLoadInHours(dayTemp, type);
   }
 
   /**
@@ -608,36 +632,30 @@ public class Village extends AbstractCustomer
    * 
    * @param day
    * @param type
-   * @return
    */
-  Vector<Long> fillAggDailyBaseLoad (int day, String type)
+  void fillAggDailyBaseLoad (int day, String type)
   {
 
     Vector<Household> houses = new Vector<Household>();
+    LoadTable table;
 
     if (type.equals("NS")) {
       houses = notShiftingHouses;
+      table = aggDailyBaseLoadNS;
     }
-//    else if (type.equals("RaS")) {
-//      houses = randomlyShiftingHouses;
-//    }
-//    else if (type.equals("ReS")) {
-//      houses = regularlyShiftingHouses;
-//    }
     else {
       houses = smartShiftingHouses;
+      table = aggDailyBaseLoadSS;
     }
 
-    Vector<Long> v = new Vector<Long>(VillageConstants.QUARTERS_OF_DAY);
     long sum = 0;
     for (int i = 0; i < VillageConstants.QUARTERS_OF_DAY; i++) {
       sum = 0;
       for (Household house: houses) {
-        sum = sum + house.weeklyBaseLoad.get(day).get(i);
+        sum = sum + house.weeklyBaseLoad.get(day, i);
       }
-      v.add(sum);
+      table.set(day, i, sum);
     }
-    return v;
   }
 
   /**
@@ -646,36 +664,30 @@ public class Village extends AbstractCustomer
    * 
    * @param day
    * @param type
-   * @return
    */
-  Vector<Long> fillAggDailyControllableLoad (int day, String type)
+  void fillAggDailyControllableLoad (int day, String type)
   {
 
     Vector<Household> houses = new Vector<Household>();
+    LoadTable table;
 
     if (type.equals("NS")) {
       houses = notShiftingHouses;
+      table = aggDailyControllableLoadNS;
     }
-//    else if (type.equals("RaS")) {
-//      houses = randomlyShiftingHouses;
-//    }
-//    else if (type.equals("ReS")) {
-//      houses = regularlyShiftingHouses;
-//    }
     else {
       houses = smartShiftingHouses;
+      table = aggDailyControllableLoadSS;
     }
 
-    Vector<Long> v = new Vector<Long>(VillageConstants.QUARTERS_OF_DAY);
     long sum = 0;
     for (int i = 0; i < VillageConstants.QUARTERS_OF_DAY; i++) {
       sum = 0;
       for (Household house: houses) {
-        sum = sum + house.weeklyControllableLoad.get(day).get(i);
+        sum = sum + house.weeklyControllableLoad.get(day, i);
       }
-      v.add(sum);
+      table.set(day, i, sum);
     }
-    return v;
   }
 
   /**
@@ -684,74 +696,62 @@ public class Village extends AbstractCustomer
    * 
    * @param day
    * @param type
-   * @return
    */
-  Vector<Long> fillAggDailyWeatherSensitiveLoad (int day, String type)
+  void fillAggDailyWeatherSensitiveLoad (int day, String type)
   {
 
     Vector<Household> houses = new Vector<Household>();
+    LoadTable table;
 
     if (type.equals("NS")) {
       houses = notShiftingHouses;
+      table = aggDailyWeatherSensitiveLoadNS;
     }
-//    else if (type.equals("RaS")) {
-//      houses = randomlyShiftingHouses;
-//    }
-//    else if (type.equals("ReS")) {
-//      houses = regularlyShiftingHouses;
-//    }
     else {
       houses = smartShiftingHouses;
+      table = aggDailyWeatherSensitiveLoadSS;
     }
 
-    Vector<Long> v = new Vector<Long>(VillageConstants.QUARTERS_OF_DAY);
     long sum = 0;
     for (int i = 0; i < VillageConstants.QUARTERS_OF_DAY; i++) {
       sum = 0;
       for (Household house: houses) {
-        sum = sum + house.weeklyWeatherSensitiveLoad.get(day).get(i);
+        sum = sum + house.weeklyWeatherSensitiveLoad.get(day, i);
       }
-      v.add(sum);
+      table.set(day, i, sum);
     }
-    return v;
   }
 
   /**
-   * This function is used in order to fill the aggregated daily dominant
-   * Load of the village's households for each quarter of the hour.
+   * This function is used in order to fill the aggregated daily dominant Load
+   * of the village's households for each quarter of the hour.
    * 
    * @param day
    * @param type
-   * @return
    */
-  Vector<Long> fillAggDailyDominantLoad (int day, String type)
+  void fillAggDailyDominantLoad (int day, String type)
   {
 
     Vector<Household> houses = new Vector<Household>();
+    LoadTable table;
 
     if (type.equals("NS")) {
       houses = notShiftingHouses;
+      table = aggDailyDominantLoadNS;
     }
-//    else if (type.equals("RaS")) {
-//      houses = randomlyShiftingHouses;
-//    }
-//    else if (type.equals("ReS")) {
-//      houses = regularlyShiftingHouses;
-//    }
     else {
       houses = smartShiftingHouses;
+      table = aggDailyDominantLoadSS;
     }
 
-    Vector<Long> v = new Vector<Long>(VillageConstants.QUARTERS_OF_DAY);
     long sum = 0;
     for (int i = 0; i < VillageConstants.QUARTERS_OF_DAY; i++) {
       sum = 0;
       for (Household house: houses) {
-        sum = sum + house.weeklyDominantLoad.get(day).get(i);
+        sum = sum + house.weeklyDominantLoad.get(day, i);
       }
-      v.add(sum);
+      table.set(day, i, sum);
     }
-    return v;
   }
 
   /**
@@ -760,435 +760,142 @@ public class Village extends AbstractCustomer
    * 
    * @param day
    * @param type
-   * @return
    */
-  Vector<Long> fillAggDailyNonDominantLoad (int day, String type)
+  void fillAggDailyNonDominantLoad (int day, String type)
   {
 
     Vector<Household> houses = new Vector<Household>();
+    LoadTable table;
 
     if (type.equals("NS")) {
       houses = notShiftingHouses;
+      table = aggDailyNonDominantLoadNS;
     }
-//    else if (type.equals("RaS")) {
-//      houses = randomlyShiftingHouses;
-//    }
-//    else if (type.equals("ReS")) {
-//      houses = regularlyShiftingHouses;
-//    }
     else {
       houses = smartShiftingHouses;
+      table = aggDailyNonDominantLoadSS;
     }
 
-    Vector<Long> v = new Vector<Long>(VillageConstants.QUARTERS_OF_DAY);
     long sum = 0;
     for (int i = 0; i < VillageConstants.QUARTERS_OF_DAY; i++) {
       sum = 0;
       for (Household house: houses) {
-        sum = sum + house.weeklyNonDominantLoad.get(day).get(i);
+        sum = sum + house.weeklyNonDominantLoad.get(day, i);
       }
-      v.add(sum);
+      table.set(day, i, sum);
     }
-    return v;
   }
 
   /**
-   * This function is used in order to fill the daily Base Load of the household
-   * for each hour for a certain type of households.
+   * This function is used in order to fill the daily Base Load of the
+   * household for each hour for a certain type of households, by summing the
+   * quarters of each hour.
    * 
    * @param day
    * @param type
-   * @return
    */
-  Vector<Long> fillAggDailyBaseLoadInHours (int day, String type)
+  void fillAggDailyBaseLoadInHours (int day, String type)
   {
-
-    Vector<Long> daily = new Vector<Long>();
-    long sum = 0;
-
     if (type.equals("NS")) {
-      for (int i = 0; i < VillageConstants.HOURS_OF_DAY; i++) {
-        sum = 0;
-        sum =
-          aggDailyBaseLoadNS.get(day)
-                  .get(i * VillageConstants.QUARTERS_OF_HOUR)
-                  + aggDailyBaseLoadNS.get(day)
-                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 1)
-                  + aggDailyBaseLoadNS.get(day)
-                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 2)
-                  + aggDailyBaseLoadNS.get(day)
-                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 3);
-        daily.add(sum);
-      }
+      aggDailyBaseLoadNS
+              .sumInto(aggDailyBaseLoadInHoursNS, day);
     }
-//    else if (type.equals("RaS")) {
-//      for (int i = 0; i < VillageConstants.HOURS_OF_DAY; i++) {
-//        sum = 0;
-//        sum =
-//          aggDailyBaseLoadRaS.get(day)
-//                  .get(i * VillageConstants.QUARTERS_OF_HOUR)
-//                  + aggDailyBaseLoadRaS.get(day)
-//                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 1)
-//                  + aggDailyBaseLoadRaS.get(day)
-//                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 2)
-//                  + aggDailyBaseLoadRaS.get(day)
-//                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 3);
-//        daily.add(sum);
-//      }
-//    }
-//    else if (type.equals("ReS")) {
-//      for (int i = 0; i < VillageConstants.HOURS_OF_DAY; i++) {
-//        sum = 0;
-//        sum =
-//          aggDailyBaseLoadReS.get(day)
-//                  .get(i * VillageConstants.QUARTERS_OF_HOUR)
-//                  + aggDailyBaseLoadReS.get(day)
-//                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 1)
-//                  + aggDailyBaseLoadReS.get(day)
-//                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 2)
-//                  + aggDailyBaseLoadReS.get(day)
-//                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 3);
-//        daily.add(sum);
-//      }
-//    }
     else {
-      for (int i = 0; i < VillageConstants.HOURS_OF_DAY; i++) {
-        sum = 0;
-        sum =
-          aggDailyBaseLoadSS.get(day)
-                  .get(i * VillageConstants.QUARTERS_OF_HOUR)
-                  + aggDailyBaseLoadSS.get(day)
-                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 1)
-                  + aggDailyBaseLoadSS.get(day)
-                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 2)
-                  + aggDailyBaseLoadSS.get(day)
-                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 3);
-        daily.add(sum);
-      }
+      aggDailyBaseLoadSS
+              .sumInto(aggDailyBaseLoadInHoursSS, day);
     }
-
-    return daily;
   }
 
   /**
    * This function is used in order to fill the daily Controllable Load of the
-   * household for each hour for a certain type of households.
+   * household for each hour for a certain type of households, by summing the
+   * quarters of each hour.
    * 
    * @param day
    * @param type
-   * @return
    */
-  Vector<Long> fillAggDailyControllableLoadInHours (int day, String type)
+  void fillAggDailyControllableLoadInHours (int day, String type)
   {
-
-    Vector<Long> daily = new Vector<Long>();
-    long sum = 0;
-
     if (type.equals("NS")) {
-      for (int i = 0; i < VillageConstants.HOURS_OF_DAY; i++) {
-        sum = 0;
-        sum =
-          aggDailyControllableLoadNS.get(day)
-                  .get(i * VillageConstants.QUARTERS_OF_HOUR)
-                  + aggDailyControllableLoadNS.get(day)
-                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 1)
-                  + aggDailyControllableLoadNS.get(day)
-                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 2)
-                  + aggDailyControllableLoadNS.get(day)
-                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 3);
-        daily.add(sum);
-      }
+      aggDailyControllableLoadNS
+              .sumInto(aggDailyControllableLoadInHoursNS, day);
     }
-//    else if (type.equals("RaS")) {
-//      for (int i = 0; i < VillageConstants.HOURS_OF_DAY; i++) {
-//        sum = 0;
-//        sum =
-//          aggDailyControllableLoadRaS.get(day)
-//                  .get(i * VillageConstants.QUARTERS_OF_HOUR)
-//                  + aggDailyControllableLoadRaS.get(day)
-//                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 1)
-//                  + aggDailyControllableLoadRaS.get(day)
-//                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 2)
-//                  + aggDailyControllableLoadRaS.get(day)
-//                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 3);
-//        daily.add(sum);
-//      }
-//    }
-//    else if (type.equals("ReS")) {
-//      for (int i = 0; i < VillageConstants.HOURS_OF_DAY; i++) {
-//        sum = 0;
-//        sum =
-//          aggDailyControllableLoadReS.get(day)
-//                  .get(i * VillageConstants.QUARTERS_OF_HOUR)
-//                  + aggDailyControllableLoadReS.get(day)
-//                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 1)
-//                  + aggDailyControllableLoadReS.get(day)
-//                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 2)
-//                  + aggDailyControllableLoadReS.get(day)
-//                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 3);
-//        daily.add(sum);
-//      }
-//    }
     else {
-      for (int i = 0; i < VillageConstants.HOURS_OF_DAY; i++) {
-        sum = 0;
-        sum =
-          aggDailyControllableLoadSS.get(day)
-                  .get(i * VillageConstants.QUARTERS_OF_HOUR)
-                  + aggDailyControllableLoadSS.get(day)
-                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 1)
-                  + aggDailyControllableLoadSS.get(day)
-                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 2)
-                  + aggDailyControllableLoadSS.get(day)
-                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 3);
-        daily.add(sum);
-      }
+      aggDailyControllableLoadSS
+              .sumInto(aggDailyControllableLoadInHoursSS, day);
     }
-
-    return daily;
   }
 
   /**
    * This function is used in order to fill the daily weather sensitive Load of
-   * the household for each hour for a certain type of households.
+   * the household for each hour for a certain type of households, by summing
+   * the quarters of each hour.
    * 
    * @param day
    * @param type
-   * @return
    */
-  Vector<Long> fillAggDailyWeatherSensitiveLoadInHours (int day, String type)
+  void fillAggDailyWeatherSensitiveLoadInHours (int day, String type)
   {
-
     int dayTemp =
       day
               % (VillageConstants.DAYS_OF_BOOTSTRAP + VillageConstants.DAYS_OF_COMPETITION);
-    Vector<Long> daily = new Vector<Long>();
-    long sum = 0;
 
     if (type.equals("NS")) {
-      for (int i = 0; i < VillageConstants.HOURS_OF_DAY; i++) {
-        sum = 0;
-        sum =
-          aggDailyWeatherSensitiveLoadNS.get(dayTemp)
-                  .get(i * VillageConstants.QUARTERS_OF_HOUR)
-                  + aggDailyWeatherSensitiveLoadNS.get(dayTemp)
-                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 1)
-                  + aggDailyWeatherSensitiveLoadNS.get(dayTemp)
-                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 2)
-                  + aggDailyWeatherSensitiveLoadNS.get(dayTemp)
-                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 3);
-        daily.add(sum);
-      }
+      aggDailyWeatherSensitiveLoadNS
+              .sumInto(aggDailyWeatherSensitiveLoadInHoursNS, dayTemp);
     }
-//    else if (type.equals("RaS")) {
-//      for (int i = 0; i < VillageConstants.HOURS_OF_DAY; i++) {
-//        sum = 0;
-//        sum =
-//          aggDailyWeatherSensitiveLoadRaS.get(dayTemp)
-//                  .get(i * VillageConstants.QUARTERS_OF_HOUR)
-//                  + aggDailyWeatherSensitiveLoadRaS.get(dayTemp)
-//                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 1)
-//                  + aggDailyWeatherSensitiveLoadRaS.get(dayTemp)
-//                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 2)
-//                  + aggDailyWeatherSensitiveLoadRaS.get(dayTemp)
-//                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 3);
-//        daily.add(sum);
-//      }
-//    }
-//    else if (type.equals("ReS")) {
-//      for (int i = 0; i < VillageConstants.HOURS_OF_DAY; i++) {
-//        sum = 0;
-//        sum =
-//          aggDailyWeatherSensitiveLoadReS.get(dayTemp)
-//                  .get(i * VillageConstants.QUARTERS_OF_HOUR)
-//                  + aggDailyWeatherSensitiveLoadReS.get(dayTemp)
-//                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 1)
-//                  + aggDailyWeatherSensitiveLoadReS.get(dayTemp)
-//                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 2)
-//                  + aggDailyWeatherSensitiveLoadReS.get(dayTemp)
-//                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 3);
-//        daily.add(sum);
-//      }
-//    }
     else {
-      for (int i = 0; i < VillageConstants.HOURS_OF_DAY; i++) {
-        sum = 0;
-        sum =
-          aggDailyWeatherSensitiveLoadSS.get(dayTemp)
-                  .get(i * VillageConstants.QUARTERS_OF_HOUR)
-                  + aggDailyWeatherSensitiveLoadSS.get(dayTemp)
-                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 1)
-                  + aggDailyWeatherSensitiveLoadSS.get(dayTemp)
-                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 2)
-                  + aggDailyWeatherSensitiveLoadSS.get(dayTemp)
-                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 3);
-        daily.add(sum);
-      }
+      aggDailyWeatherSensitiveLoadSS
+              .sumInto(aggDailyWeatherSensitiveLoadInHoursSS, dayTemp);
     }
-
-    return daily;
   }
 
   /**
-   * This function is used in order to fill the daily dominant Load of
-   * the household for each hour for a certain type of households.
+   * This function is used in order to fill the daily dominant Load of the
+   * household for each hour for a certain type of households, by summing the
+   * quarters of each hour.
    * 
    * @param day
    * @param type
-   * @return
    */
-  Vector<Long> fillAggDailyDominantLoadInHours (int day, String type)
+  void fillAggDailyDominantLoadInHours (int day, String type)
   {
-
     int dayTemp =
       day
               % (VillageConstants.DAYS_OF_BOOTSTRAP + VillageConstants.DAYS_OF_COMPETITION);
-    Vector<Long> daily = new Vector<Long>();
-    long sum = 0;
 
     if (type.equals("NS")) {
-      for (int i = 0; i < VillageConstants.HOURS_OF_DAY; i++) {
-        sum = 0;
-        sum =
-          aggDailyDominantLoadNS.get(dayTemp)
-                  .get(i * VillageConstants.QUARTERS_OF_HOUR)
-                  + aggDailyDominantLoadNS.get(dayTemp)
-                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 1)
-                  + aggDailyDominantLoadNS.get(dayTemp)
-                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 2)
-                  + aggDailyDominantLoadNS.get(dayTemp)
-                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 3);
-        daily.add(sum);
-      }
+      aggDailyDominantLoadNS
+              .sumInto(aggDailyDominantLoadInHoursNS, dayTemp);
     }
-//    else if (type.equals("RaS")) {
-//      for (int i = 0; i < VillageConstants.HOURS_OF_DAY; i++) {
-//        sum = 0;
-//        sum =
-//          aggDailyDominantLoadRaS.get(dayTemp)
-//                  .get(i * VillageConstants.QUARTERS_OF_HOUR)
-//                  + aggDailyDominantLoadRaS.get(dayTemp)
-//                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 1)
-//                  + aggDailyDominantLoadRaS.get(dayTemp)
-//                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 2)
-//                  + aggDailyDominantLoadRaS.get(dayTemp)
-//                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 3);
-//        daily.add(sum);
-//      }
-//    }
-//    else if (type.equals("ReS")) {
-//      for (int i = 0; i < VillageConstants.HOURS_OF_DAY; i++) {
-//        sum = 0;
-//        sum =
-//          aggDailyDominantLoadReS.get(dayTemp)
-//                  .get(i * VillageConstants.QUARTERS_OF_HOUR)
-//                  + aggDailyDominantLoadReS.get(dayTemp)
-//                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 1)
-//                  + aggDailyDominantLoadReS.get(dayTemp)
-//                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 2)
-//                  + aggDailyDominantLoadReS.get(dayTemp)
-//                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 3);
-//        daily.add(sum);
-//      }
-//    }
     else {
-      for (int i = 0; i < VillageConstants.HOURS_OF_DAY; i++) {
-        sum = 0;
-        sum =
-          aggDailyDominantLoadSS.get(dayTemp)
-                  .get(i * VillageConstants.QUARTERS_OF_HOUR)
-                  + aggDailyDominantLoadSS.get(dayTemp)
-                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 1)
-                  + aggDailyDominantLoadSS.get(dayTemp)
-                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 2)
-                  + aggDailyDominantLoadSS.get(dayTemp)
-                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 3);
-        daily.add(sum);
-      }
+      aggDailyDominantLoadSS
+              .sumInto(aggDailyDominantLoadInHoursSS, dayTemp);
     }
-
-    return daily;
   }
 
   /**
-   * This function is used in order to fill the daily non dominant Load of
-   * the household for each hour for a certain type of households.
+   * This function is used in order to fill the daily non dominant Load of the
+   * household for each hour for a certain type of households, by summing the
+   * quarters of each hour.
    * 
    * @param day
    * @param type
-   * @return
    */
-  Vector<Long> fillAggDailyNonDominantLoadInHours (int day, String type)
+  void fillAggDailyNonDominantLoadInHours (int day, String type)
   {
-
     int dayTemp =
       day
               % (VillageConstants.DAYS_OF_BOOTSTRAP + VillageConstants.DAYS_OF_COMPETITION);
-    Vector<Long> daily = new Vector<Long>();
-    long sum = 0;
 
     if (type.equals("NS")) {
-      for (int i = 0; i < VillageConstants.HOURS_OF_DAY; i++) {
-        sum = 0;
-        sum =
-          aggDailyNonDominantLoadNS.get(dayTemp)
-                  .get(i * VillageConstants.QUARTERS_OF_HOUR)
-                  + aggDailyNonDominantLoadNS.get(dayTemp)
-                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 1)
-                  + aggDailyNonDominantLoadNS.get(dayTemp)
-                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 2)
-                  + aggDailyNonDominantLoadNS.get(dayTemp)
-                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 3);
-        daily.add(sum);
-      }
+      aggDailyNonDominantLoadNS
+              .sumInto(aggDailyNonDominantLoadInHoursNS, dayTemp);
     }
-//    else if (type.equals("RaS")) {
-//      for (int i = 0; i < VillageConstants.HOURS_OF_DAY; i++) {
-//        sum = 0;
-//        sum =
-//          aggDailyNonDominantLoadRaS.get(dayTemp)
-//                  .get(i * VillageConstants.QUARTERS_OF_HOUR)
-//                  + aggDailyNonDominantLoadRaS.get(dayTemp)
-//                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 1)
-//                  + aggDailyNonDominantLoadRaS.get(dayTemp)
-//                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 2)
-//                  + aggDailyNonDominantLoadRaS.get(dayTemp)
-//                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 3);
-//        daily.add(sum);
-//      }
-//    }
-//    else if (type.equals("ReS")) {
-//      for (int i = 0; i < VillageConstants.HOURS_OF_DAY; i++) {
-//        sum = 0;
-//        sum =
-//          aggDailyNonDominantLoadReS.get(dayTemp)
-//                  .get(i * VillageConstants.QUARTERS_OF_HOUR)
-//                  + aggDailyNonDominantLoadReS.get(dayTemp)
-//                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 1)
-//                  + aggDailyNonDominantLoadReS.get(dayTemp)
-//                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 2)
-//                  + aggDailyNonDominantLoadReS.get(dayTemp)
-//                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 3);
-//        daily.add(sum);
-//      }
-//    }
     else {
-      for (int i = 0; i < VillageConstants.HOURS_OF_DAY; i++) {
-        sum = 0;
-        sum =
-          aggDailyNonDominantLoadSS.get(dayTemp)
-                  .get(i * VillageConstants.QUARTERS_OF_HOUR)
-                  + aggDailyNonDominantLoadSS.get(dayTemp)
-                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 1)
-                  + aggDailyNonDominantLoadSS.get(dayTemp)
-                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 2)
-                  + aggDailyNonDominantLoadSS.get(dayTemp)
-                          .get(i * VillageConstants.QUARTERS_OF_HOUR + 3);
-        daily.add(sum);
-      }
+      aggDailyNonDominantLoadSS
+              .sumInto(aggDailyNonDominantLoadInHoursSS, dayTemp);
     }
-
-    return daily;
   }
 
   // // =====CONSUMPTION FUNCTIONS===== //
@@ -1261,6 +968,16 @@ public class Village extends AbstractCustomer
     return (double) summary / VillageConstants.THOUSAND;
   }
 
+  /**
+   * Sets the cache from which the households are loaded, and to which they
+   * are stored, when the village is drawn from restored seeds. A null cache
+   * always generates them.
+   */
+  public void setPopulationCache (PopulationCache cache)
+  {
+    populationCache = cache;
+  }
+
   // =====GETTER FUNCTIONS===== //
 
   /** This function returns the inertia Map variable of the village. */
@@ -1287,7 +1004,7 @@ public class Village extends AbstractCustomer
               % (VillageConstants.DAYS_OF_BOOTSTRAP + VillageConstants.DAYS_OF_COMPETITION);
 
     if (type.equals("NS")) {
-      summaryBase = aggDailyBaseLoadInHoursNS.get(dayTemp).get(hour);
+      summaryBase = aggDailyBaseLoadInHoursNS.get(dayTemp, hour);
     }
 //    else if (type.equals("RaS")) {
 //      summaryBase = aggDailyBaseLoadInHoursRaS.get(dayTemp).get(hour);
@@ -1296,7 +1013,7 @@ public class Village extends AbstractCustomer
 //      summaryBase = aggDailyBaseLoadInHoursReS.get(dayTemp).get(hour);
 //    }
     else {
-      summaryBase = aggDailyBaseLoadInHoursSS.get(dayTemp).get(hour);
+      summaryBase = aggDailyBaseLoadInHoursSS.get(dayTemp, hour);
     }
 
     log.debug("Base Load for " + type + ":" + summaryBase);
@@ -1316,7 +1033,7 @@ public class Village extends AbstractCustomer
 
     if (type.equals("NS")) {
       summaryControllable =
-        aggDailyControllableLoadInHoursNS.get(dayTemp).get(hour);
+        aggDailyControllableLoadInHoursNS.get(dayTemp, hour);
     }
 //    else if (type.equals("RaS")) {
 //      summaryControllable =
@@ -1328,7 +1045,7 @@ public class Village extends AbstractCustomer
 //    }
     else {
       summaryControllable =
-        aggDailyControllableLoadInHoursSS.get(dayTemp).get(hour);
+        aggDailyControllableLoadInHoursSS.get(dayTemp, hour);
     }
 
     log.debug("Controllable Load for " + type + ":" + summaryControllable);
@@ -1348,7 +1065,7 @@ public class Village extends AbstractCustomer
 
     if (type.equals("NS")) {
       summaryNonDominant =
-        aggDailyNonDominantLoadInHoursNS.get(dayTemp).get(hour);
+        aggDailyNonDominantLoadInHoursNS.get(dayTemp, hour);
     }
 //    else if (type.equals("RaS")) {
 //      summaryNonDominant =
@@ -1360,7 +1077,7 @@ public class Village extends AbstractCustomer
 //    }
     else {
       summaryNonDominant =
-        aggDailyNonDominantLoadInHoursSS.get(dayTemp).get(hour);
+        aggDailyNonDominantLoadInHoursSS.get(dayTemp, hour);
     }
 
     log.debug("NonDominant Load for " + type + ":" + summaryNonDominant);
@@ -1380,7 +1097,7 @@ public class Village extends AbstractCustomer
 
     if (type.equals("NS")) {
       summaryWeatherSensitive =
-        aggDailyWeatherSensitiveLoadInHoursNS.get(dayTemp).get(hour);
+        aggDailyWeatherSensitiveLoadInHoursNS.get(dayTemp, hour);
     }
 //    else if (type.equals("RaS")) {
 //      summaryWeatherSensitive =
@@ -1392,7 +1109,7 @@ public class Village extends AbstractCustomer
 //    }
     else {
       summaryWeatherSensitive =
-        aggDailyWeatherSensitiveLoadInHoursSS.get(dayTemp).get(hour);
+        aggDailyWeatherSensitiveLoadInHoursSS.get(dayTemp, hour);
     }
 
     log.debug("WeatherSensitive Load for " + type + ":"
@@ -1414,10 +1131,8 @@ public class Village extends AbstractCustomer
               % (VillageConstants.DAYS_OF_BOOTSTRAP + VillageConstants.DAYS_OF_COMPETITION);
 
     if (type.equals("NS")) {
-      before = aggDailyControllableLoadInHoursNS.get(dayTemp).get(hour);
-      aggDailyControllableLoadInHoursNS.get(dayTemp)
-              .set(hour, before + curtail);
-      after = aggDailyControllableLoadInHoursNS.get(dayTemp).get(hour);
+      before = aggDailyControllableLoadInHoursNS.get(dayTemp, hour);
+      after = aggDailyControllableLoadInHoursNS.add(dayTemp, hour, curtail);
     }
 //    else if (type.equals("RaS")) {
 //      before = aggDailyControllableLoadInHoursRaS.get(dayTemp).get(hour);
@@ -1432,10 +1147,8 @@ public class Village extends AbstractCustomer
 //      after = aggDailyControllableLoadInHoursReS.get(dayTemp).get(hour);
 //    }
     else {
-      before = aggDailyControllableLoadInHoursSS.get(dayTemp).get(hour);
-      aggDailyControllableLoadInHoursSS.get(dayTemp)
-              .set(hour, before + curtail);
-      after = aggDailyControllableLoadInHoursSS.get(dayTemp).get(hour);
+      before = aggDailyControllableLoadInHoursSS.get(dayTemp, hour);
+      after = aggDailyControllableLoadInHoursSS.add(dayTemp, hour, curtail);
     }
 
     log.debug("Controllable Load for " + type + ": Before Curtailment "
@@ -1445,18 +1158,18 @@ public class Village extends AbstractCustomer
 
   /**
    * This function returns the quantity of controllable load for a specific day
-   * in form of a vector for a certain type of households.
+   * in form of an array for a certain type of households.
    */
-  Vector<Long> getControllableConsumptions (int day, String type)
+  long[] getControllableConsumptions (int day, String type)
   {
 
-    Vector<Long> controllableVector = new Vector<Long>();
+    long[] controllableVector;
     int dayTemp =
       day
               % (VillageConstants.DAYS_OF_BOOTSTRAP + VillageConstants.DAYS_OF_COMPETITION);
 
     if (type.equals("NS")) {
-      controllableVector = aggDailyControllableLoadInHoursNS.get(dayTemp);
+      controllableVector = aggDailyControllableLoadInHoursNS.getDay(dayTemp);
     }
 //    else if (type.equals("RaS")) {
 //      controllableVector = aggDailyControllableLoadInHoursRaS.get(dayTemp);
@@ -1465,7 +1178,7 @@ public class Village extends AbstractCustomer
 //      controllableVector = aggDailyControllableLoadInHoursReS.get(dayTemp);
 //    }
     else {
-      controllableVector = aggDailyControllableLoadInHoursSS.get(dayTemp);
+      controllableVector = aggDailyControllableLoadInHoursSS.getDay(dayTemp);
     }
 
     return controllableVector;
@@ -1473,19 +1186,19 @@ public class Village extends AbstractCustomer
 
   /**
    * This function returns the quantity of weather sensitive load for a specific
-   * day in form of a vector for a certain type of households.
+   * day in form of an array for a certain type of households.
    */
-  Vector<Long> getWeatherSensitiveConsumptions (int day, String type)
+  long[] getWeatherSensitiveConsumptions (int day, String type)
   {
 
-    Vector<Long> weatherSensitiveVector = new Vector<Long>();
+    long[] weatherSensitiveVector;
     int dayTemp =
       day
               % (VillageConstants.DAYS_OF_BOOTSTRAP + VillageConstants.DAYS_OF_COMPETITION);
 
     if (type.equals("NS")) {
       weatherSensitiveVector =
-        aggDailyWeatherSensitiveLoadInHoursNS.get(dayTemp);
+        aggDailyWeatherSensitiveLoadInHoursNS.getDay(dayTemp);
     }
 //    else if (type.equals("RaS")) {
 //      weatherSensitiveVector =
@@ -1497,7 +1210,7 @@ public class Village extends AbstractCustomer
 //    }
     else {
       weatherSensitiveVector =
-        aggDailyWeatherSensitiveLoadInHoursSS.get(dayTemp);
+        aggDailyWeatherSensitiveLoadInHoursSS.getDay(dayTemp);
     }
 
     return weatherSensitiveVector;
@@ -1505,18 +1218,18 @@ public class Village extends AbstractCustomer
 
   /**
    * This function returns the quantity of weather sensitive load for a specific
-   * day in form of a vector for a certain type of households.
+   * day in form of an array for a certain type of households.
    */
-  Vector<Long> getNonDominantConsumptions (int day, String type)
+  long[] getNonDominantConsumptions (int day, String type)
   {
 
-    Vector<Long> nonDominantVector = new Vector<Long>();
+    long[] nonDominantVector;
     int dayTemp =
       day
               % (VillageConstants.DAYS_OF_BOOTSTRAP + VillageConstants.DAYS_OF_COMPETITION);
 
     if (type.equals("NS")) {
-      nonDominantVector = aggDailyNonDominantLoadInHoursNS.get(dayTemp);
+      nonDominantVector = aggDailyNonDominantLoadInHoursNS.getDay(dayTemp);
     }
 //    else if (type.equals("RaS")) {
 //      nonDominantVector = aggDailyNonDominantLoadInHoursRaS.get(dayTemp);
@@ -1525,7 +1238,7 @@ public class Village extends AbstractCustomer
 //      nonDominantVector = aggDailyNonDominantLoadInHoursReS.get(dayTemp);
 //    }
     else {
-      nonDominantVector = aggDailyNonDominantLoadInHoursSS.get(dayTemp);
+      nonDominantVector = aggDailyNonDominantLoadInHoursSS.getDay(dayTemp);
     }
 
     return nonDominantVector;
@@ -1670,9 +1383,10 @@ public class Village extends AbstractCustomer
         house.dailyShifting(tariff, newControllableLoad, tariffEvalHelper,
                             dayTemp, gen, start);
 
-      log.debug("New Dominant Load for house " + house.toString()
-                + " for Tariff " + tariff.toString() + ": "
-                + Arrays.toString(temp));
+      if (log.isDebugEnabled())
+        log.debug("New Dominant Load for house " + house.toString()
+                  + " for Tariff " + tariff.toString() + ": "
+                  + Arrays.toString(temp));
 
       for (int j = 0; j < VillageConstants.HOURS_OF_DAY; j++)
         newControllableLoad[j] += temp[j];
@@ -1773,19 +1487,58 @@ public class Village extends AbstractCustomer
       double temperature = wr.getTemperature();
       // log.debug("Temperature: " + temperature);
 
-      Vector<Household> houses = getHouses();
-
-      for (Household house: houses) {
-        house.weatherCheck(dayTemp, hour, now, temperature);
-      }
+      if (null == airConditionIndex)
+        indexAirConditions();
 
       for (String type: numberOfHouses.keySet()) {
-        updateAggDailyWeatherSensitiveLoad(type, day);
-        if (dayTemp + 1 < VillageConstants.DAYS_OF_COMPETITION) {
-          updateAggDailyWeatherSensitiveLoad(type, dayTemp + 1);
+        Vector<Household> houses = indexedHouses.get(type);
+        BitSet affected = airConditionIndex.get(type).affected(temperature);
+        boolean changed = false;
+
+        // The space heaters decide on the next day at hour 23, so every house
+        // is checked then; otherwise only the air conditions act, and only
+        // those out of their comfort band now or at the previous check.
+        if (hour == 23) {
+          for (Household house: houses)
+            changed |= house.weatherCheck(dayTemp, hour, now, temperature);
+        }
+        else {
+          for (int i = affected.nextSetBit(0); i >= 0;
+               i = affected.nextSetBit(i + 1))
+            changed |= houses.get(i).weatherCheck(dayTemp, hour, now,
+                                                  temperature);
         }
 
+        if (changed) {
+          updateAggDailyWeatherSensitiveLoad(type, day);
+          if (dayTemp + 1 < VillageConstants.DAYS_OF_COMPETITION) {
+            updateAggDailyWeatherSensitiveLoad(type, dayTemp + 1);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * This function registers the comfort band of every air condition in the
+   * village, so that the weather check can find the houses that need to react
+   * to the current temperature.
+   */
+  void indexAirConditions ()
+  {
+    airConditionIndex = new TreeMap<String, TemperatureTriggerIndex>();
+    indexedHouses = new TreeMap<String, Vector<Household>>();
+    for (String type: numberOfHouses.keySet()) {
+      Vector<Household> houses = getHouses(type);
+      TemperatureTriggerIndex index = new TemperatureTriggerIndex();
+      for (int i = 0; i < houses.size(); i++) {
+        for (Appliance appliance: houses.get(i).getAppliances()) {
+          if (appliance instanceof AirCondition ac)
+            index.add(i, ac.getLowerLimit(), ac.getUpperLimit());
+        }
       }
+      airConditionIndex.put(type, index);
+      indexedHouses.put(type, houses);
     }
   }
 
@@ -1848,7 +1601,7 @@ public class Village extends AbstractCustomer
 
     double[] nonDominantUsage = getNonDominantUsage(dayTemp, type);
 
-    Vector<Long> controllableVector = new Vector<Long>();
+    long[] controllableVector = new long[VillageConstants.HOURS_OF_DAY];
 
     CustomerInfo customer = service.getCustomerRepo()
         .findByNameAndPowerType(name + " " + type + " Controllable",
@@ -1858,7 +1611,7 @@ public class Village extends AbstractCustomer
         .findActiveSubscriptionsForCustomer(customer).get(0);
 
     log.debug("Old Consumption for day " + day + ": "
-              + getControllableConsumptions(dayTemp, type).toString());
+              + Arrays.toString(getControllableConsumptions(dayTemp, type)));
     double[] newControllableLoad =
       dailyShifting(sub.getTariff(), nonDominantUsage,
                     dayTemp, type, nextStartOfDay());
@@ -1867,20 +1620,20 @@ public class Village extends AbstractCustomer
       String newControllableLoadString =
         Double.toString(newControllableLoad[i]);
       newControllableLoadString = newControllableLoadString.replace(".0", "");
-      controllableVector.add(Long.parseLong(newControllableLoadString));
+      controllableVector[i] = Long.parseLong(newControllableLoadString);
     }
 
     log.debug("New Consumption for day " + day + ": "
-              + controllableVector.toString());
+              + Arrays.toString(controllableVector));
 
     if (type.equals("SS")) {
-//      aggDailyControllableLoadInHoursRaS.set(dayTemp, controllableVector);
+//      aggDailyControllableLoadInHoursRaS.setDay(dayTemp, controllableVector);
 //    }
 //    else if (type.equals("ReS")) {
-//      aggDailyControllableLoadInHoursReS.set(dayTemp, controllableVector);
+//      aggDailyControllableLoadInHoursReS.setDay(dayTemp, controllableVector);
 //    }
 //    else {
-      aggDailyControllableLoadInHoursSS.set(dayTemp, controllableVector);
+      aggDailyControllableLoadInHoursSS.setDay(dayTemp, controllableVector);
     }
 
   }
@@ -1891,11 +1644,44 @@ public class Village extends AbstractCustomer
     return name;
   }
 
+  /**
+   * The households of a village as kept in the population cache. Change the
+   * serialVersionUID whenever the household model changes, so that entries
+   * written by an older model are no longer found.
+   */
+  static class Population implements Serializable
+  {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final Vector<Household> notShiftingHouses;
+    private final Vector<Household> smartShiftingHouses;
+    private final int seedId;
+
+    Population (Village village)
+    {
+      super();
+      notShiftingHouses = village.notShiftingHouses;
+      smartShiftingHouses = village.smartShiftingHouses;
+      seedId = village.seedId;
+    }
+
+    void restore (Village village)
+    {
+      village.notShiftingHouses.addAll(notShiftingHouses);
+      village.smartShiftingHouses.addAll(smartShiftingHouses);
+      village.seedId = seedId;
+      for (Household house: village.getHouses())
+        house.householdOf = village;
+    }
+  }
+
   public class TariffEvaluationWrapper implements CustomerModelAccessor
   {
     private String type;
     private int day;
     private CustomerInfo customerInfo;
+    private TariffProfileMemo shiftedProfiles = new TariffProfileMemo();
 
     public TariffEvaluationWrapper (String type, CustomerInfo customer)
     {
@@ -1925,27 +1711,32 @@ public class Village extends AbstractCustomer
     @Override
     public CapacityProfile getCapacityProfile (Tariff tariff)
     {
-      double[] result = new double[VillageConstants.HOURS_OF_DAY];
-
-      if (type.equalsIgnoreCase("NS"))
-        result =
-          Arrays.copyOf(getDominantLoad(type), getDominantLoad(type).length);
+      Instant start = nextStartOfDay();
+      double[] result;
 
+      if (type.equalsIgnoreCase("NS")) {
+        double[] dominantLoad = getDominantLoad(type);
+        result = perHousehold(Arrays.copyOf(dominantLoad, dominantLoad.length));
+      }
       else {
-        double[] nonDominantUsage = getNonDominantUsage(day, type);
-
-        result = dailyShifting(tariff, nonDominantUsage,
-                               day, type, nextStartOfDay());
+        // tariffs with the same rates shift the same way
+        result = shiftedProfiles.get(tariff.getTariffSpec(), start,
+                                     () -> perHousehold(dailyShifting(tariff,
+                                         getNonDominantUsage(day, type), day,
+                                         type, start)));
       }
 
-      log.debug(Arrays.toString(result));
+      if (log.isDebugEnabled())
+        log.debug("Usage: " + Arrays.toString(result));
 
-      for (int i = 0; i < result.length; i++)
-        result[i] /= (VillageConstants.THOUSAND * getPopulation());
-
-      log.info("Usage: " + Arrays.toString(result));
+      return new CapacityProfile(result, start);
+    }
 
-      return new CapacityProfile(result, nextStartOfDay());
+    private double[] perHousehold (double[] load)
+    {
+      for (int i = 0; i < load.length; i++)
+        load[i] /= (VillageConstants.THOUSAND * getPopulation());
+      return load;
     }
 
     @Override
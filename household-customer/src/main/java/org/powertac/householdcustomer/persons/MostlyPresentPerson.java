@@ -16,6 +16,7 @@
 
 package org.powertac.householdcustomer.persons;
 
+import java.io.Serial;
 import java.util.ListIterator;
 import java.util.Properties;
 import java.util.Vector;
@@ -35,6 +36,8 @@ import org.powertac.householdcustomer.enumerations.Status;
  */
 public class MostlyPresentPerson extends Person
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
 
   @Override
   public void initialize (String AgentName, Properties conf,
@@ -16,6 +16,8 @@
 
 package org.powertac.householdcustomer.persons;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.ListIterator;
 import java.util.Properties;
 import java.util.Vector;
@@ -40,8 +42,11 @@ import org.springframework.beans.factory.annotation.Autowired;
  * @version 1.5, Date: 2.25.12
  */
 
-public class Person
+public class Person implements Serializable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+
 
   /**
    * logger for trace logging -- use log.info(), log.warn(), and log.error()
@@ -51,7 +56,7 @@ public class Person
   static protected Logger log = LogManager.getLogger(Person.class.getName());
 
   @Autowired
-  protected RandomSeedRepo randomSeedRepo;
+  protected transient RandomSeedRepo randomSeedRepo;
 
   /**
    * The person's name in the community. It includes the household he is living
@@ -16,6 +16,7 @@
 
 package org.powertac.householdcustomer.persons;
 
+import java.io.Serial;
 import java.util.ListIterator;
 import java.util.Properties;
 import java.util.Vector;
@@ -33,6 +34,8 @@ import org.powertac.householdcustomer.enumerations.Status;
  **/
 public class WorkingPerson extends Person
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
 
   /** This variable describes the duration of the work procedure. **/
   int workingDuration = 0;
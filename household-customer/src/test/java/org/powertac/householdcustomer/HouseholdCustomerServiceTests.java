@@ -19,9 +19,15 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Properties;
 import java.util.TreeMap;
+import java.util.Vector;
 
 import org.apache.commons.configuration2.MapConfiguration;
 import java.time.Instant;
@@ -34,6 +40,7 @@ import org.mockito.stubbing.Answer;
 import org.powertac.common.Broker;
 import org.powertac.common.Competition;
 import org.powertac.common.CustomerInfo;
+import org.powertac.common.RandomSeed;
 import org.powertac.common.Rate;
 import org.powertac.common.Tariff;
 import org.powertac.common.TariffSpecification;
@@ -54,7 +61,11 @@ import org.powertac.common.repo.TariffRepo;
 import org.powertac.common.repo.TariffSubscriptionRepo;
 import org.powertac.common.repo.TimeslotRepo;
 import org.powertac.common.repo.WeatherReportRepo;
+import org.powertac.householdcustomer.appliances.Appliance;
+import org.powertac.householdcustomer.appliances.WeatherSensitiveAppliance;
+import org.powertac.householdcustomer.customers.Household;
 import org.powertac.householdcustomer.customers.Village;
+import org.powertac.householdcustomer.persons.Person;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.TestExecutionListeners;
@@ -757,6 +768,134 @@ public class HouseholdCustomerServiceTests
     }
   }
 
+  @Test
+  public void testReleasedSchedules () throws Exception
+  {
+    initializeService();
+
+    Properties conf = new Properties();
+    conf.load(Thread.currentThread().getContextClassLoader()
+            .getResourceAsStream("VillageType1.properties"));
+    Household full = new Household();
+    full.initialize("Test House", conf, new Vector<Integer>(), 1);
+
+    // an identical copy, streams included, that releases its schedules
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(full);
+    }
+    Household released;
+    try (ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      released = (Household) in.readObject();
+    }
+    released.releaseSchedules();
+
+    // the weather check reads only what is kept, and reschedules the same way
+    for (int day = 0; day < 14; day++) {
+      for (int hour = 0; hour < 24; hour++) {
+        double temperature = -10.0 + (day * 24 + hour * 7) % 45;
+        assertEquals(full.weatherCheck(day, hour, now, temperature),
+                     released.weatherCheck(day, hour, now, temperature),
+                     "same change on day " + day + " hour " + hour);
+        for (int i = 0; i < full.getAppliances().size(); i++) {
+          Appliance appliance = full.getAppliances().get(i);
+          if (!(appliance instanceof WeatherSensitiveAppliance))
+            continue;
+          for (int d = day; d <= day + 1; d++)
+            assertArrayEquals(appliance.getWeeklyLoadVector().getDay(d),
+                              released.getAppliances().get(i)
+                                      .getWeeklyLoadVector().getDay(d),
+                              appliance.toString() + " on day " + d);
+        }
+      }
+    }
+  }
+
+  // households built on several threads get the same seeds, in the same
+  // order, and the same schedules as households built on one
+  @Test
+  public void testConcurrentInitialization ()
+  {
+    try {
+      householdCustomerService.setInitializationThreads(1);
+      initializeService();
+      List<Village> sequential = householdCustomerService.getVillageList();
+      List<RandomSeed> sequentialSeeds = householdSeeds(sequential);
+
+      recycleForInitialization();
+      householdCustomerService.setInitializationThreads(4);
+      initializeService();
+      assertEquals(relativeIds(sequentialSeeds),
+                   relativeIds(householdSeeds(householdCustomerService
+                           .getVillageList())),
+                   "same seed ids");
+
+      // draw from the same seed values to compare the schedules
+      recycleForInitialization();
+      for (RandomSeed seed: sequentialSeeds)
+        randomSeedRepo.restoreRandomSeed(new RandomSeed(seed
+                .getRequesterClass(), seed.getRequesterId(), seed.getPurpose(),
+                                                        seed.getValue()));
+      initializeService();
+      List<Village> concurrent = householdCustomerService.getVillageList();
+      assertEquals(sequential.size(), concurrent.size());
+      for (int v = 0; v < sequential.size(); v++) {
+        for (String type: new String[] { "NS", "SS" }) {
+          for (int day = 0; day < 14; day++) {
+            for (int hour = 0; hour < 24; hour++) {
+              for (String load: new String[] { "getBaseConsumptions",
+                                               "getControllableConsumptions" }) {
+                long expected = ReflectionTestUtils
+                        .invokeMethod(sequential.get(v), load, day, hour, type);
+                long actual = ReflectionTestUtils
+                        .invokeMethod(concurrent.get(v), load, day, hour, type);
+                assertEquals(expected, actual,
+                             load + " " + type + " day " + day + " hour " + hour);
+              }
+            }
+          }
+        }
+      }
+    }
+    finally {
+      householdCustomerService.setInitializationThreads(1);
+    }
+  }
+
+  private void recycleForInitialization ()
+  {
+    customerRepo.recycle();
+    tariffSubscriptionRepo.recycle();
+    randomSeedRepo.recycle();
+  }
+
+  // the seeds of the villages and their households, members and appliances
+  private List<RandomSeed> householdSeeds (List<Village> villages)
+  {
+    List<RandomSeed> result = new ArrayList<RandomSeed>();
+    for (Village village: villages) {
+      result.add((RandomSeed) ReflectionTestUtils.getField(village, "gen"));
+      for (Household house: village.getHouses()) {
+        result.add((RandomSeed) ReflectionTestUtils.getField(house, "gen"));
+        for (Person member: house.getMembers())
+          result.add((RandomSeed) ReflectionTestUtils.getField(member, "gen"));
+        for (Appliance appliance: house.getAppliances())
+          result.add((RandomSeed) ReflectionTestUtils.getField(appliance,
+                                                               "gen"));
+      }
+    }
+    return result;
+  }
+
+  private List<Long> relativeIds (List<RandomSeed> seeds)
+  {
+    List<Long> result = new ArrayList<Long>();
+    for (RandomSeed seed: seeds)
+      result.add(seed.getId() - seeds.get(0).getId());
+    return result;
+  }
+
   @Test
   public void testAfterDaysOfCompetition ()
   {
@@ -26,8 +26,16 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.commons.compress.archivers.ArchiveEntry;
@@ -43,9 +51,12 @@ import org.powertac.common.msg.SimStart;
 import org.powertac.common.repo.DomainRepo;
 import org.powertac.common.spring.SpringApplicationContext;
 import org.powertac.logtool.common.DomainObjectReader;
+import org.powertac.logtool.common.LogLine;
+import org.powertac.logtool.common.MappedLogStream;
 import org.powertac.logtool.common.MissingDomainObject;
 import org.powertac.logtool.common.DomainBuilder;
 import org.powertac.logtool.common.NewObjectListener;
+import org.powertac.logtool.common.StateLogIndex;
 import org.powertac.logtool.ifc.Analyzer;
 import org.powertac.logtool.ifc.ObjectReader;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -68,6 +79,18 @@ import org.springframework.stereotype.Service;
  * processing to specific classes, call <code>includeClassname(String classname)</code> for each
  * class to be processed.
  * 
+ * Large logs can be read with a sharded reader by calling <code>setParseThreads(n)</code>
+ * with n &gt; 1. Lines are then read in batches, and each batch is tokenized and its
+ * classes resolved on a worker thread, while the objects are still created, updated and
+ * delivered to analyzers in log order on the calling thread. In that mode, the analyzers'
+ * <code>report()</code> methods are also run concurrently once the log has been read.
+ * 
+ * An uncompressed state-log file can also be read starting at a given timeslot, by
+ * passing the timeslot to <code>readStateLog()</code> or <code>getObjectReader()</code>.
+ * The first time this is done, the log is indexed and the index is saved next to it
+ * (see StateLogIndex). The part of the log before the timeslot is replayed to re-create
+ * the objects it contains, but analyzers only see objects from the timeslot on.
+ * 
  * @author John Collins
  */
 @Service
@@ -85,6 +108,13 @@ public class LogtoolCore
   private boolean simEnd = false;
   private boolean isInterrupted = false;
 
+  // Number of threads used to parse state-log lines. With the default value of 1,
+  // lines are parsed and applied one at a time on the calling thread.
+  private int parseThreads = 1;
+
+  // Number of lines handed to a parse thread at a time
+  private int parseBatchSize = 2000;
+
   static private CompressorStreamFactory compressFactory = new CompressorStreamFactory();
   static private ArchiveStreamFactory archiveFactory = new ArchiveStreamFactory();
 
@@ -123,6 +153,28 @@ public class LogtoolCore
     getDOR().setTimeslotPause(msec);
   }
 
+  /**
+   * Sets the number of threads used to parse state-log lines. Values greater
+   * than 1 select the sharded reader.
+   */
+  public void setParseThreads (int threads)
+  {
+    parseThreads = Math.max(1, threads);
+  }
+
+  public int getParseThreads ()
+  {
+    return parseThreads;
+  }
+
+  /**
+   * Sets the number of lines parsed as a unit by the sharded reader
+   */
+  public void setParseBatchSize (int lines)
+  {
+    parseBatchSize = Math.max(1, lines);
+  }
+
   /**
    * Adds the given classname to the list of IncludesOnly classes in the DomainObjectReader. If this
    * list is non-empty, then only the specified classes will be included in the state log scan.
@@ -206,6 +258,83 @@ public class LogtoolCore
     return readStateLog(reader, tools);
   }
 
+  /**
+   * Reads the given uncompressed state-log file, starting at the given timeslot.
+   * Objects created before the timeslot are re-created, but are only delivered
+   * to listeners that ask for skipped objects. The analyzers are set up before
+   * the earlier part of the log is replayed, so listeners they register in
+   * setup() see it.
+   */
+  public String readStateLog (String source, int startTimeslot, Analyzer... tools)
+  {
+    getDOR();
+    setupTools(tools);
+    BufferedReader reader = skipToTimeslot(source, startTimeslot);
+    if (null == reader) {
+      return null;
+    }
+    return readLog(reader, tools);
+  }
+
+  /**
+   * Returns the index for a plain state-log file, building it if necessary.
+   */
+  public StateLogIndex getIndex (String source)
+  {
+    File inputFile = new File(source);
+    if (!inputFile.canRead()) {
+      log.error("Cannot read file {}", source);
+      return null;
+    }
+    return StateLogIndex.forLog(inputFile);
+  }
+
+  // Replays the log up to the start of the given timeslot without delivering
+  // objects to analyzers, and returns a reader positioned at the timeslot.
+  private BufferedReader skipToTimeslot (String source, int timeslot)
+  {
+    StateLogIndex index = getIndex(source);
+    if (null == index) {
+      return null;
+    }
+    long offset = index.getOffset(timeslot);
+    if (offset < 0) {
+      log.error("Timeslot {} not found in {}, log covers {} to {}",
+                timeslot, source,
+                index.getFirstTimeslot(), index.getLastTimeslot());
+      return null;
+    }
+    File inputFile = new File(source);
+    try {
+      // the prefix includes the schema
+      BufferedReader prefix =
+          getLogStream(new MappedLogStream(inputFile, 0, offset));
+      if (null == prefix) {
+        return null;
+      }
+      log.info("Skipping to timeslot {} at offset {}", timeslot, offset);
+      DomainObjectReader dor = getDOR();
+      dor.setSkipping(true);
+      simEnd = false;
+      LogReader prefixReader = newLogReader(prefix);
+      try {
+        while (!simEnd && null != prefixReader.getNext()) {
+          // objects are created by the reader
+        }
+      }
+      finally {
+        prefixReader.close();
+        dor.setSkipping(false);
+      }
+      return new BufferedReader(new InputStreamReader(new MappedLogStream(inputFile,
+                                                                          offset, -1)));
+    }
+    catch (IOException ioe) {
+      log.error("Cannot map {}: {}", source, ioe.toString());
+      return null;
+    }
+  }
+
   /**
    * Opens the state log file, uncompressing it and extracting it from an archive as needed.
    * Before returning, the schema (if any) is read and applied to the DomainObjectReader and
@@ -325,14 +454,12 @@ public class LogtoolCore
    */
   public String readStateLog (BufferedReader in, Analyzer... tools)
   {
-    String line = null;
-
-    log.debug("Reading state log from stream for {}",
-             tools[0].getClass().getName());
-    simEnd = false;
-    isInterrupted = false;
+    setupTools(tools);
+    return readLog(in, tools);
+  }
 
-    // Now go read the state-log
+  private void setupTools (Analyzer... tools)
+  {
     for (Analyzer tool: tools) {
       log.info("Setting up {}", tool.getClass().getName());
       try {
@@ -341,8 +468,18 @@ public class LogtoolCore
         log.error("File not found setting up {}", tool.getClass().getName());
       }
     }
+  }
+
+  // Reads the log through to SimEnd, for analyzers that have been set up
+  private String readLog (BufferedReader in, Analyzer... tools)
+  {
+    log.debug("Reading state log from stream for {}",
+             tools[0].getClass().getName());
+    simEnd = false;
+    isInterrupted = false;
 
-    LogReader logReader = new LogReader(in);
+    // Now go read the state-log
+    LogReader logReader = newLogReader(in);
     Object result;
     while (!simEnd) {
       synchronized(this) {
@@ -357,10 +494,9 @@ public class LogtoolCore
         break;
       }
     }
+    logReader.close();
     domainBuilder.report();
-    for (Analyzer tool: tools) {
-      tool.report();
-    }
+    reportAll(tools);
     try {
       in.close();
     }
@@ -370,6 +506,38 @@ public class LogtoolCore
     return null;
   }
 
+  // Runs the analyzer reports, concurrently when the sharded reader is in use.
+  // Analyzers are independent of each other once the log has been read.
+  private void reportAll (Analyzer... tools)
+  {
+    if (parseThreads <= 1 || tools.length < 2) {
+      for (Analyzer tool: tools) {
+        tool.report();
+      }
+      return;
+    }
+    ExecutorService pool =
+        Executors.newFixedThreadPool(Math.min(parseThreads, tools.length));
+    List<Future<?>> reports = new ArrayList<>();
+    for (Analyzer tool: tools) {
+      reports.add(pool.submit(() -> tool.report()));
+    }
+    for (int i = 0; i < tools.length; i++) {
+      try {
+        reports.get(i).get();
+      }
+      catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+      catch (ExecutionException ee) {
+        log.error("Exception in report for {}: {}",
+                  tools[i].getClass().getName(), ee.getCause().toString());
+      }
+    }
+    pool.shutdown();
+  }
+
   public synchronized void interrupt() {
     isInterrupted = true;
   }
@@ -386,9 +554,24 @@ public class LogtoolCore
       log.error("Cannot open log reader at {}", location);
       return null;
     }
-    ObjectReader result = new LogReader(logInput);
+    ObjectReader result = newLogReader(logInput);
     return result;
   }
+
+  /**
+   * Returns an incremental ObjectReader positioned at the start of the given timeslot
+   * in an uncompressed state-log file. Objects from earlier in the log are re-created,
+   * but are not returned by the reader.
+   */
+  public ObjectReader getObjectReader (String location, int startTimeslot)
+  {
+    BufferedReader logInput = skipToTimeslot(location, startTimeslot);
+    if (null == logInput) {
+      log.error("Cannot open log reader at {}, timeslot {}", location, startTimeslot);
+      return null;
+    }
+    return newLogReader(logInput);
+  }
   
   private HashMap<String, String[]> extractSchema (BufferedReader input)
   throws IOException
@@ -488,11 +671,168 @@ public class LogtoolCore
     }
   }
 
+  // Creates the reader selected by the parseThreads setting
+  private LogReader newLogReader (BufferedReader input)
+  {
+    if (parseThreads > 1) {
+      return new ShardedLogReader(input);
+    }
+    return new LogReader(input);
+  }
+
+  /**
+   * Reader that splits the log into batches of lines and parses them on a pool
+   * of worker threads. A feeder thread reads the batches and queues their results
+   * in log order; getNext() takes them from the queue and applies each line
+   * to the DomainObjectReader on the calling thread, so object creation, method
+   * calls and listener dispatch happen exactly as they do in the plain LogReader.
+   */
+  class ShardedLogReader extends LogReader
+  {
+    private final ExecutorService parsers;
+    private final BlockingQueue<Future<Batch>> batches;
+    private final Thread feeder;
+    private Batch current = null;
+    private int index = 0;
+    private boolean eof = false;
+
+    ShardedLogReader (BufferedReader input)
+    {
+      super(input);
+      parsers = Executors.newFixedThreadPool(parseThreads);
+      // enough work in flight to keep all the parsers busy
+      batches = new ArrayBlockingQueue<>(parseThreads * 4);
+      feeder = new Thread(() -> feed(), "logtool-feeder");
+      feeder.setDaemon(true);
+      feeder.start();
+    }
+
+    // Runs on the feeder thread
+    private void feed ()
+    {
+      try {
+        while (true) {
+          String[] lines = readBatch();
+          if (0 == lines.length) {
+            batches.put(CompletableFuture.completedFuture(new Batch(lines, null)));
+            return;
+          }
+          batches.put(parsers.submit(() -> parseBatch(lines)));
+        }
+      }
+      catch (InterruptedException ie) {
+        // reader closed
+      }
+    }
+
+    private String[] readBatch ()
+    {
+      ArrayList<String> lines = new ArrayList<>(parseBatchSize);
+      try {
+        String line;
+        while (lines.size() < parseBatchSize && null != (line = in.readLine())) {
+          lines.add(line);
+        }
+      }
+      catch (IOException ioe) {
+        log.error("Error reading from stream: {}", ioe.toString());
+      }
+      return lines.toArray(new String[lines.size()]);
+    }
+
+    private Batch parseBatch (String[] lines)
+    {
+      LogLine[] parsed = new LogLine[lines.length];
+      DomainObjectReader dor = getDOR();
+      for (int i = 0; i < lines.length; i++) {
+        parsed[i] = dor.parseLine(lines[i]);
+      }
+      return new Batch(lines, parsed);
+    }
+
+    // result is null ONLY on EOF. Otherwise it's either a domain object or a String.
+    @Override
+    Object getNext ()
+    {
+      Object result = null;
+      while (null == result) {
+        if (null == current || index >= current.lines.length) {
+          if (eof || !nextBatch()) {
+            log.debug("Last line " + lineNumber);
+            close();
+            return null;
+          }
+        }
+        int i = index++;
+        lineNumber += 1;
+        LogLine parsed = current.parsed[i];
+        if (null == parsed) {
+          continue;
+        }
+        try {
+          result = getDOR().applyLine(parsed);
+        }
+        catch (MissingDomainObject e) {
+          return "MDO on " + current.lines[i];
+        }
+      }
+      return result;
+    }
+
+    private boolean nextBatch ()
+    {
+      try {
+        current = batches.take().get();
+        index = 0;
+        if (0 == current.lines.length) {
+          eof = true;
+          return false;
+        }
+        return true;
+      }
+      catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+      }
+      catch (ExecutionException ee) {
+        log.error("Exception parsing log: {}", ee.getCause().toString());
+      }
+      eof = true;
+      return false;
+    }
+
+    @Override
+    public void close ()
+    {
+      feeder.interrupt();
+      parsers.shutdownNow();
+      super.close();
+    }
+  }
+
+  // A batch of raw lines and their parse results
+  static class Batch
+  {
+    final String[] lines;
+    final LogLine[] parsed;
+
+    Batch (String[] lines, LogLine[] parsed)
+    {
+      this.lines = lines;
+      this.parsed = parsed;
+    }
+  }
+
   class SimStartHandler implements NewObjectListener
   {
     @Override
     public void handleNewObject (Object thing) {
     }
+
+    @Override
+    public boolean receivesSkippedObjects ()
+    {
+      return true;
+    }
   }
 
   class SimEndHandler implements NewObjectListener
@@ -504,6 +844,12 @@ public class LogtoolCore
       log.info("SimEnd");
       simEnd = true;
     }
+
+    @Override
+    public boolean receivesSkippedObjects ()
+    {
+      return true;
+    }
     
   }
 }
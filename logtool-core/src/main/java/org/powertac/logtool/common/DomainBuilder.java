@@ -86,6 +86,12 @@ public class DomainBuilder implements Analyzer
   // add new brokers to repo
   class BrokerHandler implements NewObjectListener
   {
+    @Override
+    public boolean receivesSkippedObjects ()
+    {
+      return true;
+    }
+
     @Override
     public void handleNewObject (Object thing)
     {
@@ -99,6 +105,12 @@ public class DomainBuilder implements Analyzer
   // add new customers to repo
   class CustomerHandler implements NewObjectListener
   {
+    @Override
+    public boolean receivesSkippedObjects ()
+    {
+      return true;
+    }
+
     @Override
     public void handleNewObject (Object thing)
     {
@@ -111,6 +123,12 @@ public class DomainBuilder implements Analyzer
   // add new tariff specs to repo
   class TariffSpecHandler implements NewObjectListener
   {
+    @Override
+    public boolean receivesSkippedObjects ()
+    {
+      return true;
+    }
+
     @Override
     public void handleNewObject (Object thing)
     {
@@ -131,6 +149,12 @@ public class DomainBuilder implements Analyzer
   // add new Rates to their Tariffs
   class RateHandler implements NewObjectListener
   {
+    @Override
+    public boolean receivesSkippedObjects ()
+    {
+      return true;
+    }
+
     @Override
     public void handleNewObject (Object thing)
     {
@@ -155,6 +179,12 @@ public class DomainBuilder implements Analyzer
   
   class TimeslotHandler implements NewObjectListener
   {
+    @Override
+    public boolean receivesSkippedObjects ()
+    {
+      return true;
+    }
+
 
     @Override
     public void handleNewObject (Object thing)
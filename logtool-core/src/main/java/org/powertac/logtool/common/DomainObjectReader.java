@@ -24,7 +24,6 @@ import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -40,14 +39,12 @@ import org.powertac.common.msg.BalanceReport;
 import org.powertac.common.msg.SimEnd;
 import org.powertac.common.msg.SimStart;
 import org.powertac.common.msg.TimeslotUpdate;
-import org.powertac.common.state.StateLogging;
 import org.powertac.common.xml.PowerTypeConverter;
 import org.powertac.du.DefaultBroker;
 import org.powertac.logtool.LogtoolContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.test.util.ReflectionTestUtils;
-import org.springframework.util.ReflectionUtils;
 
 /**
  * Processor for state log entries; creates domain object instances,
@@ -65,15 +62,19 @@ public class DomainObjectReader
   private TimeService timeService;
   
   HashMap<String, String[]> schema;
-  HashMap<Long, Object> idMap;
+  LongObjectMap<Object> idMap;
   HashMap<Class<?>, Class<?>> ifImplementors;
   HashMap<String, Class<?>> substitutes;
   HashSet<String> ignores;
   HashSet<String> includesOnly;
+  HashSet<String> transientTypes;
   HashSet<Class<?>> noIdTypes;
   //HashSet<Class<?>> argModTypes;
   PowerTypeConverter ptConverter = new PowerTypeConverter();
 
+  // Reflective lookups, done once per class and member
+  ReflectionCache reflection;
+
   // listeners can be the old-style NewObjectListeners, or they can be
   // LogtoolContext instances with handleMessage() methods
   HashMap<Class<?>, ArrayList<NewObjectListener>> newObjectListeners;
@@ -85,6 +86,12 @@ public class DomainObjectReader
   // If false, then don't instantiate objects in the current environment
   private boolean instantiate = true;
 
+  // True while replaying the part of a log that precedes the starting
+  // timeslot. Objects are created and updated, but only listeners that
+  // ask for them are told about new objects, and prefixSkips are ignored.
+  private volatile boolean skipping = false;
+  HashSet<String> prefixSkips;
+
   /**
    * Default constructor
    */
@@ -99,7 +106,8 @@ public class DomainObjectReader
    */
   public void reset ()
   {
-    idMap = new HashMap<Long, Object>();
+    idMap = new LongObjectMap<Object>(1 << 16);
+    reflection = new ReflectionCache();
 
     // Set up the interface defaults
     ifImplementors = new HashMap<>();
@@ -129,6 +137,28 @@ public class DomainObjectReader
     // clear the includesOnly set
     includesOnly = null;
 
+    // by default, all objects are retained
+    transientTypes = new HashSet<>();
+
+    // types that later entries either do not refer to, or only refer to
+    // from other types in this set, and so need not be created while
+    // skipping ahead
+    prefixSkips = new HashSet<>();
+    prefixSkips.add("org.powertac.common.WeatherReport");
+    prefixSkips.add("org.powertac.common.WeatherForecast");
+    prefixSkips.add("org.powertac.common.WeatherForecastPrediction");
+    prefixSkips.add("org.powertac.common.msg.TimeslotUpdate");
+    prefixSkips.add("org.powertac.common.msg.BalanceReport");
+    prefixSkips.add("org.powertac.common.ClearedTrade");
+    prefixSkips.add("org.powertac.common.TariffTransaction");
+    prefixSkips.add("org.powertac.common.MarketTransaction");
+    prefixSkips.add("org.powertac.common.BalancingTransaction");
+    prefixSkips.add("org.powertac.common.DistributionTransaction");
+    prefixSkips.add("org.powertac.common.CapacityTransaction");
+    prefixSkips.add("org.powertac.common.BankTransaction");
+    prefixSkips.add("org.powertac.common.CashPosition");
+    skipping = false;
+
     // set up the no-id list
     noIdTypes = new HashSet<>();
     noIdTypes.add(TimeService.class);
@@ -172,6 +202,65 @@ public class DomainObjectReader
     includesOnly.add(classname);
   }
 
+  /**
+   * Adds classname to the set of transient types. Instances of transient types
+   * are delivered to listeners as usual, but are then dropped from the id map.
+   * This keeps memory use bounded for long games if the analyzers do not need
+   * to look them up. Only types that no later log entry refers to by id
+   * should be registered; such a reference cannot be resolved once the
+   * instance is released.
+   */
+  public void addTransientType (String classname)
+  {
+    transientTypes.add(classname);
+  }
+
+  /**
+   * Marks the high-volume message and transaction types as transient.
+   * No other log entry refers to instances of these types; later method
+   * calls on the instances themselves are skipped. WeatherForecastPrediction
+   * is not among them, because each WeatherForecast lists its predictions
+   * by id.
+   */
+  public void useTransientDefaults ()
+  {
+    addTransientType("org.powertac.common.TariffTransaction");
+    addTransientType("org.powertac.common.MarketTransaction");
+    addTransientType("org.powertac.common.BalancingTransaction");
+    addTransientType("org.powertac.common.DistributionTransaction");
+    addTransientType("org.powertac.common.CapacityTransaction");
+    addTransientType("org.powertac.common.BankTransaction");
+    addTransientType("org.powertac.common.CashPosition");
+    addTransientType("org.powertac.common.ClearedTrade");
+    addTransientType("org.powertac.common.WeatherReport");
+    addTransientType("org.powertac.common.msg.TimeslotUpdate");
+    addTransientType("org.powertac.common.msg.BalanceReport");
+  }
+
+  /**
+   * Adds classname to the set of classes that are not processed while
+   * skipping ahead to a starting timeslot.
+   */
+  public void addPrefixSkip (String classname)
+  {
+    prefixSkips.add(classname);
+  }
+
+  /**
+   * Sets the skipping flag. While it is set, objects are created and updated
+   * as usual, but listeners are only called if they ask for skipped objects,
+   * and classes in the prefix-skip set are ignored.
+   */
+  public void setSkipping (boolean flag)
+  {
+    skipping = flag;
+  }
+
+  public boolean isSkipping ()
+  {
+    return skipping;
+  }
+
   /**
    * Sets the instantiation flag. If true, then objects read from the log are instantiated in the
    * current running environment. This is the normal case for re-running games.
@@ -222,6 +311,7 @@ public class DomainObjectReader
   public void setSchema (HashMap<String, String[]> schema)
   {
     this.schema = schema;
+    reflection.clearRestoreInfo();
   }
 
   /**
@@ -239,12 +329,33 @@ public class DomainObjectReader
   public Object readObject (String line)
   throws MissingDomainObject
   // It's not clear that this DOES through MissingDomainObject
+  {
+    LogLine parsed = parseLine(line);
+    if (null == parsed)
+      return null;
+    return applyLine(parsed);
+  }
+
+  /**
+   * Parse stage of readObject(). Tokenizes the line and resolves its class,
+   * id and method name. Returns null if the line is to be ignored or cannot
+   * be parsed. This method does not touch the objects created so far,
+   * so it is safe to call from multiple threads as long as the filtering
+   * criteria are not being changed at the same time.
+   */
+  public LogLine parseLine (String line)
   {
     log.debug("readObject(" + line + ")");
-    String body = line.substring(line.indexOf(':') + 1);
-    String[] tokens = body.split("::");
-    Class<?> clazz;
-    String classname = StateLogging.unabbreviate(tokens[0]);
+    LineTokens tokens = LineTokens.split(line, line.indexOf(':') + 1, "::");
+    if (tokens.size() < 3) {
+      log.debug("Short line " + line);
+      return null;
+    }
+    String classToken = tokens.get(0);
+    ReflectionCache.ResolvedClass resolved =
+        reflection.resolveClass(classToken, substitutes);
+    String classname = resolved.classname;
+    Class<?> clazz = resolved.clazz;
     if (ignores.contains(classname)) {
       log.debug("ignoring " + classname);
       return null;
@@ -253,30 +364,23 @@ public class DomainObjectReader
       log.debug("not including " + classname);
       return null;
     }
-    try {
-      clazz = Class.forName(classname);
+    else if (skipping && prefixSkips.contains(classname)) {
+      return null;
     }
-    catch (ClassNotFoundException e) {
-      Class<?> subst = substitutes.get(classname);
-      if (null == subst) {
-        log.warn("class " + classname + " not found");
-        return null;
-      }
-      else {
-        clazz = subst;
-        //log.info("substituting " + clazz.getName() + " for " + classname);
-      }
+    if (null == clazz) {
+      log.warn("class " + classname + " not found");
+      return null;
     }
 
     long id = -1;
+    boolean timeUpdate = false;
     try {
-      id = Long.parseLong(tokens[1]);
+      id = tokens.parseLong(1);
     }
     catch (NumberFormatException nfe) {
       if (clazz == TimeService.class) {
         // normal case - timeService does not have an id
-        updateTime(tokens[3]);
-        return null;
+        timeUpdate = true;
       }
       else if (noIdTypes.contains(clazz)) {
         id = 0;
@@ -286,13 +390,42 @@ public class DomainObjectReader
         return null;
       }
     }
-    String methodName = tokens[2];
+    return new LogLine(line, classToken, clazz, id, methodName(tokens),
+                       tokens.tail(3), timeUpdate);
+  }
+
+  // Avoids creating Strings for the most common method names
+  private String methodName (LineTokens tokens)
+  {
+    if (tokens.matches(2, "new"))
+      return "new";
+    if (tokens.matches(2, "-rr"))
+      return "-rr";
+    return tokens.get(2);
+  }
+
+  /**
+   * Apply stage of readObject(). Creates or updates the object described
+   * by a line that has been through parseLine(), and notifies listeners of
+   * new objects. Lines must be applied in the order they appear in the log.
+   */
+  public Object applyLine (LogLine parsed)
+  throws MissingDomainObject
+  {
+    Class<?> clazz = parsed.clazz;
+    long id = parsed.id;
+    if (parsed.timeUpdate) {
+      updateTime(parsed.args.get(0));
+      return null;
+    }
+    String methodName = parsed.methodName;
     log.debug("methodName=" + methodName);
     //hack to fix Issue #1106
     if (methodName.equals("new")
             || (clazz == RandomSeed.class && methodName.equals("init"))) {
       // maybe pause before handling TimeslotUpdate msg
-      if (instantiate && clazz == TimeslotUpdate.class && timeslotPause > 0) {
+      if (instantiate && !skipping
+          && clazz == TimeslotUpdate.class && timeslotPause > 0) {
         try {
           Thread.sleep(timeslotPause);
         }
@@ -301,29 +434,27 @@ public class DomainObjectReader
         }
       }
       // constructor
-      Object newInst =
-              constructInstance(clazz, Arrays.copyOfRange(tokens, 3,
-                                                          tokens.length));
+      Object newInst = constructInstance(clazz, parsed.args);
       if (null != newInst) {
         if (!noIdTypes.contains(clazz)) {
           setId(newInst, id);
           idMap.put(id, newInst);
         }
-        log.info("Created new instance " + id + " of class " + tokens[0]);
+        log.info("Created new instance " + id + " of class " + parsed.classToken);
         fireNewObjectEvent(newInst);
+        release(clazz, id);
       }
       return newInst;
     }
     else if (methodName.equals("-rr")) {
       // readResolve
-      Object newInst =
-              restoreInstance(clazz, Arrays.copyOfRange(tokens, 3,
-                                                        tokens.length));
+      Object newInst = restoreInstance(clazz, parsed.args);
       if (null != newInst) {
         setId(newInst, id);
         idMap.put(id, newInst);
-        log.debug("Restored instance " + id + " of class " + tokens[0]);
+        log.debug("Restored instance " + id + " of class " + parsed.classToken);
         fireNewObjectEvent(newInst);
+        release(clazz, id);
       }
       return newInst;      
     }
@@ -332,40 +463,42 @@ public class DomainObjectReader
       // other method calls -- object should already exist
       Object inst = idMap.get(id);
       if (null == inst) {
-        log.warn("Cannot find instance for id " + id
-                 + " of type " + clazz.getCanonicalName());
-        return null;
-      }
-      Method[] methods = clazz.getMethods();
-      ArrayList<Method> candidates = new ArrayList<>();
-      for (Method method : methods) {
-        if (method.getName().equals(methodName)) {
-          candidates.add(method);
+        if (transientTypes.contains(clazz.getName())) {
+          // normal result of dropping transient instances
+          log.debug("Instance {} of transient type {} already released",
+                    id, clazz.getName());
+        }
+        else {
+          log.warn("Cannot find instance for id " + id
+                   + " of type " + clazz.getCanonicalName());
         }
+        return null;
       }
+      ReflectionCache.Invocation[] candidates =
+          reflection.getMethods(clazz, methodName, parsed.args.size());
       // We now have a list of candidate methods.
-      if (0 == candidates.size()) {
+      if (0 == candidates.length) {
         log.error("Cannot find method " + methodName
+                  + " with " + parsed.args.size() + " args"
                   + " for class " + clazz.getName());
         return null;
       }
-      if (1 == candidates.size()) {
+      if (1 == candidates.length) {
         // there's one candidate, probably it is the correct one
-        if (!tryMethodCall(inst, candidates.get(0),
-                           Arrays.copyOfRange(tokens, 3, tokens.length))) {
+        if (!tryMethodCall(inst, candidates[0], parsed.args)) {
           log.error("Failed to invoke method " + methodName
                     + " on instance of " + clazz.getName());
         }
         else {
-          log.info("Success calling {}.{}, id {}", classname, methodName, id);
+          log.info("Success calling {}.{}, id {}",
+                   clazz.getName(), methodName, id);
         }
       }
       else {
         // multiple candidates -- try them until we get success
         boolean success = false;
-        for (Method candidate : candidates) {
-          success = tryMethodCall(inst, candidate,
-                                  Arrays.copyOfRange(tokens, 3, tokens.length));
+        for (ReflectionCache.Invocation candidate : candidates) {
+          success = tryMethodCall(inst, candidate, parsed.args);
           if (success)
             break;
         }
@@ -382,6 +515,23 @@ public class DomainObjectReader
   {
     return idMap.get(id);
   }
+
+  /**
+   * Returns the number of objects currently held in the id map
+   */
+  public int getObjectCount ()
+  {
+    return idMap.size();
+  }
+
+  // drops a newly-dispatched instance of a transient type from the id map
+  private void release (Class<?> clazz, long id)
+  {
+    if (!transientTypes.isEmpty() && !noIdTypes.contains(clazz)
+        && transientTypes.contains(clazz.getName())) {
+      idMap.remove(id);
+    }
+  }
   
   private void updateTime (String time)
   {
@@ -395,7 +545,8 @@ public class DomainObjectReader
   private void fireNewObjectEvent (Object thing)
   {
     dispatchNewObjectListeners(thing);
-    dispatchMessageListeners(thing);
+    if (!skipping)
+      dispatchMessageListeners(thing);
   }
 
   private void dispatchNewObjectListeners(Object thing)
@@ -407,14 +558,16 @@ public class DomainObjectReader
       listeners = newObjectListeners.get(thing.getClass().getSuperclass());
     if (null != listeners) {
       for (NewObjectListener li : listeners) {
-        li.handleNewObject(thing);
+        if (!skipping || li.receivesSkippedObjects())
+          li.handleNewObject(thing);
       }
     }
     // check for promiscuous listener
     listeners = newObjectListeners.get(null);
     if (null != listeners) {
       for (NewObjectListener li : listeners) {
-        li.handleNewObject(thing);
+        if (!skipping || li.receivesSkippedObjects())
+          li.handleNewObject(thing);
       }
     }
   }
@@ -431,27 +584,24 @@ public class DomainObjectReader
   }
 
   // This does not appear to throw MissingDomainObject
-  private Object constructInstance (Class<?> clazz, String[] args)
+  private Object constructInstance (Class<?> clazz, LineTokens args)
           throws MissingDomainObject
   {
     //if (clazz.getName().equals("org.powertac.common.Order"))
     //  System.out.println("Order");
     //else if (clazz.getName().equals("org.powertac.common.TariffSpecification"))
     //  System.out.println("TariffSpecification");
-    Constructor<?>[] potentials = clazz.getDeclaredConstructors();
+    // candidates all have the correct length of parameter list
+    ReflectionCache.Invocation[] potentials =
+        reflection.getConstructors(clazz, args.size());
     Constructor<?> target = null;
     Object[] params = null;
-    for (Constructor<?> cons : potentials) {
-      Type[] types = cons.getGenericParameterTypes();
-      if (types.length != args.length)
-        // not this one
-        continue;
-      // correct length of parameter list -
+    for (ReflectionCache.Invocation cons : potentials) {
       // now try to resolve the types.
       // If we get a MissingDomainObject exception, keep going.
       
       try {
-        params = resolveArgs(types, args);
+        params = resolveArgs(cons.types, args);
       }
       catch (MissingDomainObject mdo) {
         // ignore
@@ -460,7 +610,7 @@ public class DomainObjectReader
         // no match
         continue;
       else {
-        target = cons;
+        target = cons.getConstructor();
         break;
       }
     }
@@ -468,7 +618,6 @@ public class DomainObjectReader
     if (null != target) {
       Object result = null;
       try {
-        target.setAccessible(true);
         result = target.newInstance(params);
       }
       catch (InvocationTargetException ite) {
@@ -490,29 +639,32 @@ public class DomainObjectReader
 
   // restores an instance from a readResolve record.
   // Fields are given in the @Domain annotation.
-  private Object restoreInstance (Class<?> clazz, String[] args)
+  private Object restoreInstance (Class<?> clazz, LineTokens args)
           throws MissingDomainObject
   {
+    ReflectionCache.RestoreInfo info =
+        reflection.getRestoreInfo(clazz, schema.get(clazz.getName()));
+
     // 1056 - modify args if needed
-    //Class<?>[] params = {String[].class};
-    try {
-      Method mod = clazz.getDeclaredMethod("modifyLogArgs", String[].class);
-      mod.invoke(null, (Object) args);
-    } catch (NoSuchMethodException nsm) {
-      // class lacks the method, nothing to do here
-    } catch (Exception ex) {
-      log.error("Exception {} modifying log args ({}) for {}",
-                ex.toString(), args, clazz.getCanonicalName());
+    if (null != info.argModifier) {
+      try {
+        String[] modifiable = args.toArray();
+        info.argModifier.invoke(null, (Object) modifiable);
+        args = LineTokens.of(modifiable);
+      } catch (Exception ex) {
+        log.error("Exception {} modifying log args ({}) for {}",
+                  ex.toString(), args, clazz.getCanonicalName());
+      }
     }
 
-    String[] fieldNames = schema.get(clazz.getName());
+    String[] fieldNames = info.fieldNames;
     if (null != fieldNames) {
       // only do this for @Domain classes that are in the recorded schema
       Object thing = null;
       try {
-        Constructor<?> cons = clazz.getDeclaredConstructor();
-        cons.setAccessible(true);
-        thing = cons.newInstance();
+        if (null == info.defaultConstructor)
+          throw new NoSuchMethodException(clazz.getName() + ".<init>()");
+        thing = info.defaultConstructor.newInstance();
       }
       catch (Exception e) {
         log.warn("No default constructor for " + clazz.getName()
@@ -520,21 +672,15 @@ public class DomainObjectReader
         return null;
       }
       // #1016 -- String[] fieldNames = domain.fields();
-      Field[] fields = new Field[fieldNames.length];
-      Class<?>[] types = new Class<?>[fieldNames.length];
+      Field[] fields = info.fields;
+      Class<?>[] types = info.types;
       for (int i = 0; i < fieldNames.length; i++) {
-        fields[i] = ReflectionUtils.findField(clazz,
-                                              resolveDoubleCaps(fieldNames[i]));
         if (null == fields[i]) {
           log.warn("No field in " + clazz.getName()
                    + " named " + fieldNames[i]);
-          types[i] = null;
-        }
-        else {
-          types[i] = fields[i].getType();
         }
       }
-      if (types.length != args.length)
+      if (types.length != args.size())
         log.error("RR arg mismatch class {}, {} fields, args {}",
                   clazz.getName(), fields.length, args);
       Object[] data = resolveArgs(types, args);
@@ -546,7 +692,6 @@ public class DomainObjectReader
         for (int i = 0; i < fields.length; i++) {
           if (null == fields[i])
             continue;
-          fields[i].setAccessible(true);
           try {
             fields[i].set(thing, data[i]);
           }
@@ -560,24 +705,15 @@ public class DomainObjectReader
     }
     return null;
   }
-  
-  private String resolveDoubleCaps (String name)
-  {
-    // lowercase first char of field name with two initial caps
-    if (Character.isUpperCase(name.charAt(0)) &&
-            Character.isUpperCase(name.charAt(1))) {
-      char[] chars = name.toCharArray();
-      chars[0] = Character.toLowerCase(chars[0]);
-      return (String.valueOf(chars));
-    }
-    return name;
-  }
 
   // attempts to call a method by reconstructing its args and invoking it
-  private boolean tryMethodCall (Object thing, Method method, String[] args)
+  private boolean tryMethodCall (Object thing,
+                                 ReflectionCache.Invocation candidate,
+                                 LineTokens args)
   {
-    Type[] argTypes = method.getGenericParameterTypes();
-    if (argTypes.length != args.length)
+    Method method = candidate.getMethod();
+    Type[] argTypes = candidate.types;
+    if (argTypes.length != args.size())
       // bail if arglist lengths do not match
       return false;
     Object[] realArgs;
@@ -588,10 +724,10 @@ public class DomainObjectReader
     else {
       try {
         realArgs = resolveArgs(argTypes, args);
-        if (null == realArgs || realArgs.length != args.length) {
+        if (null == realArgs || realArgs.length != args.size()) {
           log.debug("Could not resolve args: method " + method.getName()
                     + ", class = " + thing.getClass().getName()
-                    + ", args = " + Arrays.toString(args));
+                    + ", args = " + args);
           return false;
         }
       }
@@ -624,20 +760,20 @@ public class DomainObjectReader
   // attempts to match a set of types with a set of String arguments
   // from the logfile. They match if the strings can be resolved to
   // the corresponding types. 
-  private Object[] resolveArgs (Type[] types, String[] args)
+  private Object[] resolveArgs (Type[] types, LineTokens args)
           throws MissingDomainObject
   {
     // for each type, we attempt to resolve the corresponding arg
     // as an instance of that type.
     Object[] result = new Object[types.length];
-    for (int i = 0; i < args.length; i++) {
-      result[i] = resolveArg(types[i], args[i]);
+    for (int i = 0; i < args.size(); i++) {
+      result[i] = resolveArg(types[i], args, i);
     }
     return result;
   }
   
   @SuppressWarnings({ "unchecked", "rawtypes" })
-  private Object resolveArg (Type type, String arg)
+  private Object resolveArg (Type type, LineTokens args, int index)
   throws MissingDomainObject
   {
     // type can be null in a few cases - nothing to be done about it?
@@ -648,14 +784,14 @@ public class DomainObjectReader
     // check for non-parameterized types
     if (type instanceof Class<?> clazz) {
       if (clazz.isEnum()) {
-        return Enum.valueOf((Class<Enum>)type, arg);
+        return Enum.valueOf((Class<Enum>)type, args.get(index));
       }
       else if (PowerType.class == clazz) {
         //System.out.println("Class: " + clazz.getCanonicalName());
-        return ptConverter.fromString(arg);
+        return ptConverter.fromString(args.get(index));
       }
       else {
-        return resolveSimpleArg(clazz, arg);
+        return resolveSimpleArg(clazz, args, index);
       }
     }
 
@@ -677,8 +813,9 @@ public class DomainObjectReader
       if (isCollection) {
         // expect arg to start with "("
         log.debug("processing collection " + clazz.getName());
-        if (arg.charAt(0) != '(') {
-          log.error("Collection arg " + arg + " does not start with paren");
+        if (!args.startsWith(index, '(')) {
+          log.error("Collection arg " + args.get(index)
+                    + " does not start with paren");
           return null;
         }
         // extract element type and resolve recursively
@@ -697,11 +834,15 @@ public class DomainObjectReader
             log.error("Exception creating collection: " + e.toString());
             return null;
           }
-          // at this point, we can split the string and resolve recursively
-          String body = arg.substring(1, arg.indexOf(')'));
-          String[] items = body.split(",");
-          for (String item : items) {
-            coll.add(resolveSimpleArg(argClazz, item));
+          // at this point, we can split the arg and resolve recursively
+          LineTokens items = args.items(index);
+          if (null == items) {
+            log.error("Collection arg " + args.get(index)
+                      + " does not end with paren");
+            return null;
+          }
+          for (int i = 0; i < items.size(); i++) {
+            coll.add(resolveSimpleArg(argClazz, items, i));
           }
           return coll;
         }
@@ -710,42 +851,33 @@ public class DomainObjectReader
 
     // if we get here, no resolution
     log.error("unresolved arg: type = " + type
-              + ", arg = " + arg);
+              + ", arg = " + args.get(index));
     return null;
   }
 
-  private Object resolveSimpleArg (Class<?> clazz, String arg)
+  // Resolves token index of args as an instance of clazz. Numeric and
+  // boolean values are parsed in place, without creating a String.
+  private Object resolveSimpleArg (Class<?> clazz, LineTokens args, int index)
   throws MissingDomainObject
   {
     // handle the simplest case first
-    if (arg.equals("null"))
+    if (args.matches(index, "null"))
       return null;
     
-    if (clazz.getName().startsWith("org.powertac")) {
-      Method getId;
+    if (reflection.isDomainType(clazz)) {
       try {
-        getId = clazz.getMethod("getId");
-        if (getId.getReturnType() == long.class) {
-          // this is a domain type; it may or may not be in the map
-          Long key = Long.parseLong(arg);
-          Object value = idMap.get(key);
-          if (null != value && clazz.isAssignableFrom(value.getClass())) {
-            return value;
-          }
-          else {
-            // it's a domain object, but we cannot resolve it
-            // -- this can be an error, or a symptom of using the wrong
-            //    constructor or method.
-            throw new MissingDomainObject("missing object id=" + key);
-          }
+        // this is a domain type; it may or may not be in the map
+        Long key = args.parseLong(index);
+        Object value = idMap.get(key);
+        if (null != value && clazz.isAssignableFrom(value.getClass())) {
+          return value;
+        }
+        else {
+          // it's a domain object, but we cannot resolve it
+          // -- this can be an error, or a symptom of using the wrong
+          //    constructor or method.
+          throw new MissingDomainObject("missing object id=" + key);
         }
-      }
-      catch (SecurityException e) {
-        log.error("Exception on getId(): " + e.toString());
-        return null;
-      }
-      catch (NoSuchMethodException e) {
-        // normal result of no getId() method
       }
       catch (NumberFormatException e) {
         // normal result of non-integer id value
@@ -753,21 +885,14 @@ public class DomainObjectReader
     }
     
     // arg is not an id value - check if it's supposed to be a primitive
-    if (clazz.getName().equals("boolean")) {
-      boolean value = Boolean.parseBoolean(arg);
-      if (value) {
-        return true; // resolved as boolean
-      }
-      else if (arg.equalsIgnoreCase("false")) {
-        return false; // resolved as boolean
-      }
-      else
-        return null; // does not resolve
+    if (clazz == boolean.class) {
+      // null if it does not resolve as boolean
+      return args.parseBoolean(index);
     }
     
-    if (clazz.getName().equals("long")) {
+    if (clazz == long.class) {
       try {
-        long value = Long.parseLong(arg);
+        long value = args.parseLong(index);
         return value;
       }
       catch (NumberFormatException nfe) {
@@ -776,9 +901,9 @@ public class DomainObjectReader
       }
     }
     
-    if (clazz.getName().equals("int")) {
+    if (clazz == int.class) {
       try {
-        int value = Integer.parseInt(arg);
+        int value = args.parseInt(index);
         return value;
       }
       catch (NumberFormatException nfe) {
@@ -787,9 +912,9 @@ public class DomainObjectReader
       }        
     }
     
-    if (clazz.getName().equals("double") || clazz == Double.class) {
+    if (clazz == double.class || clazz == Double.class) {
       try {
-        double value = Double.parseDouble(arg);
+        double value = args.parseDouble(index);
         return value;
       }
       catch (NumberFormatException nfe) {
@@ -798,10 +923,9 @@ public class DomainObjectReader
       }        
     }
     
-    if (clazz.getName() == "java.lang.Double") {
-      
-    }
-    
+    // everything else needs the arg as a String
+    String arg = args.get(index);
+
     // check for time value
     if (clazz.getName() == "org.joda.time.Instant") {
       try {
@@ -828,38 +952,32 @@ public class DomainObjectReader
     }
     
     // check for type with String constructor
+    Constructor<?> cons = reflection.getStringConstructor(clazz);
+    if (null == cons) {
+      // no type matched
+      return null;
+    }
     try {
-      Constructor<?> cons = clazz.getConstructor(String.class);
       return cons.newInstance(arg);
     }
-    catch (NoSuchMethodException e) {
-      // normal result of failure - fall through and try something else
-    }
     catch (Exception e) {
       log.error("Exception looking up constructor for "
                 + clazz.getName() + ": " + e.toString());
       return null;
     }
-    // no type matched
-    return null;
   }
   
   // Sets the id field of a newly-constructed thing
   private void setId (Object thing, Long id)
   {
-    Class<?> clazz = thing.getClass();
-    Method setId;
-    try {
-      setId = clazz.getMethod("setId", long.class);
-      setId.setAccessible(true);
-      setId.invoke(thing, (long)id);
-    }
-    catch (SecurityException e) {
-      log.error("Exception on setId(): " + e.toString());
-    }
-    catch (NoSuchMethodException e) {
+    Method setId = reflection.getIdSetter(thing.getClass());
+    if (null == setId) {
       // normal result of no setId() method
       ReflectionTestUtils.setField(thing, "id", id);
+      return;
+    }
+    try {
+      setId.invoke(thing, (long)id);
     }
     catch (Exception e) {
       log.error("Error setting id value " + e.toString());
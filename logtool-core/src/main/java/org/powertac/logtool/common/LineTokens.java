@@ -0,0 +1,336 @@
+/*
+ * Copyright (c) 2026 by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.powertac.logtool.common;
+
+import java.util.Arrays;
+
+/**
+ * Tokens of a state-log line, held as offsets into the line rather than as
+ * separate Strings. Numeric and boolean tokens are parsed in place; a String is
+ * only created when a token is asked for with get(), for example to look up an
+ * enum value or to call a String constructor. State logs are mostly numbers,
+ * so most tokens never become Strings.
+ *
+ * Splitting follows the rules of <code>String.split()</code>, including dropping
+ * trailing empty tokens, so the token counts (and therefore the arities used
+ * to match methods and constructors) are the same as they were with split().
+ *
+ * @author agent
+ */
+public class LineTokens
+{
+  // exact powers of ten, for the fast path in parseDouble()
+  private static final double[] POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+      1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+  // largest long mantissa that converts exactly to a double
+  private static final long MAX_EXACT = 1L << 53;
+
+  // Either text and bounds are set, or strings is set
+  private final String text;
+  private final int[] bounds;
+  private final int first;
+  private final int count;
+  private String[] strings;
+
+  private LineTokens (String text, int[] bounds, int first, int count)
+  {
+    super();
+    this.text = text;
+    this.bounds = bounds;
+    this.first = first;
+    this.count = count;
+  }
+
+  private LineTokens (String[] strings)
+  {
+    super();
+    this.text = null;
+    this.bounds = null;
+    this.first = 0;
+    this.count = strings.length;
+    this.strings = strings;
+  }
+
+  /**
+   * Splits text, starting at position from and ending at position to, on
+   * the given separator.
+   */
+  public static LineTokens split (String text, int from, int to, String separator)
+  {
+    int[] bounds = new int[16];
+    int n = 0;
+    int start = from;
+    while (true) {
+      int end = text.indexOf(separator, start);
+      if (end < 0 || end > to - separator.length()) {
+        end = to;
+      }
+      if (n * 2 + 2 > bounds.length) {
+        bounds = Arrays.copyOf(bounds, bounds.length * 2);
+      }
+      bounds[n * 2] = start;
+      bounds[n * 2 + 1] = end;
+      n += 1;
+      if (end == to) {
+        break;
+      }
+      start = end + separator.length();
+    }
+    // like String.split(), drop trailing empty tokens unless there is
+    // only one token
+    if (n > 1) {
+      while (n > 0 && bounds[n * 2 - 2] == bounds[n * 2 - 1]) {
+        n -= 1;
+      }
+    }
+    return new LineTokens(text, bounds, 0, n);
+  }
+
+  /**
+   * Splits text from position from to the end on the given separator.
+   */
+  public static LineTokens split (String text, int from, String separator)
+  {
+    return split(text, from, text.length(), separator);
+  }
+
+  /**
+   * Wraps an array of tokens that are already Strings
+   */
+  public static LineTokens of (String[] strings)
+  {
+    return new LineTokens(strings);
+  }
+
+  /**
+   * Number of tokens
+   */
+  public int size ()
+  {
+    return count;
+  }
+
+  /**
+   * Returns the tokens from index start to the end, without copying
+   */
+  public LineTokens tail (int start)
+  {
+    if (null != strings) {
+      return new LineTokens(Arrays.copyOfRange(strings, start, count));
+    }
+    return new LineTokens(text, bounds, first + start,
+                          Math.max(0, count - start));
+  }
+
+  /**
+   * Returns token i as a String
+   */
+  public String get (int i)
+  {
+    if (null != strings) {
+      return strings[i];
+    }
+    return text.substring(begin(i), end(i));
+  }
+
+  /**
+   * Returns all the tokens as a new array of Strings
+   */
+  public String[] toArray ()
+  {
+    String[] result = new String[count];
+    for (int i = 0; i < count; i++) {
+      result[i] = get(i);
+    }
+    return result;
+  }
+
+  /**
+   * True if token i is exactly the given value
+   */
+  public boolean matches (int i, String value)
+  {
+    return length(i) == value.length()
+        && source(i).regionMatches(begin(i), value, 0, value.length());
+  }
+
+  /**
+   * True if token i starts with the given character
+   */
+  public boolean startsWith (int i, char c)
+  {
+    return length(i) > 0 && source(i).charAt(begin(i)) == c;
+  }
+
+  /**
+   * Returns the comma-separated items of a collection token of the form
+   * <code>(a,b,c)</code>. Returns null if the token has no closing paren.
+   */
+  public LineTokens items (int i)
+  {
+    String src = source(i);
+    int close = src.indexOf(')', begin(i));
+    if (close < 0 || close >= end(i)) {
+      return null;
+    }
+    return split(src, begin(i) + 1, close, ",");
+  }
+
+  /**
+   * Parses token i as a long, without creating a String.
+   * @throws NumberFormatException if the token is not a long
+   */
+  public long parseLong (int i)
+  {
+    return Long.parseLong(source(i), begin(i), end(i), 10);
+  }
+
+  /**
+   * Parses token i as an int, without creating a String.
+   * @throws NumberFormatException if the token is not an int
+   */
+  public int parseInt (int i)
+  {
+    return Integer.parseInt(source(i), begin(i), end(i), 10);
+  }
+
+  /**
+   * Returns Boolean.TRUE or Boolean.FALSE if token i is (ignoring case)
+   * "true" or "false", otherwise null.
+   */
+  public Boolean parseBoolean (int i)
+  {
+    String src = source(i);
+    if (length(i) == 4 && src.regionMatches(true, begin(i), "true", 0, 4))
+      return Boolean.TRUE;
+    if (length(i) == 5 && src.regionMatches(true, begin(i), "false", 0, 5))
+      return Boolean.FALSE;
+    return null;
+  }
+
+  /**
+   * Parses token i as a double. Plain decimals with up to 15 significant
+   * digits and a small exponent, which make up most of a state log, are
+   * converted in place; they are exact because both the digits and the
+   * power of ten are exactly representable. Anything else goes through
+   * Double.parseDouble().
+   * @throws NumberFormatException if the token is not a double
+   */
+  public double parseDouble (int i)
+  {
+    String src = source(i);
+    int pos = begin(i);
+    int end = end(i);
+    boolean negative = false;
+    if (pos < end && (src.charAt(pos) == '-' || src.charAt(pos) == '+')) {
+      negative = src.charAt(pos) == '-';
+      pos += 1;
+    }
+    long mantissa = 0;
+    int digits = 0;
+    int scale = 0;
+    boolean seenDigit = false;
+    boolean seenPoint = false;
+    int exponent = 0;
+    for (; pos < end; pos++) {
+      char c = src.charAt(pos);
+      if (c >= '0' && c <= '9') {
+        seenDigit = true;
+        if (mantissa == 0 && c == '0') {
+          // leading zeros are not significant
+          if (seenPoint)
+            scale += 1;
+          continue;
+        }
+        if (++digits > 15)
+          return Double.parseDouble(get(i));
+        mantissa = mantissa * 10 + (c - '0');
+        if (seenPoint)
+          scale += 1;
+      }
+      else if (c == '.' && !seenPoint) {
+        seenPoint = true;
+      }
+      else if ((c == 'E' || c == 'e') && seenDigit) {
+        try {
+          exponent = Integer.parseInt(src, pos + 1, end, 10);
+        }
+        catch (NumberFormatException nfe) {
+          return Double.parseDouble(get(i));
+        }
+        pos = end;
+        break;
+      }
+      else {
+        // NaN, Infinity, hex, type suffixes and garbage
+        return Double.parseDouble(get(i));
+      }
+    }
+    if (!seenDigit) {
+      return Double.parseDouble(get(i));
+    }
+    int power = exponent - scale;
+    double value;
+    if (mantissa == 0) {
+      value = 0.0;
+    }
+    else if (mantissa >= MAX_EXACT || power < -22 || power > 22) {
+      return Double.parseDouble(get(i));
+    }
+    else if (power < 0) {
+      value = (double) mantissa / POWERS_OF_TEN[-power];
+    }
+    else {
+      value = (double) mantissa * POWERS_OF_TEN[power];
+    }
+    return negative ? -value : value;
+  }
+
+  @Override
+  public String toString ()
+  {
+    return Arrays.toString(toArray());
+  }
+
+  // -------- token bounds ---------
+  private String source (int i)
+  {
+    if (null != strings)
+      return strings[i];
+    return text;
+  }
+
+  private int begin (int i)
+  {
+    if (null != strings)
+      return 0;
+    return bounds[(first + i) * 2];
+  }
+
+  private int end (int i)
+  {
+    if (null != strings)
+      return strings[i].length();
+    return bounds[(first + i) * 2 + 1];
+  }
+
+  private int length (int i)
+  {
+    return end(i) - begin(i);
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2026 by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.powertac.logtool.common;
+
+/**
+ * A state-log line that has been through the parse stage of the
+ * DomainObjectReader. The line has been tokenized and its class, id and
+ * method name have been resolved. None of this depends on the objects
+ * already created by the reader, so parsing can be done ahead of time and
+ * on any thread. Applying the line with
+ * <code>DomainObjectReader.applyLine()</code> must still be done in log order.
+ *
+ * @author agent
+ */
+public class LogLine
+{
+  final String line;
+  final String classToken;
+  final Class<?> clazz;
+  final long id;
+  final String methodName;
+  final LineTokens args;
+
+  // true for TimeService lines, which carry no id
+  final boolean timeUpdate;
+
+  LogLine (String line, String classToken, Class<?> clazz, long id,
+           String methodName, LineTokens args, boolean timeUpdate)
+  {
+    super();
+    this.line = line;
+    this.classToken = classToken;
+    this.clazz = clazz;
+    this.id = id;
+    this.methodName = methodName;
+    this.args = args;
+    this.timeUpdate = timeUpdate;
+  }
+
+  /**
+   * Returns the original text of the line
+   */
+  public String getLine ()
+  {
+    return line;
+  }
+
+  /**
+   * Returns the resolved class of the object this line creates or updates
+   */
+  public Class<?> getClazz ()
+  {
+    return clazz;
+  }
+
+  public long getId ()
+  {
+    return id;
+  }
+
+  public String getMethodName ()
+  {
+    return methodName;
+  }
+}
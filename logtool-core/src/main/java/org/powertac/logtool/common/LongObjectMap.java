@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2026 by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.powertac.logtool.common;
+
+import java.util.Arrays;
+
+/**
+ * Map from long keys to objects, using open addressing with linear probing
+ * in a pair of parallel arrays. Unlike HashMap&lt;Long, V&gt;, it does not
+ * create a boxed key and an entry object for each mapping, which matters
+ * when a state log contains millions of domain objects.
+ *
+ * Null values are not supported; a null slot marks an empty slot.
+ *
+ * @author agent
+ */
+public class LongObjectMap<V>
+{
+  private static final int MIN_CAPACITY = 16;
+
+  private long[] keys;
+  private Object[] values;
+  private int size = 0;
+
+  // resize when size exceeds this
+  private int threshold;
+
+  public LongObjectMap ()
+  {
+    this(MIN_CAPACITY);
+  }
+
+  /**
+   * Creates a map that can hold the given number of entries without resizing
+   */
+  public LongObjectMap (int expected)
+  {
+    super();
+    int capacity = MIN_CAPACITY;
+    while (capacity * 2 / 3 < expected) {
+      capacity *= 2;
+    }
+    allocate(capacity);
+  }
+
+  public int size ()
+  {
+    return size;
+  }
+
+  public boolean isEmpty ()
+  {
+    return 0 == size;
+  }
+
+  /**
+   * Returns the value for key, or null if there is none
+   */
+  @SuppressWarnings("unchecked")
+  public V get (long key)
+  {
+    int mask = keys.length - 1;
+    int i = slot(key, mask);
+    while (null != values[i]) {
+      if (keys[i] == key)
+        return (V) values[i];
+      i = (i + 1) & mask;
+    }
+    return null;
+  }
+
+  public boolean containsKey (long key)
+  {
+    return null != get(key);
+  }
+
+  /**
+   * Associates value with key, returning the previous value or null.
+   */
+  @SuppressWarnings("unchecked")
+  public V put (long key, V value)
+  {
+    if (null == value)
+      throw new IllegalArgumentException("null value for key " + key);
+    int mask = keys.length - 1;
+    int i = slot(key, mask);
+    while (null != values[i]) {
+      if (keys[i] == key) {
+        V previous = (V) values[i];
+        values[i] = value;
+        return previous;
+      }
+      i = (i + 1) & mask;
+    }
+    keys[i] = key;
+    values[i] = value;
+    if (++size > threshold)
+      resize(keys.length * 2);
+    return null;
+  }
+
+  /**
+   * Removes the mapping for key, returning its value or null.
+   */
+  @SuppressWarnings("unchecked")
+  public V remove (long key)
+  {
+    int mask = keys.length - 1;
+    int i = slot(key, mask);
+    while (null != values[i]) {
+      if (keys[i] == key) {
+        V previous = (V) values[i];
+        shiftBack(i, mask);
+        size -= 1;
+        return previous;
+      }
+      i = (i + 1) & mask;
+    }
+    return null;
+  }
+
+  /**
+   * Removes all mappings, keeping the current capacity
+   */
+  public void clear ()
+  {
+    Arrays.fill(values, null);
+    size = 0;
+  }
+
+  // Closes the gap left by removing slot i, so that lookups never stop
+  // early at an empty slot in the middle of a probe sequence
+  private void shiftBack (int gap, int mask)
+  {
+    int i = gap;
+    while (true) {
+      i = (i + 1) & mask;
+      if (null == values[i])
+        break;
+      int home = slot(keys[i], mask);
+      // move entry i into the gap unless its home lies cyclically in (gap, i]
+      boolean stays = (gap <= i) ? (gap < home && home <= i)
+                                 : (gap < home || home <= i);
+      if (!stays) {
+        keys[gap] = keys[i];
+        values[gap] = values[i];
+        gap = i;
+      }
+    }
+    values[gap] = null;
+  }
+
+  private void allocate (int capacity)
+  {
+    keys = new long[capacity];
+    values = new Object[capacity];
+    threshold = capacity * 2 / 3;
+  }
+
+  private void resize (int capacity)
+  {
+    long[] oldKeys = keys;
+    Object[] oldValues = values;
+    allocate(capacity);
+    int mask = capacity - 1;
+    for (int j = 0; j < oldKeys.length; j++) {
+      if (null != oldValues[j]) {
+        int i = slot(oldKeys[j], mask);
+        while (null != values[i]) {
+          i = (i + 1) & mask;
+        }
+        keys[i] = oldKeys[j];
+        values[i] = oldValues[j];
+      }
+    }
+  }
+
+  // Ids are often sequential or strided, so the bits are mixed before masking
+  private static int slot (long key, int mask)
+  {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32)) & mask;
+  }
+}
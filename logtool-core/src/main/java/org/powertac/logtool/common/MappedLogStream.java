@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2026 by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.powertac.logtool.common;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * InputStream over a byte range of an uncompressed state log, read through
+ * memory-mapped segments of the file. Any range of the file can be opened
+ * without reading what comes before it, which is what lets the
+ * StateLogIndex jump into the middle of a log.
+ *
+ * @author agent
+ */
+public class MappedLogStream extends InputStream
+{
+  // Mappings are limited to 2GB; we use smaller segments so that large logs
+  // do not need a large contiguous address range.
+  static final long SEGMENT_SIZE = 1L << 28;
+
+  private final FileChannel channel;
+  private final long end;
+  private long position;
+  private long markPosition;
+
+  private MappedByteBuffer segment = null;
+  private long segmentStart = 0;
+
+  /**
+   * Opens a stream over the bytes of file from start (inclusive)
+   * to end (exclusive). An end value less than zero means the end of the file.
+   */
+  public MappedLogStream (File file, long start, long end) throws IOException
+  {
+    super();
+    channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    long size = channel.size();
+    this.end = (end < 0 || end > size) ? size : end;
+    this.position = Math.min(start, this.end);
+    this.markPosition = position;
+  }
+
+  /**
+   * Opens a stream over the whole file
+   */
+  public MappedLogStream (File file) throws IOException
+  {
+    this(file, 0, -1);
+  }
+
+  /**
+   * Current position in the file
+   */
+  public long getPosition ()
+  {
+    return position;
+  }
+
+  @Override
+  public int read () throws IOException
+  {
+    if (position >= end)
+      return -1;
+    ensureSegment();
+    int result = segment.get((int) (position - segmentStart)) & 0xff;
+    position += 1;
+    return result;
+  }
+
+  @Override
+  public int read (byte[] buffer, int offset, int length) throws IOException
+  {
+    if (length == 0)
+      return 0;
+    if (position >= end)
+      return -1;
+    ensureSegment();
+    long available = Math.min(end, segmentStart + segment.limit()) - position;
+    int count = (int) Math.min(length, available);
+    segment.get((int) (position - segmentStart), buffer, offset, count);
+    position += count;
+    return count;
+  }
+
+  @Override
+  public long skip (long n)
+  {
+    long skipped = Math.max(0, Math.min(n, end - position));
+    position += skipped;
+    return skipped;
+  }
+
+  @Override
+  public int available ()
+  {
+    return (int) Math.min(Integer.MAX_VALUE, end - position);
+  }
+
+  @Override
+  public boolean markSupported ()
+  {
+    return true;
+  }
+
+  @Override
+  public synchronized void mark (int readlimit)
+  {
+    markPosition = position;
+  }
+
+  @Override
+  public synchronized void reset ()
+  {
+    position = markPosition;
+  }
+
+  @Override
+  public void close () throws IOException
+  {
+    segment = null;
+    channel.close();
+  }
+
+  // maps the segment containing position, if it's not already mapped
+  private void ensureSegment () throws IOException
+  {
+    if (null != segment && position >= segmentStart
+        && position < segmentStart + segment.limit()) {
+      return;
+    }
+    segmentStart = position;
+    long size = Math.min(SEGMENT_SIZE, channel.size() - segmentStart);
+    segment = channel.map(FileChannel.MapMode.READ_ONLY, segmentStart, size);
+  }
+}
@@ -22,4 +22,14 @@ package org.powertac.logtool.common;
 public interface NewObjectListener
 {
   public void handleNewObject (Object thing);
+
+  /**
+   * True if this listener should also be called for objects created while
+   * the reader is skipping ahead to a starting timeslot. Listeners that keep
+   * repositories up to date need this; analyzers normally do not.
+   */
+  default boolean receivesSkippedObjects ()
+  {
+    return false;
+  }
 }
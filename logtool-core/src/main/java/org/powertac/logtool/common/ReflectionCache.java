@@ -0,0 +1,363 @@
+/*
+ * Copyright (c) 2026 by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.powertac.logtool.common;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.powertac.common.state.StateLogging;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Reflective metadata used by the DomainObjectReader, looked up on first use
+ * and kept for the rest of the log. A state log contains millions of lines but
+ * only a few hundred distinct (class, method, arity) combinations, so nearly
+ * all of the lookups are satisfied here rather than by scanning classes.
+ *
+ * Class resolution is done in the parse stage, which can run on several
+ * threads, so all the maps are concurrent.
+ *
+ * @author agent
+ */
+class ReflectionCache
+{
+  // abbreviated class token -> class
+  private ConcurrentHashMap<String, ResolvedClass> classes =
+      new ConcurrentHashMap<>();
+
+  // (class, method name, arity) -> candidate methods
+  private ConcurrentHashMap<MemberKey, Invocation[]> methods =
+      new ConcurrentHashMap<>();
+
+  // (class, arity) -> candidate constructors
+  private ConcurrentHashMap<MemberKey, Invocation[]> constructors =
+      new ConcurrentHashMap<>();
+
+  // readResolve metadata, depends on the schema
+  private ConcurrentHashMap<Class<?>, RestoreInfo> restorers =
+      new ConcurrentHashMap<>();
+
+  // domain types are those with a long getId() method
+  private ConcurrentHashMap<Class<?>, Boolean> domainTypes =
+      new ConcurrentHashMap<>();
+
+  private ConcurrentHashMap<Class<?>, Optional<Method>> idSetters =
+      new ConcurrentHashMap<>();
+
+  private ConcurrentHashMap<Class<?>, Optional<Constructor<?>>> stringConstructors =
+      new ConcurrentHashMap<>();
+
+  ReflectionCache ()
+  {
+    super();
+  }
+
+  /**
+   * Resolves a class token from the log, which may be abbreviated. The result
+   * carries a null class if neither the class nor a substitute can be found.
+   */
+  ResolvedClass resolveClass (String token, Map<String, Class<?>> substitutes)
+  {
+    ResolvedClass result = classes.get(token);
+    if (null == result) {
+      String classname = StateLogging.unabbreviate(token);
+      Class<?> clazz;
+      try {
+        clazz = Class.forName(classname);
+      }
+      catch (ClassNotFoundException e) {
+        clazz = substitutes.get(classname);
+      }
+      result = new ResolvedClass(classname, clazz);
+      classes.put(token, result);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the public methods of clazz with the given name and number
+   * of parameters.
+   */
+  Invocation[] getMethods (Class<?> clazz, String name, int arity)
+  {
+    MemberKey key = new MemberKey(clazz, name, arity);
+    Invocation[] result = methods.get(key);
+    if (null == result) {
+      ArrayList<Invocation> candidates = new ArrayList<>();
+      for (Method method : clazz.getMethods()) {
+        if (method.getName().equals(name)
+            && method.getParameterCount() == arity) {
+          candidates.add(new Invocation(method));
+        }
+      }
+      result = candidates.toArray(new Invocation[candidates.size()]);
+      methods.put(key, result);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the declared constructors of clazz with the given number of
+   * parameters, in declaration order, already made accessible.
+   */
+  Invocation[] getConstructors (Class<?> clazz, int arity)
+  {
+    MemberKey key = new MemberKey(clazz, null, arity);
+    Invocation[] result = constructors.get(key);
+    if (null == result) {
+      ArrayList<Invocation> candidates = new ArrayList<>();
+      for (Constructor<?> cons : clazz.getDeclaredConstructors()) {
+        if (cons.getGenericParameterTypes().length == arity) {
+          cons.setAccessible(true);
+          candidates.add(new Invocation(cons));
+        }
+      }
+      result = candidates.toArray(new Invocation[candidates.size()]);
+      constructors.put(key, result);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the readResolve metadata for clazz, given the field names
+   * recorded for it in the schema.
+   */
+  RestoreInfo getRestoreInfo (Class<?> clazz, String[] fieldNames)
+  {
+    RestoreInfo result = restorers.get(clazz);
+    if (null == result) {
+      result = new RestoreInfo(clazz, fieldNames);
+      restorers.put(clazz, result);
+    }
+    return result;
+  }
+
+  /**
+   * Discards schema-dependent metadata
+   */
+  void clearRestoreInfo ()
+  {
+    restorers.clear();
+  }
+
+  /**
+   * True just in case clazz is a Power TAC type with a long getId() method,
+   * in which case arguments of this type are id references.
+   */
+  boolean isDomainType (Class<?> clazz)
+  {
+    Boolean result = domainTypes.get(clazz);
+    if (null == result) {
+      result = false;
+      if (clazz.getName().startsWith("org.powertac")) {
+        try {
+          result = (clazz.getMethod("getId").getReturnType() == long.class);
+        }
+        catch (NoSuchMethodException e) {
+          // normal result of no getId() method
+        }
+      }
+      domainTypes.put(clazz, result);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the setId(long) method of clazz, or null if there is none.
+   */
+  Method getIdSetter (Class<?> clazz)
+  {
+    Optional<Method> result = idSetters.get(clazz);
+    if (null == result) {
+      try {
+        Method setId = clazz.getMethod("setId", long.class);
+        setId.setAccessible(true);
+        result = Optional.of(setId);
+      }
+      catch (NoSuchMethodException e) {
+        result = Optional.empty();
+      }
+      idSetters.put(clazz, result);
+    }
+    return result.orElse(null);
+  }
+
+  /**
+   * Returns the public constructor of clazz that takes a single String,
+   * or null if there is none.
+   */
+  Constructor<?> getStringConstructor (Class<?> clazz)
+  {
+    Optional<Constructor<?>> result = stringConstructors.get(clazz);
+    if (null == result) {
+      try {
+        result = Optional.of(clazz.getConstructor(String.class));
+      }
+      catch (NoSuchMethodException e) {
+        result = Optional.empty();
+      }
+      stringConstructors.put(clazz, result);
+    }
+    return result.orElse(null);
+  }
+
+  // ------------------------------------------------------------
+
+  /**
+   * Outcome of resolving a class token
+   */
+  static class ResolvedClass
+  {
+    final String classname;
+    final Class<?> clazz;
+
+    ResolvedClass (String classname, Class<?> clazz)
+    {
+      this.classname = classname;
+      this.clazz = clazz;
+    }
+  }
+
+  /**
+   * A constructor or method along with its generic parameter types
+   */
+  static class Invocation
+  {
+    final Executable member;
+    final Type[] types;
+
+    Invocation (Executable member)
+    {
+      this.member = member;
+      this.types = member.getGenericParameterTypes();
+    }
+
+    Method getMethod ()
+    {
+      return (Method) member;
+    }
+
+    Constructor<?> getConstructor ()
+    {
+      return (Constructor<?>) member;
+    }
+  }
+
+  /**
+   * What restoreInstance() needs to rebuild an instance of a class from a
+   * readResolve record
+   */
+  static class RestoreInfo
+  {
+    final Method argModifier;
+    final Constructor<?> defaultConstructor;
+    final String[] fieldNames;
+    final Field[] fields;
+    final Class<?>[] types;
+
+    RestoreInfo (Class<?> clazz, String[] fieldNames)
+    {
+      Method mod = null;
+      try {
+        mod = clazz.getDeclaredMethod("modifyLogArgs", String[].class);
+        mod.setAccessible(true);
+      }
+      catch (NoSuchMethodException nsm) {
+        // class lacks the method, nothing to do here
+      }
+      argModifier = mod;
+
+      Constructor<?> cons = null;
+      try {
+        cons = clazz.getDeclaredConstructor();
+        cons.setAccessible(true);
+      }
+      catch (NoSuchMethodException nsm) {
+        // reported when used
+      }
+      defaultConstructor = cons;
+
+      this.fieldNames = fieldNames;
+      if (null == fieldNames) {
+        fields = null;
+        types = null;
+        return;
+      }
+      fields = new Field[fieldNames.length];
+      types = new Class<?>[fieldNames.length];
+      for (int i = 0; i < fieldNames.length; i++) {
+        fields[i] = ReflectionUtils.findField(clazz,
+                                              resolveDoubleCaps(fieldNames[i]));
+        if (null != fields[i]) {
+          fields[i].setAccessible(true);
+          types[i] = fields[i].getType();
+        }
+      }
+    }
+
+    // lowercase first char of field name with two initial caps
+    private static String resolveDoubleCaps (String name)
+    {
+      if (Character.isUpperCase(name.charAt(0)) &&
+              Character.isUpperCase(name.charAt(1))) {
+        char[] chars = name.toCharArray();
+        chars[0] = Character.toLowerCase(chars[0]);
+        return (String.valueOf(chars));
+      }
+      return name;
+    }
+  }
+
+  /**
+   * Cache key for class members
+   */
+  static class MemberKey
+  {
+    final Class<?> clazz;
+    final String name;
+    final int arity;
+
+    MemberKey (Class<?> clazz, String name, int arity)
+    {
+      this.clazz = clazz;
+      this.name = name;
+      this.arity = arity;
+    }
+
+    @Override
+    public boolean equals (Object other)
+    {
+      if (!(other instanceof MemberKey key))
+        return false;
+      return clazz == key.clazz && arity == key.arity
+          && Objects.equals(name, key.name);
+    }
+
+    @Override
+    public int hashCode ()
+    {
+      return Objects.hash(clazz, name, arity);
+    }
+  }
+}
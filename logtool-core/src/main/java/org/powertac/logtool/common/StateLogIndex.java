@@ -0,0 +1,358 @@
+/*
+ * Copyright (c) 2026 by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.powertac.logtool.common;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.powertac.common.TimeService;
+import org.powertac.common.msg.TimeslotUpdate;
+import org.powertac.common.state.StateLogging;
+
+/**
+ * Index of an uncompressed state log, giving the byte offset at which each
+ * timeslot starts and the number of lines logged for each class. The start of
+ * timeslot n is the TimeService update that precedes the first TimeslotUpdate
+ * announcing n + 1 as the first enabled timeslot.
+ *
+ * The index is kept in a sidecar file next to the log, with the extension
+ * ".idx". It records the size and modification time of the log, and is
+ * rebuilt if either has changed.
+ *
+ * @author agent
+ */
+public class StateLogIndex
+{
+  static private Logger log = LogManager.getLogger(StateLogIndex.class.getName());
+
+  static final String SUFFIX = ".idx";
+  static final int MAGIC = 0x50545849; // PTXI
+  static final int VERSION = 1;
+
+  private final long logSize;
+  private final long logModified;
+
+  // timeslot index -> byte offset, in log order
+  private int[] timeslots;
+  private long[] offsets;
+  private int timeslotCount;
+
+  // unabbreviated classname -> lines in log
+  private Map<String, Long> lineCounts;
+
+  private StateLogIndex (long logSize, long logModified)
+  {
+    super();
+    this.logSize = logSize;
+    this.logModified = logModified;
+    timeslots = new int[2048];
+    offsets = new long[2048];
+    timeslotCount = 0;
+    lineCounts = new TreeMap<>();
+  }
+
+  /**
+   * Returns the index for the given state log, loading it from its sidecar
+   * file if that is current, and otherwise building it and writing the sidecar.
+   * Returns null if the log cannot be read.
+   */
+  public static StateLogIndex forLog (File stateLog)
+  {
+    File sidecar = new File(stateLog.getPath() + SUFFIX);
+    StateLogIndex result = null;
+    if (sidecar.canRead()) {
+      result = load(sidecar);
+      if (null != result && !result.matches(stateLog)) {
+        log.info("Index {} is out of date", sidecar.getPath());
+        result = null;
+      }
+    }
+    if (null == result) {
+      try {
+        result = build(stateLog);
+      }
+      catch (IOException ioe) {
+        log.error("Cannot index {}: {}", stateLog.getPath(), ioe.toString());
+        return null;
+      }
+      try {
+        result.save(sidecar);
+      }
+      catch (IOException ioe) {
+        // we can still use the index, we just have to rebuild it next time
+        log.warn("Cannot write index {}: {}", sidecar.getPath(), ioe.toString());
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Scans a state log and builds its index
+   */
+  public static StateLogIndex build (File stateLog) throws IOException
+  {
+    log.info("Indexing {}", stateLog.getPath());
+    StateLogIndex result =
+        new StateLogIndex(stateLog.length(), stateLog.lastModified());
+    String timeService = TimeService.class.getName();
+    String timeslotUpdate = TimeslotUpdate.class.getName();
+    HashMap<String, String> classnames = new HashMap<>();
+    HashMap<String, long[]> counts = new HashMap<>();
+    long lastTimeOffset = -1;
+    int lastTimeslot = -1;
+
+    try (InputStream in = new MappedLogStream(stateLog)) {
+      LineScanner scanner = new LineScanner(in);
+      String line;
+      while (null != (line = scanner.next())) {
+        long offset = scanner.getLineOffset();
+        LineTokens tokens =
+            LineTokens.split(line, line.indexOf(':') + 1, "::");
+        String token = tokens.get(0);
+        String classname = classnames.get(token);
+        if (null == classname) {
+          classname = StateLogging.unabbreviate(token);
+          classnames.put(token, classname);
+        }
+        long[] count = counts.get(classname);
+        if (null == count) {
+          count = new long[1];
+          counts.put(classname, count);
+        }
+        count[0] += 1;
+
+        if (classname.equals(timeService)) {
+          lastTimeOffset = offset;
+        }
+        else if (classname.equals(timeslotUpdate) && tokens.size() > 4) {
+          int timeslot;
+          try {
+            // args are postedTime, firstEnabled, lastEnabled
+            timeslot = tokens.parseInt(4) - 1;
+          }
+          catch (NumberFormatException nfe) {
+            log.warn("Bad TimeslotUpdate {}", line);
+            continue;
+          }
+          if (timeslot > lastTimeslot) {
+            long start = (lastTimeOffset >= 0 && lastTimeOffset > result.lastOffset())
+                ? lastTimeOffset : offset;
+            result.addTimeslot(timeslot, start);
+            lastTimeslot = timeslot;
+          }
+        }
+      }
+    }
+    for (Map.Entry<String, long[]> entry : counts.entrySet()) {
+      result.lineCounts.put(entry.getKey(), entry.getValue()[0]);
+    }
+    log.info("Indexed {} timeslots in {}", result.timeslotCount, stateLog.getPath());
+    return result;
+  }
+
+  /**
+   * Reads an index from its sidecar file, returning null if it cannot be read.
+   */
+  public static StateLogIndex load (File sidecar)
+  {
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(new FileInputStream(sidecar)))) {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+        log.warn("{} is not a state log index", sidecar.getPath());
+        return null;
+      }
+      StateLogIndex result = new StateLogIndex(in.readLong(), in.readLong());
+      int n = in.readInt();
+      for (int i = 0; i < n; i++) {
+        result.addTimeslot(in.readInt(), in.readLong());
+      }
+      int classes = in.readInt();
+      for (int i = 0; i < classes; i++) {
+        result.lineCounts.put(in.readUTF(), in.readLong());
+      }
+      return result;
+    }
+    catch (IOException ioe) {
+      log.warn("Cannot read index {}: {}", sidecar.getPath(), ioe.toString());
+      return null;
+    }
+  }
+
+  /**
+   * Writes this index to a sidecar file
+   */
+  public void save (File sidecar) throws IOException
+  {
+    try (DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(new FileOutputStream(sidecar)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeLong(logSize);
+      out.writeLong(logModified);
+      out.writeInt(timeslotCount);
+      for (int i = 0; i < timeslotCount; i++) {
+        out.writeInt(timeslots[i]);
+        out.writeLong(offsets[i]);
+      }
+      out.writeInt(lineCounts.size());
+      for (Map.Entry<String, Long> entry : lineCounts.entrySet()) {
+        out.writeUTF(entry.getKey());
+        out.writeLong(entry.getValue());
+      }
+    }
+  }
+
+  /**
+   * True if this index was built from the given log in its current state
+   */
+  public boolean matches (File stateLog)
+  {
+    return stateLog.length() == logSize && stateLog.lastModified() == logModified;
+  }
+
+  /**
+   * Returns the byte offset of the start of the given timeslot, or -1 if the
+   * timeslot does not appear in the log.
+   */
+  public long getOffset (int timeslot)
+  {
+    int i = Arrays.binarySearch(timeslots, 0, timeslotCount, timeslot);
+    if (i < 0)
+      return -1;
+    return offsets[i];
+  }
+
+  /**
+   * First timeslot in the log, or -1 if there are none.
+   */
+  public int getFirstTimeslot ()
+  {
+    return timeslotCount > 0 ? timeslots[0] : -1;
+  }
+
+  /**
+   * Last timeslot in the log, or -1 if there are none.
+   */
+  public int getLastTimeslot ()
+  {
+    return timeslotCount > 0 ? timeslots[timeslotCount - 1] : -1;
+  }
+
+  /**
+   * Returns the number of lines logged for the given class. The
+   * classname may be abbreviated.
+   */
+  public long getLineCount (String classname)
+  {
+    Long result = lineCounts.get(StateLogging.unabbreviate(classname));
+    return null == result ? 0 : result;
+  }
+
+  /**
+   * Returns the line counts for all classes in the log
+   */
+  public Map<String, Long> getLineCounts ()
+  {
+    return Collections.unmodifiableMap(lineCounts);
+  }
+
+  private long lastOffset ()
+  {
+    return timeslotCount > 0 ? offsets[timeslotCount - 1] : -1;
+  }
+
+  private void addTimeslot (int timeslot, long offset)
+  {
+    if (timeslotCount == timeslots.length) {
+      timeslots = Arrays.copyOf(timeslots, timeslotCount * 2);
+      offsets = Arrays.copyOf(offsets, timeslotCount * 2);
+    }
+    timeslots[timeslotCount] = timeslot;
+    offsets[timeslotCount] = offset;
+    timeslotCount += 1;
+  }
+
+  /**
+   * Reads lines from a byte stream, keeping track of the byte offset at which
+   * each line starts. State logs are ASCII, so bytes map directly to chars.
+   */
+  static class LineScanner
+  {
+    private final InputStream in;
+    private final byte[] buffer = new byte[1 << 16];
+    private int fill = 0;
+    private int pos = 0;
+    private long bufferOffset = 0;
+    private long lineOffset = 0;
+    private byte[] line = new byte[256];
+
+    LineScanner (InputStream in)
+    {
+      this.in = in;
+    }
+
+    // Offset of the line most recently returned by next()
+    long getLineOffset ()
+    {
+      return lineOffset;
+    }
+
+    // Returns the next line without its terminator, or null at end of input
+    String next () throws IOException
+    {
+      int length = 0;
+      boolean any = false;
+      lineOffset = bufferOffset + pos;
+      while (true) {
+        if (pos == fill) {
+          bufferOffset += fill;
+          fill = in.read(buffer, 0, buffer.length);
+          pos = 0;
+          if (fill <= 0) {
+            fill = 0;
+            return any ? new String(line, 0, length, StandardCharsets.UTF_8) : null;
+          }
+        }
+        byte b = buffer[pos++];
+        any = true;
+        if (b == '\n') {
+          if (length > 0 && line[length - 1] == '\r')
+            length -= 1;
+          return new String(line, 0, length, StandardCharsets.UTF_8);
+        }
+        if (length == line.length) {
+          line = Arrays.copyOf(line, length * 2);
+        }
+        line[length++] = b;
+      }
+    }
+  }
+}
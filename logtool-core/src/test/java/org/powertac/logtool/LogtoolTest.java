@@ -18,7 +18,9 @@ package org.powertac.logtool;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;import java.io.BufferedReader;
 import java.io.FileNotFoundException;
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -26,13 +28,17 @@ import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.powertac.common.MarketPosition;
 import org.powertac.common.Order;
 import org.powertac.common.RandomSeed;
 import org.powertac.common.msg.SimEnd;
+import org.powertac.common.msg.TimeslotUpdate;
 import org.powertac.du.DefaultBroker;
 import org.powertac.logtool.common.DomainBuilder;
 import org.powertac.logtool.common.DomainObjectReader;
+import org.powertac.logtool.common.NewObjectListener;
+import org.powertac.logtool.common.StateLogIndex;
 import org.powertac.logtool.ifc.Analyzer;
 import org.powertac.logtool.ifc.ObjectReader;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -193,6 +199,220 @@ public class LogtoolTest
     assertEquals(1874, randomSeedList.get(1).getId());
   }
 
+  @Test
+  public void testShardedReadLog ()
+  {
+    secondInit();
+    uut.setParseThreads(4);
+    uut.setParseBatchSize(3);
+    TestAnalyzer ta = new TestAnalyzer(getAbsoluteArtifactPath() + "md.state");
+    ta.loadData();
+    assertEquals(7, randomSeedList.size());
+    assertEquals(1874, randomSeedList.get(1).getId());
+    assertEquals(1, mpList.size());
+    assertEquals(1, orderList.size());
+  }
+
+  @Test
+  public void testShardedReadFromCompressedArchive ()
+  {
+    secondInit();
+    uut.setParseThreads(3);
+    TestAnalyzer ta = new TestAnalyzer(relativeArtifactPath + "i1110.tgz");
+    ta.loadData();
+    assertEquals(4, randomSeedList.size());
+    assertEquals(1874, randomSeedList.get(1).getId());
+  }
+
+  @Test
+  public void testShardedIncrementalRead ()
+  {
+    secondInit();
+    uut.setParseThreads(2);
+    uut.setParseBatchSize(5);
+    uut.includeClassname("org.powertac.du.DefaultBroker");
+    uut.includeClassname("org.powertac.common.RandomSeed");
+    uut.includeClassname("org.powertac.common.MarketPosition");
+    uut.includeClassname("org.powertac.common.Order");
+    ObjectReader or = uut.getObjectReader(getAbsoluteArtifactPath() + "md.state");
+    long[] seedIds = {1, 1874, 1876, 1878, 1880, 1881};
+    for (long id : seedIds) {
+      Object next = or.getNextObject();
+      assertNotNull(next);
+      assertEquals(RandomSeed.class, next.getClass());
+      assertEquals(id, ((RandomSeed)next).getId());
+    }
+    Object next = or.getNextObject();
+    assertEquals(DefaultBroker.class, next.getClass());
+    DefaultBroker db = (DefaultBroker) next;
+    next = or.getNextObject();
+    assertEquals(1883, ((RandomSeed)next).getId());
+    next = or.getNextObject();
+    assertEquals(MarketPosition.class, next.getClass());
+    assertEquals(db, ((MarketPosition)next).getBroker());
+    next = or.getNextObject();
+    assertEquals(Order.class, next.getClass());
+    next = or.getNextObject();
+    assertEquals(SimEnd.class, next.getClass());
+    or.close();
+  }
+
+  @TempDir
+  Path tempDir;
+
+  // copies a log to the temp dir, so the index does not land in the source tree
+  private String tempLog (String name) throws IOException
+  {
+    Path copy = tempDir.resolve(name);
+    Files.copy(Paths.get(relativeArtifactPath + name), copy);
+    return copy.toString();
+  }
+
+  @Test
+  public void testBuildIndex () throws IOException
+  {
+    String log = tempLog("md-abbr.state");
+    StateLogIndex index = StateLogIndex.build(new File(log));
+    assertEquals(360, index.getFirstTimeslot());
+    assertEquals(700, index.getLastTimeslot());
+    assertEquals(342, index.getLineCount("cm.TimeslotUpdate"));
+    assertEquals(342, index.getLineCount("org.powertac.common.msg.TimeslotUpdate"));
+    assertEquals(-1, index.getOffset(359));
+    long offset = index.getOffset(361);
+    assertTrue(offset > index.getOffset(360));
+
+    // the timeslot starts with its time update
+    try (java.io.RandomAccessFile raf = new java.io.RandomAccessFile(log, "r")) {
+      raf.seek(offset);
+      String line = raf.readLine();
+      assertTrue(line.contains("c.TimeService::null::setCurrentTime::2009-10-25T01:00"),
+                 line);
+    }
+  }
+
+  @Test
+  public void testIndexSidecar () throws IOException
+  {
+    String log = tempLog("md-abbr.state");
+    StateLogIndex built = StateLogIndex.forLog(new File(log));
+    File sidecar = new File(log + ".idx");
+    assertTrue(sidecar.exists(), "sidecar written");
+    StateLogIndex loaded = StateLogIndex.load(sidecar);
+    assertNotNull(loaded);
+    assertTrue(loaded.matches(new File(log)));
+    assertEquals(built.getOffset(500), loaded.getOffset(500));
+    assertEquals(built.getLineCounts(), loaded.getLineCounts());
+  }
+
+  @Test
+  public void testReadFromTimeslot () throws IOException
+  {
+    secondInit();
+    String log = tempLog("md-abbr.state");
+    SeekAnalyzer sa = new SeekAnalyzer();
+    uut.readStateLog(log, 400, sa);
+    assertEquals(0, sa.seeds, "seeds precede the starting timeslot");
+    assertEquals(301, sa.updates.size());
+    assertEquals(401, sa.updates.get(0).getFirstEnabled());
+    assertEquals(701, sa.updates.get(300).getFirstEnabled());
+  }
+
+  @Test
+  public void testSetupBeforeSkip () throws IOException
+  {
+    secondInit();
+    String log = tempLog("md-abbr.state");
+    SetupAnalyzer sa = new SetupAnalyzer();
+    uut.readStateLog(log, 400, sa);
+    assertTrue(sa.skippedSeeds > 0, "listener from setup sees the prefix");
+    assertEquals(301, sa.updates, "updates from the starting timeslot");
+  }
+
+  @Test
+  public void testObjectReaderFromTimeslot () throws IOException
+  {
+    secondInit();
+    String log = tempLog("md-abbr.state");
+    uut.includeClassname("org.powertac.common.msg.TimeslotUpdate");
+    ObjectReader or = uut.getObjectReader(log, 650);
+    Object next = or.getNextObject();
+    assertEquals(TimeslotUpdate.class, next.getClass());
+    assertEquals(651, ((TimeslotUpdate)next).getFirstEnabled());
+    or.close();
+  }
+
+  class SeekAnalyzer extends LogtoolContext implements Analyzer
+  {
+    int seeds = 0;
+    List<TimeslotUpdate> updates = new ArrayList<>();
+
+    SeekAnalyzer ()
+    {
+      this.core = uut;
+      this.dor = uut.getDOR();
+      uut.includeClassname("org.powertac.common.RandomSeed");
+      uut.includeClassname("org.powertac.common.msg.TimeslotUpdate");
+      registerMessageHandlers();
+    }
+
+    @Override
+    public void setup ()
+    {
+    }
+
+    public void handleMessage (RandomSeed thing)
+    {
+      seeds += 1;
+    }
+
+    public void handleMessage (TimeslotUpdate thing)
+    {
+      updates.add(thing);
+    }
+
+    @Override
+    public void report ()
+    {
+    }
+  }
+
+  // Registers its listeners in setup(), one of them for skipped objects
+  class SetupAnalyzer implements Analyzer
+  {
+    int skippedSeeds = 0;
+    int updates = 0;
+
+    @Override
+    public void setup ()
+    {
+      uut.includeClassname("org.powertac.common.RandomSeed");
+      uut.includeClassname("org.powertac.common.msg.TimeslotUpdate");
+      DomainObjectReader reader = uut.getDOR();
+      reader.registerNewObjectListener(new NewObjectListener() {
+        @Override
+        public void handleNewObject (Object thing)
+        {
+          if (reader.isSkipping()) {
+            skippedSeeds += 1;
+          }
+        }
+
+        @Override
+        public boolean receivesSkippedObjects ()
+        {
+          return true;
+        }
+      }, RandomSeed.class);
+      reader.registerNewObjectListener(thing -> updates += 1,
+                                       TimeslotUpdate.class);
+    }
+
+    @Override
+    public void report ()
+    {
+    }
+  }
+
   @Test
   public void testIncrementalRead ()
   {
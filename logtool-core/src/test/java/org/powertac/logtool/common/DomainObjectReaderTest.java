@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
 
 import java.util.HashMap;
+import java.util.List;
 
 import java.time.Instant;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,6 +20,8 @@ import org.powertac.common.RegulationRate;
 import org.powertac.common.TariffSpecification;
 import org.powertac.common.TariffSubscription;
 import org.powertac.common.TariffTransaction;
+import org.powertac.common.WeatherForecast;
+import org.powertac.common.WeatherForecastPrediction;
 import org.powertac.common.msg.BalancingOrder;
 import org.powertac.common.repo.BrokerRepo;
 import org.powertac.common.repo.TariffRepo;
@@ -83,6 +86,105 @@ public class DomainObjectReaderTest
     }
   }
 
+  @Test
+  public void testParseApply ()
+  {
+    String aston = "144669:c.Broker::603::new::AstonTAC";
+    LogLine parsed = dor.parseLine(aston);
+    assertNotNull(parsed, "line parsed");
+    assertEquals(Broker.class, parsed.getClazz(), "class resolved");
+    assertEquals(603, parsed.getId(), "id parsed");
+    assertEquals("new", parsed.getMethodName(), "method name");
+    assertNull(dor.getById(603), "parse does not create objects");
+    try {
+      Object result = dor.applyLine(parsed);
+      assertEquals(result, dor.getById(603), "object stored in map");
+      assertEquals("AstonTAC", ((Broker)result).getUsername(), "correct name");
+    }
+    catch (MissingDomainObject mdo) {
+      fail("bad exception " + mdo.toString());
+    }
+  }
+
+  @Test
+  public void testParseIgnored ()
+  {
+    assertNull(dor.parseLine("4415:org.powertac.common.msg.SimPause::0::new"),
+               "ignored class not parsed");
+  }
+
+  @Test
+  public void testRepeatedClassTokens ()
+  {
+    // second and later lines for a class are resolved from the cache
+    String bogus = "144669:org.powertac.common.NoSuchThing::603::new::AstonTAC";
+    assertNull(dor.parseLine(bogus), "unknown class");
+    assertNull(dor.parseLine(bogus), "unknown class, cached");
+    try {
+      Broker b1 = (Broker)dor.readObject("144669:c.Broker::603::new::AstonTAC");
+      Broker b2 = (Broker)dor.readObject("144670:org.powertac.common.Broker::604::new::Bunnie");
+      Broker b3 = (Broker)dor.readObject("144671:c.Broker::605::new::Maxon");
+      assertEquals(b1, dor.getById(603));
+      assertEquals(b2, dor.getById(604));
+      assertEquals(b3, dor.getById(605));
+      assertEquals("Maxon", b3.getUsername());
+    }
+    catch (MissingDomainObject mdo) {
+      fail("bad exception " + mdo.toString());
+    }
+  }
+
+  @Test
+  public void testTransientType ()
+  {
+    String aston = "144669:org.powertac.common.Broker::603::new::AstonTAC";
+    String dt = "189426:org.powertac.common.DistributionTransaction::3459::new::603::42::-0.0::0.0";
+    dor.addTransientType("org.powertac.common.DistributionTransaction");
+    final Object[] seen = new Object[1];
+    dor.registerNewObjectListener(thing -> seen[0] = dor.getById(3459),
+                                  DistributionTransaction.class);
+    try {
+      Broker broker = (Broker)dor.readObject(aston);
+      Object result = dor.readObject(dt);
+      assertNotNull(result, "created transient object");
+      assertEquals(result, seen[0], "visible to listeners during dispatch");
+      assertNull(dor.getById(3459), "dropped after dispatch");
+      assertEquals(broker, dor.getById(603), "broker retained");
+      assertEquals(1, dor.getObjectCount());
+    }
+    catch (MissingDomainObject mdo) {
+      fail("bad exception " + mdo.toString());
+    }
+  }
+
+  // Forecasts refer to their predictions by id, so the default transient
+  // types must leave predictions in the map
+  @Test
+  public void testTransientDefaultsForecast ()
+  {
+    String fp1 = "14352796:c.WeatherForecastPrediction::26::new::1::13.3::6.07::236.0::0.0";
+    String fp2 = "14352796:c.WeatherForecastPrediction::27::new::2::14.4::6.07::231.0::0.0";
+    String report = "14352796:c.WeatherReport::25::new::383::12.2::7.0::210.0::1.0";
+    String forecast = "14352972:c.WeatherForecast::602::new::360::(26,27)";
+    dor.useTransientDefaults();
+    try {
+      WeatherForecastPrediction wfp1 = (WeatherForecastPrediction)dor.readObject(fp1);
+      WeatherForecastPrediction wfp2 = (WeatherForecastPrediction)dor.readObject(fp2);
+      assertNotNull(dor.readObject(report), "read a report");
+      assertNull(dor.getById(25), "report released");
+      WeatherForecast wf = (WeatherForecast)dor.readObject(forecast);
+      assertNotNull(wf, "read a forecast");
+      List<WeatherForecastPrediction> predictions = wf.getPredictions();
+      assertEquals(2, predictions.size(), "correct number of predictions");
+      assertEquals(wfp1, predictions.get(0), "correct first prediction");
+      assertEquals(wfp2, predictions.get(1), "correct second prediction");
+      assertEquals(wf, dor.getById(602), "forecast retained");
+    }
+    catch (MissingDomainObject mdo) {
+      fail("bad exception " + mdo.toString());
+    }
+  }
+
   @Test
   public void read2Objects ()
   {
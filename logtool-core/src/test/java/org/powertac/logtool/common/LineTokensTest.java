@@ -0,0 +1,103 @@
+package org.powertac.logtool.common;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class LineTokensTest
+{
+  private void checkSplit (String text)
+  {
+    String[] expected = text.split("::");
+    LineTokens tokens = LineTokens.split(text, 0, "::");
+    assertArrayEquals(expected, tokens.toArray(), "split " + text);
+  }
+
+  @Test
+  public void testSplitLikeString ()
+  {
+    checkSplit("c.Broker::603::new::AstonTAC");
+    checkSplit("c.Broker::603::new::");
+    checkSplit("c.Broker::603::new::::");
+    checkSplit("::603");
+    checkSplit("a:::b");
+    checkSplit("");
+    checkSplit("noseparator");
+  }
+
+  @Test
+  public void testLineOffset ()
+  {
+    String line = "189426:org.powertac.common.DistributionTransaction::3459::new::603::42::-0.0::0.0";
+    LineTokens tokens = LineTokens.split(line, line.indexOf(':') + 1, "::");
+    assertEquals(7, tokens.size());
+    assertEquals("org.powertac.common.DistributionTransaction", tokens.get(0));
+    assertEquals(3459L, tokens.parseLong(1));
+    assertTrue(tokens.matches(2, "new"));
+    LineTokens args = tokens.tail(3);
+    assertEquals(4, args.size());
+    assertEquals(603, args.parseInt(0));
+    assertEquals(Double.doubleToLongBits(-0.0),
+                 Double.doubleToLongBits(args.parseDouble(2)));
+    assertEquals("0.0", args.get(3));
+  }
+
+  @Test
+  public void testItems ()
+  {
+    String line = "x::(1,2,3)::()::(4";
+    LineTokens tokens = LineTokens.split(line, 0, "::");
+    LineTokens items = tokens.items(1);
+    assertArrayEquals(new String[] {"1", "2", "3"}, items.toArray());
+    assertEquals(2L, items.parseLong(1));
+    assertArrayEquals(new String[] {""}, tokens.items(2).toArray());
+    assertNull(tokens.items(3));
+    assertTrue(tokens.startsWith(1, '('));
+    assertFalse(tokens.startsWith(0, '('));
+  }
+
+  @Test
+  public void testParseBoolean ()
+  {
+    LineTokens tokens = LineTokens.of(new String[] {"true", "FALSE", "yes"});
+    assertEquals(Boolean.TRUE, tokens.parseBoolean(0));
+    assertEquals(Boolean.FALSE, tokens.parseBoolean(1));
+    assertNull(tokens.parseBoolean(2));
+  }
+
+  @Test
+  public void testParseDouble ()
+  {
+    String[] values = {"0.0", "-0.0", "2.109375", "-31.835472671068615",
+                       "1.0E-5", "-2.5e3", "12345678901234567890", "0.000001",
+                       "100", "+7.25", "NaN", "-Infinity", "1e400", "4.9E-324",
+                       "0.1", "123456789012345.6", "9007199254740993"};
+    LineTokens tokens = LineTokens.of(values);
+    for (int i = 0; i < values.length; i++) {
+      assertEquals(Double.doubleToLongBits(Double.parseDouble(values[i])),
+                   Double.doubleToLongBits(tokens.parseDouble(i)),
+                   "parse " + values[i]);
+    }
+    Random rand = new Random(42);
+    for (int i = 0; i < 10000; i++) {
+      String value = Double.toString((rand.nextDouble() - 0.5)
+                                     * Math.pow(10, rand.nextInt(12) - 4));
+      assertEquals(Double.parseDouble(value),
+                   LineTokens.of(new String[] {value}).parseDouble(0),
+                   0.0, "parse " + value);
+    }
+  }
+
+  @Test
+  public void testParseErrors ()
+  {
+    LineTokens tokens = LineTokens.of(new String[] {"", "-", "1E", "abc", "."});
+    for (int i = 0; i < tokens.size(); i++) {
+      final int index = i;
+      assertThrows(NumberFormatException.class, () -> tokens.parseDouble(index));
+      assertThrows(NumberFormatException.class, () -> tokens.parseLong(index));
+    }
+  }
+}
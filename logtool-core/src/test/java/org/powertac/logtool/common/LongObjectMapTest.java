@@ -0,0 +1,74 @@
+package org.powertac.logtool.common;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class LongObjectMapTest
+{
+  @Test
+  public void testPutGet ()
+  {
+    LongObjectMap<String> map = new LongObjectMap<>();
+    assertTrue(map.isEmpty());
+    assertNull(map.put(603, "AstonTAC"));
+    assertNull(map.put(-1, "minus"));
+    assertNull(map.put(0, "zero"));
+    assertEquals("AstonTAC", map.get(603));
+    assertEquals("minus", map.get(-1));
+    assertEquals("zero", map.get(0));
+    assertNull(map.get(604));
+    assertEquals("AstonTAC", map.put(603, "Maxon"));
+    assertEquals("Maxon", map.get(603));
+    assertEquals(3, map.size());
+  }
+
+  @Test
+  public void testRemove ()
+  {
+    LongObjectMap<String> map = new LongObjectMap<>();
+    map.put(1, "one");
+    map.put(2, "two");
+    assertEquals("one", map.remove(1));
+    assertNull(map.remove(1));
+    assertNull(map.get(1));
+    assertEquals("two", map.get(2));
+    assertEquals(1, map.size());
+    map.clear();
+    assertEquals(0, map.size());
+    assertNull(map.get(2));
+  }
+
+  @Test
+  public void testNullValue ()
+  {
+    LongObjectMap<String> map = new LongObjectMap<>();
+    assertThrows(IllegalArgumentException.class, () -> map.put(1, null));
+  }
+
+  // random operations, checked against a HashMap
+  @Test
+  public void testAgainstHashMap ()
+  {
+    LongObjectMap<Long> map = new LongObjectMap<>();
+    HashMap<Long, Long> reference = new HashMap<>();
+    Random rand = new Random(42);
+    for (int i = 0; i < 200000; i++) {
+      long key = rand.nextInt(5000) * 31L;
+      int op = rand.nextInt(3);
+      if (op < 2) {
+        assertEquals(reference.put(key, (long) i), map.put(key, (long) i));
+      }
+      else {
+        assertEquals(reference.remove(key), map.remove(key));
+      }
+    }
+    assertEquals(reference.size(), map.size());
+    for (long key = 0; key < 5000 * 31L; key += 31) {
+      assertEquals(reference.get(key), map.get(key));
+    }
+  }
+}
@@ -15,6 +15,7 @@
  */
 package org.powertac.officecomplexcustomer;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -23,6 +24,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
@@ -46,6 +49,7 @@ import org.powertac.common.repo.TariffRepo;
 import org.powertac.common.repo.TariffSubscriptionRepo;
 import org.powertac.common.repo.TimeslotRepo;
 import org.powertac.common.repo.WeatherReportRepo;
+import org.powertac.customer.PopulationCache;
 import org.powertac.officecomplexcustomer.customers.OfficeComplex;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -106,6 +110,12 @@ public class OfficeComplexCustomerService extends TimeslotPhaseProcessor
 
   // read this from configurator
   private String configFile1 = null;
+
+  // number of threads building offices; 1 builds them sequentially
+  private int initializationThreads = 1;
+
+  // directory of the population cache; null generates every population
+  private String populationCacheDirectory = null;
   //private int daysOfCompetition = 0;
 
   /**
@@ -198,6 +208,29 @@ public class OfficeComplexCustomerService extends TimeslotPhaseProcessor
       }
     };
 
+    ExecutorService pool = null;
+    if (initializationThreads > 1)
+      pool = Executors.newFixedThreadPool(initializationThreads);
+    try {
+      createOfficeComplexes(numberOfOfficeComplexes, types, shifts, offices,
+                            comp, pool);
+    }
+    finally {
+      if (null != pool)
+        pool.shutdown();
+    }
+  }
+
+  private void createOfficeComplexes (int numberOfOfficeComplexes,
+                                      String[] types, String[] shifts,
+                                      Map<String, Integer> offices,
+                                      Comparator<CustomerInfo> comp,
+                                      ExecutorService pool)
+  {
+    PopulationCache populationCache = null;
+    if (null != populationCacheDirectory)
+      populationCache = new PopulationCache(new File(populationCacheDirectory));
+
     for (int i = 1; i < numberOfOfficeComplexes + 1; i++) {
       OfficeComplex officeComplex = new OfficeComplex("OfficeComplex " + i);
       Map<CustomerInfo, String> map = new TreeMap<CustomerInfo, String>(comp);
@@ -222,7 +255,8 @@ public class OfficeComplexCustomerService extends TimeslotPhaseProcessor
       }
 
       officeComplex.setServiceAccessor(this);
-      officeComplex.initialize(configuration, seedId++, map);
+      officeComplex.setPopulationCache(populationCache);
+      officeComplex.initialize(configuration, seedId++, map, pool);
       officeComplexList.add(officeComplex);
       officeComplex.subscribeDefault(tariffMarketService);
 
@@ -254,6 +288,32 @@ public class OfficeComplexCustomerService extends TimeslotPhaseProcessor
     configFile1 = config;
   }
 
+  /** Getter method for the number of office initialization threads */
+  public int getInitializationThreads ()
+  {
+    return initializationThreads;
+  }
+
+  @ConfigurableValue(valueType = "Integer", description = "number of threads building the offices of each office complex; 1 builds them sequentially")
+  public
+    void setInitializationThreads (int threads)
+  {
+    initializationThreads = threads;
+  }
+
+  /** Getter method for the population cache directory */
+  public String getPopulationCacheDirectory ()
+  {
+    return populationCacheDirectory;
+  }
+
+  @ConfigurableValue(valueType = "String", description = "directory caching the offices generated from restored random seeds; unset generates them every game")
+  public
+    void setPopulationCacheDirectory (String directory)
+  {
+    populationCacheDirectory = directory;
+  }
+
   /**
    * This function returns the list of the villages created at the beginning of
    * the game by the service
@@ -16,9 +16,8 @@
 
 package org.powertac.officecomplexcustomer.appliances;
 
-import java.util.ListIterator;
+import java.io.Serial;
 import java.util.Properties;
-import java.util.Vector;
 
 import org.powertac.common.repo.RandomSeedRepo;
 import org.powertac.common.spring.SpringApplicationContext;
@@ -39,6 +38,8 @@ import org.powertac.officecomplexcustomer.enumerations.AirConditionType;
  */
 public class AirCondition extends WeatherSensitiveAppliance
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
 
   /**
    * The type of the air condition unit. For more info, read the details in the
@@ -277,19 +278,27 @@ public class AirCondition extends WeatherSensitiveAppliance
 
   }
 
+  /** This function returns the temperature below which it starts heating. */
+  public int getLowerLimit ()
+  {
+    return lowerLimit;
+  }
+
+  /** This function returns the temperature above which it starts cooling. */
+  public int getUpperLimit ()
+  {
+    return upperLimit;
+  }
+
   @Override
   public void fillDailyOperation (int weekday)
   {
     // Initializing And Creating Auxiliary Variables
-    loadVector = new Vector<Integer>();
-    dailyOperation = new Vector<Boolean>();
+    loadVector = new int[OfficeComplexConstants.QUARTERS_OF_DAY];
+    dailyOperation = new boolean[OfficeComplexConstants.QUARTERS_OF_DAY];
 
-    for (int i = 0; i < OfficeComplexConstants.QUARTERS_OF_DAY; i++) {
-      dailyOperation.add(false);
-      loadVector.add(0);
-    }
-    weeklyLoadVector.add(loadVector);
-    weeklyOperation.add(dailyOperation);
+    weeklyLoadVector.addDay(loadVector);
+    weeklyOperation.addDay(dailyOperation);
   }
 
   @Override
@@ -321,8 +330,8 @@ public class AirCondition extends WeatherSensitiveAppliance
 
       for (int i = 0; i < OfficeComplexConstants.QUARTERS_OF_HOUR; i++) {
         hourPresence[i] =
-          possibilityOperationVector.get(day)
-                  .get(hour * OfficeComplexConstants.QUARTERS_OF_HOUR + i);
+          possibilityOperationVector
+                  .get(day, hour * OfficeComplexConstants.QUARTERS_OF_HOUR + i);
         if (hourPresence[i] == true)
           trueCounter++;
         // log.debug("Day:" + day + " Hour: " + hour + " Quarter: " + (hour *
@@ -368,8 +377,8 @@ public class AirCondition extends WeatherSensitiveAppliance
       */
 
       if (open) {
-        loadVector = weeklyLoadVector.get(day);
-        dailyOperation = weeklyOperation.get(day);
+        loadVector = weeklyLoadVector.getDay(day);
+        dailyOperation = weeklyOperation.getDay(day);
 
         if (type == AirConditionType.Normal) { // Normal type of air condition
 
@@ -384,15 +393,14 @@ public class AirCondition extends WeatherSensitiveAppliance
 
               if (time < cycleOn) {
                 if (acOperation == AirConditionOperation.Cooling)
-                  loadVector.set(hour * OfficeComplexConstants.QUARTERS_OF_HOUR
-                                 + i, powerCooling);
+                  loadVector[hour * OfficeComplexConstants.QUARTERS_OF_HOUR
+                             + i] = powerCooling;
                 else
-                  loadVector.set(hour * OfficeComplexConstants.QUARTERS_OF_HOUR
-                                 + i, powerHeating);
+                  loadVector[hour * OfficeComplexConstants.QUARTERS_OF_HOUR
+                             + i] = powerHeating;
 
-                dailyOperation.set(hour
-                                   * OfficeComplexConstants.QUARTERS_OF_HOUR
-                                   + i, true);
+                dailyOperation[hour * OfficeComplexConstants.QUARTERS_OF_HOUR
+                               + i] = true;
               }
               cycleCounter++;
             }
@@ -408,15 +416,14 @@ public class AirCondition extends WeatherSensitiveAppliance
 
               if (time < cycleOn) {
                 if (acOperation == AirConditionOperation.Cooling)
-                  loadVector.set(hour * OfficeComplexConstants.QUARTERS_OF_HOUR
-                                 + i, powerCooling);
+                  loadVector[hour * OfficeComplexConstants.QUARTERS_OF_HOUR
+                             + i] = powerCooling;
                 else
-                  loadVector.set(hour * OfficeComplexConstants.QUARTERS_OF_HOUR
-                                 + i, powerHeating);
+                  loadVector[hour * OfficeComplexConstants.QUARTERS_OF_HOUR
+                             + i] = powerHeating;
 
-                dailyOperation.set(hour
-                                   * OfficeComplexConstants.QUARTERS_OF_HOUR
-                                   + i, true);
+                dailyOperation[hour * OfficeComplexConstants.QUARTERS_OF_HOUR
+                               + i] = true;
               }
               cycleCounter++;
             }
@@ -439,41 +446,37 @@ public class AirCondition extends WeatherSensitiveAppliance
               if (time < cycleOn) {
                 if (acOperation == AirConditionOperation.Cooling) {
                   if (cycleCounter == 0) {
-                    loadVector.set(hour
-                                   * OfficeComplexConstants.QUARTERS_OF_HOUR
-                                   + i, powerStartCooling);
+                    loadVector[hour * OfficeComplexConstants.QUARTERS_OF_HOUR
+                               + i] = powerStartCooling;
                   }
                   else {
-                    loadVector.set(hour
-                                   * OfficeComplexConstants.QUARTERS_OF_HOUR
-                                   + i, powerCooling);
+                    loadVector[hour * OfficeComplexConstants.QUARTERS_OF_HOUR
+                               + i] = powerCooling;
                   }
                 }
                 else {
                   if (cycleCounter == 0) {
-                    loadVector.set(hour
-                                   * OfficeComplexConstants.QUARTERS_OF_HOUR
-                                   + i, powerStartHeating);
+                    loadVector[hour * OfficeComplexConstants.QUARTERS_OF_HOUR
+                               + i] = powerStartHeating;
                   }
                   else {
-                    loadVector.set(hour
-                                   * OfficeComplexConstants.QUARTERS_OF_HOUR
-                                   + i, powerHeating);
+                    loadVector[hour * OfficeComplexConstants.QUARTERS_OF_HOUR
+                               + i] = powerHeating;
                   }
                 }
 
               }
               else {
                 if (acOperation == AirConditionOperation.Cooling)
-                  loadVector.set(hour * OfficeComplexConstants.QUARTERS_OF_HOUR
-                                 + i, powerOffCooling);
+                  loadVector[hour * OfficeComplexConstants.QUARTERS_OF_HOUR
+                             + i] = powerOffCooling;
                 else
-                  loadVector.set(hour * OfficeComplexConstants.QUARTERS_OF_HOUR
-                                 + i, powerOffHeating);
+                  loadVector[hour * OfficeComplexConstants.QUARTERS_OF_HOUR
+                             + i] = powerOffHeating;
               }
 
-              dailyOperation.set(hour * OfficeComplexConstants.QUARTERS_OF_HOUR
-                                 + i, true);
+              dailyOperation[hour * OfficeComplexConstants.QUARTERS_OF_HOUR
+                             + i] = true;
               cycleCounter++;
             }
 
@@ -488,15 +491,14 @@ public class AirCondition extends WeatherSensitiveAppliance
 
               if (time < cycleOn) {
                 if (acOperation == AirConditionOperation.Cooling)
-                  loadVector.set(hour * OfficeComplexConstants.QUARTERS_OF_HOUR
-                                 + i, powerCooling);
+                  loadVector[hour * OfficeComplexConstants.QUARTERS_OF_HOUR
+                             + i] = powerCooling;
                 else
-                  loadVector.set(hour * OfficeComplexConstants.QUARTERS_OF_HOUR
-                                 + i, powerHeating);
+                  loadVector[hour * OfficeComplexConstants.QUARTERS_OF_HOUR
+                             + i] = powerHeating;
 
-                dailyOperation.set(hour
-                                   * OfficeComplexConstants.QUARTERS_OF_HOUR
-                                   + i, true);
+                dailyOperation[hour * OfficeComplexConstants.QUARTERS_OF_HOUR
+                               + i] = true;
               }
               cycleCounter++;
             }
@@ -507,8 +509,8 @@ public class AirCondition extends WeatherSensitiveAppliance
 
         }
 
-        weeklyLoadVector.set(day, loadVector);
-        weeklyOperation.set(day, dailyOperation);
+        weeklyLoadVector.setDay(day, loadVector);
+        weeklyOperation.setDay(day, dailyOperation);
         // log.debug("Changed");
 
       }
@@ -523,17 +525,18 @@ public class AirCondition extends WeatherSensitiveAppliance
   }
 
   @Override
-  Vector<Boolean> createDailyPossibilityOperationVector (int day)
+  boolean[] createDailyPossibilityOperationVector (int day)
   {
 
-    Vector<Boolean> possibilityDailyOperation = new Vector<Boolean>();
+    boolean[] possibilityDailyOperation =
+      new boolean[OfficeComplexConstants.QUARTERS_OF_DAY];
 
     // It can operate each quarter someone is at home to turn it on
     for (int j = 0; j < OfficeComplexConstants.QUARTERS_OF_DAY; j++) {
       if (applianceOf.isWorking(day, j) == true)
-        possibilityDailyOperation.add(true);
+        possibilityDailyOperation[j] = true;
       else
-        possibilityDailyOperation.add(false);
+        possibilityDailyOperation[j] = false;
     }
 
     return possibilityDailyOperation;
@@ -573,11 +576,9 @@ public class AirCondition extends WeatherSensitiveAppliance
     for (int i = 0; i < OfficeComplexConstants.DAYS_OF_COMPETITION
                         + OfficeComplexConstants.DAYS_OF_BOOTSTRAP; i++) {
       log.debug("Day " + i);
-      ListIterator<Boolean> iter3 = weeklyOperation.get(i).listIterator();
-      ListIterator<Integer> iter4 = weeklyLoadVector.get(i).listIterator();
       for (int j = 0; j < OfficeComplexConstants.QUARTERS_OF_DAY; j++)
-        log.debug("Quarter " + j + " = " + iter3.next() + "   Load = "
-                  + iter4.next());
+        log.debug("Quarter " + j + " = " + weeklyOperation.get(i, j)
+                  + "   Load = " + weeklyLoadVector.get(i, j));
     }
   }
 
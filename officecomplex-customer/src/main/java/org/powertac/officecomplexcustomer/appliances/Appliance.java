@@ -16,7 +16,8 @@
 
 package org.powertac.officecomplexcustomer.appliances;
 
-import java.util.ListIterator;
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.Properties;
 import java.util.Vector;
 
@@ -27,6 +28,8 @@ import org.powertac.common.RandomSeed;
 import org.powertac.common.Tariff;
 import org.powertac.common.TariffEvaluationHelper;
 import org.powertac.common.repo.RandomSeedRepo;
+import org.powertac.customer.LoadSchedule;
+import org.powertac.customer.OperationSchedule;
 import org.powertac.officecomplexcustomer.configurations.OfficeComplexConstants;
 import org.powertac.officecomplexcustomer.customers.Office;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -40,8 +43,11 @@ import org.springframework.beans.factory.annotation.Autowired;
  * @author Antonios Chrysopoulos
  * @version 1.5, Date: 2.25.12
  */
-public class Appliance
+public class Appliance implements Serializable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+
 
   /**
    * logger for trace logging -- use log.info(), log.warn(), and log.error()
@@ -51,7 +57,7 @@ public class Appliance
   static protected Logger log = LogManager.getLogger(Appliance.class.getName());
 
   @Autowired
-  protected RandomSeedRepo randomSeedRepo;
+  protected transient RandomSeedRepo randomSeedRepo;
 
   /**
    * The appliance name. Appliances are named after the type of appliance and
@@ -79,11 +85,11 @@ public class Appliance
   protected int cycleDuration;
 
   /**
-   * This is a vector containing the quarters that the appliance can start
+   * This is a schedule containing the quarters that the appliance can start
    * functioning.
    */
-  Vector<Vector<Boolean>> possibilityOperationVector =
-    new Vector<Vector<Boolean>>();
+  OperationSchedule possibilityOperationVector =
+    new OperationSchedule(OfficeComplexConstants.QUARTERS_OF_DAY);
 
   /**
    * This is a vector that contains the operation days of each appliance for the
@@ -92,28 +98,31 @@ public class Appliance
   Vector<Boolean> operationDaysVector = new Vector<Boolean>();
 
   /**
-   * This is a vector containing the final daily operation of the appliance
+   * This is an array containing the final daily operation of the appliance
    * (after shifting due to any cause).
    */
-  Vector<Boolean> dailyOperation = new Vector<Boolean>();
+  boolean[] dailyOperation =
+    new boolean[OfficeComplexConstants.QUARTERS_OF_DAY];
 
   /**
-   * This is a vector containing the final weekly operation of the appliance
+   * This is a schedule containing the final weekly operation of the appliance
    * (after shifting due to any cause).
    */
-  Vector<Vector<Boolean>> weeklyOperation = new Vector<Vector<Boolean>>();
+  OperationSchedule weeklyOperation =
+    new OperationSchedule(OfficeComplexConstants.QUARTERS_OF_DAY);
 
   /**
-   * This is a vector containing the consumption load of the appliance during
+   * This is an array containing the consumption load of the appliance during
    * the day.
    */
-  Vector<Integer> loadVector = new Vector<Integer>();
+  int[] loadVector = new int[OfficeComplexConstants.QUARTERS_OF_DAY];
 
   /**
-   * This is a vector containing the final weekly load of the appliance (after
-   * shifting due to any cause).
+   * This is a schedule containing the final weekly load of the appliance
+   * (after shifting due to any cause).
    */
-  Vector<Vector<Integer>> weeklyLoadVector = new Vector<Vector<Integer>>();
+  LoadSchedule weeklyLoadVector =
+    new LoadSchedule(OfficeComplexConstants.QUARTERS_OF_DAY);
 
   /**
    * This variable contains the amount of times the appliance may work through
@@ -157,14 +166,14 @@ public class Appliance
     return cycleDuration;
   }
 
-  /** This function returns the weekly operation vector of the appliance. */
-  public Vector<Vector<Boolean>> getWeeklyOperation ()
+  /** This function returns the weekly operation schedule of the appliance. */
+  public OperationSchedule getWeeklyOperation ()
   {
     return weeklyOperation;
   }
 
-  /** This function returns the weekly load vector of the appliance. */
-  public Vector<Vector<Integer>> getWeeklyLoadVector ()
+  /** This function returns the weekly load schedule of the appliance. */
+  public LoadSchedule getWeeklyLoadVector ()
   {
     return weeklyLoadVector;
   }
@@ -189,9 +198,9 @@ public class Appliance
    * @param day
    * @return
    */
-  Vector<Boolean> createDailyPossibilityOperationVector (int day)
+  boolean[] createDailyPossibilityOperationVector (int day)
   {
-    return new Vector<Boolean>();
+    return new boolean[OfficeComplexConstants.QUARTERS_OF_DAY];
   }
 
   /**
@@ -202,7 +211,8 @@ public class Appliance
   public void createWeeklyPossibilityOperationVector ()
   {
     for (int i = 0; i < OfficeComplexConstants.DAYS_OF_WEEK; i++)
-      possibilityOperationVector.add(createDailyPossibilityOperationVector(i));
+      possibilityOperationVector
+              .addDay(createDailyPossibilityOperationVector(i));
   }
 
   /**
@@ -250,16 +260,10 @@ public class Appliance
       new boolean[OfficeComplexConstants.HOURS_OF_DAY];
 
     for (int i = 0; i < OfficeComplexConstants.HOURS_OF_DAY; i++) {
-      boolean function =
-        possibilityOperationVector.get(day)
-                .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR)
-                || possibilityOperationVector.get(day)
-                        .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 1)
-                || possibilityOperationVector.get(day)
-                        .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 2)
-                || possibilityOperationVector.get(day)
-                        .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 3);
-      shiftingOperationMatrix[i] = function;
+      shiftingOperationMatrix[i] =
+        possibilityOperationVector
+                .any(day, i * OfficeComplexConstants.QUARTERS_OF_HOUR,
+                     OfficeComplexConstants.QUARTERS_OF_HOUR);
     }
     return shiftingOperationMatrix;
   }
@@ -303,11 +307,9 @@ public class Appliance
     for (int i = 0; i < OfficeComplexConstants.DAYS_OF_COMPETITION
                         + OfficeComplexConstants.DAYS_OF_BOOTSTRAP; i++) {
       log.debug("Day " + i);
-      ListIterator<Boolean> iter = weeklyOperation.get(i).listIterator();
-      ListIterator<Integer> iter2 = weeklyLoadVector.get(i).listIterator();
       for (int j = 0; j < OfficeComplexConstants.QUARTERS_OF_DAY; j++)
-        log.debug("Quarter " + j + " = " + iter.next() + "   Load = "
-                  + iter2.next());
+        log.debug("Quarter " + j + " = " + weeklyOperation.get(i, j)
+                  + "   Load = " + weeklyLoadVector.get(i, j));
     }
   }
 
@@ -341,11 +343,7 @@ public class Appliance
     // day.
     for (int i = 0; i < OfficeComplexConstants.DAYS_OF_COMPETITION
                         + OfficeComplexConstants.DAYS_OF_BOOTSTRAP; i++) {
-      boolean function = false;
-      for (int j = 0; j < OfficeComplexConstants.QUARTERS_OF_DAY; j++) {
-        function = function || weeklyOperation.get(i).get(j);
-      }
-      operationDaysVector.add(function);
+      operationDaysVector.add(weeklyOperation.any(i));
     }
   }
 
@@ -16,8 +16,8 @@
 
 package org.powertac.officecomplexcustomer.appliances;
 
+import java.io.Serial;
 import java.util.Properties;
-import java.util.Vector;
 
 import org.powertac.common.repo.RandomSeedRepo;
 import org.powertac.common.spring.SpringApplicationContext;
@@ -34,6 +34,8 @@ import org.powertac.officecomplexcustomer.configurations.OfficeComplexConstants;
  */
 public class CoffeeMachine extends FullyShiftingAppliance
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
 
   /** this is the power load consumed when in stand by mode. */
   int standByPower;
@@ -57,17 +59,18 @@ public class CoffeeMachine extends FullyShiftingAppliance
   }
 
   @Override
-  Vector<Boolean> createDailyPossibilityOperationVector (int day)
+  boolean[] createDailyPossibilityOperationVector (int day)
   {
 
-    Vector<Boolean> possibilityDailyOperation = new Vector<Boolean>();
+    boolean[] possibilityDailyOperation =
+      new boolean[OfficeComplexConstants.QUARTERS_OF_DAY];
 
     // Freezer can work anytime
     for (int j = 0; j < OfficeComplexConstants.QUARTERS_OF_DAY; j++) {
       if (applianceOf.isWorking(day, j) == true)
-        possibilityDailyOperation.add(true);
+        possibilityDailyOperation[j] = true;
       else
-        possibilityDailyOperation.add(false);
+        possibilityDailyOperation[j] = false;
     }
 
     return possibilityDailyOperation;
@@ -77,30 +80,25 @@ public class CoffeeMachine extends FullyShiftingAppliance
   public void fillDailyOperation (int weekday)
   {
     // Initializing Variables
-    loadVector = new Vector<Integer>();
-    dailyOperation = new Vector<Boolean>();
+    loadVector = new int[OfficeComplexConstants.QUARTERS_OF_DAY];
+    dailyOperation = new boolean[OfficeComplexConstants.QUARTERS_OF_DAY];
     int k = gen.nextInt(cycleDuration);
 
-    for (int i = 0; i < OfficeComplexConstants.QUARTERS_OF_DAY; i++) {
-      loadVector.add(0);
-      dailyOperation.add(false);
-    }
-
     if (applianceOf.isWorkingDayOfWeek(weekday)) {
       for (int i = OfficeComplexConstants.COFFEE_MACHINE_START_OPERATION; i < OfficeComplexConstants.COFFEE_MACHINE_STOP_OPERATION; i++) {
         if (i % cycleDuration == k) {
-          loadVector.set(i, power);
-          dailyOperation.set(i, true);
+          loadVector[i] = power;
+          dailyOperation[i] = true;
         }
         else {
-          loadVector.set(i, standByPower);
-          dailyOperation.set(i, true);
+          loadVector[i] = standByPower;
+          dailyOperation[i] = true;
         }
       }
     }
 
-    weeklyLoadVector.add(loadVector);
-    weeklyOperation.add(dailyOperation);
+    weeklyLoadVector.addDay(loadVector);
+    weeklyOperation.addDay(dailyOperation);
   }
 
   @Override
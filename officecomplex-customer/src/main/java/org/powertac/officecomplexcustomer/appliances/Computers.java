@@ -15,8 +15,8 @@
 
 package org.powertac.officecomplexcustomer.appliances;
 
+import java.io.Serial;
 import java.util.Properties;
-import java.util.Vector;
 
 import org.powertac.common.repo.RandomSeedRepo;
 import org.powertac.common.spring.SpringApplicationContext;
@@ -31,6 +31,8 @@ import org.powertac.officecomplexcustomer.configurations.OfficeComplexConstants;
  */
 public class Computers extends NotShiftingAppliance
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
 
   /**
    * This variable shows the possibility (%) that this appliance will be used
@@ -58,16 +60,17 @@ public class Computers extends NotShiftingAppliance
   }
 
   @Override
-  Vector<Boolean> createDailyPossibilityOperationVector (int day)
+  boolean[] createDailyPossibilityOperationVector (int day)
   {
-    Vector<Boolean> possibilityDailyOperation = new Vector<Boolean>();
+    boolean[] possibilityDailyOperation =
+      new boolean[OfficeComplexConstants.QUARTERS_OF_DAY];
 
     // Lights need to operate only when someone is in the house
     for (int j = 0; j < OfficeComplexConstants.QUARTERS_OF_DAY; j++) {
       if (applianceOf.isWorking(day, j) == true)
-        possibilityDailyOperation.add(true);
+        possibilityDailyOperation[j] = true;
       else
-        possibilityDailyOperation.add(false);
+        possibilityDailyOperation[j] = false;
     }
 
     return possibilityDailyOperation;
@@ -77,28 +80,25 @@ public class Computers extends NotShiftingAppliance
   public void fillDailyOperation (int weekday)
   {
     // Initializing and Creating auxiliary variables
-    loadVector = new Vector<Integer>();
-    dailyOperation = new Vector<Boolean>();
+    loadVector = new int[OfficeComplexConstants.QUARTERS_OF_DAY];
+    dailyOperation = new boolean[OfficeComplexConstants.QUARTERS_OF_DAY];
 
     // For each quarter of a day
     for (int i = 0; i < OfficeComplexConstants.QUARTERS_OF_DAY; i++) {
-      loadVector.add(0);
-      dailyOperation.add(false);
-
       if (applianceOf.isWorking(weekday, i)) {
 
         for (int j = 0; j < applianceOf.employeeWorkingNumber(weekday, i); j++) {
           if (gen.nextDouble() < operationPercentage) {
-            dailyOperation.set(i, true);
-            loadVector.set(i, loadVector.get(i) + power);
+            dailyOperation[i] = true;
+            loadVector[i] = loadVector[i] + power;
           }
         }
 
       }
     }
 
-    weeklyLoadVector.add(loadVector);
-    weeklyOperation.add(dailyOperation);
+    weeklyLoadVector.addDay(loadVector);
+    weeklyOperation.addDay(dailyOperation);
   }
 
   @Override
@@ -16,8 +16,8 @@
 
 package org.powertac.officecomplexcustomer.appliances;
 
+import java.io.Serial;
 import java.util.Properties;
-import java.util.Vector;
 
 import org.powertac.common.repo.RandomSeedRepo;
 import org.powertac.common.spring.SpringApplicationContext;
@@ -33,6 +33,8 @@ import org.powertac.officecomplexcustomer.configurations.OfficeComplexConstants;
  */
 public class ConsumerElectronics extends NotShiftingAppliance
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
 
   /**
    * This variable shows the possibility (%) that this appliance will be used
@@ -63,14 +65,11 @@ public class ConsumerElectronics extends NotShiftingAppliance
   public void fillDailyOperation (int weekday)
   {
     // Initializing and Creating auxiliary variables
-    loadVector = new Vector<Integer>();
-    dailyOperation = new Vector<Boolean>();
+    loadVector = new int[OfficeComplexConstants.QUARTERS_OF_DAY];
+    dailyOperation = new boolean[OfficeComplexConstants.QUARTERS_OF_DAY];
 
     for (int i = 0; i < OfficeComplexConstants.QUARTERS_OF_DAY; i++) {
 
-      dailyOperation.add(false);
-      loadVector.add(0);
-
       if (applianceOf.isOnBreak(weekday, i)) {
 
         double tempPercentage =
@@ -78,15 +77,15 @@ public class ConsumerElectronics extends NotShiftingAppliance
                   + (OfficeComplexConstants.OPERATION_PARTITION * (applianceOf
                           .employeeOnBreakNumber(weekday, i)));
         if (tempPercentage > gen.nextDouble()) {
-          dailyOperation.set(i, true);
-          loadVector.set(i, power);
+          dailyOperation[i] = true;
+          loadVector[i] = power;
         }
       }
 
     }
 
-    weeklyLoadVector.add(loadVector);
-    weeklyOperation.add(dailyOperation);
+    weeklyLoadVector.addDay(loadVector);
+    weeklyOperation.addDay(dailyOperation);
   }
 
   @Override
@@ -97,18 +96,19 @@ public class ConsumerElectronics extends NotShiftingAppliance
   }
 
   @Override
-  Vector<Boolean> createDailyPossibilityOperationVector (int day)
+  boolean[] createDailyPossibilityOperationVector (int day)
   {
 
-    Vector<Boolean> possibilityDailyOperation = new Vector<Boolean>();
+    boolean[] possibilityDailyOperation =
+      new boolean[OfficeComplexConstants.QUARTERS_OF_DAY];
 
     // The consumers electronics can work each quarter someone is in the
     // premises
     for (int j = 0; j < OfficeComplexConstants.QUARTERS_OF_DAY; j++) {
       if (applianceOf.isOnBreak(day, j) == true)
-        possibilityDailyOperation.add(true);
+        possibilityDailyOperation[j] = true;
       else
-        possibilityDailyOperation.add(false);
+        possibilityDailyOperation[j] = false;
     }
     return possibilityDailyOperation;
   }
@@ -15,6 +15,7 @@
 
 package org.powertac.officecomplexcustomer.appliances;
 
+import java.io.Serial;
 import java.util.Arrays;
 import java.util.Properties;
 import java.util.Vector;
@@ -35,6 +36,8 @@ import org.powertac.officecomplexcustomer.configurations.OfficeComplexConstants;
  */
 public class CopyMachine extends SemiShiftingAppliance
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
 
   /**
    * This variable shows the power consumed by the servers when they are in
@@ -66,16 +69,17 @@ public class CopyMachine extends SemiShiftingAppliance
   }
 
   @Override
-  Vector<Boolean> createDailyPossibilityOperationVector (int day)
+  boolean[] createDailyPossibilityOperationVector (int day)
   {
-    Vector<Boolean> possibilityDailyOperation = new Vector<Boolean>();
+    boolean[] possibilityDailyOperation =
+      new boolean[OfficeComplexConstants.QUARTERS_OF_DAY];
 
     // Lights need to operate only when someone is in the house
     for (int j = 0; j < OfficeComplexConstants.QUARTERS_OF_DAY; j++) {
       if (applianceOf.isWorking(day, j) == true)
-        possibilityDailyOperation.add(true);
+        possibilityDailyOperation[j] = true;
       else
-        possibilityDailyOperation.add(false);
+        possibilityDailyOperation[j] = false;
     }
 
     return possibilityDailyOperation;
@@ -85,8 +89,8 @@ public class CopyMachine extends SemiShiftingAppliance
   public void fillDailyOperation (int weekday)
   {
     // Initializing and Creating auxiliary variables
-    loadVector = new Vector<Integer>();
-    dailyOperation = new Vector<Boolean>();
+    loadVector = new int[OfficeComplexConstants.QUARTERS_OF_DAY];
+    dailyOperation = new boolean[OfficeComplexConstants.QUARTERS_OF_DAY];
     Vector<Integer> temp = new Vector<Integer>();
 
     // For each quarter of a day
@@ -94,8 +98,8 @@ public class CopyMachine extends SemiShiftingAppliance
 
       if ((i > OfficeComplexConstants.START_OF_FUNCTION && i < OfficeComplexConstants.END_OF_FUNCTION)
           && !(applianceOf.isOnVacation(weekday))) {
-        loadVector.add(standbyPower);
-        dailyOperation.add(true);
+        loadVector[i] = standbyPower;
+        dailyOperation[i] = true;
 
         int count = applianceOf.employeeNumber(weekday, i);
         for (int j = 0; j < count; j++) {
@@ -103,10 +107,6 @@ public class CopyMachine extends SemiShiftingAppliance
         }
 
       }
-      else {
-        loadVector.add(0);
-        dailyOperation.add(false);
-      }
     }
 
     if (temp.size() > 0) {
@@ -114,13 +114,13 @@ public class CopyMachine extends SemiShiftingAppliance
         int rand = gen.nextInt(temp.size());
         int quarter = temp.get(rand);
 
-        loadVector.set(quarter, power);
+        loadVector[quarter] = power;
         temp.remove(rand);
       }
     }
 
-    weeklyLoadVector.add(loadVector);
-    weeklyOperation.add(dailyOperation);
+    weeklyLoadVector.addDay(loadVector);
+    weeklyOperation.addDay(dailyOperation);
   }
 
   @Override
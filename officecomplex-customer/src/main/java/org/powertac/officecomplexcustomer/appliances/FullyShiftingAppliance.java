@@ -16,6 +16,8 @@
 
 package org.powertac.officecomplexcustomer.appliances;
 
+import java.io.Serial;
+
 
 /**
  * This is the class for the appliance domain instances that can change / shift
@@ -27,5 +29,7 @@ package org.powertac.officecomplexcustomer.appliances;
  */
 public class FullyShiftingAppliance extends Appliance
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
 
 }
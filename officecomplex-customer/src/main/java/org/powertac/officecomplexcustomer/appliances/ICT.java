@@ -16,6 +16,7 @@
 
 package org.powertac.officecomplexcustomer.appliances;
 
+import java.io.Serial;
 import java.util.Properties;
 import java.util.Vector;
 
@@ -34,6 +35,8 @@ import org.powertac.officecomplexcustomer.configurations.OfficeComplexConstants;
  */
 public class ICT extends NotShiftingAppliance
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
 
   @Override
   public void initialize (String household, Properties conf, int seed)
@@ -58,15 +61,8 @@ public class ICT extends NotShiftingAppliance
   public void fillDailyOperation (int weekday)
   {
     // Initializing and Creating auxiliary variables
-    loadVector = new Vector<Integer>();
-    dailyOperation = new Vector<Boolean>();
-
-    for (int i = 0; i < OfficeComplexConstants.QUARTERS_OF_DAY; i++) {
-
-      dailyOperation.add(false);
-      loadVector.add(0);
-
-    }
+    loadVector = new int[OfficeComplexConstants.QUARTERS_OF_DAY];
+    dailyOperation = new boolean[OfficeComplexConstants.QUARTERS_OF_DAY];
 
     Vector<Integer> temp = new Vector<Integer>();
 
@@ -84,14 +80,14 @@ public class ICT extends NotShiftingAppliance
         int rand = gen.nextInt(temp.size());
         int quarter = temp.get(rand);
 
-        dailyOperation.set(quarter, true);
-        loadVector.set(quarter, (loadVector.get(quarter) + power));
+        dailyOperation[quarter] = true;
+        loadVector[quarter] = (loadVector[quarter] + power);
         temp.remove(rand);
       }
     }
 
-    weeklyLoadVector.add(loadVector);
-    weeklyOperation.add(dailyOperation);
+    weeklyLoadVector.addDay(loadVector);
+    weeklyOperation.addDay(dailyOperation);
   }
 
   @Override
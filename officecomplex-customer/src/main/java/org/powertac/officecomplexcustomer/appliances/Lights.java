@@ -15,8 +15,8 @@
 
 package org.powertac.officecomplexcustomer.appliances;
 
+import java.io.Serial;
 import java.util.Properties;
-import java.util.Vector;
 
 import org.powertac.common.repo.RandomSeedRepo;
 import org.powertac.common.spring.SpringApplicationContext;
@@ -31,6 +31,8 @@ import org.powertac.officecomplexcustomer.configurations.OfficeComplexConstants;
  */
 public class Lights extends NotShiftingAppliance
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
 
   @Override
   public void initialize (String office, Properties conf, int seed)
@@ -53,22 +55,19 @@ public class Lights extends NotShiftingAppliance
   public void fillDailyOperation (int weekday)
   {
     // Initializing and Creating auxiliary variables
-    loadVector = new Vector<Integer>();
-    dailyOperation = new Vector<Boolean>();
+    loadVector = new int[OfficeComplexConstants.QUARTERS_OF_DAY];
+    dailyOperation = new boolean[OfficeComplexConstants.QUARTERS_OF_DAY];
 
     // For each quarter of a day
     for (int i = 0; i < OfficeComplexConstants.QUARTERS_OF_DAY; i++) {
-      loadVector.add(0);
-      dailyOperation.add(false);
-
       if (applianceOf.isWorking(weekday, i)
           || applianceOf.isOnBreak(weekday, i)) {
-        loadVector.set(i, power);
-        dailyOperation.set(i, true);
+        loadVector[i] = power;
+        dailyOperation[i] = true;
       }
     }
-    weeklyLoadVector.add(loadVector);
-    weeklyOperation.add(dailyOperation);
+    weeklyLoadVector.addDay(loadVector);
+    weeklyOperation.addDay(dailyOperation);
   }
 
   @Override
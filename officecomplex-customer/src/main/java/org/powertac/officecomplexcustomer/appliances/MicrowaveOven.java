@@ -16,9 +16,9 @@
 
 package org.powertac.officecomplexcustomer.appliances;
 
+import java.io.Serial;
 import java.util.Arrays;
 import java.util.Properties;
-import java.util.Vector;
 
 import java.time.Instant;
 import org.powertac.common.Tariff;
@@ -37,6 +37,8 @@ import org.powertac.officecomplexcustomer.configurations.OfficeComplexConstants;
  */
 public class MicrowaveOven extends SemiShiftingAppliance
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
 
   /**
    * This variable shows the possibility (%) that this appliance will be used
@@ -71,14 +73,11 @@ public class MicrowaveOven extends SemiShiftingAppliance
   {
 
     // Initializing and Creating auxiliary variables
-    loadVector = new Vector<Integer>();
-    dailyOperation = new Vector<Boolean>();
+    loadVector = new int[OfficeComplexConstants.QUARTERS_OF_DAY];
+    dailyOperation = new boolean[OfficeComplexConstants.QUARTERS_OF_DAY];
 
     for (int i = 0; i < OfficeComplexConstants.QUARTERS_OF_DAY; i++) {
 
-      dailyOperation.add(false);
-      loadVector.add(0);
-
       if (applianceOf.isOnBreak(weekday, i)) {
 
         double tempPercentage =
@@ -88,27 +87,28 @@ public class MicrowaveOven extends SemiShiftingAppliance
         if (tempPercentage > gen.nextDouble()
             && i > OfficeComplexConstants.START_OF_LAUNCH_BREAK
             && i < OfficeComplexConstants.END_OF_LAUNCH_BREAK) {
-          dailyOperation.set(i, true);
-          loadVector.set(i, power);
+          dailyOperation[i] = true;
+          loadVector[i] = power;
         }
       }
 
     }
-    weeklyLoadVector.add(loadVector);
-    weeklyOperation.add(dailyOperation);
+    weeklyLoadVector.addDay(loadVector);
+    weeklyOperation.addDay(dailyOperation);
   }
 
   @Override
-  Vector<Boolean> createDailyPossibilityOperationVector (int day)
+  boolean[] createDailyPossibilityOperationVector (int day)
   {
-    Vector<Boolean> possibilityDailyOperation = new Vector<Boolean>();
+    boolean[] possibilityDailyOperation =
+      new boolean[OfficeComplexConstants.QUARTERS_OF_DAY];
 
     // In order for stove to work someone must be in the house for half hour
     for (int j = 0; j < OfficeComplexConstants.QUARTERS_OF_DAY; j++) {
       if (applianceOf.isOnBreak(day, j) == true)
-        possibilityDailyOperation.add(true);
+        possibilityDailyOperation[j] = true;
       else
-        possibilityDailyOperation.add(false);
+        possibilityDailyOperation[j] = false;
     }
 
     return possibilityDailyOperation;
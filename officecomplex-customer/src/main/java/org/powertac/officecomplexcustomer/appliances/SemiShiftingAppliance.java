@@ -16,6 +16,8 @@
 
 package org.powertac.officecomplexcustomer.appliances;
 
+import java.io.Serial;
+
 
 /**
  * This is the class for the appliance domain instances that can change / shift
@@ -28,5 +30,7 @@ package org.powertac.officecomplexcustomer.appliances;
  */
 class SemiShiftingAppliance extends Appliance
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
 
 }
@@ -15,6 +15,7 @@
 
 package org.powertac.officecomplexcustomer.appliances;
 
+import java.io.Serial;
 import java.util.Properties;
 import java.util.Vector;
 
@@ -31,6 +32,8 @@ import org.powertac.officecomplexcustomer.configurations.OfficeComplexConstants;
  */
 public class Servers extends NotShiftingAppliance
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
 
   /**
    * This variable shows the power consumed by the servers when they are in
@@ -62,16 +65,17 @@ public class Servers extends NotShiftingAppliance
   }
 
   @Override
-  Vector<Boolean> createDailyPossibilityOperationVector (int day)
+  boolean[] createDailyPossibilityOperationVector (int day)
   {
-    Vector<Boolean> possibilityDailyOperation = new Vector<Boolean>();
+    boolean[] possibilityDailyOperation =
+      new boolean[OfficeComplexConstants.QUARTERS_OF_DAY];
 
     // Lights need to operate only when someone is in the house
     for (int j = 0; j < OfficeComplexConstants.QUARTERS_OF_DAY; j++) {
       if (applianceOf.isWorking(day, j) == true)
-        possibilityDailyOperation.add(true);
+        possibilityDailyOperation[j] = true;
       else
-        possibilityDailyOperation.add(false);
+        possibilityDailyOperation[j] = false;
     }
 
     return possibilityDailyOperation;
@@ -81,14 +85,14 @@ public class Servers extends NotShiftingAppliance
   public void fillDailyOperation (int weekday)
   {
     // Initializing and Creating auxiliary variables
-    loadVector = new Vector<Integer>();
-    dailyOperation = new Vector<Boolean>();
+    loadVector = new int[OfficeComplexConstants.QUARTERS_OF_DAY];
+    dailyOperation = new boolean[OfficeComplexConstants.QUARTERS_OF_DAY];
     Vector<Integer> temp = new Vector<Integer>();
 
     // For each quarter of a day
     for (int i = 0; i < OfficeComplexConstants.QUARTERS_OF_DAY; i++) {
-      loadVector.add(sleepPower);
-      dailyOperation.add(true);
+      loadVector[i] = sleepPower;
+      dailyOperation[i] = true;
 
       int count = applianceOf.employeeNumber(weekday, i);
       for (int j = 0; j < count; j++) {
@@ -101,13 +105,13 @@ public class Servers extends NotShiftingAppliance
         int rand = gen.nextInt(temp.size());
         int quarter = temp.get(rand);
 
-        loadVector.set(quarter, (loadVector.get(quarter) + power));
+        loadVector[quarter] = (loadVector[quarter] + power);
         temp.remove(rand);
       }
     }
 
-    weeklyLoadVector.add(loadVector);
-    weeklyOperation.add(dailyOperation);
+    weeklyLoadVector.addDay(loadVector);
+    weeklyOperation.addDay(dailyOperation);
   }
 
   @Override
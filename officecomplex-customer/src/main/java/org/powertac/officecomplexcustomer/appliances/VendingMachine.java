@@ -16,8 +16,8 @@
 
 package org.powertac.officecomplexcustomer.appliances;
 
+import java.io.Serial;
 import java.util.Properties;
-import java.util.Vector;
 
 import org.powertac.common.repo.RandomSeedRepo;
 import org.powertac.common.spring.SpringApplicationContext;
@@ -34,6 +34,8 @@ import org.powertac.officecomplexcustomer.configurations.OfficeComplexConstants;
  */
 public class VendingMachine extends FullyShiftingAppliance
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
 
   @Override
   public void initialize (String office, Properties conf, int seed)
@@ -54,14 +56,15 @@ public class VendingMachine extends FullyShiftingAppliance
   }
 
   @Override
-  Vector<Boolean> createDailyPossibilityOperationVector (int day)
+  boolean[] createDailyPossibilityOperationVector (int day)
   {
 
-    Vector<Boolean> possibilityDailyOperation = new Vector<Boolean>();
+    boolean[] possibilityDailyOperation =
+      new boolean[OfficeComplexConstants.QUARTERS_OF_DAY];
 
     // Freezer can work anytime
     for (int j = 0; j < OfficeComplexConstants.QUARTERS_OF_DAY; j++) {
-      possibilityDailyOperation.add(true);
+      possibilityDailyOperation[j] = true;
     }
 
     return possibilityDailyOperation;
@@ -71,22 +74,18 @@ public class VendingMachine extends FullyShiftingAppliance
   public void fillDailyOperation (int weekday)
   {
     // Initializing Variables
-    loadVector = new Vector<Integer>();
-    dailyOperation = new Vector<Boolean>();
+    loadVector = new int[OfficeComplexConstants.QUARTERS_OF_DAY];
+    dailyOperation = new boolean[OfficeComplexConstants.QUARTERS_OF_DAY];
     int k = gen.nextInt(cycleDuration);
 
     for (int i = 0; i < OfficeComplexConstants.QUARTERS_OF_DAY; i++) {
       if (i % cycleDuration == k) {
-        loadVector.add(power);
-        dailyOperation.add(true);
-      }
-      else {
-        loadVector.add(0);
-        dailyOperation.add(false);
+        loadVector[i] = power;
+        dailyOperation[i] = true;
       }
     }
-    weeklyLoadVector.add(loadVector);
-    weeklyOperation.add(dailyOperation);
+    weeklyLoadVector.addDay(loadVector);
+    weeklyOperation.addDay(dailyOperation);
   }
 
   @Override
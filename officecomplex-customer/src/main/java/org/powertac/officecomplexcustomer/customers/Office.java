@@ -16,8 +16,9 @@
  */
 package org.powertac.officecomplexcustomer.customers;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.Arrays;
-import java.util.ListIterator;
 import java.util.Properties;
 import java.util.Vector;
 
@@ -29,6 +30,7 @@ import org.powertac.common.Tariff;
 import org.powertac.common.TariffEvaluationHelper;
 import org.powertac.common.repo.RandomSeedRepo;
 import org.powertac.common.spring.SpringApplicationContext;
+import org.powertac.customer.LoadSchedule;
 import org.powertac.officecomplexcustomer.appliances.AirCondition;
 import org.powertac.officecomplexcustomer.appliances.Appliance;
 import org.powertac.officecomplexcustomer.appliances.CoffeeMachine;
@@ -59,8 +61,11 @@ import org.springframework.beans.factory.annotation.Autowired;
  * @author Antonios Chrysopoulos
  * @version 1.5, Date: 2.25.12
  */
-public class Office
+public class Office implements Serializable
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
+
 
   /**
    * logger for trace logging -- use log.info(), log.warn(), and log.error()
@@ -70,7 +75,7 @@ public class Office
   static protected Logger log = LogManager.getLogger(Office.class.getName());
 
   @Autowired
-  private RandomSeedRepo randomSeedRepo;
+  private transient RandomSeedRepo randomSeedRepo;
 
   int seedId = 1;
 
@@ -84,41 +89,49 @@ public class Office
    * This is a vector containing each day's base load from the appliances
    * installed inside the office.
    **/
-  Vector<Integer> dailyBaseLoad = new Vector<Integer>();
-  Vector<Integer> dailyControllableLoad = new Vector<Integer>();
-  Vector<Integer> dailyWeatherSensitiveLoad = new Vector<Integer>();
-  Vector<Integer> dailyNonDominantLoad = new Vector<Integer>();
-  Vector<Integer> dailyDominantLoad = new Vector<Integer>();
+  int[] dailyBaseLoad = new int[OfficeComplexConstants.QUARTERS_OF_DAY];
+  int[] dailyControllableLoad = new int[OfficeComplexConstants.QUARTERS_OF_DAY];
+  int[] dailyWeatherSensitiveLoad =
+    new int[OfficeComplexConstants.QUARTERS_OF_DAY];
+  int[] dailyNonDominantLoad = new int[OfficeComplexConstants.QUARTERS_OF_DAY];
+  int[] dailyDominantLoad = new int[OfficeComplexConstants.QUARTERS_OF_DAY];
 
   /**
    * This is a vector containing the base load from the appliances installed
    * inside the office for all the week days.
    **/
-  Vector<Vector<Integer>> weeklyBaseLoad = new Vector<Vector<Integer>>();
-  Vector<Vector<Integer>> weeklyControllableLoad =
-    new Vector<Vector<Integer>>();
-  Vector<Vector<Integer>> weeklyWeatherSensitiveLoad =
-    new Vector<Vector<Integer>>();
-  Vector<Vector<Integer>> weeklyNonDominantLoad = new Vector<Vector<Integer>>();
-  Vector<Vector<Integer>> weeklyDominantLoad = new Vector<Vector<Integer>>();
+  LoadSchedule weeklyBaseLoad =
+    new LoadSchedule(OfficeComplexConstants.QUARTERS_OF_DAY);
+  LoadSchedule weeklyControllableLoad =
+    new LoadSchedule(OfficeComplexConstants.QUARTERS_OF_DAY);
+  LoadSchedule weeklyWeatherSensitiveLoad =
+    new LoadSchedule(OfficeComplexConstants.QUARTERS_OF_DAY);
+  LoadSchedule weeklyNonDominantLoad =
+    new LoadSchedule(OfficeComplexConstants.QUARTERS_OF_DAY);
+  LoadSchedule weeklyDominantLoad =
+    new LoadSchedule(OfficeComplexConstants.QUARTERS_OF_DAY);
 
   /** This is an aggregated vector containing each day's base load in hours. **/
-  Vector<Integer> dailyBaseLoadInHours = new Vector<Integer>();
-  Vector<Integer> dailyControllableLoadInHours = new Vector<Integer>();
-  Vector<Integer> dailyWeatherSensitiveLoadInHours = new Vector<Integer>();
-  Vector<Integer> dailyNonDominantLoadInHours = new Vector<Integer>();
-  Vector<Integer> dailyDominantLoadInHours = new Vector<Integer>();
+  int[] dailyBaseLoadInHours = new int[OfficeComplexConstants.HOURS_OF_DAY];
+  int[] dailyControllableLoadInHours =
+    new int[OfficeComplexConstants.HOURS_OF_DAY];
+  int[] dailyWeatherSensitiveLoadInHours =
+    new int[OfficeComplexConstants.HOURS_OF_DAY];
+  int[] dailyNonDominantLoadInHours =
+    new int[OfficeComplexConstants.HOURS_OF_DAY];
+  int[] dailyDominantLoadInHours = new int[OfficeComplexConstants.HOURS_OF_DAY];
 
   /** This is an aggregated vector containing the weekly base load in hours. **/
-  Vector<Vector<Integer>> weeklyBaseLoadInHours = new Vector<Vector<Integer>>();
-  Vector<Vector<Integer>> weeklyControllableLoadInHours =
-    new Vector<Vector<Integer>>();
-  Vector<Vector<Integer>> weeklyWeatherSensitiveLoadInHours =
-    new Vector<Vector<Integer>>();
-  Vector<Vector<Integer>> weeklyNonDominantLoadInHours =
-    new Vector<Vector<Integer>>();
-  Vector<Vector<Integer>> weeklyDominantLoadInHours =
-    new Vector<Vector<Integer>>();
+  LoadSchedule weeklyBaseLoadInHours =
+    new LoadSchedule(OfficeComplexConstants.HOURS_OF_DAY);
+  LoadSchedule weeklyControllableLoadInHours =
+    new LoadSchedule(OfficeComplexConstants.HOURS_OF_DAY);
+  LoadSchedule weeklyWeatherSensitiveLoadInHours =
+    new LoadSchedule(OfficeComplexConstants.HOURS_OF_DAY);
+  LoadSchedule weeklyNonDominantLoadInHours =
+    new LoadSchedule(OfficeComplexConstants.HOURS_OF_DAY);
+  LoadSchedule weeklyDominantLoadInHours =
+    new LoadSchedule(OfficeComplexConstants.HOURS_OF_DAY);
 
   /**
    * Helping variable showing the current week of competition for the correct
@@ -159,8 +172,10 @@ public class Office
 
   /**
    * This variable is pointing to the OfficeComplex that this office is part of.
+   * It is not kept in the population cache; the office complex sets it again
+   * when it loads its offices from there.
    */
-  public OfficeComplex officeOf;
+  public transient OfficeComplex officeOf;
 
   /**
    * This variable is utilized for the creation of the random numbers and is
@@ -181,6 +196,19 @@ public class Office
   public void initialize (String OfficeName, Properties conf,
                           Vector<Integer> publicVacationVector, int seed)
   {
+    populate(OfficeName, conf, publicVacationVector, seed);
+    fillSchedules(conf);
+  }
+
+  /**
+   * This is the first part of the initialization. It creates the persons and
+   * the appliances of the office, and with them every RandomSeed the office
+   * uses, so it has to run on the calling thread, in the order of the
+   * offices.
+   */
+  void populate (String OfficeName, Properties conf,
+                 Vector<Integer> publicVacationVector, int seed)
+  {
 
     name = OfficeName;
     randomSeedRepo =
@@ -201,7 +229,16 @@ public class Office
     }
 
     fillAppliances(conf);
+  }
 
+  /**
+   * This is the second part of the initialization. It fills the schedules of
+   * the office for every week of the game from the seeds taken in
+   * populate(), and creates no domain objects, so offices may run it
+   * concurrently.
+   */
+  void fillSchedules (Properties conf)
+  {
     for (int i = 0; i < OfficeComplexConstants.DAYS_OF_WEEK; i++) {
       dailyBaseLoad =
         fillDailyBaseLoad(week * OfficeComplexConstants.DAYS_OF_WEEK + i);
@@ -211,16 +248,17 @@ public class Office
       dailyWeatherSensitiveLoad =
         fillDailyWeatherSensitiveLoad(week
                                       * OfficeComplexConstants.DAYS_OF_WEEK + i);
-      weeklyBaseLoad.add(dailyBaseLoad);
-      weeklyControllableLoad.add(dailyControllableLoad);
-      weeklyWeatherSensitiveLoad.add(dailyWeatherSensitiveLoad);
+      weeklyBaseLoad.addDay(dailyBaseLoad);
+      weeklyControllableLoad.addDay(dailyControllableLoad);
+      weeklyWeatherSensitiveLoad.addDay(dailyWeatherSensitiveLoad);
 
       dailyBaseLoadInHours = fillDailyBaseLoadInHours();
       dailyControllableLoadInHours = fillDailyControllableLoadInHours();
       dailyWeatherSensitiveLoadInHours = fillDailyWeatherSensitiveLoadInHours();
-      weeklyBaseLoadInHours.add(dailyBaseLoadInHours);
-      weeklyControllableLoadInHours.add(dailyControllableLoadInHours);
-      weeklyWeatherSensitiveLoadInHours.add(dailyWeatherSensitiveLoadInHours);
+      weeklyBaseLoadInHours.addDay(dailyBaseLoadInHours);
+      weeklyControllableLoadInHours.addDay(dailyControllableLoadInHours);
+      weeklyWeatherSensitiveLoadInHours
+              .addDay(dailyWeatherSensitiveLoadInHours);
     }
 
     for (week = 1; week < OfficeComplexConstants.WEEKS_OF_COMPETITION
@@ -244,13 +282,13 @@ public class Office
 
     for (int i = 0; i < overallDays; i++) {
       dailyNonDominantLoad = fillDailyNonDominantLoad(i);
-      weeklyNonDominantLoad.add(dailyNonDominantLoad);
+      weeklyNonDominantLoad.addDay(dailyNonDominantLoad);
       dailyNonDominantLoadInHours = fillDailyNonDominantLoadInHours();
-      weeklyNonDominantLoadInHours.add(dailyNonDominantLoadInHours);
+      weeklyNonDominantLoadInHours.addDay(dailyNonDominantLoadInHours);
       dailyDominantLoad = fillDailyDominantLoad(i);
-      weeklyDominantLoad.add(dailyDominantLoad);
+      weeklyDominantLoad.addDay(dailyDominantLoad);
       dailyDominantLoadInHours = fillDailyDominantLoadInHours();
-      weeklyDominantLoadInHours.add(dailyDominantLoadInHours);
+      weeklyDominantLoadInHours.addDay(dailyDominantLoadInHours);
     }
 
     /*
@@ -311,14 +349,14 @@ public class Office
       for (int j = 0; j < OfficeComplexConstants.HOURS_OF_DAY; j++) {
         if (op.get(i))
           dominantConsumption[j] +=
-            weeklyBaseLoadInHours.get(i).get(j)
-                    + weeklyControllableLoadInHours.get(i).get(j)
-                    + weeklyWeatherSensitiveLoadInHours.get(i).get(j);
+            weeklyBaseLoadInHours.get(i, j)
+                    + weeklyControllableLoadInHours.get(i, j)
+                    + weeklyWeatherSensitiveLoadInHours.get(i, j);
         else
           nonDominantConsumption[j] +=
-            weeklyBaseLoadInHours.get(i).get(j)
-                    + weeklyControllableLoadInHours.get(i).get(j)
-                    + weeklyWeatherSensitiveLoadInHours.get(i).get(j);
+            weeklyBaseLoadInHours.get(i, j)
+                    + weeklyControllableLoadInHours.get(i, j)
+                    + weeklyWeatherSensitiveLoadInHours.get(i, j);
       }
     }
 
@@ -768,15 +806,11 @@ public class Office
     for (int i = 0; i < OfficeComplexConstants.DAYS_OF_COMPETITION
                         + OfficeComplexConstants.DAYS_OF_BOOTSTRAP; i++) {
       log.info("Day " + i);
-      ListIterator<Integer> iter2 = weeklyBaseLoad.get(i).listIterator();
-      ListIterator<Integer> iter3 =
-        weeklyControllableLoad.get(i).listIterator();
-      ListIterator<Integer> iter4 =
-        weeklyWeatherSensitiveLoad.get(i).listIterator();
       for (int j = 0; j < OfficeComplexConstants.QUARTERS_OF_DAY; j++)
-        log.info("Quarter : " + j + " Base Load : " + iter2.next()
-                 + " Controllable Load: " + iter3.next()
-                 + " WeatherSensitive Load: " + iter4.next());
+        log.info("Quarter : " + j + " Base Load : " + weeklyBaseLoad.get(i, j)
+                 + " Controllable Load: " + weeklyControllableLoad.get(i, j)
+                 + " WeatherSensitive Load: "
+                 + weeklyWeatherSensitiveLoad.get(i, j));
     }
 
     // Printing daily load in hours
@@ -784,15 +818,13 @@ public class Office
     for (int i = 0; i < OfficeComplexConstants.DAYS_OF_COMPETITION
                         + OfficeComplexConstants.DAYS_OF_BOOTSTRAP; i++) {
       log.info("Day " + i);
-      ListIterator<Integer> iter2 = weeklyBaseLoadInHours.get(i).listIterator();
-      ListIterator<Integer> iter3 =
-        weeklyControllableLoadInHours.get(i).listIterator();
-      ListIterator<Integer> iter4 =
-        weeklyWeatherSensitiveLoadInHours.get(i).listIterator();
       for (int j = 0; j < OfficeComplexConstants.HOURS_OF_DAY; j++)
-        log.info("Hours : " + j + " Base Load : " + iter2.next()
-                 + " Controllable Load: " + iter3.next()
-                 + " WeatherSensitive Load: " + iter4.next());
+        log.info("Hours : " + j + " Base Load : "
+                 + weeklyBaseLoadInHours.get(i, j)
+                 + " Controllable Load: "
+                 + weeklyControllableLoadInHours.get(i, j)
+                 + " WeatherSensitive Load: "
+                 + weeklyWeatherSensitiveLoadInHours.get(i, j));
     }
   }
 
@@ -803,19 +835,18 @@ public class Office
    * @param day
    * @return daily base load
    */
-  Vector<Integer> fillDailyBaseLoad (int day)
+  int[] fillDailyBaseLoad (int day)
   {
     // Creating auxiliary variables
-    Vector<Integer> v =
-      new Vector<Integer>(OfficeComplexConstants.QUARTERS_OF_DAY);
+    int[] v = new int[OfficeComplexConstants.QUARTERS_OF_DAY];
     int sum = 0;
     for (int i = 0; i < OfficeComplexConstants.QUARTERS_OF_DAY; i++) {
       sum = 0;
       for (Appliance appliance: appliances) {
         if (appliance instanceof NotShiftingAppliance)
-          sum = sum + appliance.getWeeklyLoadVector().get(day).get(i);
+          sum = sum + appliance.getWeeklyLoadVector().get(day, i);
       }
-      v.add(sum);
+      v[i] = sum;
     }
     return v;
   }
@@ -827,19 +858,18 @@ public class Office
    * @param day
    * @return daily controllable load
    */
-  Vector<Integer> fillDailyControllableLoad (int day)
+  int[] fillDailyControllableLoad (int day)
   {
     // Creating auxiliary variables
-    Vector<Integer> v =
-      new Vector<Integer>(OfficeComplexConstants.QUARTERS_OF_DAY);
+    int[] v = new int[OfficeComplexConstants.QUARTERS_OF_DAY];
     int sum = 0;
     for (int i = 0; i < OfficeComplexConstants.QUARTERS_OF_DAY; i++) {
       sum = 0;
       for (Appliance appliance: appliances) {
         if (!(appliance instanceof NotShiftingAppliance))
-          sum = sum + appliance.getWeeklyLoadVector().get(day).get(i);
+          sum = sum + appliance.getWeeklyLoadVector().get(day, i);
       }
-      v.add(sum);
+      v[i] = sum;
     }
     return v;
   }
@@ -851,19 +881,18 @@ public class Office
    * @param day
    * @return daily weather sensitive load
    */
-  Vector<Integer> fillDailyWeatherSensitiveLoad (int day)
+  int[] fillDailyWeatherSensitiveLoad (int day)
   {
     // Creating auxiliary variables
-    Vector<Integer> v =
-      new Vector<Integer>(OfficeComplexConstants.QUARTERS_OF_DAY);
+    int[] v = new int[OfficeComplexConstants.QUARTERS_OF_DAY];
     int sum = 0;
     for (int i = 0; i < OfficeComplexConstants.QUARTERS_OF_DAY; i++) {
       sum = 0;
       for (Appliance appliance: appliances) {
         if (appliance instanceof WeatherSensitiveAppliance)
-          sum = sum + appliance.getWeeklyLoadVector().get(day).get(i);
+          sum = sum + appliance.getWeeklyLoadVector().get(day, i);
       }
-      v.add(sum);
+      v[i] = sum;
     }
     return v;
   }
@@ -875,20 +904,18 @@ public class Office
    * @param day
    * @return daily dominant load
    */
-  Vector<Integer> fillDailyDominantLoad (int day)
+  int[] fillDailyDominantLoad (int day)
   {
     // Creating auxiliary variables
-    Vector<Integer> v =
-      new Vector<Integer>(OfficeComplexConstants.QUARTERS_OF_DAY);
+    int[] v = new int[OfficeComplexConstants.QUARTERS_OF_DAY];
     int sum = 0;
 
     for (int i = 0; i < OfficeComplexConstants.QUARTERS_OF_DAY; i++) {
       if (appliances.get(dominantAppliance).getOverallPower() != -1)
         sum =
-          appliances.get(dominantAppliance).getWeeklyLoadVector().get(day)
-                  .get(i);
+          appliances.get(dominantAppliance).getWeeklyLoadVector().get(day, i);
 
-      v.add(sum);
+      v[i] = sum;
     }
 
     return v;
@@ -901,19 +928,18 @@ public class Office
    * @param day
    * @return daily non-dominant load
    */
-  Vector<Integer> fillDailyNonDominantLoad (int day)
+  int[] fillDailyNonDominantLoad (int day)
   {
     // Creating auxiliary variables
-    Vector<Integer> v =
-      new Vector<Integer>(OfficeComplexConstants.QUARTERS_OF_DAY);
+    int[] v = new int[OfficeComplexConstants.QUARTERS_OF_DAY];
     int sum = 0;
     for (int i = 0; i < OfficeComplexConstants.QUARTERS_OF_DAY; i++) {
       sum = 0;
       for (int j = 0; j < appliances.size(); j++) {
         if (j != dominantAppliance)
-          sum = sum + appliances.get(j).getWeeklyLoadVector().get(day).get(i);
+          sum = sum + appliances.get(j).getWeeklyLoadVector().get(day, i);
       }
-      v.add(sum);
+      v[i] = sum;
     }
     return v;
   }
@@ -924,24 +950,20 @@ public class Office
    * 
    * @return daily base load in hours
    */
-  Vector<Integer> fillDailyBaseLoadInHours ()
+  int[] fillDailyBaseLoadInHours ()
   {
 
     // Creating Auxiliary Variables
-    Vector<Integer> v =
-      new Vector<Integer>(OfficeComplexConstants.HOURS_OF_DAY);
+    int[] v = new int[OfficeComplexConstants.HOURS_OF_DAY];
     int sum = 0;
     for (int i = 0; i < OfficeComplexConstants.HOURS_OF_DAY; i++) {
-      sum = 0;
+      int quarter = i * OfficeComplexConstants.QUARTERS_OF_HOUR;
       sum =
-        dailyBaseLoad.get(i * OfficeComplexConstants.QUARTERS_OF_HOUR)
-                + dailyBaseLoad.get(i * OfficeComplexConstants.QUARTERS_OF_HOUR
-                                    + 1)
-                + dailyBaseLoad.get(i * OfficeComplexConstants.QUARTERS_OF_HOUR
-                                    + 2)
-                + dailyBaseLoad.get(i * OfficeComplexConstants.QUARTERS_OF_HOUR
-                                    + 3);
-      v.add(sum);
+        dailyBaseLoad[quarter]
+                + dailyBaseLoad[quarter + 1]
+                + dailyBaseLoad[quarter + 2]
+                + dailyBaseLoad[quarter + 3];
+      v[i] = sum;
     }
     return v;
   }
@@ -952,24 +974,20 @@ public class Office
    * 
    * @return daily controllable load in hours
    */
-  Vector<Integer> fillDailyControllableLoadInHours ()
+  int[] fillDailyControllableLoadInHours ()
   {
 
     // Creating Auxiliary Variables
-    Vector<Integer> v =
-      new Vector<Integer>(OfficeComplexConstants.HOURS_OF_DAY);
+    int[] v = new int[OfficeComplexConstants.HOURS_OF_DAY];
     int sum = 0;
     for (int i = 0; i < OfficeComplexConstants.HOURS_OF_DAY; i++) {
-      sum = 0;
+      int quarter = i * OfficeComplexConstants.QUARTERS_OF_HOUR;
       sum =
-        dailyControllableLoad.get(i * OfficeComplexConstants.QUARTERS_OF_HOUR)
-                + dailyControllableLoad
-                        .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 1)
-                + dailyControllableLoad
-                        .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 2)
-                + dailyControllableLoad
-                        .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 3);
-      v.add(sum);
+        dailyControllableLoad[quarter]
+                + dailyControllableLoad[quarter + 1]
+                + dailyControllableLoad[quarter + 2]
+                + dailyControllableLoad[quarter + 3];
+      v[i] = sum;
     }
     return v;
   }
@@ -980,25 +998,20 @@ public class Office
    * 
    * @return daily weather sensitive load in hours
    */
-  Vector<Integer> fillDailyWeatherSensitiveLoadInHours ()
+  int[] fillDailyWeatherSensitiveLoadInHours ()
   {
 
     // Creating Auxiliary Variables
-    Vector<Integer> v =
-      new Vector<Integer>(OfficeComplexConstants.HOURS_OF_DAY);
+    int[] v = new int[OfficeComplexConstants.HOURS_OF_DAY];
     int sum = 0;
     for (int i = 0; i < OfficeComplexConstants.HOURS_OF_DAY; i++) {
-      sum = 0;
+      int quarter = i * OfficeComplexConstants.QUARTERS_OF_HOUR;
       sum =
-        dailyWeatherSensitiveLoad
-                .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR)
-                + dailyWeatherSensitiveLoad
-                        .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 1)
-                + dailyWeatherSensitiveLoad
-                        .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 2)
-                + dailyWeatherSensitiveLoad
-                        .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 3);
-      v.add(sum);
+        dailyWeatherSensitiveLoad[quarter]
+                + dailyWeatherSensitiveLoad[quarter + 1]
+                + dailyWeatherSensitiveLoad[quarter + 2]
+                + dailyWeatherSensitiveLoad[quarter + 3];
+      v[i] = sum;
     }
     return v;
   }
@@ -1009,24 +1022,20 @@ public class Office
    * 
    * @return daily dominant load in hours
    */
-  Vector<Integer> fillDailyDominantLoadInHours ()
+  int[] fillDailyDominantLoadInHours ()
   {
 
     // Creating Auxiliary Variables
-    Vector<Integer> v =
-      new Vector<Integer>(OfficeComplexConstants.HOURS_OF_DAY);
+    int[] v = new int[OfficeComplexConstants.HOURS_OF_DAY];
     int sum = 0;
     for (int i = 0; i < OfficeComplexConstants.HOURS_OF_DAY; i++) {
-      sum = 0;
+      int quarter = i * OfficeComplexConstants.QUARTERS_OF_HOUR;
       sum =
-        dailyDominantLoad.get(i * OfficeComplexConstants.QUARTERS_OF_HOUR)
-                + dailyDominantLoad
-                        .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 1)
-                + dailyDominantLoad
-                        .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 2)
-                + dailyDominantLoad
-                        .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 3);
-      v.add(sum);
+        dailyDominantLoad[quarter]
+                + dailyDominantLoad[quarter + 1]
+                + dailyDominantLoad[quarter + 2]
+                + dailyDominantLoad[quarter + 3];
+      v[i] = sum;
     }
     return v;
   }
@@ -1037,24 +1046,20 @@ public class Office
    * 
    * @return daily non-dominant load in hours
    */
-  Vector<Integer> fillDailyNonDominantLoadInHours ()
+  int[] fillDailyNonDominantLoadInHours ()
   {
 
     // Creating Auxiliary Variables
-    Vector<Integer> v =
-      new Vector<Integer>(OfficeComplexConstants.HOURS_OF_DAY);
+    int[] v = new int[OfficeComplexConstants.HOURS_OF_DAY];
     int sum = 0;
     for (int i = 0; i < OfficeComplexConstants.HOURS_OF_DAY; i++) {
-      sum = 0;
+      int quarter = i * OfficeComplexConstants.QUARTERS_OF_HOUR;
       sum =
-        dailyNonDominantLoad.get(i * OfficeComplexConstants.QUARTERS_OF_HOUR)
-                + dailyNonDominantLoad
-                        .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 1)
-                + dailyNonDominantLoad
-                        .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 2)
-                + dailyNonDominantLoad
-                        .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 3);
-      v.add(sum);
+        dailyNonDominantLoad[quarter]
+                + dailyNonDominantLoad[quarter + 1]
+                + dailyNonDominantLoad[quarter + 2]
+                + dailyNonDominantLoad[quarter + 3];
+      v[i] = sum;
     }
     return v;
   }
@@ -1088,16 +1093,17 @@ public class Office
       dailyWeatherSensitiveLoad =
         fillDailyWeatherSensitiveLoad(week
                                       * OfficeComplexConstants.DAYS_OF_WEEK + i);
-      weeklyBaseLoad.add(dailyBaseLoad);
-      weeklyControllableLoad.add(dailyControllableLoad);
-      weeklyWeatherSensitiveLoad.add(dailyWeatherSensitiveLoad);
+      weeklyBaseLoad.addDay(dailyBaseLoad);
+      weeklyControllableLoad.addDay(dailyControllableLoad);
+      weeklyWeatherSensitiveLoad.addDay(dailyWeatherSensitiveLoad);
 
       dailyBaseLoadInHours = fillDailyBaseLoadInHours();
       dailyControllableLoadInHours = fillDailyControllableLoadInHours();
       dailyWeatherSensitiveLoadInHours = fillDailyWeatherSensitiveLoadInHours();
-      weeklyBaseLoadInHours.add(dailyBaseLoadInHours);
-      weeklyControllableLoadInHours.add(dailyControllableLoadInHours);
-      weeklyWeatherSensitiveLoadInHours.add(dailyWeatherSensitiveLoadInHours);
+      weeklyBaseLoadInHours.addDay(dailyBaseLoadInHours);
+      weeklyControllableLoadInHours.addDay(dailyControllableLoadInHours);
+      weeklyWeatherSensitiveLoadInHours
+              .addDay(dailyWeatherSensitiveLoadInHours);
     }
 
   }
@@ -1105,11 +1111,14 @@ public class Office
   /**
    * This function is checking the current weather conditions and the existence
    * of weather sensitive appliances and if the temperature is over/under a
-   * certain threshold, the appliances begin or stop their operation.
+   * certain threshold, the appliances begin or stop their operation. It
+   * returns true if the weather sensitive load of the office was updated.
    */
-  public void weatherCheck (int day, int hour, Instant now, double temperature)
+  public boolean weatherCheck (int day, int hour, Instant now,
+                               double temperature)
   {
     boolean flag = false;
+    boolean changed = false;
 
     for (Appliance appliance: appliances) {
 
@@ -1117,27 +1126,27 @@ public class Office
 
         appliance.weatherDailyFunction(day, hour, temperature);
 
-        if ((appliance.getWeeklyLoadVector().get(day)
-                .get(hour * OfficeComplexConstants.QUARTERS_OF_HOUR) > 0)
-            || (appliance.getWeeklyLoadVector().get(day)
-                    .get(hour * OfficeComplexConstants.QUARTERS_OF_HOUR + 1) > 0)
-            || (appliance.getWeeklyLoadVector().get(day)
-                    .get(hour * OfficeComplexConstants.QUARTERS_OF_HOUR + 2) > 0)
-            || (appliance.getWeeklyLoadVector().get(day)
-                    .get(hour * OfficeComplexConstants.QUARTERS_OF_HOUR + 3) > 0)) {
+        if ((appliance.getWeeklyLoadVector()
+                .get(day, hour * OfficeComplexConstants.QUARTERS_OF_HOUR) > 0)
+            || (appliance.getWeeklyLoadVector()
+                    .get(day, hour * OfficeComplexConstants.QUARTERS_OF_HOUR + 1) > 0)
+            || (appliance.getWeeklyLoadVector()
+                    .get(day, hour * OfficeComplexConstants.QUARTERS_OF_HOUR + 2) > 0)
+            || (appliance.getWeeklyLoadVector()
+                    .get(day, hour * OfficeComplexConstants.QUARTERS_OF_HOUR + 3) > 0)) {
 
           // log.debug("Changed Air Condition indeed");
           dailyWeatherSensitiveLoad = fillDailyWeatherSensitiveLoad(day);
-          weeklyWeatherSensitiveLoad.set(day, dailyWeatherSensitiveLoad);
+          weeklyWeatherSensitiveLoad.setDay(day, dailyWeatherSensitiveLoad);
           dailyWeatherSensitiveLoadInHours =
             fillDailyWeatherSensitiveLoadInHours();
           weeklyWeatherSensitiveLoadInHours
-                  .set(day, dailyWeatherSensitiveLoadInHours);
-
+                  .setDay(day, dailyWeatherSensitiveLoadInHours);
+          changed = true;
         }
       }
     }
-
+    return changed;
   }
 
   /**
@@ -1188,16 +1197,14 @@ public class Office
    */
   public void printDailyLoad (int day)
   {
-    ListIterator<Integer> iter = weeklyBaseLoadInHours.get(day).listIterator();
-    ListIterator<Integer> iter2 =
-      weeklyControllableLoadInHours.get(day).listIterator();
-    ListIterator<Integer> iter3 =
-      weeklyWeatherSensitiveLoadInHours.get(day).listIterator();
     log.info("Summary of Daily Load of House " + name);
     for (int j = 0; j < OfficeComplexConstants.HOURS_OF_DAY; j++)
-      log.info("Hour : " + j + 1 + " Base Load : " + iter.next()
-               + " Controllable Load : " + iter2.next()
-               + " Weather Sensitive Load : " + iter3.next());
+      log.info("Hour : " + j + 1 + " Base Load : "
+               + weeklyBaseLoadInHours.get(day, j)
+               + " Controllable Load : "
+               + weeklyControllableLoadInHours.get(day, j)
+               + " Weather Sensitive Load : "
+               + weeklyWeatherSensitiveLoadInHours.get(day, j));
   }
 
   @Override
@@ -15,8 +15,11 @@
  */
 package org.powertac.officecomplexcustomer.customers;
 
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Comparator;
 import java.util.List;
 import java.util.ListIterator;
@@ -24,6 +27,9 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.TreeMap;
 import java.util.Vector;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
@@ -41,6 +47,12 @@ import org.powertac.common.enumerations.PowerType;
 import org.powertac.common.interfaces.CustomerModelAccessor;
 import org.powertac.common.interfaces.TariffMarket;
 import org.powertac.customer.AbstractCustomer;
+import org.powertac.customer.LoadTable;
+import org.powertac.customer.PopulationCache;
+import org.powertac.customer.TariffProfileMemo;
+import org.powertac.customer.TemperatureTriggerIndex;
+import org.powertac.officecomplexcustomer.appliances.AirCondition;
+import org.powertac.officecomplexcustomer.appliances.Appliance;
 import org.powertac.officecomplexcustomer.configurations.OfficeComplexConstants;
 
 /**
@@ -64,84 +76,74 @@ public class OfficeComplex extends AbstractCustomer
   int seedId = 1;
 
   /**
-   * These are the vectors containing aggregated each day's base load from the
+   * These are the tables containing aggregated each day's base load from the
    * appliances installed inside the offices of each type.
    **/
-  Vector<Vector<Long>> aggDailyBaseLoadNS = new Vector<Vector<Long>>();
-  Vector<Vector<Long>> aggDailyBaseLoadSS = new Vector<Vector<Long>>();
+  LoadTable aggDailyBaseLoadNS;
+  LoadTable aggDailyBaseLoadSS;
 
   /**
-   * These are the vectors containing aggregated each day's controllable load
+   * These are the tables containing aggregated each day's controllable load
    * from the appliances installed inside the offices.
    **/
-  Vector<Vector<Long>> aggDailyControllableLoadNS = new Vector<Vector<Long>>();
-  Vector<Vector<Long>> aggDailyControllableLoadSS = new Vector<Vector<Long>>();
+  LoadTable aggDailyControllableLoadNS;
+  LoadTable aggDailyControllableLoadSS;
 
   /**
-   * These are the vectors containing aggregated each day's weather sensitive
+   * These are the tables containing aggregated each day's weather sensitive
    * load from the appliances installed inside the offices.
    **/
-  Vector<Vector<Long>> aggDailyWeatherSensitiveLoadNS =
-    new Vector<Vector<Long>>();
-  Vector<Vector<Long>> aggDailyWeatherSensitiveLoadSS =
-    new Vector<Vector<Long>>();
+  LoadTable aggDailyWeatherSensitiveLoadNS;
+  LoadTable aggDailyWeatherSensitiveLoadSS;
 
   /**
-   * These are the vectors containing aggregated each day's dominant load from
+   * These are the tables containing aggregated each day's dominant load from
    * the appliances installed inside the households of each type.
    **/
-  Vector<Vector<Long>> aggDailyDominantLoadNS = new Vector<Vector<Long>>();
-  Vector<Vector<Long>> aggDailyDominantLoadSS = new Vector<Vector<Long>>();
+  LoadTable aggDailyDominantLoadNS;
+  LoadTable aggDailyDominantLoadSS;
 
   /**
-   * These are the vectors containing aggregated each day's non dominant load
+   * These are the tables containing aggregated each day's non dominant load
    * from the appliances installed inside the households of each type.
    **/
-  Vector<Vector<Long>> aggDailyNonDominantLoadNS = new Vector<Vector<Long>>();
-  Vector<Vector<Long>> aggDailyNonDominantLoadSS = new Vector<Vector<Long>>();
+  LoadTable aggDailyNonDominantLoadNS;
+  LoadTable aggDailyNonDominantLoadSS;
 
   /**
-   * These are the aggregated vectors containing each day's base load of all the
+   * These are the aggregated tables containing each day's base load of all the
    * offices in hours.
    **/
-  Vector<Vector<Long>> aggDailyBaseLoadInHoursNS = new Vector<Vector<Long>>();
-  Vector<Vector<Long>> aggDailyBaseLoadInHoursSS = new Vector<Vector<Long>>();
+  LoadTable aggDailyBaseLoadInHoursNS;
+  LoadTable aggDailyBaseLoadInHoursSS;
 
   /**
-   * These are the aggregated vectors containing each day's controllable load of
+   * These are the aggregated tables containing each day's controllable load of
    * all the offices in hours.
    **/
-  Vector<Vector<Long>> aggDailyControllableLoadInHoursNS =
-    new Vector<Vector<Long>>();
-  Vector<Vector<Long>> aggDailyControllableLoadInHoursSS =
-    new Vector<Vector<Long>>();
+  LoadTable aggDailyControllableLoadInHoursNS;
+  LoadTable aggDailyControllableLoadInHoursSS;
 
   /**
-   * These are the aggregated vectors containing each day's weather sensitive
+   * These are the aggregated tables containing each day's weather sensitive
    * load of all the offices in hours.
    **/
-  Vector<Vector<Long>> aggDailyWeatherSensitiveLoadInHoursNS =
-    new Vector<Vector<Long>>();
-  Vector<Vector<Long>> aggDailyWeatherSensitiveLoadInHoursSS =
-    new Vector<Vector<Long>>();
+  LoadTable aggDailyWeatherSensitiveLoadInHoursNS;
+  LoadTable aggDailyWeatherSensitiveLoadInHoursSS;
 
   /**
-   * These are the vectors containing aggregated each day's dominant load from
+   * These are the tables containing aggregated each day's dominant load from
    * the appliances installed inside the households of each type.
    **/
-  Vector<Vector<Long>> aggDailyDominantLoadInHoursNS =
-    new Vector<Vector<Long>>();
-  Vector<Vector<Long>> aggDailyDominantLoadInHoursSS =
-    new Vector<Vector<Long>>();
+  LoadTable aggDailyDominantLoadInHoursNS;
+  LoadTable aggDailyDominantLoadInHoursSS;
 
   /**
-   * These are the vectors containing aggregated each day's non dominant load
+   * These are the tables containing aggregated each day's non dominant load
    * from the appliances installed inside the households of each type.
    **/
-  Vector<Vector<Long>> aggDailyNonDominantLoadInHoursNS =
-    new Vector<Vector<Long>>();
-  Vector<Vector<Long>> aggDailyNonDominantLoadInHoursSS =
-    new Vector<Vector<Long>>();
+  LoadTable aggDailyNonDominantLoadInHoursNS;
+  LoadTable aggDailyNonDominantLoadInHoursSS;
 
   /**
    * These are the mean consumption of the OfficeComplex types for the days with
@@ -162,6 +164,17 @@ public class OfficeComplex extends AbstractCustomer
   protected final TariffEvaluationHelper tariffEvalHelper =
     new TariffEvaluationHelper();
 
+  /** Cache of generated offices; null generates them every time. */
+  PopulationCache populationCache = null;
+
+  /**
+   * The comfort bands of the air conditions of each type of offices, indexed
+   * by the position of the office in its type, and the offices themselves in
+   * that order. Built on the first weather check.
+   */
+  Map<String, TemperatureTriggerIndex> airConditionIndex = null;
+  Map<String, Vector<Office>> indexedOffices = null;
+
   /**
    * This variable is utilized for the creation of the random numbers and is
    * taken from the service.
@@ -220,6 +233,18 @@ public class OfficeComplex extends AbstractCustomer
    */
   public void initialize (Properties conf, int seed,
                           Map<CustomerInfo, String> mapping)
+  {
+    initialize(conf, seed, mapping, null);
+  }
+
+  /**
+   * Initializes the office complex as above, building its offices
+   * concurrently on the given pool. A null pool builds them one after the
+   * other on the calling thread.
+   */
+  public void initialize (Properties conf, int seed,
+                          Map<CustomerInfo, String> mapping,
+                          ExecutorService pool)
   {
     this.initialize();
     // Initializing variables
@@ -236,22 +261,31 @@ public class OfficeComplex extends AbstractCustomer
 
     Vector<Integer> publicVacationVector = createPublicVacationVector(days);
 
-    for (int i = 0; i < numberOfOffices.get("NS"); i++) {
-      log.info("Initializing " + toString() + " NSoffice " + i);
-      Office of = new Office();
-      of.initialize(toString() + " NSoffice" + i, conf, publicVacationVector,
-                    seedId++);
-      notShiftingOffices.add(of);
-      of.officeOf = this;
+    // An office complex drawn from restored seeds is the same in every game
+    // that restores them, so its offices may come from the population cache.
+    String cacheKey = null;
+    Population population = null;
+    if (null != populationCache) {
+      cacheKey =
+        populationCache.key(toString(), conf, service.getRandomSeedRepo(),
+                            seed, OfficeComplexConstants.DAYS_OF_COMPETITION,
+                            Population.serialVersionUID);
+      if (null != cacheKey)
+        population = populationCache.load(cacheKey, Population.class);
     }
 
-    for (int i = 0; i < numberOfOffices.get("SS"); i++) {
-      log.info("Initializing " + toString() + " SSoffice " + i);
-      Office hh = new Office();
-      hh.initialize(toString() + " SSoffice" + i, conf, publicVacationVector,
-                    seedId++);
-      smartShiftingOffices.add(hh);
-      hh.officeOf = this;
+    if (null != population) {
+      population.restore(this);
+    }
+    else {
+      notShiftingOffices.addAll(createOffices("NS", conf, publicVacationVector,
+                                              pool));
+      smartShiftingOffices.addAll(createOffices("SS", conf,
+                                                publicVacationVector, pool));
+
+      if (null != cacheKey
+          && service.getRandomSeedRepo().isRestored(toString()))
+        populationCache.store(cacheKey, new Population(this));
     }
 
     for (String type: numberOfOffices.keySet()) {
@@ -315,6 +349,71 @@ public class OfficeComplex extends AbstractCustomer
 
   }
 
+  /**
+   * Creates the offices of the given type. Each office is populated here, in
+   * the order of a sequential build, so its RandomSeeds are created with the
+   * same ids and in the same order either way. Only the filling of the
+   * schedules, which draws from those seeds alone, runs on the pool.
+   */
+  Vector<Office> createOffices (String type, Properties conf,
+                                Vector<Integer> publicVacationVector,
+                                ExecutorService pool)
+  {
+    int count = numberOfOffices.get(type);
+    Vector<Office> offices = new Vector<Office>(count);
+    if (null == pool) {
+      for (int i = 0; i < count; i++)
+        offices.add(createOffice(type, i, conf, publicVacationVector,
+                                 seedId++));
+      return offices;
+    }
+
+    List<Future<?>> results = new ArrayList<Future<?>>(count);
+    for (int i = 0; i < count; i++) {
+      Office of = populateOffice(type, i, conf, publicVacationVector,
+                                 seedId++);
+      offices.add(of);
+      results.add(pool.submit(() -> of.fillSchedules(conf)));
+    }
+    try {
+      for (Future<?> result: results)
+        result.get();
+    }
+    catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted initializing " + toString(),
+                                      ie);
+    }
+    catch (ExecutionException ee) {
+      log.error("Failed to initialize " + toString() + " " + type + "office: "
+                + ee.getCause());
+      throw new IllegalStateException(ee.getCause());
+    }
+    return offices;
+  }
+
+  private Office createOffice (String type, int index, Properties conf,
+                               Vector<Integer> publicVacationVector,
+                               int officeSeed)
+  {
+    Office of =
+      populateOffice(type, index, conf, publicVacationVector, officeSeed);
+    of.fillSchedules(conf);
+    return of;
+  }
+
+  private Office populateOffice (String type, int index, Properties conf,
+                                 Vector<Integer> publicVacationVector,
+                                 int officeSeed)
+  {
+    log.info("Initializing " + toString() + " " + type + "office " + index);
+    Office of = new Office();
+    of.populate(toString() + " " + type + "office" + index, conf,
+                publicVacationVector, officeSeed);
+    of.officeOf = this;
+    return of;
+  }
+
   // =====SUBSCRIPTION FUNCTIONS===== //
 
   //@Override
@@ -342,52 +441,72 @@ public class OfficeComplex extends AbstractCustomer
    */
   void fillAggWeeklyLoad (String type)
   {
+    int days =
+      OfficeComplexConstants.DAYS_OF_WEEK
+              * (OfficeComplexConstants.WEEKS_OF_COMPETITION + OfficeComplexConstants.WEEKS_OF_BOOTSTRAP);
 
     if (type.equals("NS")) {
-      for (int i = 0; i < OfficeComplexConstants.DAYS_OF_WEEK
-                          * (OfficeComplexConstants.WEEKS_OF_COMPETITION + OfficeComplexConstants.WEEKS_OF_BOOTSTRAP); i++) {
-        aggDailyBaseLoadNS.add(fillAggDailyBaseLoad(i, type));
-        aggDailyControllableLoadNS.add(fillAggDailyControllableLoad(i, type));
-        aggDailyWeatherSensitiveLoadNS
-                .add(fillAggDailyWeatherSensitiveLoad(i, type));
-        aggDailyBaseLoadInHoursNS.add(fillAggDailyBaseLoadInHours(i, type));
-        aggDailyControllableLoadInHoursNS
-                .add(fillAggDailyControllableLoadInHours(i, type));
-        aggDailyWeatherSensitiveLoadInHoursNS
-                .add(fillAggDailyWeatherSensitiveLoadInHours(i, type));
-
-        aggDailyDominantLoadNS.add(fillAggDailyDominantLoad(i, type));
-        aggDailyNonDominantLoadNS.add(fillAggDailyNonDominantLoad(i, type));
-        aggDailyDominantLoadInHoursNS
-                .add(fillAggDailyDominantLoadInHours(i, type));
-        aggDailyNonDominantLoadInHoursNS
-                .add(fillAggDailyNonDominantLoadInHours(i, type));
-      }
+      aggDailyBaseLoadNS =
+        new LoadTable(days, OfficeComplexConstants.QUARTERS_OF_DAY);
+      aggDailyControllableLoadNS =
+        new LoadTable(days, OfficeComplexConstants.QUARTERS_OF_DAY);
+      aggDailyWeatherSensitiveLoadNS =
+        new LoadTable(days, OfficeComplexConstants.QUARTERS_OF_DAY);
+      aggDailyDominantLoadNS =
+        new LoadTable(days, OfficeComplexConstants.QUARTERS_OF_DAY);
+      aggDailyNonDominantLoadNS =
+        new LoadTable(days, OfficeComplexConstants.QUARTERS_OF_DAY);
+      aggDailyBaseLoadInHoursNS =
+        new LoadTable(days, OfficeComplexConstants.HOURS_OF_DAY);
+      aggDailyControllableLoadInHoursNS =
+        new LoadTable(days, OfficeComplexConstants.HOURS_OF_DAY);
+      aggDailyWeatherSensitiveLoadInHoursNS =
+        new LoadTable(days, OfficeComplexConstants.HOURS_OF_DAY);
+      aggDailyDominantLoadInHoursNS =
+        new LoadTable(days, OfficeComplexConstants.HOURS_OF_DAY);
+      aggDailyNonDominantLoadInHoursNS =
+        new LoadTable(days, OfficeComplexConstants.HOURS_OF_DAY);
     }
     else {
-      for (int i = 0; i < OfficeComplexConstants.DAYS_OF_WEEK
-                          * (OfficeComplexConstants.WEEKS_OF_COMPETITION + OfficeComplexConstants.WEEKS_OF_BOOTSTRAP); i++) {
-        aggDailyBaseLoadSS.add(fillAggDailyBaseLoad(i, type));
-        aggDailyControllableLoadSS.add(fillAggDailyControllableLoad(i, type));
-        aggDailyWeatherSensitiveLoadSS
-                .add(fillAggDailyWeatherSensitiveLoad(i, type));
-        aggDailyBaseLoadInHoursSS.add(fillAggDailyBaseLoadInHours(i, type));
-        aggDailyControllableLoadInHoursSS
-                .add(fillAggDailyControllableLoadInHours(i, type));
-        aggDailyWeatherSensitiveLoadInHoursSS
-                .add(fillAggDailyWeatherSensitiveLoadInHours(i, type));
-
-        aggDailyDominantLoadSS.add(fillAggDailyDominantLoad(i, type));
-        aggDailyNonDominantLoadSS.add(fillAggDailyNonDominantLoad(i, type));
-        aggDailyDominantLoadInHoursSS
-                .add(fillAggDailyDominantLoadInHours(i, type));
-        aggDailyNonDominantLoadInHoursSS
-                .add(fillAggDailyNonDominantLoadInHours(i, type));
-      }
+      aggDailyBaseLoadSS =
+        new LoadTable(days, OfficeComplexConstants.QUARTERS_OF_DAY);
+      aggDailyControllableLoadSS =
+        new LoadTable(days, OfficeComplexConstants.QUARTERS_OF_DAY);
+      aggDailyWeatherSensitiveLoadSS =
+        new LoadTable(days, OfficeComplexConstants.QUARTERS_OF_DAY);
+      aggDailyDominantLoadSS =
+        new LoadTable(days, OfficeComplexConstants.QUARTERS_OF_DAY);
+      aggDailyNonDominantLoadSS =
+        new LoadTable(days, OfficeComplexConstants.QUARTERS_OF_DAY);
+      aggDailyBaseLoadInHoursSS =
+        new LoadTable(days, OfficeComplexConstants.HOURS_OF_DAY);
+      aggDailyControllableLoadInHoursSS =
+        new LoadTable(days, OfficeComplexConstants.HOURS_OF_DAY);
+      aggDailyWeatherSensitiveLoadInHoursSS =
+        new LoadTable(days, OfficeComplexConstants.HOURS_OF_DAY);
+      aggDailyDominantLoadInHoursSS =
+        new LoadTable(days, OfficeComplexConstants.HOURS_OF_DAY);
+      aggDailyNonDominantLoadInHoursSS =
+        new LoadTable(days, OfficeComplexConstants.HOURS_OF_DAY);
     }
+
+    for (int i = 0; i < days; i++) {
+      fillAggDailyBaseLoad(i, type);
+      fillAggDailyControllableLoad(i, type);
+      fillAggDailyWeatherSensitiveLoad(i, type);
+
+      fillAggDailyBaseLoadInHours(i, type);
+      fillAggDailyControllableLoadInHours(i, type);
+      fillAggDailyWeatherSensitiveLoadInHours(i, type);
+
+      fillAggDailyDominantLoad(i, type);
+      fillAggDailyNonDominantLoad(i, type);
+      fillAggDailyDominantLoadInHours(i, type);
+      fillAggDailyNonDominantLoadInHours(i, type);
+    }
+
     fillAggDominantLoads(type);
   }
-
   private void fillAggDominantLoads (String type)
   {
 
@@ -432,20 +551,8 @@ public class OfficeComplex extends AbstractCustomer
     int dayTemp =
       day
               % (OfficeComplexConstants.DAYS_OF_BOOTSTRAP + OfficeComplexConstants.DAYS_OF_COMPETITION);
-    if (type.equals("NS")) {
-      aggDailyWeatherSensitiveLoadNS
-              .set(dayTemp, fillAggDailyWeatherSensitiveLoad(dayTemp, type));
-      aggDailyWeatherSensitiveLoadInHoursNS
-              .set(dayTemp,
-                   fillAggDailyWeatherSensitiveLoadInHours(dayTemp, type));
-    }
-    else {
-      aggDailyWeatherSensitiveLoadSS
-              .set(dayTemp, fillAggDailyWeatherSensitiveLoad(dayTemp, type));
-      aggDailyWeatherSensitiveLoadInHoursSS
-              .set(dayTemp,
-                   fillAggDailyWeatherSensitiveLoadInHours(dayTemp, type));
-    }
+    fillAggDailyWeatherSensitiveLoad(dayTemp, type);
+    fillAggDailyWeatherSensitiveLoadInHours(dayTemp, type);
   }
 
   /**
@@ -454,30 +561,30 @@ public class OfficeComplex extends AbstractCustomer
    * 
    * @param day
    * @param type
-   * @return
    */
-  Vector<Long> fillAggDailyBaseLoad (int day, String type)
+  void fillAggDailyBaseLoad (int day, String type)
   {
 
     Vector<Office> offices = new Vector<Office>();
+    LoadTable table;
 
     if (type.equals("NS")) {
       offices = notShiftingOffices;
+      table = aggDailyBaseLoadNS;
     }
     else {
       offices = smartShiftingOffices;
+      table = aggDailyBaseLoadSS;
     }
 
-    Vector<Long> v = new Vector<Long>(OfficeComplexConstants.QUARTERS_OF_DAY);
     long sum = 0;
     for (int i = 0; i < OfficeComplexConstants.QUARTERS_OF_DAY; i++) {
       sum = 0;
       for (Office office: offices) {
-        sum = sum + office.weeklyBaseLoad.get(day).get(i);
+        sum = sum + office.weeklyBaseLoad.get(day, i);
       }
-      v.add(sum);
+      table.set(day, i, sum);
     }
-    return v;
   }
 
   /**
@@ -486,30 +593,30 @@ public class OfficeComplex extends AbstractCustomer
    * 
    * @param day
    * @param type
-   * @return
    */
-  Vector<Long> fillAggDailyControllableLoad (int day, String type)
+  void fillAggDailyControllableLoad (int day, String type)
   {
 
     Vector<Office> offices = new Vector<Office>();
+    LoadTable table;
 
     if (type.equals("NS")) {
       offices = notShiftingOffices;
+      table = aggDailyControllableLoadNS;
     }
     else {
       offices = smartShiftingOffices;
+      table = aggDailyControllableLoadSS;
     }
 
-    Vector<Long> v = new Vector<Long>(OfficeComplexConstants.QUARTERS_OF_DAY);
     long sum = 0;
     for (int i = 0; i < OfficeComplexConstants.QUARTERS_OF_DAY; i++) {
       sum = 0;
       for (Office office: offices) {
-        sum = sum + office.weeklyControllableLoad.get(day).get(i);
+        sum = sum + office.weeklyControllableLoad.get(day, i);
       }
-      v.add(sum);
+      table.set(day, i, sum);
     }
-    return v;
   }
 
   /**
@@ -519,346 +626,206 @@ public class OfficeComplex extends AbstractCustomer
    * 
    * @param day
    * @param type
-   * @return
    */
-  Vector<Long> fillAggDailyWeatherSensitiveLoad (int day, String type)
+  void fillAggDailyWeatherSensitiveLoad (int day, String type)
   {
 
     Vector<Office> offices = new Vector<Office>();
+    LoadTable table;
 
     if (type.equals("NS")) {
       offices = notShiftingOffices;
+      table = aggDailyWeatherSensitiveLoadNS;
     }
     else {
       offices = smartShiftingOffices;
+      table = aggDailyWeatherSensitiveLoadSS;
     }
 
-    Vector<Long> v = new Vector<Long>(OfficeComplexConstants.QUARTERS_OF_DAY);
     long sum = 0;
     for (int i = 0; i < OfficeComplexConstants.QUARTERS_OF_DAY; i++) {
       sum = 0;
       for (Office office: offices) {
-        sum = sum + office.weeklyWeatherSensitiveLoad.get(day).get(i);
+        sum = sum + office.weeklyWeatherSensitiveLoad.get(day, i);
       }
-      v.add(sum);
+      table.set(day, i, sum);
     }
-    return v;
   }
 
   /**
    * This function is used in order to fill the aggregated daily dominant Load
-   * of the office complex's offices for each quarter of the
-   * hour.
+   * of the office complex's offices for each quarter of the hour.
    * 
    * @param day
    * @param type
-   * @return
    */
-  Vector<Long> fillAggDailyDominantLoad (int day, String type)
+  void fillAggDailyDominantLoad (int day, String type)
   {
 
     Vector<Office> offices = new Vector<Office>();
+    LoadTable table;
 
     if (type.equals("NS")) {
       offices = notShiftingOffices;
+      table = aggDailyDominantLoadNS;
     }
     else {
       offices = smartShiftingOffices;
+      table = aggDailyDominantLoadSS;
     }
 
-    Vector<Long> v = new Vector<Long>(OfficeComplexConstants.QUARTERS_OF_DAY);
     long sum = 0;
     for (int i = 0; i < OfficeComplexConstants.QUARTERS_OF_DAY; i++) {
       sum = 0;
       for (Office office: offices) {
-        sum = sum + office.weeklyDominantLoad.get(day).get(i);
+        sum = sum + office.weeklyDominantLoad.get(day, i);
       }
-      v.add(sum);
+      table.set(day, i, sum);
     }
-    return v;
   }
 
   /**
    * This function is used in order to fill the aggregated daily non dominant
-   * Load
-   * of the office complex's offices for each quarter of the
-   * hour.
+   * Load of the office complex's offices for each quarter of the hour.
    * 
    * @param day
    * @param type
-   * @return
    */
-  Vector<Long> fillAggDailyNonDominantLoad (int day, String type)
+  void fillAggDailyNonDominantLoad (int day, String type)
   {
 
     Vector<Office> offices = new Vector<Office>();
+    LoadTable table;
 
     if (type.equals("NS")) {
       offices = notShiftingOffices;
+      table = aggDailyNonDominantLoadNS;
     }
     else {
       offices = smartShiftingOffices;
+      table = aggDailyNonDominantLoadSS;
     }
 
-    Vector<Long> v = new Vector<Long>(OfficeComplexConstants.QUARTERS_OF_DAY);
     long sum = 0;
     for (int i = 0; i < OfficeComplexConstants.QUARTERS_OF_DAY; i++) {
       sum = 0;
       for (Office office: offices) {
-        sum = sum + office.weeklyNonDominantLoad.get(day).get(i);
+        sum = sum + office.weeklyNonDominantLoad.get(day, i);
       }
-      v.add(sum);
+      table.set(day, i, sum);
     }
-    return v;
   }
 
   /**
    * This function is used in order to fill the daily Base Load of the office
-   * for each hour for a certain type of offices.
+   * for each hour for a certain type of offices, by summing the quarters of
+   * each hour.
    * 
    * @param day
    * @param type
-   * @return
    */
-  Vector<Long> fillAggDailyBaseLoadInHours (int day, String type)
+  void fillAggDailyBaseLoadInHours (int day, String type)
   {
-
-    Vector<Long> daily = new Vector<Long>();
-    long sum = 0;
-
     if (type.equals("NS")) {
-      for (int i = 0; i < OfficeComplexConstants.HOURS_OF_DAY; i++) {
-        sum = 0;
-        sum =
-          aggDailyBaseLoadNS.get(day)
-                  .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR)
-                  + aggDailyBaseLoadNS.get(day)
-                          .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 1)
-                  + aggDailyBaseLoadNS.get(day)
-                          .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 2)
-                  + aggDailyBaseLoadNS.get(day)
-                          .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 3);
-        daily.add(sum);
-      }
+      aggDailyBaseLoadNS
+              .sumInto(aggDailyBaseLoadInHoursNS, day);
     }
     else {
-      for (int i = 0; i < OfficeComplexConstants.HOURS_OF_DAY; i++) {
-        sum = 0;
-        sum =
-          aggDailyBaseLoadSS.get(day)
-                  .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR)
-                  + aggDailyBaseLoadSS.get(day)
-                          .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 1)
-                  + aggDailyBaseLoadSS.get(day)
-                          .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 2)
-                  + aggDailyBaseLoadSS.get(day)
-                          .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 3);
-        daily.add(sum);
-      }
+      aggDailyBaseLoadSS
+              .sumInto(aggDailyBaseLoadInHoursSS, day);
     }
-
-    return daily;
   }
 
   /**
    * This function is used in order to fill the daily Controllable Load of the
-   * office for each hour for a certain type of offices.
+   * office for each hour for a certain type of offices, by summing the
+   * quarters of each hour.
    * 
    * @param day
    * @param type
-   * @return
    */
-  Vector<Long> fillAggDailyControllableLoadInHours (int day, String type)
+  void fillAggDailyControllableLoadInHours (int day, String type)
   {
-
-    Vector<Long> daily = new Vector<Long>();
-    long sum = 0;
-
     if (type.equals("NS")) {
-      for (int i = 0; i < OfficeComplexConstants.HOURS_OF_DAY; i++) {
-        sum = 0;
-        sum =
-          aggDailyControllableLoadNS.get(day)
-                  .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR)
-                  + aggDailyControllableLoadNS.get(day)
-                          .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 1)
-                  + aggDailyControllableLoadNS.get(day)
-                          .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 2)
-                  + aggDailyControllableLoadNS.get(day)
-                          .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 3);
-        daily.add(sum);
-      }
+      aggDailyControllableLoadNS
+              .sumInto(aggDailyControllableLoadInHoursNS, day);
     }
     else {
-      for (int i = 0; i < OfficeComplexConstants.HOURS_OF_DAY; i++) {
-        sum = 0;
-        sum =
-          aggDailyControllableLoadSS.get(day)
-                  .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR)
-                  + aggDailyControllableLoadSS.get(day)
-                          .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 1)
-                  + aggDailyControllableLoadSS.get(day)
-                          .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 2)
-                  + aggDailyControllableLoadSS.get(day)
-                          .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 3);
-        daily.add(sum);
-      }
+      aggDailyControllableLoadSS
+              .sumInto(aggDailyControllableLoadInHoursSS, day);
     }
-
-    return daily;
   }
 
   /**
    * This function is used in order to fill the daily weather sensitive Load of
-   * the office for each hour for a certain type of offices.
+   * the office for each hour for a certain type of offices, by summing the
+   * quarters of each hour.
    * 
    * @param day
    * @param type
-   * @return
    */
-  Vector<Long> fillAggDailyWeatherSensitiveLoadInHours (int day, String type)
+  void fillAggDailyWeatherSensitiveLoadInHours (int day, String type)
   {
-
     int dayTemp =
       day
               % (OfficeComplexConstants.DAYS_OF_BOOTSTRAP + OfficeComplexConstants.DAYS_OF_COMPETITION);
-    Vector<Long> daily = new Vector<Long>();
-    long sum = 0;
 
     if (type.equals("NS")) {
-      for (int i = 0; i < OfficeComplexConstants.HOURS_OF_DAY; i++) {
-        sum = 0;
-        sum =
-          aggDailyWeatherSensitiveLoadNS.get(dayTemp)
-                  .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR)
-                  + aggDailyWeatherSensitiveLoadNS.get(dayTemp)
-                          .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 1)
-                  + aggDailyWeatherSensitiveLoadNS.get(dayTemp)
-                          .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 2)
-                  + aggDailyWeatherSensitiveLoadNS.get(dayTemp)
-                          .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 3);
-        daily.add(sum);
-      }
+      aggDailyWeatherSensitiveLoadNS
+              .sumInto(aggDailyWeatherSensitiveLoadInHoursNS, dayTemp);
     }
     else {
-      for (int i = 0; i < OfficeComplexConstants.HOURS_OF_DAY; i++) {
-        sum = 0;
-        sum =
-          aggDailyWeatherSensitiveLoadSS.get(dayTemp)
-                  .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR)
-                  + aggDailyWeatherSensitiveLoadSS.get(dayTemp)
-                          .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 1)
-                  + aggDailyWeatherSensitiveLoadSS.get(dayTemp)
-                          .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 2)
-                  + aggDailyWeatherSensitiveLoadSS.get(dayTemp)
-                          .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 3);
-        daily.add(sum);
-      }
+      aggDailyWeatherSensitiveLoadSS
+              .sumInto(aggDailyWeatherSensitiveLoadInHoursSS, dayTemp);
     }
-
-    return daily;
   }
 
   /**
-   * This function is used in order to fill the daily dominant Load of
-   * the office for each hour for a certain type of offices.
+   * This function is used in order to fill the daily dominant Load of the
+   * office for each hour for a certain type of offices, by summing the
+   * quarters of each hour.
    * 
    * @param day
    * @param type
-   * @return
    */
-  Vector<Long> fillAggDailyDominantLoadInHours (int day, String type)
+  void fillAggDailyDominantLoadInHours (int day, String type)
   {
-
     int dayTemp =
       day
               % (OfficeComplexConstants.DAYS_OF_BOOTSTRAP + OfficeComplexConstants.DAYS_OF_COMPETITION);
-    Vector<Long> daily = new Vector<Long>();
-    long sum = 0;
 
     if (type.equals("NS")) {
-      for (int i = 0; i < OfficeComplexConstants.HOURS_OF_DAY; i++) {
-        sum = 0;
-        sum =
-          aggDailyDominantLoadNS.get(dayTemp)
-                  .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR)
-                  + aggDailyDominantLoadNS.get(dayTemp)
-                          .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 1)
-                  + aggDailyDominantLoadNS.get(dayTemp)
-                          .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 2)
-                  + aggDailyDominantLoadNS.get(dayTemp)
-                          .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 3);
-        daily.add(sum);
-      }
+      aggDailyDominantLoadNS
+              .sumInto(aggDailyDominantLoadInHoursNS, dayTemp);
     }
     else {
-      for (int i = 0; i < OfficeComplexConstants.HOURS_OF_DAY; i++) {
-        sum = 0;
-        sum =
-          aggDailyDominantLoadSS.get(dayTemp)
-                  .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR)
-                  + aggDailyDominantLoadSS.get(dayTemp)
-                          .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 1)
-                  + aggDailyDominantLoadSS.get(dayTemp)
-                          .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 2)
-                  + aggDailyDominantLoadSS.get(dayTemp)
-                          .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 3);
-        daily.add(sum);
-      }
+      aggDailyDominantLoadSS
+              .sumInto(aggDailyDominantLoadInHoursSS, dayTemp);
     }
-
-    return daily;
   }
 
   /**
-   * This function is used in order to fill the daily dominant Load of
-   * the office for each hour for a certain type of offices.
+   * This function is used in order to fill the daily non dominant Load of the
+   * office for each hour for a certain type of offices, by summing the
+   * quarters of each hour.
    * 
    * @param day
    * @param type
-   * @return
    */
-  Vector<Long> fillAggDailyNonDominantLoadInHours (int day, String type)
+  void fillAggDailyNonDominantLoadInHours (int day, String type)
   {
-
     int dayTemp =
       day
               % (OfficeComplexConstants.DAYS_OF_BOOTSTRAP + OfficeComplexConstants.DAYS_OF_COMPETITION);
-    Vector<Long> daily = new Vector<Long>();
-    long sum = 0;
 
     if (type.equals("NS")) {
-      for (int i = 0; i < OfficeComplexConstants.HOURS_OF_DAY; i++) {
-        sum = 0;
-        sum =
-          aggDailyNonDominantLoadNS.get(dayTemp)
-                  .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR)
-                  + aggDailyNonDominantLoadNS.get(dayTemp)
-                          .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 1)
-                  + aggDailyNonDominantLoadNS.get(dayTemp)
-                          .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 2)
-                  + aggDailyNonDominantLoadNS.get(dayTemp)
-                          .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 3);
-        daily.add(sum);
-      }
+      aggDailyNonDominantLoadNS
+              .sumInto(aggDailyNonDominantLoadInHoursNS, dayTemp);
     }
     else {
-      for (int i = 0; i < OfficeComplexConstants.HOURS_OF_DAY; i++) {
-        sum = 0;
-        sum =
-          aggDailyNonDominantLoadSS.get(dayTemp)
-                  .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR)
-                  + aggDailyNonDominantLoadSS.get(dayTemp)
-                          .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 1)
-                  + aggDailyNonDominantLoadSS.get(dayTemp)
-                          .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 2)
-                  + aggDailyNonDominantLoadSS.get(dayTemp)
-                          .get(i * OfficeComplexConstants.QUARTERS_OF_HOUR + 3);
-        daily.add(sum);
-      }
+      aggDailyNonDominantLoadSS
+              .sumInto(aggDailyNonDominantLoadInHoursSS, dayTemp);
     }
-
-    return daily;
   }
 
   // =====CONSUMPTION FUNCTIONS===== //
@@ -927,6 +894,16 @@ public class OfficeComplex extends AbstractCustomer
     return (double) summary / OfficeComplexConstants.THOUSAND;
   }
 
+  /**
+   * Sets the cache from which the offices are loaded, and to which they are
+   * stored, when the office complex is drawn from restored seeds. A null
+   * cache always generates them.
+   */
+  public void setPopulationCache (PopulationCache cache)
+  {
+    populationCache = cache;
+  }
+
   // =====GETTER FUNCTIONS===== //
 
   /** This function returns the inertia Map variable of the village. */
@@ -953,10 +930,10 @@ public class OfficeComplex extends AbstractCustomer
               % (OfficeComplexConstants.DAYS_OF_BOOTSTRAP + OfficeComplexConstants.DAYS_OF_COMPETITION);
 
     if (type.equals("NS")) {
-      summaryBase = aggDailyBaseLoadInHoursNS.get(dayTemp).get(hour);
+      summaryBase = aggDailyBaseLoadInHoursNS.get(dayTemp, hour);
     }
     else {
-      summaryBase = aggDailyBaseLoadInHoursSS.get(dayTemp).get(hour);
+      summaryBase = aggDailyBaseLoadInHoursSS.get(dayTemp, hour);
     }
 
     log.debug("Base Load for " + type + ":" + summaryBase);
@@ -976,11 +953,11 @@ public class OfficeComplex extends AbstractCustomer
 
     if (type.equals("NS")) {
       summaryControllable =
-        aggDailyControllableLoadInHoursNS.get(dayTemp).get(hour);
+        aggDailyControllableLoadInHoursNS.get(dayTemp, hour);
     }
     else {
       summaryControllable =
-        aggDailyControllableLoadInHoursSS.get(dayTemp).get(hour);
+        aggDailyControllableLoadInHoursSS.get(dayTemp, hour);
     }
 
     log.debug("Controllable Load for " + type + ":" + summaryControllable);
@@ -1000,11 +977,11 @@ public class OfficeComplex extends AbstractCustomer
 
     if (type.equals("NS")) {
       summaryWeatherSensitive =
-        aggDailyWeatherSensitiveLoadInHoursNS.get(dayTemp).get(hour);
+        aggDailyWeatherSensitiveLoadInHoursNS.get(dayTemp, hour);
     }
     else {
       summaryWeatherSensitive =
-        aggDailyWeatherSensitiveLoadInHoursSS.get(dayTemp).get(hour);
+        aggDailyWeatherSensitiveLoadInHoursSS.get(dayTemp, hour);
     }
 
     log.debug("WeatherSensitive Load for " + type + ":"
@@ -1025,11 +1002,11 @@ public class OfficeComplex extends AbstractCustomer
 
     if (type.equals("NS")) {
       summaryNonDominant =
-        aggDailyNonDominantLoadInHoursNS.get(dayTemp).get(hour);
+        aggDailyNonDominantLoadInHoursNS.get(dayTemp, hour);
     }
     else {
       summaryNonDominant =
-        aggDailyNonDominantLoadInHoursSS.get(dayTemp).get(hour);
+        aggDailyNonDominantLoadInHoursSS.get(dayTemp, hour);
     }
 
     log.debug("NonDominant Load for " + type + ":" + summaryNonDominant);
@@ -1080,16 +1057,12 @@ public class OfficeComplex extends AbstractCustomer
               % (OfficeComplexConstants.DAYS_OF_BOOTSTRAP + OfficeComplexConstants.DAYS_OF_COMPETITION);
 
     if (type.equals("NS")) {
-      before = aggDailyControllableLoadInHoursNS.get(dayTemp).get(hour);
-      aggDailyControllableLoadInHoursNS.get(dayTemp)
-              .set(hour, before + curtail);
-      after = aggDailyControllableLoadInHoursNS.get(dayTemp).get(hour);
+      before = aggDailyControllableLoadInHoursNS.get(dayTemp, hour);
+      after = aggDailyControllableLoadInHoursNS.add(dayTemp, hour, curtail);
     }
     else {
-      before = aggDailyControllableLoadInHoursSS.get(dayTemp).get(hour);
-      aggDailyControllableLoadInHoursSS.get(dayTemp)
-              .set(hour, before + curtail);
-      after = aggDailyControllableLoadInHoursSS.get(dayTemp).get(hour);
+      before = aggDailyControllableLoadInHoursSS.get(dayTemp, hour);
+      after = aggDailyControllableLoadInHoursSS.add(dayTemp, hour, curtail);
     }
 
     log.debug("Controllable Load for " + type + ": Before Curtailment "
@@ -1099,21 +1072,21 @@ public class OfficeComplex extends AbstractCustomer
 
   /**
    * This function returns the quantity of controllable load for a specific day
-   * in form of a vector for a certain type of offices.
+   * in form of an array for a certain type of offices.
    */
-  Vector<Long> getControllableConsumptions (int day, String type)
+  long[] getControllableConsumptions (int day, String type)
   {
 
-    Vector<Long> controllableVector = new Vector<Long>();
+    long[] controllableVector;
     int dayTemp =
       day
               % (OfficeComplexConstants.DAYS_OF_BOOTSTRAP + OfficeComplexConstants.DAYS_OF_COMPETITION);
 
     if (type.equals("NS")) {
-      controllableVector = aggDailyControllableLoadInHoursNS.get(dayTemp);
+      controllableVector = aggDailyControllableLoadInHoursNS.getDay(dayTemp);
     }
     else {
-      controllableVector = aggDailyControllableLoadInHoursSS.get(dayTemp);
+      controllableVector = aggDailyControllableLoadInHoursSS.getDay(dayTemp);
     }
 
     return controllableVector;
@@ -1121,23 +1094,23 @@ public class OfficeComplex extends AbstractCustomer
 
   /**
    * This function returns the quantity of weather sensitive load for a specific
-   * day in form of a vector for a certain type of offices.
+   * day in form of an array for a certain type of offices.
    */
-  Vector<Long> getWeatherSensitiveConsumptions (int day, String type)
+  long[] getWeatherSensitiveConsumptions (int day, String type)
   {
 
-    Vector<Long> weatherSensitiveVector = new Vector<Long>();
+    long[] weatherSensitiveVector;
     int dayTemp =
       day
               % (OfficeComplexConstants.DAYS_OF_BOOTSTRAP + OfficeComplexConstants.DAYS_OF_COMPETITION);
 
     if (type.equals("NS")) {
       weatherSensitiveVector =
-        aggDailyWeatherSensitiveLoadInHoursNS.get(dayTemp);
+        aggDailyWeatherSensitiveLoadInHoursNS.getDay(dayTemp);
     }
     else {
       weatherSensitiveVector =
-        aggDailyWeatherSensitiveLoadInHoursSS.get(dayTemp);
+        aggDailyWeatherSensitiveLoadInHoursSS.getDay(dayTemp);
     }
 
     return weatherSensitiveVector;
@@ -1145,21 +1118,21 @@ public class OfficeComplex extends AbstractCustomer
 
   /**
    * This function returns the quantity of weather sensitive load for a specific
-   * day in form of a vector for a certain type of households.
+   * day in form of an array for a certain type of households.
    */
-  Vector<Long> getNonDominantConsumptions (int day, String type)
+  long[] getNonDominantConsumptions (int day, String type)
   {
 
-    Vector<Long> nonDominantVector = new Vector<Long>();
+    long[] nonDominantVector;
     int dayTemp =
       day
               % (OfficeComplexConstants.DAYS_OF_BOOTSTRAP + OfficeComplexConstants.DAYS_OF_COMPETITION);
 
     if (type.equals("NS")) {
-      nonDominantVector = aggDailyNonDominantLoadInHoursNS.get(dayTemp);
+      nonDominantVector = aggDailyNonDominantLoadInHoursNS.getDay(dayTemp);
     }
     else {
-      nonDominantVector = aggDailyNonDominantLoadInHoursSS.get(dayTemp);
+      nonDominantVector = aggDailyNonDominantLoadInHoursSS.getDay(dayTemp);
     }
 
     return nonDominantVector;
@@ -1285,9 +1258,10 @@ public class OfficeComplex extends AbstractCustomer
         office.dailyShifting(tariff, newControllableLoad, tariffEvalHelper,
                              dayTemp, nextStartOfDay());
 
-      log.debug("New Dominant Load for house " + office.toString()
-                + " for Tariff " + tariff.toString() + ": "
-                + Arrays.toString(temp));
+      if (log.isDebugEnabled())
+        log.debug("New Dominant Load for house " + office.toString()
+                  + " for Tariff " + tariff.toString() + ": "
+                  + Arrays.toString(temp));
 
       for (int j = 0; j < OfficeComplexConstants.HOURS_OF_DAY; j++)
         newControllableLoad[j] += temp[j];
@@ -1385,19 +1359,51 @@ public class OfficeComplex extends AbstractCustomer
       double temperature = wr.getTemperature();
       // log.debug("Temperature: " + temperature);
 
-      Vector<Office> offices = getOffices();
-
-      for (Office office: offices) {
-        office.weatherCheck(dayTemp, hour, now, temperature);
-      }
+      if (null == airConditionIndex)
+        indexAirConditions();
 
       for (String type: numberOfOffices.keySet()) {
-        updateAggDailyWeatherSensitiveLoad(type, day);
-        if (dayTemp + 1 < OfficeComplexConstants.DAYS_OF_COMPETITION) {
-          updateAggDailyWeatherSensitiveLoad(type, dayTemp + 1);
+        Vector<Office> offices = indexedOffices.get(type);
+        BitSet affected = airConditionIndex.get(type).affected(temperature);
+        boolean changed = false;
+
+        // Only the air conditions act, and only those out of their comfort
+        // band now or at the previous check.
+        for (int i = affected.nextSetBit(0); i >= 0;
+             i = affected.nextSetBit(i + 1))
+          changed |= offices.get(i).weatherCheck(dayTemp, hour, now,
+                                                 temperature);
+
+        if (changed) {
+          updateAggDailyWeatherSensitiveLoad(type, day);
+          if (dayTemp + 1 < OfficeComplexConstants.DAYS_OF_COMPETITION) {
+            updateAggDailyWeatherSensitiveLoad(type, dayTemp + 1);
+          }
         }
+      }
+    }
+  }
 
+  /**
+   * This function registers the comfort band of every air condition in the
+   * office complex, so that the weather check can find the offices that need
+   * to react to the current temperature.
+   */
+  void indexAirConditions ()
+  {
+    airConditionIndex = new TreeMap<String, TemperatureTriggerIndex>();
+    indexedOffices = new TreeMap<String, Vector<Office>>();
+    for (String type: numberOfOffices.keySet()) {
+      Vector<Office> offices = getOffices(type);
+      TemperatureTriggerIndex index = new TemperatureTriggerIndex();
+      for (int i = 0; i < offices.size(); i++) {
+        for (Appliance appliance: offices.get(i).getAppliances()) {
+          if (appliance instanceof AirCondition ac)
+            index.add(i, ac.getLowerLimit(), ac.getUpperLimit());
+        }
       }
+      airConditionIndex.put(type, index);
+      indexedOffices.put(type, offices);
     }
   }
 
@@ -1461,7 +1467,7 @@ public class OfficeComplex extends AbstractCustomer
 
     double[] nonDominantUsage = getNonDominantUsage(dayTemp, type);
 
-    Vector<Long> controllableVector = new Vector<Long>();
+    long[] controllableVector = new long[OfficeComplexConstants.HOURS_OF_DAY];
 
     CustomerInfo customer =
       service.getCustomerRepo()
@@ -1473,7 +1479,7 @@ public class OfficeComplex extends AbstractCustomer
       .findActiveSubscriptionsForCustomer(customer).get(0);
 
     log.debug("Old Consumption for day " + day + ": "
-              + getControllableConsumptions(dayTemp, type).toString());
+              + Arrays.toString(getControllableConsumptions(dayTemp, type)));
     double[] newControllableLoad =
       dailyShifting(sub.getTariff(), nonDominantUsage, dayTemp, type);
 
@@ -1481,13 +1487,13 @@ public class OfficeComplex extends AbstractCustomer
       String newControllableLoadString =
         Double.toString(newControllableLoad[i]);
       newControllableLoadString = newControllableLoadString.replace(".0", "");
-      controllableVector.add(Long.parseLong(newControllableLoadString));
+      controllableVector[i] = Long.parseLong(newControllableLoadString);
     }
 
     log.debug("New Consumption for day " + day + ": "
-              + controllableVector.toString());
+              + Arrays.toString(controllableVector));
 
-    aggDailyControllableLoadInHoursSS.set(dayTemp, controllableVector);
+    aggDailyControllableLoadInHoursSS.setDay(dayTemp, controllableVector);
 
   }
 
@@ -1497,11 +1503,44 @@ public class OfficeComplex extends AbstractCustomer
     return name;
   }
 
+  /**
+   * The offices of an office complex as kept in the population cache. Change
+   * the serialVersionUID whenever the office model changes, so that entries
+   * written by an older model are no longer found.
+   */
+  static class Population implements Serializable
+  {
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final Vector<Office> notShiftingOffices;
+    private final Vector<Office> smartShiftingOffices;
+    private final int seedId;
+
+    Population (OfficeComplex officeComplex)
+    {
+      super();
+      notShiftingOffices = officeComplex.notShiftingOffices;
+      smartShiftingOffices = officeComplex.smartShiftingOffices;
+      seedId = officeComplex.seedId;
+    }
+
+    void restore (OfficeComplex officeComplex)
+    {
+      officeComplex.notShiftingOffices.addAll(notShiftingOffices);
+      officeComplex.smartShiftingOffices.addAll(smartShiftingOffices);
+      officeComplex.seedId = seedId;
+      for (Office office: officeComplex.getOffices())
+        office.officeOf = officeComplex;
+    }
+  }
+
   public class TariffEvaluationWrapper implements CustomerModelAccessor
   {
     private String type;
     private int day;
     private CustomerInfo customerInfo;
+    private TariffProfileMemo shiftedProfiles = new TariffProfileMemo();
 
     public TariffEvaluationWrapper (String type, CustomerInfo customer)
     {
@@ -1531,24 +1570,32 @@ public class OfficeComplex extends AbstractCustomer
     @Override
     public CapacityProfile getCapacityProfile (Tariff tariff)
     {
-      double[] result = new double[OfficeComplexConstants.HOURS_OF_DAY];
+      Instant start = nextStartOfDay();
+      double[] result;
 
       if (type.equalsIgnoreCase("NS")) {
-        result =
-          Arrays.copyOf(getDominantLoad(type), getDominantLoad(type).length);
+        double[] dominantLoad = getDominantLoad(type);
+        result = perOffice(Arrays.copyOf(dominantLoad, dominantLoad.length));
       }
       else {
-        double[] nonDominantUsage = getNonDominantUsage(day, type);
-        result = dailyShifting(tariff, nonDominantUsage, day, type);
+        // tariffs with the same rates shift the same way
+        result = shiftedProfiles.get(tariff.getTariffSpec(), start,
+                                     () -> perOffice(dailyShifting(tariff,
+                                         getNonDominantUsage(day, type), day,
+                                         type)));
       }
-      log.debug(Arrays.toString(result));
 
-      for (int i = 0; i < result.length; i++)
-        result[i] /= (OfficeComplexConstants.THOUSAND * getPopulation());
+      if (log.isDebugEnabled())
+        log.debug("Usage: " + Arrays.toString(result));
 
-      log.info("Usage:" + Arrays.toString(result));
+      return new CapacityProfile(result, start);
+    }
 
-      return new CapacityProfile(result, nextStartOfDay());
+    private double[] perOffice (double[] load)
+    {
+      for (int i = 0; i < load.length; i++)
+        load[i] /= (OfficeComplexConstants.THOUSAND * getPopulation());
+      return load;
     }
 
     @Override
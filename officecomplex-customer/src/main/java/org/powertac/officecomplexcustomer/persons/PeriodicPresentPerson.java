@@ -16,6 +16,7 @@
 
 package org.powertac.officecomplexcustomer.persons;
 
+import java.io.Serial;
 import java.util.Properties;
 import java.util.Vector;
 
@@ -34,6 +35,8 @@ import org.powertac.officecomplexcustomer.enumerations.Status;
  **/
 public class PeriodicPresentPerson extends WorkingPerson
 {
+  @Serial
+  private static final long serialVersionUID = 1L;
 
   @Override
   public void initialize (String AgentName, Properties conf,
@@ -35,6 +35,7 @@ import org.mockito.stubbing.Answer;
 import org.powertac.common.Broker;
 import org.powertac.common.Competition;
 import org.powertac.common.CustomerInfo;
+import org.powertac.common.RandomSeed;
 import org.powertac.common.Rate;
 import org.powertac.common.Tariff;
 import org.powertac.common.TariffSpecification;
@@ -55,7 +56,10 @@ import org.powertac.common.repo.TariffRepo;
 import org.powertac.common.repo.TariffSubscriptionRepo;
 import org.powertac.common.repo.TimeslotRepo;
 import org.powertac.common.repo.WeatherReportRepo;
+import org.powertac.officecomplexcustomer.appliances.Appliance;
+import org.powertac.officecomplexcustomer.customers.Office;
 import org.powertac.officecomplexcustomer.customers.OfficeComplex;
+import org.powertac.officecomplexcustomer.persons.Person;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.TestExecutionListeners;
@@ -869,4 +873,90 @@ public class OfficeComplexCustomerServiceTests
 
   }
 
+  // offices built on several threads get the same seeds, in the same order,
+  // and the same schedules as offices built on one
+  @Test
+  public void testConcurrentInitialization ()
+  {
+    try {
+      officeComplexCustomerService.setInitializationThreads(1);
+      initializeService();
+      List<OfficeComplex> sequential =
+        officeComplexCustomerService.getOfficeComplexList();
+      List<RandomSeed> sequentialSeeds = officeSeeds(sequential);
+
+      recycleForInitialization();
+      officeComplexCustomerService.setInitializationThreads(4);
+      initializeService();
+      assertEquals(relativeIds(sequentialSeeds),
+                   relativeIds(officeSeeds(officeComplexCustomerService
+                           .getOfficeComplexList())),
+                   "same seed ids");
+
+      // draw from the same seed values to compare the schedules
+      recycleForInitialization();
+      for (RandomSeed seed: sequentialSeeds)
+        randomSeedRepo.restoreRandomSeed(new RandomSeed(seed
+                .getRequesterClass(), seed.getRequesterId(), seed.getPurpose(),
+                                                        seed.getValue()));
+      initializeService();
+      List<OfficeComplex> concurrent =
+        officeComplexCustomerService.getOfficeComplexList();
+      assertEquals(sequential.size(), concurrent.size());
+      for (int c = 0; c < sequential.size(); c++) {
+        for (String type: new String[] { "NS", "SS" }) {
+          for (int day = 0; day < 14; day++) {
+            for (int hour = 0; hour < 24; hour++) {
+              for (String load: new String[] { "getBaseConsumptions",
+                                               "getControllableConsumptions" }) {
+                long expected = ReflectionTestUtils
+                        .invokeMethod(sequential.get(c), load, day, hour, type);
+                long actual = ReflectionTestUtils
+                        .invokeMethod(concurrent.get(c), load, day, hour, type);
+                assertEquals(expected, actual,
+                             load + " " + type + " day " + day + " hour " + hour);
+              }
+            }
+          }
+        }
+      }
+    }
+    finally {
+      officeComplexCustomerService.setInitializationThreads(1);
+    }
+  }
+
+  private void recycleForInitialization ()
+  {
+    customerRepo.recycle();
+    tariffSubscriptionRepo.recycle();
+    randomSeedRepo.recycle();
+  }
+
+  // the seeds of the complexes and their offices, members and appliances
+  private List<RandomSeed> officeSeeds (List<OfficeComplex> complexes)
+  {
+    List<RandomSeed> result = new ArrayList<RandomSeed>();
+    for (OfficeComplex complex: complexes) {
+      result.add((RandomSeed) ReflectionTestUtils.getField(complex, "gen"));
+      for (Office office: complex.getOffices()) {
+        result.add((RandomSeed) ReflectionTestUtils.getField(office, "gen"));
+        for (Person member: office.getMembers())
+          result.add((RandomSeed) ReflectionTestUtils.getField(member, "gen"));
+        for (Appliance appliance: office.getAppliances())
+          result.add((RandomSeed) ReflectionTestUtils.getField(appliance,
+                                                               "gen"));
+      }
+    }
+    return result;
+  }
+
+  private List<Long> relativeIds (List<RandomSeed> seeds)
+  {
+    List<Long> result = new ArrayList<Long>();
+    for (RandomSeed seed: seeds)
+      result.add(seed.getId() - seeds.get(0).getId());
+    return result;
+  }
+
 }
@@ -80,12 +80,19 @@ public class TariffEvaluator
   private double tariffSwitchFactor = 0.04;
   private double preferredDuration = 6;
   private boolean evaluateAllTariffs = false;
+  private boolean incrementalEvaluation = true;
 
   // state
   private int evaluationCounter = 0;
   private HashMap<Tariff, EvalData> evaluatedTariffs;
   private HashMap<Tariff, Integer> allocations;
 
+  // candidates of the last evaluation cycle, and the choice tables built
+  // from them, keyed by current tariff and withdrawal cost
+  private Set<Tariff> lastCandidates = null;
+  private Tariff lastDefaultTariff = null;
+  private HashMap<List<Object>, Choices> choices;
+
   // algorithm parameters - needed for numerical stablity
   private double lambdaMax = 50.0;
   private double maxLinearUtility = 7.0;
@@ -110,6 +117,7 @@ public class TariffEvaluator
              helper.getDownregHalf(), helper.getDownregSlope());
     evaluatedTariffs = new HashMap<>();
     allocations = new LinkedHashMap<>();
+    choices = new HashMap<>();
   }
 
   public TariffEvaluator (CustomerModelAccessor cma)
@@ -237,6 +245,20 @@ public class TariffEvaluator
     return this;
   }
 
+  /**
+   * If true (the default), the choice probabilities computed for the
+   * current subscriptions are kept from one evaluation cycle to the next
+   * as long as the candidate tariffs are unchanged, so a cycle in which
+   * nothing new was offered to this customer only samples for switching.
+   * Has no effect if evaluateAllTariffs is set, because then costs are
+   * recomputed in every cycle.
+   */
+  public TariffEvaluator withIncrementalEvaluation (boolean value)
+  {
+    incrementalEvaluation = value;
+    return this;
+  }
+
   /**
    * Sets the steady-state evaluation inertia for the customer. This is a
    * value in [0,1], where 0 is no inertia (always evaluates), and 1 is
@@ -355,6 +377,21 @@ public class TariffEvaluator
     // make sure all superseding tariffs are in the set
     addSupersedingTariffs(newTariffs);
 
+    // choice tables can be reused if the candidates are the same and
+    // their costs are not recomputed
+    Tariff defaultTariff = getDefaultTariff();
+    if (!incrementalEvaluation || evaluateAllTariffs
+        || !newTariffs.equals(lastCandidates)
+        || defaultTariff != lastDefaultTariff) {
+      choices.clear();
+      lastCandidates = newTariffs;
+      lastDefaultTariff = defaultTariff;
+    }
+    else {
+      log.info("customer {}: candidates unchanged, reusing {} choice tables",
+               getName(), choices.size());
+    }
+
     // adjust inertia for BOG, accounting for the extra
     // evaluation cycle at ts 0
     double actualInertia =
@@ -440,7 +477,89 @@ public class TariffEvaluator
       log.info("eval tariffs for zero population {}", customerInfo.getName());
       return;
     }
-    //log.info("evaluateAlternativeTariffs(" + current.getTariff().getId() + ")");
+    Choices choice = getChoices(current, withdraw0, defaultTariff,
+                                defaultEval, initialTariffs);
+    Tariff currentTariff = choice.currentTariff;
+    boolean revoked = choice.revoked;
+    double signupCost = choice.signupCost;
+    withdraw0 = choice.withdraw0;
+    TreeSet<TariffUtility> evals = choice.evals;
+
+    int remainingPopulation = population;
+    int chunk = remainingPopulation;
+    if (customerInfo.isMultiContracting()) {
+      // Ideally, each individual customer makes a choice.
+      // For large populations, we do it in chunks.
+      chunk = getChunkSize(population);
+    }
+    while (remainingPopulation > 0) {
+      int count = (int)Math.min(remainingPopulation, chunk);
+      remainingPopulation -= count;
+      // allocate a chunk
+      double inertiaSample = accessor.getInertiaSample();
+      if (!revoked && withdraw0 <= 0.0 &&
+          signupCost <= 0.0 && inertiaSample < inertia) {
+        // skip this one if not processing revoked tariff,
+        // or if there is no payment possible from withdrawing,
+        // or if the customer was not induced by a positive signup cost,
+        // or if the customer is not paying attention.
+        continue;
+      }
+      else if (signupCost > 0.0 &&
+          inertiaSample < inertia * signupBonusFactor) {
+        // Use lower inertia in case the current tariff had a signup bonus
+        continue;
+      }
+      double tariffSample = accessor.getTariffChoiceSample();
+      // walk down the list until we run out of probability
+      boolean allocated = false;
+      for (TariffUtility tu : evals) {
+        log.debug("tariff {}: sample={}, probability={}",
+                  tu.tariff.getId(), tariffSample, tu.probability);
+        if (tariffSample <= tu.probability) {
+          addAllocation(currentTariff, tu.tariff, count);
+          allocated = true;
+          break;
+        }
+        else {
+          tariffSample -= tu.probability;
+        }
+      }
+      if (!allocated) {
+        log.error(getName() + ": Failed to allocate: P=" + tariffSample);
+      }
+    }
+  }
+
+  // Returns the utilities and choice probabilities of the alternatives to
+  // the current tariff. These depend only on the candidates, the current
+  // tariff, and the withdrawal cost, so unless the current tariff has been
+  // revoked they are kept until the candidates change.
+  private Choices getChoices (TariffSubscription current, double withdraw0,
+                              Tariff defaultTariff, EvalData defaultEval,
+                              Set<Tariff> initialTariffs)
+  {
+    List<Object> key = List.of(current.getTariff(), withdraw0);
+    if (current.getTariff().getState() == Tariff.State.KILLED) {
+      choices.remove(key);
+      return computeChoices(current, withdraw0, defaultTariff,
+                            defaultEval, initialTariffs);
+    }
+    Choices result = choices.get(key);
+    if (null == result) {
+      result = computeChoices(current, withdraw0, defaultTariff,
+                              defaultEval, initialTariffs);
+      choices.put(key, result);
+    }
+    return result;
+  }
+
+  private Choices computeChoices (TariffSubscription current,
+                                  double withdraw0,
+                                  Tariff defaultTariff,
+                                  EvalData defaultEval,
+                                  Set<Tariff> initialTariffs)
+  {
     // Associate each alternate tariff with its utility value
     TreeSet<TariffUtility> evals = new TreeSet<>();
     HashSet<Tariff> tariffs = new HashSet<>(initialTariffs);
@@ -546,50 +665,7 @@ public class TariffEvaluator
       log.debug("Tariff {} probability={}",
                 util.tariff.getId(), util.probability);
     }
-    int remainingPopulation = population;
-    int chunk = remainingPopulation;
-    if (customerInfo.isMultiContracting()) {
-      // Ideally, each individual customer makes a choice.
-      // For large populations, we do it in chunks.
-      chunk = getChunkSize(population);
-    }
-    while (remainingPopulation > 0) {
-      int count = (int)Math.min(remainingPopulation, chunk);
-      remainingPopulation -= count;
-      // allocate a chunk
-      double inertiaSample = accessor.getInertiaSample();
-      if (!revoked && withdraw0 <= 0.0 &&
-          signupCost <= 0.0 && inertiaSample < inertia) {
-        // skip this one if not processing revoked tariff,
-        // or if there is no payment possible from withdrawing,
-        // or if the customer was not induced by a positive signup cost,
-        // or if the customer is not paying attention.
-        continue;
-      }
-      else if (signupCost > 0.0 &&
-          inertiaSample < inertia * signupBonusFactor) {
-        // Use lower inertia in case the current tariff had a signup bonus
-        continue;
-      }
-      double tariffSample = accessor.getTariffChoiceSample();
-      // walk down the list until we run out of probability
-      boolean allocated = false;
-      for (TariffUtility tu : evals) {
-        log.debug("tariff {}: sample={}, probability={}",
-                  tu.tariff.getId(), tariffSample, tu.probability);
-        if (tariffSample <= tu.probability) {
-          addAllocation(currentTariff, tu.tariff, count);
-          allocated = true;
-          break;
-        }
-        else {
-          tariffSample -= tu.probability;
-        }
-      }
-      if (!allocated) {
-        log.error(getName() + ": Failed to allocate: P=" + tariffSample);
-      }
-    }
+    return new Choices(currentTariff, revoked, withdraw0, signupCost, evals);
   }
 
   // Customers really, really don't like paying to sign up. This computation
@@ -916,4 +992,25 @@ public class TariffEvaluator
       this.inconvenience = inconvenience;
     }
   }
+
+  // Container for the alternatives to one current tariff
+  class Choices
+  {
+    Tariff currentTariff;
+    boolean revoked;
+    double withdraw0;
+    double signupCost;
+    TreeSet<TariffUtility> evals;
+
+    Choices (Tariff currentTariff, boolean revoked, double withdraw0,
+             double signupCost, TreeSet<TariffUtility> evals)
+    {
+      super();
+      this.currentTariff = currentTariff;
+      this.revoked = revoked;
+      this.withdraw0 = withdraw0;
+      this.signupCost = signupCost;
+      this.evals = evals;
+    }
+  }
 }
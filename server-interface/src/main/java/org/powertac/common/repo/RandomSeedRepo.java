@@ -16,6 +16,10 @@
 package org.powertac.common.repo;
 
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -30,6 +34,10 @@ import org.springframework.stereotype.Service;
  * existing game, in which case the same random sequences will be repeated
  * in the current game. Otherwise they are created with random starting 
  * points when requested.
+ * <p>
+ * Access is synchronized. Customer models that build their entities
+ * concurrently should still request their seeds from a single thread, in a
+ * fixed order, since creating a RandomSeed assigns its id.</p>
  * 
  * @author John Collins
  */
@@ -40,19 +48,21 @@ public class RandomSeedRepo implements DomainRepo
   
   private HashMap<String, RandomSeed> seedMap;
   private HashMap<String, Long> pendingSeedMap;
+  private HashSet<String> restoredNames;
 
   public RandomSeedRepo ()
   {
     super();
     seedMap = new HashMap<String, RandomSeed>();
     pendingSeedMap = new HashMap<String, Long>();
+    restoredNames = new HashSet<String>();
   }
 
   /**
    * Returns the RandomSeed instance identified by classname, id, and purpose,
    * creating it if necessary.
    */
-  public RandomSeed getRandomSeed (String classname, long id, String purpose)
+  public synchronized RandomSeed getRandomSeed (String classname, long id, String purpose)
   {
     log.info("Seed requested: " + classname + ";" +
              id + ";" + purpose);
@@ -82,10 +92,48 @@ public class RandomSeedRepo implements DomainRepo
   /**
    * Adds the given seed to the map. Intended to be used when loading seeds from a file.
    */
-  public void restoreRandomSeed (RandomSeed seed)
+  public synchronized void restoreRandomSeed (RandomSeed seed)
   {
     String name = composeName(seed.getRequesterClass(), seed.getRequesterId(), seed.getPurpose());
     seedMap.put(name,  seed);
+    restoredNames.add(name);
+  }
+
+  /**
+   * Returns the values of the restored seeds requested by the given owner or
+   * by its parts, that is by requesters whose classname is the owner's name
+   * or starts with the owner's name followed by a space. The map is keyed by
+   * classname, id, and purpose, and is empty if no seeds were restored.
+   */
+  public synchronized SortedMap<String, Long> getRestoredSeeds (String owner)
+  {
+    SortedMap<String, Long> result = new TreeMap<String, Long>();
+    for (String name: restoredNames) {
+      RandomSeed seed = seedMap.get(name);
+      if (isOwnedBy(seed, owner))
+        result.put(name, seed.getValue());
+    }
+    return result;
+  }
+
+  /**
+   * True just in case every seed handed out so far to the given owner or to
+   * its parts was restored rather than newly created.
+   */
+  public synchronized boolean isRestored (String owner)
+  {
+    for (Map.Entry<String, RandomSeed> entry: seedMap.entrySet()) {
+      if (isOwnedBy(entry.getValue(), owner)
+          && !restoredNames.contains(entry.getKey()))
+        return false;
+    }
+    return true;
+  }
+
+  private boolean isOwnedBy (RandomSeed seed, String owner)
+  {
+    String requester = seed.getRequesterClass();
+    return requester.equals(owner) || requester.startsWith(owner + " ");
   }
   
 //  /**
@@ -151,14 +199,15 @@ public class RandomSeedRepo implements DomainRepo
   }
   
   @Override
-  public void recycle ()
+  public synchronized void recycle ()
   {
     seedMap.clear();
     pendingSeedMap.clear();
+    restoredNames.clear();
   }
   
   // test-support
-  int size()
+  synchronized int size()
   {
     return seedMap.size();
   }
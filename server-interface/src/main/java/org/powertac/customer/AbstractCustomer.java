@@ -89,6 +89,19 @@ public abstract class AbstractCustomer
     this.service = csa;
   }
 
+  /**
+   * Performs setup that depends only on the instance's own configuration,
+   * such as loading data files. Called after configuration and before
+   * setServiceAccessor(), possibly concurrently with other instances, so it
+   * must not use services, draw random seeds, or create domain objects.
+   * Models that do such work should also make sure it is done in
+   * initialize(), which may be called without prepare() in testing.
+   * Default implementation does nothing.
+   */
+  public void prepare ()
+  {
+  }
+
   /**
    * Initializes the instance. Called after configuration, and after
    * a call to setServices().
@@ -215,6 +228,28 @@ public abstract class AbstractCustomer
    */
   public abstract void step ();
 
+  /**
+   * Returns true if this model is stepped together with the other instances
+   * of its class through stepBatch(), rather than through step().
+   */
+  public boolean isBatchStepped ()
+  {
+    return false;
+  }
+
+  /**
+   * Called once per timeslot on one member of a group of models of the same
+   * class, in place of calling step() on each of them. The default steps
+   * each model in turn; models that can share work across instances
+   * override it.
+   */
+  public void stepBatch (List<? extends AbstractCustomer> batch)
+  {
+    for (AbstractCustomer model : batch) {
+      model.step();
+    }
+  }
+
   /**
    * Creates a TariffEvaluator, populated with a pre-configured
    * TariffEvaluationHelper.
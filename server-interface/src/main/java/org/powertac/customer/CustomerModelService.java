@@ -18,7 +18,9 @@ package org.powertac.customer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.ServiceLoader;
 
 import org.apache.logging.log4j.LogManager;
@@ -48,9 +50,11 @@ import org.springframework.stereotype.Service;
 /**
  * Manages a set of customer models. Each must be configurable as
  * ConfigurableInstances. Each gets supplied a set of service interfaces.
- * In each timeslot, each model has its step() method called. When tariffs
- * are published, each has its evaluateTariffs() method called. At the end
- * of a boot session, each has its bootstrap state saved to the boot record.
+ * In each timeslot, each model has its step() method called, except that
+ * models that step in batches have stepBatch() called once for all the
+ * instances of their class. When tariffs are published, each has its
+ * evaluateTariffs() method called. At the end of a boot session, each has
+ * its bootstrap state saved to the boot record.
  * 
  * @author John Collins
  */
@@ -118,6 +122,7 @@ implements InitializationService, BootstrapState, NewTariffListener,
       log.info("Configuring model {}", modelEx.getClass().getSimpleName());
       Collection<?> instances =
           serverConfig.configureInstances(modelEx.getClass());
+      prepareModels(instances);
       for (Object modelObj: instances) {
         AbstractCustomer model = (AbstractCustomer) modelObj;
         log.info("Adding model " + model.getName());
@@ -136,16 +141,39 @@ implements InitializationService, BootstrapState, NewTariffListener,
     return "Customer";
   }
 
+  // Runs the instance-local setup of a set of models in parallel. The rest
+  // of initialization stays in instance order, so that seeds, ids, and
+  // customer registration do not depend on thread scheduling.
+  private void prepareModels (Collection<?> instances)
+  {
+    instances.parallelStream()
+        .forEach(modelObj -> ((AbstractCustomer) modelObj).prepare());
+  }
+
   /* (non-Javadoc)
    * @see org.powertac.common.interfaces.TimeslotPhaseProcessor#activate(org.joda.time.Instant, int)
    */
   @Override
   public void activate (Instant time, int phaseNumber)
   {
+    // models that step in batches are grouped by class
+    Map<Class<?>, List<AbstractCustomer>> batches =
+        new LinkedHashMap<Class<?>, List<AbstractCustomer>>();
     for (AbstractCustomer model : models) {
+      if (model.isBatchStepped()) {
+        batches.computeIfAbsent(model.getClass(),
+                                k -> new ArrayList<AbstractCustomer>())
+            .add(model);
+        continue;
+      }
       log.info("Step model " + model.getName());
       model.step();
     }
+    for (List<AbstractCustomer> batch : batches.values()) {
+      log.info("Step {} models of type {}", batch.size(),
+               batch.get(0).getClass().getSimpleName());
+      batch.get(0).stepBatch(batch);
+    }
   }
 
   @Override
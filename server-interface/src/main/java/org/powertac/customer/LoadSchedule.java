@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2026 by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.powertac.customer;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Load schedule of a single appliance or household, one int per slot, held
+ * day-major in a single int[]. Days are appended as the schedule is
+ * generated, so the schedule grows week by week, and can be replaced
+ * afterwards when a model reschedules a day. Days are always addressed by
+ * their index from the start of the schedule; days that are no longer needed
+ * can be discarded from the front to keep the storage bounded.
+ *
+ * This replaces nested Vectors of Integers, which cost an object per slot.
+ *
+ * @author agent
+ */
+public class LoadSchedule implements Serializable
+{
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  private final int slotsPerDay;
+  private int[] values;
+  private int firstDay = 0;
+  private int days = 0;
+
+  /**
+   * Creates an empty schedule with room for the given number of days
+   */
+  public LoadSchedule (int slotsPerDay, int expectedDays)
+  {
+    super();
+    if (slotsPerDay <= 0)
+      throw new IllegalArgumentException("Bad slots per day " + slotsPerDay);
+    this.slotsPerDay = slotsPerDay;
+    this.values = new int[Math.max(1, expectedDays) * slotsPerDay];
+  }
+
+  public LoadSchedule (int slotsPerDay)
+  {
+    this(slotsPerDay, 7);
+  }
+
+  /**
+   * Number of days added to the schedule, including discarded days
+   */
+  public int getDays ()
+  {
+    return days;
+  }
+
+  /**
+   * Index of the first day still held by the schedule
+   */
+  public int getFirstDay ()
+  {
+    return firstDay;
+  }
+
+  public int getSlotsPerDay ()
+  {
+    return slotsPerDay;
+  }
+
+  public int get (int day, int slot)
+  {
+    return values[index(day, slot)];
+  }
+
+  public void set (int day, int slot, int value)
+  {
+    values[index(day, slot)] = value;
+  }
+
+  /**
+   * Appends a day to the schedule. The array must have one value per slot.
+   */
+  public void addDay (int[] dayValues)
+  {
+    checkLength(dayValues.length);
+    if ((days - firstDay + 1) * slotsPerDay > values.length) {
+      values = Arrays.copyOf(values, values.length * 2);
+    }
+    System.arraycopy(dayValues, 0, values, (days - firstDay) * slotsPerDay,
+                     slotsPerDay);
+    days += 1;
+  }
+
+  /**
+   * Drops the days before day. Reading them afterwards is an error. Their
+   * storage is reused by later days, or released when less than half of it
+   * is still in use. Days already discarded, or not yet added, are ignored.
+   */
+  public void discardBefore (int day)
+  {
+    int newFirst = Math.min(Math.max(day, firstDay), days);
+    if (newFirst == firstDay)
+      return;
+    int from = (newFirst - firstDay) * slotsPerDay;
+    int held = (days - newFirst) * slotsPerDay;
+    if (held * 2 < values.length) {
+      // keep room for one more day
+      values = Arrays.copyOfRange(values, from, from + held + slotsPerDay);
+    }
+    else {
+      System.arraycopy(values, from, values, 0, held);
+    }
+    firstDay = newFirst;
+  }
+
+  /**
+   * Replaces an existing day of the schedule
+   */
+  public void setDay (int day, int[] dayValues)
+  {
+    checkLength(dayValues.length);
+    System.arraycopy(dayValues, 0, values, index(day, 0), slotsPerDay);
+  }
+
+  /**
+   * Returns a copy of the values for one day
+   */
+  public int[] getDay (int day)
+  {
+    int start = index(day, 0);
+    return Arrays.copyOfRange(values, start, start + slotsPerDay);
+  }
+
+  /**
+   * Returns the sum of count adjacent slots of day, starting at fromSlot
+   */
+  public int sum (int day, int fromSlot, int count)
+  {
+    if (fromSlot + count > slotsPerDay)
+      throw new IndexOutOfBoundsException("Slot " + (fromSlot + count)
+                                          + " not in 0.." + slotsPerDay);
+    int start = index(day, fromSlot);
+    int result = 0;
+    for (int i = start; i < start + count; i++) {
+      result += values[i];
+    }
+    return result;
+  }
+
+  private void checkLength (int length)
+  {
+    if (length != slotsPerDay)
+      throw new IllegalArgumentException("Expected " + slotsPerDay
+                                         + " values, got " + length);
+  }
+
+  private int index (int day, int slot)
+  {
+    if (day < firstDay || day >= days || slot < 0 || slot >= slotsPerDay)
+      throw new IndexOutOfBoundsException("Day " + day + ", slot " + slot
+                                          + " not in " + firstDay + ".." + days
+                                          + "x" + slotsPerDay);
+    return (day - firstDay) * slotsPerDay + slot;
+  }
+}
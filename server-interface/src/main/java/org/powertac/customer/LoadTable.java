@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2026 by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.powertac.customer;
+
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * Table of aggregated loads for one load category of a population, indexed
+ * by day and then by slot within the day (a quarter-hour or an hour). The
+ * values are held day-major in a single long[], so a read is an array index
+ * rather than two trips through nested collections and an unboxing.
+ *
+ * Tables are not synchronized. Customer models fill them during
+ * initialization and update them from the timeslot thread.
+ *
+ * @author agent
+ */
+public class LoadTable
+{
+  private final int days;
+  private final int slotsPerDay;
+  private final long[] values;
+
+  /**
+   * Creates a table of zeros for the given number of days
+   * and slots per day.
+   */
+  public LoadTable (int days, int slotsPerDay)
+  {
+    super();
+    if (days < 0 || slotsPerDay <= 0)
+      throw new IllegalArgumentException("Bad table size " + days
+                                         + "x" + slotsPerDay);
+    this.days = days;
+    this.slotsPerDay = slotsPerDay;
+    this.values = new long[days * slotsPerDay];
+  }
+
+  public int getDays ()
+  {
+    return days;
+  }
+
+  public int getSlotsPerDay ()
+  {
+    return slotsPerDay;
+  }
+
+  /**
+   * Returns the value for the given day and slot
+   */
+  public long get (int day, int slot)
+  {
+    return values[index(day, slot)];
+  }
+
+  public void set (int day, int slot, long value)
+  {
+    values[index(day, slot)] = value;
+  }
+
+  /**
+   * Adds delta to the value for the given day and slot, returning the
+   * new value.
+   */
+  public long add (int day, int slot, long delta)
+  {
+    int i = index(day, slot);
+    values[i] += delta;
+    return values[i];
+  }
+
+  /**
+   * Replaces the values for one day. The array must have exactly one value
+   * per slot.
+   */
+  public void setDay (int day, long[] dayValues)
+  {
+    if (dayValues.length != slotsPerDay)
+      throw new IllegalArgumentException("Expected " + slotsPerDay
+                                         + " values, got " + dayValues.length);
+    System.arraycopy(dayValues, 0, values, index(day, 0), slotsPerDay);
+  }
+
+  /**
+   * Returns a copy of the values for one day
+   */
+  public long[] getDay (int day)
+  {
+    int start = index(day, 0);
+    return Arrays.copyOfRange(values, start, start + slotsPerDay);
+  }
+
+  /**
+   * Returns a read-only view of the days from fromDay (inclusive) to toDay
+   * (exclusive), without copying. Position 0 of the view is the first slot
+   * of fromDay. Later changes to the table show through the view.
+   */
+  public LongBuffer getDays (int fromDay, int toDay)
+  {
+    if (fromDay < 0 || toDay > days || fromDay > toDay)
+      throw new IndexOutOfBoundsException("Days " + fromDay + ".." + toDay
+                                          + " not in 0.." + days);
+    return LongBuffer.wrap(values, fromDay * slotsPerDay,
+                           (toDay - fromDay) * slotsPerDay)
+        .slice().asReadOnlyBuffer();
+  }
+
+  /**
+   * Returns the sum of count adjacent slots of day, starting at fromSlot
+   */
+  public long sum (int day, int fromSlot, int count)
+  {
+    int start = index(day, fromSlot);
+    if (fromSlot + count > slotsPerDay)
+      throw new IndexOutOfBoundsException("Slot " + (fromSlot + count)
+                                          + " not in 0.." + slotsPerDay);
+    long result = 0;
+    for (int i = start; i < start + count; i++) {
+      result += values[i];
+    }
+    return result;
+  }
+
+  /**
+   * Replaces day of target with the values of the same day in this table,
+   * summed over groups of adjacent slots. This is how quarter-hour tables
+   * are rolled up into hourly tables. The number of slots per day in this
+   * table must be a multiple of the number in target.
+   */
+  public void sumInto (LoadTable target, int day)
+  {
+    if (slotsPerDay % target.slotsPerDay != 0)
+      throw new IllegalArgumentException("Cannot sum " + slotsPerDay
+                                         + " slots into " + target.slotsPerDay);
+    int group = slotsPerDay / target.slotsPerDay;
+    for (int slot = 0; slot < target.slotsPerDay; slot++) {
+      target.set(day, slot, sum(day, slot * group, group));
+    }
+  }
+
+  private int index (int day, int slot)
+  {
+    if (day < 0 || day >= days || slot < 0 || slot >= slotsPerDay)
+      throw new IndexOutOfBoundsException("Day " + day + ", slot " + slot
+                                          + " not in " + days + "x" + slotsPerDay);
+    return day * slotsPerDay + slot;
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2026 by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.powertac.customer;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.BitSet;
+
+/**
+ * Operation flags of a single appliance, one bit per slot, held day-major
+ * in a BitSet. It is the boolean counterpart of LoadSchedule: days are
+ * appended as the schedule is generated and can be replaced afterwards, and days that are no longer needed
+ * can be discarded from the front.
+ *
+ * @author agent
+ */
+public class OperationSchedule implements Serializable
+{
+  @Serial
+  private static final long serialVersionUID = 1L;
+
+  private final int slotsPerDay;
+  private BitSet bits;
+  private int firstDay = 0;
+  private int days = 0;
+
+  public OperationSchedule (int slotsPerDay)
+  {
+    super();
+    if (slotsPerDay <= 0)
+      throw new IllegalArgumentException("Bad slots per day " + slotsPerDay);
+    this.slotsPerDay = slotsPerDay;
+    this.bits = new BitSet();
+  }
+
+  /**
+   * Number of days added to the schedule, including discarded days
+   */
+  public int getDays ()
+  {
+    return days;
+  }
+
+  /**
+   * Index of the first day still held by the schedule
+   */
+  public int getFirstDay ()
+  {
+    return firstDay;
+  }
+
+  public int getSlotsPerDay ()
+  {
+    return slotsPerDay;
+  }
+
+  public boolean get (int day, int slot)
+  {
+    return bits.get(index(day, slot));
+  }
+
+  public void set (int day, int slot, boolean value)
+  {
+    bits.set(index(day, slot), value);
+  }
+
+  /**
+   * Appends a day to the schedule. The array must have one flag per slot.
+   */
+  public void addDay (boolean[] flags)
+  {
+    checkLength(flags.length);
+    days += 1;
+    setDay(days - 1, flags);
+  }
+
+  /**
+   * Drops the days before day. Reading them afterwards is an error. Days
+   * already discarded, or not yet added, are ignored.
+   */
+  public void discardBefore (int day)
+  {
+    int newFirst = Math.min(Math.max(day, firstDay), days);
+    if (newFirst == firstDay)
+      return;
+    int from = (newFirst - firstDay) * slotsPerDay;
+    bits = bits.get(from, Math.max(from, bits.length()));
+    firstDay = newFirst;
+  }
+
+  /**
+   * Replaces an existing day of the schedule
+   */
+  public void setDay (int day, boolean[] flags)
+  {
+    checkLength(flags.length);
+    int start = index(day, 0);
+    for (int i = 0; i < slotsPerDay; i++) {
+      bits.set(start + i, flags[i]);
+    }
+  }
+
+  /**
+   * Returns the flags for one day
+   */
+  public boolean[] getDay (int day)
+  {
+    int start = index(day, 0);
+    boolean[] result = new boolean[slotsPerDay];
+    for (int i = bits.nextSetBit(start); i >= 0 && i < start + slotsPerDay;
+         i = bits.nextSetBit(i + 1)) {
+      result[i - start] = true;
+    }
+    return result;
+  }
+
+  /**
+   * True if any slot of the given day is set
+   */
+  public boolean any (int day)
+  {
+    return any(day, 0, slotsPerDay);
+  }
+
+  /**
+   * True if any of count adjacent slots of day, starting at fromSlot, is set
+   */
+  public boolean any (int day, int fromSlot, int count)
+  {
+    if (fromSlot + count > slotsPerDay)
+      throw new IndexOutOfBoundsException("Slot " + (fromSlot + count)
+                                          + " not in 0.." + slotsPerDay);
+    int start = index(day, fromSlot);
+    int next = bits.nextSetBit(start);
+    return next >= 0 && next < start + count;
+  }
+
+  private void checkLength (int length)
+  {
+    if (length != slotsPerDay)
+      throw new IllegalArgumentException("Expected " + slotsPerDay
+                                         + " flags, got " + length);
+  }
+
+  private int index (int day, int slot)
+  {
+    if (day < firstDay || day >= days || slot < 0 || slot >= slotsPerDay)
+      throw new IndexOutOfBoundsException("Day " + day + ", slot " + slot
+                                          + " not in " + firstDay + ".." + days
+                                          + "x" + slotsPerDay);
+    return (day - firstDay) * slotsPerDay + slot;
+  }
+}
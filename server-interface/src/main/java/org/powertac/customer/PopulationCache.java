@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2026 by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.powertac.customer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.powertac.common.repo.RandomSeedRepo;
+
+/**
+ * On-disk cache of generated customer populations. A population, such as the
+ * households of a village, is fully determined by the configuration it was
+ * built from and by the values of the random seeds it drew from. When those
+ * seeds were restored from an earlier game, the population can be stored
+ * once and reloaded by every game that restores the same seeds with the same
+ * configuration, instead of being generated again.
+ * <p>
+ * Entries are content-addressed: the key is a SHA-256 digest of the owner's
+ * name, the configuration, any extra parameters, and the restored seeds of
+ * the owner. Entries are written to a temporary file and moved into place,
+ * so concurrent games sharing a directory never read a partial entry. An
+ * entry that cannot be read is treated as missing.</p>
+ * <p>
+ * Each entry starts with a header holding a magic number, the format version
+ * and the name of the stored type, followed by the serialized population.
+ * The population is only deserialized when the header matches, and then
+ * through a filter that accepts nothing but Power TAC classes and the plain
+ * java.lang, java.util and java.time types they are built from, and that
+ * bounds the depth of the object graph, the number of references and the
+ * size of the stream.</p>
+ *
+ * @author agent
+ */
+public class PopulationCache
+{
+  static private Logger log =
+    LogManager.getLogger(PopulationCache.class.getName());
+
+  // "PTPC", the first bytes of every entry
+  static final int MAGIC = 0x50545043;
+
+  // version of the entry layout; entries of another version are misses
+  static final int FORMAT_VERSION = 1;
+
+  // limits on a stored population; the largest villages stay well below
+  static final int MAX_DEPTH = 64;
+  static final int MAX_REFS = 5000000;
+  static final long MAX_BYTES = 512L * 1024 * 1024;
+
+  // classes that may appear in a stored population
+  static final ObjectInputFilter FILTER =
+    ObjectInputFilter.Config.createFilter("maxdepth=" + MAX_DEPTH
+                                          + ";maxrefs=" + MAX_REFS
+                                          + ";maxbytes=" + MAX_BYTES
+                                          + ";org.powertac.**;java.lang.*;"
+                                          + "java.util.*;java.time.*;!*");
+
+  private final File directory;
+
+  public PopulationCache (File directory)
+  {
+    super();
+    this.directory = directory;
+  }
+
+  public File getDirectory ()
+  {
+    return directory;
+  }
+
+  /**
+   * Returns the key of the population of the given owner, or null if the
+   * owner has no restored seeds, in which case its population is drawn from
+   * new seeds and cannot be reused.
+   */
+  public String key (String owner, Properties conf, RandomSeedRepo repo,
+                     Object... extras)
+  {
+    SortedMap<String, Long> seeds = repo.getRestoredSeeds(owner);
+    if (seeds.isEmpty())
+      return null;
+
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    }
+    catch (NoSuchAlgorithmException nsa) {
+      log.error("No digest for population cache: " + nsa.toString());
+      return null;
+    }
+    update(digest, owner);
+    SortedMap<String, String> properties = new TreeMap<String, String>();
+    for (String name: conf.stringPropertyNames())
+      properties.put(name, conf.getProperty(name));
+    for (Map.Entry<String, String> property: properties.entrySet()) {
+      update(digest, property.getKey());
+      update(digest, property.getValue());
+    }
+    for (Object extra: extras)
+      update(digest, String.valueOf(extra));
+    for (Map.Entry<String, Long> seed: seeds.entrySet()) {
+      update(digest, seed.getKey());
+      update(digest, seed.getValue().toString());
+    }
+
+    StringBuilder result = new StringBuilder();
+    for (byte b: digest.digest())
+      result.append(String.format("%02x", b));
+    return result.toString();
+  }
+
+  private void update (MessageDigest digest, String value)
+  {
+    digest.update(value.getBytes(StandardCharsets.UTF_8));
+    // separator, so that adjacent values cannot run together
+    digest.update((byte) 0);
+  }
+
+  /**
+   * Returns the population stored under the given key, or null if there is
+   * none or it cannot be read as an instance of the given type.
+   */
+  public <T> T load (String key, Class<T> type)
+  {
+    File entry = entry(key);
+    if (!entry.canRead())
+      return null;
+    try (InputStream stream =
+        new BufferedInputStream(Files.newInputStream(entry.toPath()))) {
+      DataInputStream header = new DataInputStream(stream);
+      if (header.readInt() != MAGIC
+          || header.readInt() != FORMAT_VERSION) {
+        log.warn("Population cache entry " + entry + " has an unknown format");
+        return null;
+      }
+      if (!type.getName().equals(header.readUTF())) {
+        log.warn("Population cache entry " + entry + " is not a "
+                 + type.getName());
+        return null;
+      }
+      ObjectInputStream input = new ObjectInputStream(stream);
+      input.setObjectInputFilter(FILTER);
+      T result = type.cast(input.readObject());
+      log.info("Population loaded from " + entry);
+      return result;
+    }
+    catch (IOException | ClassNotFoundException | ClassCastException e) {
+      log.warn("Cannot read population cache entry " + entry + ": "
+               + e.toString());
+      return null;
+    }
+  }
+
+  /**
+   * Stores the population under the given key. Failures are logged and
+   * otherwise ignored; the cache is only an optimization.
+   */
+  public void store (String key, Serializable population)
+  {
+    File entry = entry(key);
+    File temp = null;
+    try {
+      Files.createDirectories(directory.toPath());
+      temp = File.createTempFile(key, ".tmp", directory);
+      try (DataOutputStream header =
+          new DataOutputStream(new BufferedOutputStream(Files
+                  .newOutputStream(temp.toPath())))) {
+        header.writeInt(MAGIC);
+        header.writeInt(FORMAT_VERSION);
+        header.writeUTF(population.getClass().getName());
+        ObjectOutputStream output = new ObjectOutputStream(header);
+        output.writeObject(population);
+        output.flush();
+      }
+      Files.move(temp.toPath(), entry.toPath(),
+                 StandardCopyOption.REPLACE_EXISTING,
+                 StandardCopyOption.ATOMIC_MOVE);
+      log.info("Population stored in " + entry);
+    }
+    catch (IOException ioe) {
+      log.warn("Cannot store population cache entry " + entry + ": "
+               + ioe.toString());
+      if (null != temp)
+        temp.delete();
+    }
+  }
+
+  private File entry (String key)
+  {
+    return new File(directory, key + ".population");
+  }
+}
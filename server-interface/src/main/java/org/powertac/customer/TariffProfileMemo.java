@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2026 by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.powertac.customer;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.powertac.common.Rate;
+import org.powertac.common.TariffSpecification;
+
+/**
+ * Memo of the capacity profiles a customer model computes for the tariffs it
+ * evaluates. A shifted profile depends on the tariff only through its rates
+ * and periodic payment, so tariffs with identical rate structures share one
+ * entry. Entries are only valid for the day they were computed for; asking
+ * for a profile starting at a different time clears the memo.
+ * <p>
+ * Tariffs with variable rates are never memoized, because their charges
+ * depend on the prices published over the life of the tariff.</p>
+ *
+ * @author agent
+ */
+public class TariffProfileMemo
+{
+  private Instant start = null;
+  private HashMap<String, double[]> profiles = new HashMap<String, double[]>();
+
+  public TariffProfileMemo ()
+  {
+    super();
+  }
+
+  /**
+   * Returns the profile for the given tariff starting at the given time,
+   * computing it only if no tariff with the same rates has been seen since
+   * the start time changed. The caller owns the returned array.
+   */
+  public double[] get (TariffSpecification spec, Instant start,
+                       Supplier<double[]> profile)
+  {
+    if (!start.equals(this.start)) {
+      profiles.clear();
+      this.start = start;
+    }
+    String signature = signature(spec);
+    if (null == signature)
+      return profile.get();
+    double[] result = profiles.get(signature);
+    if (null == result) {
+      result = profile.get();
+      profiles.put(signature, result);
+    }
+    return Arrays.copyOf(result, result.length);
+  }
+
+  /**
+   * Number of profiles held for the current day
+   */
+  public int size ()
+  {
+    return profiles.size();
+  }
+
+  /**
+   * Returns a string that is equal for two specifications exactly when
+   * their rates and periodic payments are equal, or null if the
+   * specification has a variable rate.
+   */
+  static String signature (TariffSpecification spec)
+  {
+    StringBuilder result = new StringBuilder();
+    result.append(spec.getPowerType()).append('|')
+          .append(spec.getPeriodicPayment());
+    List<Rate> rates = spec.getRates();
+    for (Rate rate: rates) {
+      if (!rate.isFixed())
+        return null;
+      result.append('|').append(rate.getWeeklyBegin())
+            .append(',').append(rate.getWeeklyEnd())
+            .append(',').append(rate.getDailyBegin())
+            .append(',').append(rate.getDailyEnd())
+            .append(',').append(rate.getTierThreshold())
+            .append(',').append(rate.getMinValue());
+    }
+    return result.toString();
+  }
+}
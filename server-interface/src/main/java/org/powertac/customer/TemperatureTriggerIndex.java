@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2026 by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.powertac.customer;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Index of the comfort bands of weather-sensitive appliances. Each entry
+ * registers an owner, typically the position of a household in its customer
+ * model, with the lower and upper trigger temperatures of one appliance. An
+ * appliance only acts while the temperature is strictly below its lower or
+ * strictly above its upper trigger, so a temperature check only needs to
+ * revisit the owners whose bands exclude the current temperature, or
+ * excluded the previous one and must now be switched off.
+ * <p>
+ * The triggers are held sorted, so a check costs a binary search plus the
+ * number of owners it returns.</p>
+ *
+ * @author agent
+ */
+public class TemperatureTriggerIndex
+{
+  private int size = 0;
+  private int[] owners = new int[16];
+  private double[] lowers = new double[16];
+  private double[] uppers = new double[16];
+
+  // sorted views, rebuilt after entries are added
+  private boolean sorted = true;
+  private double[] lowerDescending;
+  private int[] lowerOwners;
+  private double[] upperAscending;
+  private int[] upperOwners;
+
+  private double lastTemperature = Double.NaN;
+
+  public TemperatureTriggerIndex ()
+  {
+    super();
+  }
+
+  /**
+   * Registers the triggers of one appliance belonging to the given owner.
+   */
+  public void add (int owner, double lower, double upper)
+  {
+    if (owner < 0)
+      throw new IllegalArgumentException("Bad owner " + owner);
+    if (size == owners.length) {
+      owners = Arrays.copyOf(owners, size * 2);
+      lowers = Arrays.copyOf(lowers, size * 2);
+      uppers = Arrays.copyOf(uppers, size * 2);
+    }
+    owners[size] = owner;
+    lowers[size] = lower;
+    uppers[size] = upper;
+    size += 1;
+    sorted = false;
+  }
+
+  /**
+   * Number of registered appliances
+   */
+  public int size ()
+  {
+    return size;
+  }
+
+  /**
+   * Returns the owners with an appliance whose band excludes the given
+   * temperature, or excluded the temperature of the previous check, and
+   * remembers the temperature for the next check.
+   */
+  public BitSet affected (double temperature)
+  {
+    sort();
+    BitSet result = new BitSet();
+    addOutside(temperature, result);
+    if (!Double.isNaN(lastTemperature))
+      addOutside(lastTemperature, result);
+    lastTemperature = temperature;
+    return result;
+  }
+
+  /**
+   * Returns the owners with an appliance whose band excludes the given
+   * temperature, without touching the remembered temperature.
+   */
+  public BitSet outside (double temperature)
+  {
+    sort();
+    BitSet result = new BitSet();
+    addOutside(temperature, result);
+    return result;
+  }
+
+  private void addOutside (double temperature, BitSet result)
+  {
+    // uppers below the temperature form a prefix of the ascending view
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (upperAscending[mid] < temperature)
+        low = mid + 1;
+      else
+        high = mid;
+    }
+    for (int i = 0; i < low; i++)
+      result.set(upperOwners[i]);
+
+    // lowers above the temperature form a prefix of the descending view
+    low = 0;
+    high = size;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (lowerDescending[mid] > temperature)
+        low = mid + 1;
+      else
+        high = mid;
+    }
+    for (int i = 0; i < low; i++)
+      result.set(lowerOwners[i]);
+  }
+
+  private void sort ()
+  {
+    if (sorted)
+      return;
+    Integer[] byUpper = new Integer[size];
+    Integer[] byLower = new Integer[size];
+    for (int i = 0; i < size; i++) {
+      byUpper[i] = i;
+      byLower[i] = i;
+    }
+    Arrays.sort(byUpper, (a, b) -> Double.compare(uppers[a], uppers[b]));
+    Arrays.sort(byLower, (a, b) -> Double.compare(lowers[b], lowers[a]));
+
+    upperAscending = new double[size];
+    upperOwners = new int[size];
+    lowerDescending = new double[size];
+    lowerOwners = new int[size];
+    for (int i = 0; i < size; i++) {
+      upperAscending[i] = uppers[byUpper[i]];
+      upperOwners[i] = owners[byUpper[i]];
+      lowerDescending[i] = lowers[byLower[i]];
+      lowerOwners[i] = owners[byLower[i]];
+    }
+    sorted = true;
+  }
+}
@@ -1165,12 +1165,83 @@ public class TariffEvaluatorTest
 
   // Revoke to superseding tariff, with inertia
 
+  // Choice tables are reused while the candidate tariffs are unchanged,
+  // and rebuilt when a tariff is added or costs are re-evaluated.
+  @Test
+  public void incrementalEvaluation ()
+  {
+    subscribeTo(defaultConsumption, customer.getPopulation());
+    TariffSpecification bobTS =
+            new TariffSpecification(bob,
+                                    PowerType.CONSUMPTION).
+                                    addRate(new Rate().withValue(-0.4));
+    Tariff bobTariff = new Tariff(bobTS);
+    initTariff(bobTariff);
+    ArrayList<Tariff> tariffs = new ArrayList<Tariff>();
+    tariffs.add(defaultConsumption);
+    tariffs.add(bobTariff);
+    when(tariffRepo.findRecentActiveTariffs(anyInt(), any(PowerType.class)))
+        .thenReturn(tariffs);
+
+    double[] profile = {1.0, 2.0};
+    cma.capacityProfile = new CapacityProfile(profile, start);
+
+    // capture calls to tariffMarket
+    final HashMap<Tariff, Integer> calls = new HashMap<Tariff, Integer>();
+    doAnswer(new Answer<Object>() {
+      @Override
+      public Object answer(InvocationOnMock invocation) {
+        Object[] args = invocation.getArguments();
+        calls.put((Tariff)args[0], (Integer)args[2]);
+        return null;
+      }
+    }).when(tariffMarket).subscribeToTariff(any(Tariff.class),
+                                            any(CustomerInfo.class),
+                                            anyInt());
+
+    evaluator.withChunkSize(5000);
+    evaluator.evaluateTariffs();
+    int tableCalls = cma.brokerSwitchCalls;
+    assertTrue(tableCalls > 0, "table computed");
+    HashMap<Tariff, Integer> first = new HashMap<Tariff, Integer>(calls);
+    assertEquals(2, first.size(), "two tariffs");
+
+    // same candidates, same choices without rebuilding the table
+    calls.clear();
+    evaluator.evaluateTariffs();
+    assertEquals(tableCalls, cma.brokerSwitchCalls, "table reused");
+    assertEquals(first, calls, "same allocations");
+
+    // a new tariff forces a new table
+    TariffSpecification jimTS =
+            new TariffSpecification(jim,
+                                    PowerType.CONSUMPTION).
+                                    addRate(new Rate().withValue(-0.4));
+    Tariff jimTariff = new Tariff(jimTS);
+    initTariff(jimTariff);
+    tariffs.add(jimTariff);
+    evaluator.evaluateTariffs();
+    int newCalls = cma.brokerSwitchCalls;
+    assertTrue(newCalls > tableCalls, "table rebuilt");
+    evaluator.evaluateTariffs();
+    assertEquals(newCalls, cma.brokerSwitchCalls, "new table reused");
+
+    // re-evaluated costs are never reused
+    evaluator.withEvaluateAllTariffs(true);
+    evaluator.evaluateTariffs();
+    assertTrue(cma.brokerSwitchCalls > newCalls, "table rebuilt");
+    newCalls = cma.brokerSwitchCalls;
+    evaluator.evaluateTariffs();
+    assertTrue(cma.brokerSwitchCalls > newCalls, "table rebuilt again");
+  }
+
   // --------------- model accessor ------------------------------------
   class TestAccessor implements CustomerModelAccessor
   {
     // values to return
     CapacityProfile capacityProfile;
     double brokerSwitchFactor = 0.05;
+    int brokerSwitchCalls = 0;
     
     double[] choiceSamples = {0.5};
     int choicePtr = 0;
@@ -1197,6 +1268,7 @@ public class TariffEvaluatorTest
     @Override
     public double getBrokerSwitchFactor (boolean isSuperseding)
     {
+      brokerSwitchCalls += 1;
       double multiplier = isSuperseding? 0.0: 1.0;
       return multiplier * brokerSwitchFactor;
     }
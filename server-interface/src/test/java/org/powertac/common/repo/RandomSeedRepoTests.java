@@ -109,6 +109,27 @@ public class RandomSeedRepoTests
     randomSeedRepo.recycle();
     assertEquals(0, randomSeedRepo.size(), "empty again");    
   }
+
+  @Test
+  public void testRestoredSeeds ()
+  {
+    randomSeedRepo.restoreRandomSeed(new RandomSeed("Foo", 1, "model", 17l));
+    randomSeedRepo.restoreRandomSeed(new RandomSeed("Foo Bar", 2, "model", 42l));
+    randomSeedRepo.restoreRandomSeed(new RandomSeed("Foobar", 3, "model", 5l));
+    assertEquals(2, randomSeedRepo.getRestoredSeeds("Foo").size(), "owned");
+    assertEquals(42l, randomSeedRepo.getRestoredSeeds("Foo").get("Foo Bar;2;model"),
+                 "value");
+    assertTrue(randomSeedRepo.getRestoredSeeds("Baz").isEmpty(), "none owned");
+
+    randomSeedRepo.getRandomSeed("Foo Bar", 2, "model");
+    assertTrue(randomSeedRepo.isRestored("Foo"), "all restored");
+    randomSeedRepo.getRandomSeed("Foo Baz", 4, "model");
+    assertFalse(randomSeedRepo.isRestored("Foo"), "new seed");
+    assertTrue(randomSeedRepo.isRestored("Foobar"), "other owner");
+
+    randomSeedRepo.recycle();
+    assertTrue(randomSeedRepo.getRestoredSeeds("Foo").isEmpty(), "recycled");
+  }
 //
 //  @Test
 //  public void testLoadRepo ()
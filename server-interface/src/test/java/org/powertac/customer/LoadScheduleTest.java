@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2026 by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.powertac.customer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author agent
+ */
+public class LoadScheduleTest
+{
+  private LoadSchedule schedule;
+
+  @BeforeEach
+  public void setUp ()
+  {
+    schedule = new LoadSchedule(4, 1);
+  }
+
+  @Test
+  public void testInitial ()
+  {
+    assertEquals(0, schedule.getDays());
+    assertEquals(4, schedule.getSlotsPerDay());
+    assertThrows(IndexOutOfBoundsException.class, () -> schedule.get(0, 0));
+    assertThrows(IllegalArgumentException.class, () -> new LoadSchedule(0));
+  }
+
+  @Test
+  public void testAddDay ()
+  {
+    int[] day = {1, 2, 3, 4};
+    schedule.addDay(day);
+    day[0] = 100;
+    schedule.addDay(new int[] {5, 6, 7, 8});
+    // grows past the expected size
+    schedule.addDay(new int[] {9, 10, 11, 12});
+    assertEquals(3, schedule.getDays());
+    assertEquals(1, schedule.get(0, 0));
+    assertEquals(8, schedule.get(1, 3));
+    assertEquals(11, schedule.get(2, 2));
+    assertThrows(IllegalArgumentException.class,
+                 () -> schedule.addDay(new int[3]));
+    assertThrows(IndexOutOfBoundsException.class, () -> schedule.get(1, 4));
+  }
+
+  @Test
+  public void testSetDay ()
+  {
+    schedule.addDay(new int[4]);
+    schedule.addDay(new int[4]);
+    schedule.setDay(1, new int[] {4, 3, 2, 1});
+    schedule.set(0, 2, 7);
+    assertArrayEquals(new int[] {0, 0, 7, 0}, schedule.getDay(0));
+    int[] copy = schedule.getDay(1);
+    assertArrayEquals(new int[] {4, 3, 2, 1}, copy);
+    copy[0] = 100;
+    assertEquals(4, schedule.get(1, 0));
+    assertThrows(IndexOutOfBoundsException.class,
+                 () -> schedule.setDay(2, new int[4]));
+  }
+
+  @Test
+  public void testSum ()
+  {
+    schedule.addDay(new int[] {1, 2, 3, 4});
+    assertEquals(5, schedule.sum(0, 1, 2));
+    assertEquals(10, schedule.sum(0, 0, 4));
+    assertThrows(IndexOutOfBoundsException.class, () -> schedule.sum(0, 2, 3));
+  }
+
+  @Test
+  public void testDiscard ()
+  {
+    schedule.addDay(new int[] {1, 1, 1, 1});
+    schedule.addDay(new int[] {2, 2, 2, 2});
+    schedule.addDay(new int[] {3, 3, 3, 3});
+    schedule.discardBefore(2);
+    assertEquals(2, schedule.getFirstDay());
+    assertEquals(3, schedule.getDays());
+    assertThrows(IndexOutOfBoundsException.class, () -> schedule.get(1, 0));
+    assertEquals(3, schedule.get(2, 3));
+    schedule.addDay(new int[] {4, 5, 6, 7});
+    schedule.addDay(new int[] {8, 9, 10, 11});
+    assertEquals(6, schedule.get(3, 2));
+    assertEquals(21, schedule.sum(4, 2, 2));
+    schedule.setDay(2, new int[4]);
+    assertArrayEquals(new int[4], schedule.getDay(2));
+    // discarding past the end keeps nothing, and the schedule continues
+    schedule.discardBefore(10);
+    assertEquals(5, schedule.getFirstDay());
+    schedule.addDay(new int[] {12, 13, 14, 15});
+    assertEquals(12, schedule.get(5, 0));
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2026 by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.powertac.customer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.LongBuffer;
+import java.nio.ReadOnlyBufferException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author agent
+ */
+public class LoadTableTest
+{
+  private LoadTable table;
+
+  @BeforeEach
+  public void setUp ()
+  {
+    table = new LoadTable(3, 8);
+  }
+
+  @Test
+  public void testInitial ()
+  {
+    assertEquals(3, table.getDays());
+    assertEquals(8, table.getSlotsPerDay());
+    assertEquals(0L, table.get(2, 7));
+  }
+
+  @Test
+  public void testSetAdd ()
+  {
+    table.set(1, 3, 42L);
+    assertEquals(42L, table.get(1, 3));
+    assertEquals(0L, table.get(1, 2));
+    assertEquals(0L, table.get(2, 3));
+    assertEquals(40L, table.add(1, 3, -2L));
+    assertEquals(40L, table.get(1, 3));
+  }
+
+  @Test
+  public void testBounds ()
+  {
+    assertThrows(IndexOutOfBoundsException.class, () -> table.get(3, 0));
+    assertThrows(IndexOutOfBoundsException.class, () -> table.get(0, 8));
+    assertThrows(IndexOutOfBoundsException.class, () -> table.set(-1, 0, 1L));
+    assertThrows(IllegalArgumentException.class, () -> new LoadTable(2, 0));
+  }
+
+  @Test
+  public void testDay ()
+  {
+    long[] values = {1, 2, 3, 4, 5, 6, 7, 8};
+    table.setDay(1, values);
+    values[0] = 100;
+    long[] day = table.getDay(1);
+    assertArrayEquals(new long[] {1, 2, 3, 4, 5, 6, 7, 8}, day);
+    day[1] = 100;
+    assertEquals(2L, table.get(1, 1));
+    assertArrayEquals(new long[8], table.getDay(0));
+    assertThrows(IllegalArgumentException.class,
+                 () -> table.setDay(0, new long[4]));
+  }
+
+  @Test
+  public void testDays ()
+  {
+    for (int day = 0; day < 3; day++) {
+      for (int slot = 0; slot < 8; slot++) {
+        table.set(day, slot, day * 10 + slot);
+      }
+    }
+    LongBuffer view = table.getDays(1, 3);
+    assertEquals(16, view.remaining());
+    assertEquals(10L, view.get(0));
+    assertEquals(27L, view.get(15));
+
+    // changes show through the view, but the view cannot be written
+    table.set(2, 0, -1L);
+    assertEquals(-1L, view.get(8));
+    assertThrows(ReadOnlyBufferException.class, () -> view.put(0, 5L));
+
+    assertEquals(0, table.getDays(2, 2).remaining());
+    assertThrows(IndexOutOfBoundsException.class, () -> table.getDays(2, 4));
+  }
+
+  @Test
+  public void testSumInto ()
+  {
+    for (int slot = 0; slot < 8; slot++) {
+      table.set(2, slot, slot + 1);
+    }
+    assertEquals(9L, table.sum(2, 3, 2));
+    LoadTable hourly = new LoadTable(3, 2);
+    table.sumInto(hourly, 2);
+    assertEquals(10L, hourly.get(2, 0));
+    assertEquals(26L, hourly.get(2, 1));
+    assertEquals(0L, hourly.get(1, 0));
+    assertThrows(IllegalArgumentException.class,
+                 () -> table.sumInto(new LoadTable(3, 3), 0));
+  }
+}
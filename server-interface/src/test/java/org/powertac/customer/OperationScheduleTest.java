@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2026 by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.powertac.customer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author agent
+ */
+public class OperationScheduleTest
+{
+  private OperationSchedule schedule;
+
+  @BeforeEach
+  public void setUp ()
+  {
+    schedule = new OperationSchedule(8);
+  }
+
+  @Test
+  public void testDays ()
+  {
+    assertEquals(0, schedule.getDays());
+    schedule.addDay(new boolean[8]);
+    boolean[] flags = new boolean[8];
+    flags[0] = true;
+    flags[7] = true;
+    schedule.addDay(flags);
+    assertEquals(2, schedule.getDays());
+    assertEquals(8, schedule.getSlotsPerDay());
+    assertFalse(schedule.get(0, 7));
+    assertTrue(schedule.get(1, 0));
+    assertTrue(schedule.get(1, 7));
+    assertArrayEquals(flags, schedule.getDay(1));
+    assertArrayEquals(new boolean[8], schedule.getDay(0));
+    assertThrows(IllegalArgumentException.class,
+                 () -> schedule.addDay(new boolean[4]));
+    assertThrows(IndexOutOfBoundsException.class, () -> schedule.get(2, 0));
+  }
+
+  @Test
+  public void testSetDay ()
+  {
+    boolean[] flags = new boolean[8];
+    flags[3] = true;
+    schedule.addDay(flags);
+    schedule.addDay(flags);
+    schedule.setDay(0, new boolean[8]);
+    assertFalse(schedule.any(0));
+    assertTrue(schedule.any(1));
+    schedule.set(0, 5, true);
+    assertTrue(schedule.get(0, 5));
+    schedule.set(0, 5, false);
+    assertFalse(schedule.get(0, 5));
+  }
+
+  @Test
+  public void testAny ()
+  {
+    boolean[] flags = new boolean[8];
+    flags[4] = true;
+    schedule.addDay(flags);
+    schedule.addDay(new boolean[8]);
+    assertFalse(schedule.any(0, 0, 4));
+    assertTrue(schedule.any(0, 4, 4));
+    assertTrue(schedule.any(0, 3, 2));
+    // a set bit on a later day does not leak into an earlier one
+    schedule.set(1, 0, true);
+    assertFalse(schedule.any(0, 5, 3));
+    assertThrows(IndexOutOfBoundsException.class, () -> schedule.any(0, 6, 3));
+  }
+
+  @Test
+  public void testDiscard ()
+  {
+    boolean[] flags = new boolean[8];
+    flags[2] = true;
+    schedule.addDay(new boolean[8]);
+    schedule.addDay(flags);
+    schedule.addDay(new boolean[8]);
+    schedule.discardBefore(1);
+    assertEquals(1, schedule.getFirstDay());
+    assertEquals(3, schedule.getDays());
+    assertThrows(IndexOutOfBoundsException.class, () -> schedule.get(0, 2));
+    assertArrayEquals(flags, schedule.getDay(1));
+    assertFalse(schedule.any(2));
+    schedule.addDay(flags);
+    assertTrue(schedule.get(3, 2));
+    // discarding backwards is ignored
+    schedule.discardBefore(0);
+    assertEquals(1, schedule.getFirstDay());
+    schedule.discardBefore(4);
+    assertEquals(4, schedule.getFirstDay());
+    schedule.addDay(flags);
+    assertTrue(schedule.any(4));
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2026 by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.powertac.customer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Properties;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.powertac.common.RandomSeed;
+import org.powertac.common.repo.RandomSeedRepo;
+
+/**
+ * @author agent
+ */
+public class PopulationCacheTest
+{
+  @TempDir
+  File directory;
+
+  private PopulationCache cache;
+  private RandomSeedRepo repo;
+  private Properties conf;
+
+  @BeforeEach
+  public void setUp ()
+  {
+    cache = new PopulationCache(new File(directory, "populations"));
+    repo = new RandomSeedRepo();
+    conf = new Properties();
+    conf.setProperty("NotShiftingCustomers", "2");
+  }
+
+  @Test
+  public void testNoRestoredSeeds ()
+  {
+    repo.getRandomSeed("Village 1", 1, "Village Model1");
+    assertNull(cache.key("Village 1", conf, repo));
+  }
+
+  @Test
+  public void testKey ()
+  {
+    repo.restoreRandomSeed(new RandomSeed("Village 1", 1, "Village Model1", 3L));
+    String key = cache.key("Village 1", conf, repo, 7);
+    assertNotNull(key);
+    assertEquals(key, cache.key("Village 1", conf, repo, 7));
+    assertNotEquals(key, cache.key("Village 1", conf, repo, 8));
+
+    conf.setProperty("NotShiftingCustomers", "3");
+    assertNotEquals(key, cache.key("Village 1", conf, repo, 7));
+    conf.setProperty("NotShiftingCustomers", "2");
+
+    repo.restoreRandomSeed(new RandomSeed("Village 1 NSHouse0", 1,
+                                          "Household Model1", 5L));
+    assertNotEquals(key, cache.key("Village 1", conf, repo, 7));
+  }
+
+  @Test
+  public void testStoreLoad ()
+  {
+    assertNull(cache.load("missing", LoadSchedule.class));
+
+    LoadSchedule schedule = new LoadSchedule(4);
+    schedule.addDay(new int[] {1, 2, 3, 4});
+    cache.store("abc", schedule);
+    assertTrue(new File(cache.getDirectory(), "abc.population").exists());
+
+    LoadSchedule loaded = cache.load("abc", LoadSchedule.class);
+    assertNotNull(loaded);
+    assertEquals(1, loaded.getDays());
+    assertEquals(3, loaded.get(0, 2));
+
+    assertNull(cache.load("abc", OperationSchedule.class));
+  }
+
+  @Test
+  public void testRejectedEntries () throws Exception
+  {
+    // entries without the header are misses
+    Files.createDirectories(cache.getDirectory().toPath());
+    Files.write(new File(cache.getDirectory(), "old.population").toPath(),
+                new byte[] {(byte) 0xac, (byte) 0xed, 0, 5});
+    assertNull(cache.load("old", LoadSchedule.class));
+
+    // classes outside the allow-list are not deserialized
+    cache.store("file", new File("population"));
+    assertTrue(new File(cache.getDirectory(), "file.population").exists());
+    assertNull(cache.load("file", File.class));
+
+    // graphs deeper than the limit are not deserialized
+    ArrayList<Object> nested = new ArrayList<Object>();
+    for (int i = 0; i <= PopulationCache.MAX_DEPTH; i++) {
+      ArrayList<Object> outer = new ArrayList<Object>();
+      outer.add(nested);
+      nested = outer;
+    }
+    cache.store("deep", nested);
+    assertTrue(new File(cache.getDirectory(), "deep.population").exists());
+    assertNull(cache.load("deep", ArrayList.class));
+  }
+}
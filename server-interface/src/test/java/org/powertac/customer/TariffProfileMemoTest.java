@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2026 by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.powertac.customer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.powertac.common.Broker;
+import org.powertac.common.Rate;
+import org.powertac.common.TariffSpecification;
+import org.powertac.common.TimeService;
+import org.powertac.common.enumerations.PowerType;
+
+/**
+ * @author agent
+ */
+public class TariffProfileMemoTest
+{
+  private TariffProfileMemo memo;
+  private Broker broker;
+  private Instant start;
+  private int computed;
+
+  @BeforeEach
+  public void setUp ()
+  {
+    memo = new TariffProfileMemo();
+    broker = new Broker("Sam");
+    start = ZonedDateTime.of(2011, 1, 10, 0, 0, 0, 0, ZoneOffset.UTC)
+            .toInstant();
+    computed = 0;
+  }
+
+  private TariffSpecification spec (Rate... rates)
+  {
+    TariffSpecification result =
+      new TariffSpecification(broker, PowerType.CONSUMPTION);
+    for (Rate rate: rates)
+      result.addRate(rate);
+    return result;
+  }
+
+  private double[] profile ()
+  {
+    computed += 1;
+    return new double[] {computed, 2.0};
+  }
+
+  @Test
+  public void testSharedRates ()
+  {
+    TariffSpecification first = spec(new Rate().withValue(-0.1));
+    TariffSpecification second = spec(new Rate().withValue(-0.1));
+    TariffSpecification third = spec(new Rate().withValue(-0.2));
+
+    double[] result = memo.get(first, start, this::profile);
+    assertEquals(1.0, result[0], 1e-6);
+    result[0] = 42.0;
+    assertEquals(1.0, memo.get(second, start, this::profile)[0], 1e-6);
+    assertEquals(1, computed);
+    assertEquals(2.0, memo.get(third, start, this::profile)[0], 1e-6);
+    assertEquals(2, memo.size());
+  }
+
+  @Test
+  public void testRateWindows ()
+  {
+    TariffSpecification day =
+      spec(new Rate().withValue(-0.1).withDailyBegin(7).withDailyEnd(18),
+           new Rate().withValue(-0.2).withDailyBegin(19).withDailyEnd(6));
+    TariffSpecification shifted =
+      spec(new Rate().withValue(-0.1).withDailyBegin(8).withDailyEnd(18),
+           new Rate().withValue(-0.2).withDailyBegin(19).withDailyEnd(7));
+    assertNotEquals(TariffProfileMemo.signature(day),
+                    TariffProfileMemo.signature(shifted));
+  }
+
+  @Test
+  public void testPeriodicPayment ()
+  {
+    TariffSpecification plain = spec(new Rate().withValue(-0.1));
+    TariffSpecification periodic =
+      spec(new Rate().withValue(-0.1)).withPeriodicPayment(-1.0);
+    assertNotEquals(TariffProfileMemo.signature(plain),
+                    TariffProfileMemo.signature(periodic));
+  }
+
+  @Test
+  public void testVariableRate ()
+  {
+    TariffSpecification variable =
+      spec(new Rate().withFixed(false).withMinValue(-0.05)
+              .withMaxValue(-0.3).withExpectedMean(-0.1));
+    assertNull(TariffProfileMemo.signature(variable));
+    memo.get(variable, start, this::profile);
+    memo.get(variable, start, this::profile);
+    assertEquals(2, computed);
+    assertEquals(0, memo.size());
+  }
+
+  @Test
+  public void testDayRollover ()
+  {
+    TariffSpecification tariff = spec(new Rate().withValue(-0.1));
+    memo.get(tariff, start, this::profile);
+    memo.get(tariff, start, this::profile);
+    assertEquals(1, computed);
+    Instant next = start.plusMillis(TimeService.DAY);
+    assertEquals(2.0, memo.get(tariff, next, this::profile)[0], 1e-6);
+    assertEquals(1, memo.size());
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2026 by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.powertac.customer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.BitSet;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author agent
+ */
+public class TemperatureTriggerIndexTest
+{
+  private TemperatureTriggerIndex index;
+
+  @BeforeEach
+  public void setUp ()
+  {
+    index = new TemperatureTriggerIndex();
+    index.add(0, 10.0, 25.0);
+    index.add(1, 15.0, 20.0);
+    index.add(2, 5.0, 30.0);
+    index.add(2, 18.0, 22.0);
+  }
+
+  private BitSet bits (int... owners)
+  {
+    BitSet result = new BitSet();
+    for (int owner: owners)
+      result.set(owner);
+    return result;
+  }
+
+  @Test
+  public void testEmpty ()
+  {
+    TemperatureTriggerIndex empty = new TemperatureTriggerIndex();
+    assertEquals(0, empty.size());
+    assertTrue(empty.affected(40.0).isEmpty());
+  }
+
+  @Test
+  public void testOutside ()
+  {
+    assertEquals(4, index.size());
+    assertEquals(bits(), index.outside(19.0));
+    assertEquals(bits(1), index.outside(21.0));
+    assertEquals(bits(1, 2), index.outside(23.0));
+    assertEquals(bits(0, 1, 2), index.outside(26.0));
+    assertEquals(bits(0, 1, 2), index.outside(4.0));
+    assertEquals(bits(1, 2), index.outside(12.0));
+  }
+
+  @Test
+  public void testBoundaries ()
+  {
+    // triggers are strict
+    assertEquals(bits(), index.outside(18.0));
+    assertEquals(bits(), index.outside(20.0));
+    assertEquals(bits(2), index.outside(17.0));
+  }
+
+  @Test
+  public void testAffected ()
+  {
+    assertEquals(bits(1, 2), index.affected(23.0));
+    // owners that were outside on the previous check are revisited once
+    assertEquals(bits(1, 2), index.affected(19.0));
+    assertEquals(bits(), index.affected(19.5));
+    assertEquals(bits(0, 1, 2), index.affected(26.0));
+  }
+
+  @Test
+  public void testAddAfterCheck ()
+  {
+    assertEquals(bits(), index.outside(19.0));
+    index.add(3, 19.5, 21.0);
+    assertEquals(bits(3), index.outside(19.0));
+  }
+}
@@ -45,6 +45,9 @@ public class BrokerProxyService implements BrokerProxy
   @Autowired
   private VisualizerProxy visualizerProxyService;
 
+  @Autowired
+  private TickMetricsService tickMetricsService;
+
   // Deferred messages during initialization
   boolean deferredBroadcast = false;
   ArrayList<Object> deferredMessages;
@@ -89,6 +92,8 @@ public class BrokerProxyService implements BrokerProxy
       return;
     }
     
+    tickMetricsService.countOutgoing(broker.getUsername());
+
     // route to local brokers
     if (broker.isLocal()) {
       broker.receiveMessage(messageObject);
@@ -117,6 +117,9 @@ public class CompetitionControlService
   @Autowired 
   private VisualizerProxyService visualizerProxyService;
 
+  @Autowired
+  private TickMetricsService tickMetricsService;
+
   // Server JMS Queue Name
   private String serverQueueName = "serverInput";
 
@@ -373,6 +376,7 @@ public class CompetitionControlService
                                              "game-setup");
 
     configService.configureMe(this);
+    tickMetricsService.init(getMetricsName());
 
     if (!bootstrapMode) {
       // Create the timeslots from the bootstrap period - they will be needed to 
@@ -817,11 +821,16 @@ public class CompetitionControlService
     // check queue status before sending new messages
     detectAndKillHangingQueues();
 
+    tickMetricsService.startTick(ts);
     for (int phase = 1; phase <= timeslotPhaseCount; phase++) {
       log.info("activate phase " + phase);
+      tickMetricsService.startPhase(phase);
       for (TimeslotPhaseProcessor fn : phaseRegistrations.get(phase - 1)) {
+        tickMetricsService.startProcessor();
         fn.activate(time, phase);
+        tickMetricsService.endProcessor(phase, fn);
       }
+      tickMetricsService.endPhase(phase);
     }
 
     // in brokerSync mode, this is where we count the active brokers
@@ -834,6 +843,7 @@ public class CompetitionControlService
       tournamentSchedulerService.heartbeat(ts, composeBrokerStats(), elapsed);
     }
     log.info("Elapsed time: " + elapsed);
+    tickMetricsService.endTick();
     if (--timeslotCount <= 0) {
       log.info("Stopping simulation");
       stop();
@@ -977,6 +987,7 @@ public class CompetitionControlService
       clock.waitUntilStop();
     }
     jmsManagementService.stop();
+    tickMetricsService.finish();
     
     //logService.stopLog(); -- see Issue #1138
   }
@@ -1209,6 +1220,13 @@ public class CompetitionControlService
     }
   }
 
+  // Names the metrics dump after the competition and session type
+  private String getMetricsName ()
+  {
+    String name = (null == competition) ? "powertac" : competition.getName();
+    return name + (bootstrapMode ? "-boot" : "-sim");
+  }
+
   // Test support
   List<String> getBrokerNames()
   {
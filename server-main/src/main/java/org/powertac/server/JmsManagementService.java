@@ -5,6 +5,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.Executor;
 
 import jakarta.annotation.Resource;
@@ -293,11 +294,15 @@ public class JmsManagementService
     this.maxQueueDepth = maxQueueDepth;
   }
 
-  private boolean destinationLimitReached (Destination dst)
+  private long getDepth (Destination dst)
   {
     DestinationStatistics stats = dst.getDestinationStatistics();
-    long depth = stats.getEnqueues().getCount()
-                      - stats.getDequeues().getCount();
+    return stats.getEnqueues().getCount() - stats.getDequeues().getCount();
+  }
+
+  private boolean destinationLimitReached (Destination dst)
+  {
+    long depth = getDepth(dst);
     log.debug("destination " + dst.getName() + " - depth:" + depth);
     return depth > getMaxQueueDepth();
   }
@@ -330,6 +335,29 @@ public class JmsManagementService
     return badQueues;
   }
 
+  /**
+   * Returns the current depth of each destination, by name. The result is
+   * empty if the JMS provider is not running.
+   */
+  public Map<String, Long> getQueueDepths ()
+  {
+    Map<String, Long> result = new TreeMap<String, Long>();
+    BrokerService brokerService = getProvider();
+    if (brokerService == null) {
+      return result;
+    }
+    try {
+      for (Destination destination:
+           brokerService.getBroker().getDestinationMap().values()) {
+        result.put(destination.getName(), getDepth(destination));
+      }
+    }
+    catch (Exception e) {
+      log.error("Encounter exception while getting jms broker", e);
+    }
+    return result;
+  }
+
   private void deleteDestination (Broker broker,
                                   ActiveMQDestination amqDestination,
                                   Destination destination) throws Exception
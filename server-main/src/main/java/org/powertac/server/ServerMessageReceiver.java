@@ -35,6 +35,9 @@ public class ServerMessageReceiver implements MessageListener
   @Autowired
   private BrokerRepo brokerRepo;
 
+  @Autowired
+  private TickMetricsService tickMetricsService;
+
   private Pattern brokerRegex = Pattern.compile("<broker>([A-Za-z0-9_ ]+)</broker>");
   private Pattern idRegex = Pattern.compile(" id=\"([0-9]+)\"");
 
@@ -107,6 +110,7 @@ public class ServerMessageReceiver implements MessageListener
           log.debug("message id: " + idValue);
           int idPrefix = IdGenerator.extractPrefix(idValue);
           if (broker.getIdPrefix() == idPrefix) {
+            tickMetricsService.countIncoming(username);
             return message.substring(realMsg);
           }
         }
@@ -0,0 +1,566 @@
+/*
+ * Copyright (c) 2026 by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an
+ * "AS IS" BASIS,  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.powertac.server;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.powertac.common.config.ConfigurableValue;
+import org.powertac.common.interfaces.ServerConfiguration;
+import org.powertac.common.interfaces.TimeslotPhaseProcessor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Records where the time goes in each timeslot. The CompetitionControlService
+ * brackets each timeslot, each phase, and each TimeslotPhaseProcessor
+ * activation with calls to this service, which keeps latency histograms
+ * for each of them, along with the bytes allocated by each processor on
+ * the simulation thread. It also counts the messages sent to and received
+ * from each broker, and samples the depths of the JMS queues.
+ * <p>
+ * The metrics are available through JMX as
+ * <code>org.powertac.server:type=TickMetrics</code>. When the service is
+ * enabled they are also written to a dump file in the log directory every
+ * <code>dumpInterval</code> timeslots, as csv rows or json lines. It is
+ * disabled by default, so that a game only records timeslot latencies and
+ * message counts, and writes no dump file.</p>
+ *
+ * @author agent
+ */
+@Service
+public class TickMetricsService implements TickMetricsServiceMBean
+{
+  static private Logger log = LogManager.getLogger(TickMetricsService.class);
+
+  static final String OBJECT_NAME = "org.powertac.server:type=TickMetrics";
+
+  @Autowired
+  private ServerConfiguration serverPropertiesService;
+
+  @Autowired
+  private JmsManagementService jmsManagementService;
+
+  @ConfigurableValue(valueType = "Boolean",
+      description = "If true, record phase and processor timing in each timeslot, and write metrics dumps")
+  private boolean enabled = false;
+
+  @ConfigurableValue(valueType = "Integer",
+      description = "Timeslots between metrics dumps, 0 for no dump file")
+  private int dumpInterval = 24;
+
+  @ConfigurableValue(valueType = "String",
+      description = "Format of the metrics dump, csv or json")
+  private String dumpFormat = "csv";
+
+  // allocation counter for the current thread, null if not supported
+  private com.sun.management.ThreadMXBean allocationCounter = null;
+
+  // latency in usec and total allocation by timeslot, phase and processor
+  private LatencyHistogram tickLatency;
+  private Map<Integer, LatencyHistogram> phaseLatency;
+  private Map<String, LatencyHistogram> processorLatency;
+  private Map<String, Long> processorAllocation;
+
+  // broker messages are counted on JMS listener threads
+  private Map<String, AtomicLong> messagesOut =
+      new ConcurrentHashMap<String, AtomicLong>();
+  private Map<String, AtomicLong> messagesIn =
+      new ConcurrentHashMap<String, AtomicLong>();
+
+  // state of the timeslot in progress
+  private int timeslot = 0;
+  private int tickCount = 0;
+  private long lastTickMillis = 0;
+  private long tickStart = 0;
+  private long phaseStart = 0;
+  private long processorStart = 0;
+  private long allocationStart = 0;
+  private String slowestProcessor = null;
+  private long slowestMicros = 0;
+
+  private PrintWriter dumpFile = null;
+
+  public TickMetricsService ()
+  {
+    super();
+    reset();
+  }
+
+  /**
+   * Sets up the service for a new session, opening a dump file
+   * named for the session in the log directory.
+   */
+  public void init (String sessionName)
+  {
+    serverPropertiesService.configureMe(this);
+    reset();
+    messagesOut.clear();
+    messagesIn.clear();
+    if (null == allocationCounter) {
+      ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+      if (bean instanceof com.sun.management.ThreadMXBean counter
+          && counter.isThreadAllocatedMemorySupported()) {
+        counter.setThreadAllocatedMemoryEnabled(true);
+        allocationCounter = counter;
+      }
+      else {
+        log.info("Thread allocation counts not available");
+      }
+    }
+    registerMBean();
+    openDumpFile(sessionName);
+  }
+
+  /**
+   * Writes a final dump and closes the dump file.
+   */
+  public void finish ()
+  {
+    if (null != dumpFile) {
+      dump();
+      dumpFile.close();
+      dumpFile = null;
+    }
+  }
+
+  private synchronized void reset ()
+  {
+    tickLatency = new LatencyHistogram();
+    phaseLatency = new TreeMap<Integer, LatencyHistogram>();
+    processorLatency = new LinkedHashMap<String, LatencyHistogram>();
+    processorAllocation = new LinkedHashMap<String, Long>();
+    tickCount = 0;
+    lastTickMillis = 0;
+  }
+
+  // Replaces any instance left over from an earlier application context
+  private void registerMBean ()
+  {
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      ObjectName name = new ObjectName(OBJECT_NAME);
+      if (server.isRegistered(name)) {
+        server.unregisterMBean(name);
+      }
+      server.registerMBean(this, name);
+    }
+    catch (Exception e) {
+      log.warn("Could not register {}: {}", OBJECT_NAME, e.toString());
+    }
+  }
+
+  private void openDumpFile (String sessionName)
+  {
+    if (null != dumpFile) {
+      dumpFile.close();
+      dumpFile = null;
+    }
+    if (!enabled || dumpInterval <= 0) {
+      return;
+    }
+    String logDir = System.getProperty("logdir", "log");
+    File file = new File(logDir, sessionName + ".metrics."
+                                 + (isJson() ? "json" : "csv"));
+    try {
+      dumpFile = new PrintWriter(file);
+      if (!isJson()) {
+        dumpFile.println("timeslot,group,name,stat,value");
+      }
+    }
+    catch (FileNotFoundException fnf) {
+      log.error("Could not open metrics dump file {}", file.getPath());
+    }
+  }
+
+  private boolean isJson ()
+  {
+    return "json".equalsIgnoreCase(dumpFormat);
+  }
+
+  // ------------- timing, called on the simulation thread -------------
+  public void startTick (int timeslot)
+  {
+    this.timeslot = timeslot;
+    slowestProcessor = null;
+    slowestMicros = 0;
+    tickStart = System.nanoTime();
+  }
+
+  public void startPhase (int phase)
+  {
+    phaseStart = System.nanoTime();
+  }
+
+  public void startProcessor ()
+  {
+    if (!enabled) {
+      return;
+    }
+    allocationStart = getAllocatedBytes();
+    processorStart = System.nanoTime();
+  }
+
+  public synchronized void endProcessor (int phase,
+                                         TimeslotPhaseProcessor processor)
+  {
+    if (!enabled) {
+      return;
+    }
+    long micros = (System.nanoTime() - processorStart) / 1000;
+    long allocated = getAllocatedBytes() - allocationStart;
+    String name = phase + ":" + processor.getClass().getSimpleName();
+    processorLatency.computeIfAbsent(name, k -> new LatencyHistogram())
+        .record(micros);
+    processorAllocation.merge(name, allocated, Long::sum);
+    if (micros > slowestMicros) {
+      slowestMicros = micros;
+      slowestProcessor = name;
+    }
+  }
+
+  public synchronized void endPhase (int phase)
+  {
+    if (!enabled) {
+      return;
+    }
+    phaseLatency.computeIfAbsent(phase, k -> new LatencyHistogram())
+        .record((System.nanoTime() - phaseStart) / 1000);
+  }
+
+  public void endTick ()
+  {
+    long micros = (System.nanoTime() - tickStart) / 1000;
+    synchronized (this) {
+      tickLatency.record(micros);
+      tickCount += 1;
+      lastTickMillis = micros / 1000;
+    }
+    if (null != slowestProcessor) {
+      log.info("Slowest processor in ts {}: {} {} usec",
+               timeslot, slowestProcessor, slowestMicros);
+    }
+    if (null != dumpFile && 0 == tickCount % dumpInterval) {
+      dump();
+    }
+  }
+
+  private long getAllocatedBytes ()
+  {
+    if (null == allocationCounter) {
+      return 0;
+    }
+    return allocationCounter.getCurrentThreadAllocatedBytes();
+  }
+
+  // ------------- message counts, called from any thread -------------
+  public void countOutgoing (String brokerName)
+  {
+    messagesOut.computeIfAbsent(brokerName, k -> new AtomicLong())
+        .incrementAndGet();
+  }
+
+  public void countIncoming (String brokerName)
+  {
+    messagesIn.computeIfAbsent(brokerName, k -> new AtomicLong())
+        .incrementAndGet();
+  }
+
+  // ------------- MBean interface -------------
+  @Override
+  public synchronized int getTickCount ()
+  {
+    return tickCount;
+  }
+
+  @Override
+  public synchronized long getLastTickMillis ()
+  {
+    return lastTickMillis;
+  }
+
+  @Override
+  public synchronized String getTickLatency ()
+  {
+    return tickLatency.toString();
+  }
+
+  @Override
+  public synchronized String[] getPhaseLatencies ()
+  {
+    List<String> result = new ArrayList<String>();
+    for (Map.Entry<Integer, LatencyHistogram> entry : phaseLatency.entrySet()) {
+      result.add("phase " + entry.getKey() + ": " + entry.getValue());
+    }
+    return result.toArray(new String[result.size()]);
+  }
+
+  @Override
+  public synchronized String[] getProcessorLatencies ()
+  {
+    List<String> result = new ArrayList<String>();
+    for (Map.Entry<String, LatencyHistogram> entry
+        : processorLatency.entrySet()) {
+      LatencyHistogram hist = entry.getValue();
+      result.add(entry.getKey() + ": " + hist
+                 + " alloc=" + getMeanAllocation(entry.getKey()));
+    }
+    return result.toArray(new String[result.size()]);
+  }
+
+  @Override
+  public String[] getMessageCounts ()
+  {
+    List<String> result = new ArrayList<String>();
+    for (String broker : new TreeMap<String, AtomicLong>(messagesOut).keySet()) {
+      result.add(broker + ": out=" + messagesOut.get(broker).get()
+                 + " in=" + getCount(messagesIn, broker));
+    }
+    for (String broker : new TreeMap<String, AtomicLong>(messagesIn).keySet()) {
+      if (!messagesOut.containsKey(broker)) {
+        result.add(broker + ": out=0 in=" + messagesIn.get(broker).get());
+      }
+    }
+    return result.toArray(new String[result.size()]);
+  }
+
+  @Override
+  public String[] getQueueDepths ()
+  {
+    List<String> result = new ArrayList<String>();
+    for (Map.Entry<String, Long> entry
+        : jmsManagementService.getQueueDepths().entrySet()) {
+      result.add(entry.getKey() + ": " + entry.getValue());
+    }
+    return result.toArray(new String[result.size()]);
+  }
+
+  @Override
+  public void dump ()
+  {
+    if (null == dumpFile) {
+      log.warn("No metrics dump file");
+      return;
+    }
+    List<Object[]> rows = snapshot();
+    if (isJson()) {
+      StringBuilder buf = new StringBuilder();
+      buf.append("{\"timeslot\":").append(timeslot).append(",\"metrics\":[");
+      String delimiter = "";
+      for (Object[] row : rows) {
+        buf.append(delimiter)
+            .append("{\"group\":").append(quote(row[0]))
+            .append(",\"name\":").append(quote(row[1]))
+            .append(",\"stat\":").append(quote(row[2]))
+            .append(",\"value\":").append(row[3]).append("}");
+        delimiter = ",";
+      }
+      buf.append("]}");
+      dumpFile.println(buf.toString());
+    }
+    else {
+      for (Object[] row : rows) {
+        dumpFile.println(timeslot + "," + row[0] + ",\"" + row[1] + "\","
+                         + row[2] + "," + row[3]);
+      }
+    }
+    dumpFile.flush();
+  }
+
+  // Returns (group, name, stat, value) rows for all current metrics
+  synchronized List<Object[]> snapshot ()
+  {
+    List<Object[]> rows = new ArrayList<Object[]>();
+    addRows(rows, "tick", "tick", tickLatency);
+    for (Map.Entry<Integer, LatencyHistogram> entry : phaseLatency.entrySet()) {
+      addRows(rows, "phase", entry.getKey().toString(), entry.getValue());
+    }
+    for (Map.Entry<String, LatencyHistogram> entry
+        : processorLatency.entrySet()) {
+      addRows(rows, "processor", entry.getKey(), entry.getValue());
+      rows.add(new Object[] {"processor", entry.getKey(), "allocBytes",
+                             getMeanAllocation(entry.getKey())});
+    }
+    for (Map.Entry<String, AtomicLong> entry
+        : new TreeMap<String, AtomicLong>(messagesOut).entrySet()) {
+      rows.add(new Object[] {"broker", entry.getKey(), "messagesOut",
+                             entry.getValue().get()});
+    }
+    for (Map.Entry<String, AtomicLong> entry
+        : new TreeMap<String, AtomicLong>(messagesIn).entrySet()) {
+      rows.add(new Object[] {"broker", entry.getKey(), "messagesIn",
+                             entry.getValue().get()});
+    }
+    for (Map.Entry<String, Long> entry
+        : jmsManagementService.getQueueDepths().entrySet()) {
+      rows.add(new Object[] {"queue", entry.getKey(), "depth",
+                             entry.getValue()});
+    }
+    return rows;
+  }
+
+  private void addRows (List<Object[]> rows, String group, String name,
+                        LatencyHistogram hist)
+  {
+    rows.add(new Object[] {group, name, "count", hist.getCount()});
+    rows.add(new Object[] {group, name, "meanMicros", hist.getMean()});
+    rows.add(new Object[] {group, name, "p50Micros", hist.getPercentile(50.0)});
+    rows.add(new Object[] {group, name, "p99Micros", hist.getPercentile(99.0)});
+    rows.add(new Object[] {group, name, "maxMicros", hist.getMax()});
+  }
+
+  // Mean bytes allocated per activation
+  private long getMeanAllocation (String processor)
+  {
+    long count = processorLatency.get(processor).getCount();
+    if (0 == count) {
+      return 0;
+    }
+    return processorAllocation.getOrDefault(processor, 0L) / count;
+  }
+
+  private long getCount (Map<String, AtomicLong> counts, String broker)
+  {
+    AtomicLong count = counts.get(broker);
+    return (null == count) ? 0 : count.get();
+  }
+
+  private String quote (Object value)
+  {
+    return "\"" + value.toString().replace("\\", "\\\\").replace("\"", "\\\"")
+           + "\"";
+  }
+
+  // test support
+  LatencyHistogram getProcessorHistogram (String name)
+  {
+    return processorLatency.get(name);
+  }
+
+  long getMessagesOut (String brokerName)
+  {
+    return getCount(messagesOut, brokerName);
+  }
+
+  long getMessagesIn (String brokerName)
+  {
+    return getCount(messagesIn, brokerName);
+  }
+
+  /**
+   * Histogram of non-negative values with bounded relative error. Values
+   * below 2^SUB_BITS are counted exactly; above that, each power-of-two
+   * range is split into 2^SUB_BITS equal buckets, so percentiles are
+   * reported within 1/8 of their true value in constant space.
+   */
+  static class LatencyHistogram
+  {
+    static final int SUB_BITS = 3;
+    static final int SUB_COUNT = 1 << SUB_BITS;
+
+    private long[] counts = new long[(64 - SUB_BITS) * SUB_COUNT];
+    private long count = 0;
+    private long total = 0;
+    private long max = 0;
+
+    void record (long value)
+    {
+      value = Math.max(0, value);
+      counts[indexOf(value)] += 1;
+      count += 1;
+      total += value;
+      max = Math.max(max, value);
+    }
+
+    long getCount ()
+    {
+      return count;
+    }
+
+    long getMax ()
+    {
+      return max;
+    }
+
+    long getMean ()
+    {
+      return (0 == count) ? 0 : total / count;
+    }
+
+    /**
+     * Returns the upper bound of the bucket holding the given percentile,
+     * limited to the largest recorded value.
+     */
+    long getPercentile (double percentile)
+    {
+      if (0 == count) {
+        return 0;
+      }
+      long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+      long seen = 0;
+      for (int index = 0; index < counts.length; index++) {
+        seen += counts[index];
+        if (seen >= rank) {
+          return Math.min(max, upperBound(index));
+        }
+      }
+      return max;
+    }
+
+    static int indexOf (long value)
+    {
+      if (value < SUB_COUNT) {
+        return (int) value;
+      }
+      int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+      return ((shift + 1) << SUB_BITS)
+          + (int) ((value >> shift) & (SUB_COUNT - 1));
+    }
+
+    static long upperBound (int index)
+    {
+      int shift = (index >> SUB_BITS) - 1;
+      if (shift <= 0) {
+        return index;
+      }
+      long lower = (long) (SUB_COUNT + (index & (SUB_COUNT - 1))) << shift;
+      return lower + (1L << shift) - 1;
+    }
+
+    @Override
+    public String toString ()
+    {
+      return "count=" + count + " mean=" + getMean()
+          + " p50=" + getPercentile(50.0) + " p99=" + getPercentile(99.0)
+          + " max=" + max;
+    }
+  }
+}
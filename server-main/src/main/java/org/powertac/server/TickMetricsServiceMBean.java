@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2026 by the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an
+ * "AS IS" BASIS,  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language
+ * governing permissions and limitations under the License.
+ */
+package org.powertac.server;
+
+/**
+ * JMX view of the per-timeslot processing metrics kept by
+ * TickMetricsService. Latencies are in microseconds; each summary line
+ * gives the count, mean, median, 99th percentile and maximum.
+ *
+ * @author agent
+ */
+public interface TickMetricsServiceMBean
+{
+  /** Number of timeslots recorded in the current session */
+  int getTickCount ();
+
+  /** Wall-clock duration of the most recent timeslot in msec */
+  long getLastTickMillis ();
+
+  /** Latency summary for the whole timeslot */
+  String getTickLatency ();
+
+  /** Latency summary for each phase */
+  String[] getPhaseLatencies ();
+
+  /** Latency and allocation summary for each phase processor */
+  String[] getProcessorLatencies ();
+
+  /** Messages sent to and received from each broker */
+  String[] getMessageCounts ();
+
+  /** Current depth of each JMS destination */
+  String[] getQueueDepths ();
+
+  /** Writes the current metrics to the dump file */
+  void dump ();
+}
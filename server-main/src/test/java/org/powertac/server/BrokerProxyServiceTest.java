@@ -33,6 +33,7 @@ public class BrokerProxyServiceTest
   private VisualizerProxy visualizer;
   private JmsTemplate template;
   private XMLMessageConverter converter;
+  private TickMetricsService tickMetrics;
 
   @BeforeEach
   public void setUp() throws Exception 
@@ -52,6 +53,8 @@ public class BrokerProxyServiceTest
     ReflectionTestUtils.setField(brokerProxy, "visualizerProxyService", visualizer);    
     converter = mock(XMLMessageConverter.class);
     ReflectionTestUtils.setField(brokerProxy, "converter", converter);     
+    tickMetrics = new TickMetricsService();
+    ReflectionTestUtils.setField(brokerProxy, "tickMetricsService", tickMetrics);
   }
 
   @AfterEach
@@ -103,6 +106,8 @@ public class BrokerProxyServiceTest
     brokerProxy.sendMessages(stdBroker, messageList);
     verify(template, times(messageList.size())).send(any(String.class),
                                                      any(MessageCreator.class));
+    assertEquals(messageList.size(), tickMetrics.getMessagesOut("standard_broker"),
+                 "only sent messages counted");
   }
   
   @Test
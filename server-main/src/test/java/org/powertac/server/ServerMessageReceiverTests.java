@@ -31,6 +31,8 @@ public class ServerMessageReceiverTests
     
     ReflectionTestUtils.setField(receiver, "brokerProxy", brokerProxy);
     ReflectionTestUtils.setField(receiver, "converter", converter);
+    ReflectionTestUtils.setField(receiver, "tickMetricsService",
+                                 mock(TickMetricsService.class));
   }
 
   @Test
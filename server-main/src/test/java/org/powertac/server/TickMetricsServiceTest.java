@@ -0,0 +1,225 @@
+package org.powertac.server;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.powertac.common.interfaces.ServerConfiguration;
+import org.powertac.common.interfaces.TimeslotPhaseProcessor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class TickMetricsServiceTest
+{
+  private TickMetricsService metrics;
+  private JmsManagementService jms;
+  private String savedLogDir;
+
+  @TempDir
+  Path logDir;
+
+  @BeforeEach
+  public void setUp ()
+  {
+    savedLogDir = System.getProperty("logdir");
+    System.setProperty("logdir", logDir.toString());
+    metrics = new TickMetricsService();
+    jms = mock(JmsManagementService.class);
+    Map<String, Long> depths = new TreeMap<String, Long>();
+    depths.put("serverInput", 3L);
+    when(jms.getQueueDepths()).thenReturn(depths);
+    ReflectionTestUtils.setField(metrics, "jmsManagementService", jms);
+    ReflectionTestUtils.setField(metrics, "serverPropertiesService",
+                                 mock(ServerConfiguration.class));
+  }
+
+  @AfterEach
+  public void tearDown ()
+  {
+    metrics.finish();
+    if (null == savedLogDir) {
+      System.getProperties().remove("logdir");
+    }
+    else {
+      System.setProperty("logdir", savedLogDir);
+    }
+  }
+
+  @Test
+  public void histogramBuckets ()
+  {
+    // buckets are contiguous and bounded by 1/8 relative error
+    for (long value = 0; value < 100000; value++) {
+      int index = TickMetricsService.LatencyHistogram.indexOf(value);
+      long upper = TickMetricsService.LatencyHistogram.upperBound(index);
+      assertTrue(upper >= value, "upper bound above " + value);
+      assertTrue(upper - value <= value / 8, "bounded error at " + value);
+    }
+    int last = TickMetricsService.LatencyHistogram.indexOf(Long.MAX_VALUE);
+    assertEquals(Long.MAX_VALUE,
+                 TickMetricsService.LatencyHistogram.upperBound(last));
+  }
+
+  @Test
+  public void histogramPercentiles ()
+  {
+    TickMetricsService.LatencyHistogram hist =
+        new TickMetricsService.LatencyHistogram();
+    assertEquals(0, hist.getPercentile(99.0), "empty");
+    for (long value = 1; value <= 1000; value++) {
+      hist.record(value);
+    }
+    assertEquals(1000, hist.getCount());
+    assertEquals(1000, hist.getMax());
+    assertEquals(500, hist.getMean());
+    long p50 = hist.getPercentile(50.0);
+    assertTrue(p50 >= 500 && p50 <= 500 + 500 / 8, "median " + p50);
+    long p99 = hist.getPercentile(99.0);
+    assertTrue(p99 >= 990 && p99 <= 1000, "p99 " + p99);
+    assertEquals(1000, hist.getPercentile(100.0), "limited to max");
+  }
+
+  @Test
+  public void recordTick () throws Exception
+  {
+    ReflectionTestUtils.setField(metrics, "enabled", true);
+    metrics.init("test");
+    TimeslotPhaseProcessor fast = new Processor(0);
+    TimeslotPhaseProcessor slow = new Processor(5);
+    for (int ts = 0; ts < 3; ts++) {
+      metrics.startTick(ts);
+      metrics.startPhase(1);
+      metrics.startProcessor();
+      fast.activate(Instant.now(), 1);
+      metrics.endProcessor(1, fast);
+      metrics.endPhase(1);
+      metrics.startPhase(2);
+      metrics.startProcessor();
+      slow.activate(Instant.now(), 2);
+      metrics.endProcessor(2, slow);
+      metrics.endPhase(2);
+      metrics.endTick();
+    }
+    assertEquals(3, metrics.getTickCount());
+    assertEquals(2, metrics.getPhaseLatencies().length);
+    assertEquals(2, metrics.getProcessorLatencies().length);
+    TickMetricsService.LatencyHistogram hist =
+        metrics.getProcessorHistogram("2:Processor");
+    assertEquals(3, hist.getCount());
+    assertTrue(hist.getMax() >= 5000, "slow processor takes 5 msec");
+    assertEquals(1, metrics.getQueueDepths().length);
+    assertEquals("serverInput: 3", metrics.getQueueDepths()[0]);
+  }
+
+  // by default only timeslot latencies and message counts are kept
+  @Test
+  public void disabledByDefault ()
+  {
+    metrics.init("test");
+    TimeslotPhaseProcessor fast = new Processor(0);
+    for (int ts = 0; ts < 30; ts++) {
+      metrics.startTick(ts);
+      metrics.startPhase(1);
+      metrics.startProcessor();
+      fast.activate(Instant.now(), 1);
+      metrics.endProcessor(1, fast);
+      metrics.endPhase(1);
+      metrics.endTick();
+    }
+    metrics.finish();
+    assertEquals(30, metrics.getTickCount());
+    assertEquals(0, metrics.getPhaseLatencies().length);
+    assertEquals(0, metrics.getProcessorLatencies().length);
+    assertEquals(0, logDir.toFile().list().length, "no dump file");
+  }
+
+  @Test
+  public void messageCounts ()
+  {
+    metrics.countOutgoing("Sally");
+    metrics.countOutgoing("Sally");
+    metrics.countIncoming("Sally");
+    metrics.countIncoming("Jenny");
+    assertEquals(2, metrics.getMessagesOut("Sally"));
+    assertEquals(1, metrics.getMessagesIn("Sally"));
+    assertEquals(0, metrics.getMessagesOut("Jenny"));
+    String[] counts = metrics.getMessageCounts();
+    assertEquals(2, counts.length);
+    assertEquals("Sally: out=2 in=1", counts[0]);
+    assertEquals("Jenny: out=0 in=1", counts[1]);
+
+    // counts start over in a new session
+    metrics.init("test");
+    assertEquals(0, metrics.getMessagesOut("Sally"));
+  }
+
+  @Test
+  public void csvDump () throws Exception
+  {
+    ReflectionTestUtils.setField(metrics, "enabled", true);
+    ReflectionTestUtils.setField(metrics, "dumpInterval", 2);
+    metrics.init("test");
+    metrics.countOutgoing("Sally");
+    for (int ts = 0; ts < 4; ts++) {
+      metrics.startTick(ts);
+      metrics.endTick();
+    }
+    List<String> lines =
+        Files.readAllLines(new File(logDir.toFile(), "test.metrics.csv").toPath());
+    assertEquals("timeslot,group,name,stat,value", lines.get(0));
+    // tick stats, one broker count and one queue depth in each of two dumps
+    assertEquals(1 + 2 * 7, lines.size());
+    assertEquals("1,tick,\"tick\",count,2", lines.get(1));
+    assertTrue(lines.contains("3,broker,\"Sally\",messagesOut,1"));
+    assertTrue(lines.contains("3,queue,\"serverInput\",depth,3"));
+  }
+
+  @Test
+  public void jsonDump () throws Exception
+  {
+    ReflectionTestUtils.setField(metrics, "enabled", true);
+    ReflectionTestUtils.setField(metrics, "dumpFormat", "json");
+    metrics.init("test");
+    metrics.startTick(5);
+    metrics.endTick();
+    metrics.finish();
+    List<String> lines =
+        Files.readAllLines(new File(logDir.toFile(), "test.metrics.json").toPath());
+    assertEquals(1, lines.size());
+    assertTrue(lines.get(0).startsWith("{\"timeslot\":5,\"metrics\":[{\"group\":\"tick\""));
+    assertTrue(lines.get(0).contains("{\"group\":\"queue\",\"name\":\"serverInput\",\"stat\":\"depth\",\"value\":3}"));
+  }
+
+  // Processor that sleeps for a fixed time
+  class Processor extends TimeslotPhaseProcessor
+  {
+    long millis;
+
+    Processor (long millis)
+    {
+      super();
+      this.millis = millis;
+    }
+
+    @Override
+    public void activate (Instant time, int phaseNumber)
+    {
+      try {
+        Thread.sleep(millis);
+      }
+      catch (InterruptedException ie) {
+        fail("interrupted");
+      }
+    }
+  }
+}